@@ -1,7 +0,0 @@
-/**
- * 缓存替换策略枚举
- */
-public enum ReplacementPolicy {
-    LRU,  // 最近最少使用
-    FIFO  // 先进先出
-}
\ No newline at end of file
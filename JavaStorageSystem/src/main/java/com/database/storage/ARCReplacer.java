@@ -0,0 +1,177 @@
+package com.database.storage;
+
+import java.util.*;
+
+/**
+ * ARC替换器（Adaptive Replacement Cache）
+ *
+ * T1保存只访问过一次的驻留页面，T2保存至少访问过两次的驻留页面；
+ * B1、B2是分别从T1、T2淘汰的页面ID（幽灵列表）。
+ * 在B1中再次命中说明T1太小，在B2中命中说明T2太小，目标大小p据此自适应调整。
+ * 淘汰时由缓冲池先调用evict再装入新页面，因此按T1当前大小与p的比较选择淘汰列表。
+ */
+public class ARCReplacer implements Replacer {
+    private static final byte LIST_NONE = 0;
+    private static final byte LIST_T1 = 1;
+    private static final byte LIST_T2 = 2;
+
+    private final int capacity;
+    private final int[] framePage; // 帧中页面的ID
+    private final byte[] list; // 帧所属的列表
+    private final boolean[] evictable;
+    private final FrameList t1; // T1中可淘汰的帧（LRU）
+    private final FrameList t2; // T2中可淘汰的帧（LRU）
+    private final LinkedHashSet<Integer> b1; // T1的幽灵列表
+    private final LinkedHashSet<Integer> b2; // T2的幽灵列表
+    private int t1Size; // T1中驻留的帧数（含被pin住的帧）
+    private int t2Size; // T2中驻留的帧数（含被pin住的帧）
+    private int target; // T1的目标大小p
+    private int evictableCount;
+
+    public ARCReplacer(int poolSize) {
+        this.capacity = poolSize;
+        this.framePage = new int[poolSize];
+        this.list = new byte[poolSize];
+        this.evictable = new boolean[poolSize];
+        this.t1 = new FrameList(poolSize);
+        this.t2 = new FrameList(poolSize);
+        this.b1 = new LinkedHashSet<>();
+        this.b2 = new LinkedHashSet<>();
+        Arrays.fill(framePage, Page.INVALID_PAGE_ID);
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        if (list[frameIndex] != LIST_NONE && framePage[frameIndex] == pageId) {
+            // 命中：移到T2的最近使用端
+            if (list[frameIndex] == LIST_T1) {
+                t1Size--;
+                t2Size++;
+                list[frameIndex] = LIST_T2;
+                if (t1.remove(frameIndex)) {
+                    t2.addLast(frameIndex);
+                }
+            } else if (t2.contains(frameIndex)) {
+                t2.moveToLast(frameIndex);
+            }
+            return;
+        }
+
+        clear(frameIndex);
+        framePage[frameIndex] = pageId;
+        if (b1.contains(pageId)) {
+            // B1命中：增大T1的目标大小
+            int delta = b1.size() >= b2.size() ? 1 : b2.size() / b1.size();
+            target = Math.min(capacity, target + delta);
+            b1.remove(pageId);
+            list[frameIndex] = LIST_T2;
+            t2Size++;
+        } else if (b2.contains(pageId)) {
+            // B2命中：减小T1的目标大小
+            int delta = b2.size() >= b1.size() ? 1 : b1.size() / b2.size();
+            target = Math.max(0, target - delta);
+            b2.remove(pageId);
+            list[frameIndex] = LIST_T2;
+            t2Size++;
+        } else {
+            list[frameIndex] = LIST_T1;
+            t1Size++;
+        }
+        trimGhosts();
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean value) {
+        if (list[frameIndex] == LIST_NONE || evictable[frameIndex] == value) {
+            return;
+        }
+        evictable[frameIndex] = value;
+        FrameList frames = list[frameIndex] == LIST_T1 ? t1 : t2;
+        if (value) {
+            evictableCount++;
+            frames.addLast(frameIndex);
+        } else {
+            evictableCount--;
+            frames.remove(frameIndex);
+        }
+    }
+
+    @Override
+    public int evict() {
+        int frame;
+        if (t1Size > 0 && t1Size >= Math.max(1, target)) {
+            frame = t1.removeFirst();
+            if (frame == -1) {
+                frame = t2.removeFirst();
+            }
+        } else {
+            frame = t2.removeFirst();
+            if (frame == -1) {
+                frame = t1.removeFirst();
+            }
+        }
+        if (frame == -1) {
+            return -1;
+        }
+
+        if (list[frame] == LIST_T1) {
+            b1.add(framePage[frame]);
+        } else {
+            b2.add(framePage[frame]);
+        }
+        clear(frame);
+        trimGhosts();
+        return frame;
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        clear(frameIndex);
+    }
+
+    @Override
+    public int size() {
+        return evictableCount;
+    }
+
+    /**
+     * 当前T1的目标大小
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * 限制幽灵列表大小：|T1|+|B1| <= c，|T1|+|T2|+|B1|+|B2| <= 2c
+     */
+    private void trimGhosts() {
+        while (t1Size + b1.size() > capacity && !b1.isEmpty()) {
+            removeEldest(b1);
+        }
+        while (t1Size + t2Size + b1.size() + b2.size() > 2 * capacity && !b2.isEmpty()) {
+            removeEldest(b2);
+        }
+    }
+
+    private static void removeEldest(LinkedHashSet<Integer> ghosts) {
+        Iterator<Integer> it = ghosts.iterator();
+        it.next();
+        it.remove();
+    }
+
+    private void clear(int frame) {
+        t1.remove(frame);
+        t2.remove(frame);
+        if (evictable[frame]) {
+            evictable[frame] = false;
+            evictableCount--;
+        }
+        if (list[frame] == LIST_T1) {
+            t1Size--;
+        } else if (list[frame] == LIST_T2) {
+            t2Size--;
+        }
+        list[frame] = LIST_NONE;
+        framePage[frame] = Page.INVALID_PAGE_ID;
+    }
+}
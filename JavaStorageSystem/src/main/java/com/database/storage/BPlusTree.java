@@ -0,0 +1,1156 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * B+树索引实现
+ *
+ * 索引项按(键, 记录ID)排序：唯一索引中同一个键只能出现一次，非唯一索引允许
+ * 同一个键对应多条记录，其叶子按倒排列表格式保存（每个键一次，后跟差值编码的有序记录ID），
+ * 记录很多的键延续到后面的叶子中。页面0是元数据页（魔数、根页号、索引项数量），
+ * 节点按字节大小分裂，单个节点总能放进一个页面。
+ * 删除采用惰性方式：不合并节点，变空的叶子仍留在叶子链表中。
+ *
+ * 并发控制采用闩耦合（latch crabbing），闩就是页面帧上的读写闩：
+ * 查找从根向下先锁住子节点再释放父节点，叶子之间从左向右逐个交接，只会短暂等待正在修改同一页面的写者；
+ * 插入先乐观下降（内部节点加共享闩，只对叶子加排他闩），叶子放得下就直接写入；
+ * 需要分裂时重新从根用排他闩下降，遇到插入后不会分裂的"安全"节点就释放它的全部祖先。
+ * 根页号由rootLatch保护，只有可能替换根的悲观插入和批量加载会持有它的写锁。
+ * 所有闩都按自上而下、自左向右的顺序获取，因此不会死锁。
+ *
+ * 解码后的节点挂在页面帧上（{@link Page#setAttachment}），再次访问同一页面时直接使用，
+ * 帧被淘汰时随之丢弃。持有共享闩的线程只读这些节点；持有排他闩的写者可以就地修改，
+ * 但必须把修改写回页面（写回后重新挂上），放弃修改时要摘掉缓存的节点。
+ */
+public class BPlusTree implements Index {
+    private final PageStore pageStore;
+    private final String indexName;
+    private final int maxKeys;
+    private final Supplier<BPlusTreeKey> keyFactory; // 反序列化节点时创建键对象
+    private final boolean unique; // 是否唯一索引
+    private final ReentrantReadWriteLock rootLatch = new ReentrantReadWriteLock(); // 保护根页号
+    private volatile int rootPageId;
+    private final AtomicLong entryCount = new AtomicLong(); // 索引项数量
+    private final LongAdder nodeDecodes = new LongAdder(); // 从页面字节解码节点的次数
+
+    // 常量
+    private static final int DEFAULT_MAX_KEYS = 10; // 默认最大键值数量
+    private static final int META_PAGE_ID = 0; // 元数据页
+    private static final int META_MAGIC = 0x42504C54; // "BPLT"
+    public static final int MAX_KEY_SIZE = 500; // 键序列化后的最大字节数，悲观插入据此判断内部节点是否安全
+
+    /**
+     * 乐观插入的结果
+     */
+    private enum InsertResult { INSERTED, REJECTED, NEEDS_SPLIT }
+
+    public BPlusTree(StorageEngine storageEngine, String indexName) {
+        this(storageEngine, indexName, DEFAULT_MAX_KEYS);
+    }
+
+    public BPlusTree(StorageEngine storageEngine, String indexName, int maxKeys) {
+        this(storageEngine, indexName, maxKeys, IntegerKey::new);
+    }
+
+    public BPlusTree(StorageEngine storageEngine, String indexName, int maxKeys, Supplier<BPlusTreeKey> keyFactory) {
+        this(storageEngine.getBufferPoolManager(), indexName, keyFactory, true, maxKeys);
+    }
+
+    /**
+     * 在独立的页面存储上打开（或创建）索引，节点只按页面字节数分裂
+     */
+    public BPlusTree(PageStore pageStore, String indexName, Supplier<BPlusTreeKey> keyFactory, boolean unique) {
+        this(pageStore, indexName, keyFactory, unique, Integer.MAX_VALUE);
+    }
+
+    public BPlusTree(PageStore pageStore, String indexName, Supplier<BPlusTreeKey> keyFactory,
+                     boolean unique, int maxKeys) {
+        this.pageStore = pageStore;
+        this.indexName = indexName;
+        this.keyFactory = keyFactory;
+        this.unique = unique;
+        this.maxKeys = maxKeys;
+        this.rootPageId = -1;
+
+        // 从元数据页加载根页面ID
+        loadMeta();
+    }
+
+    /**
+     * 插入键值对
+     */
+    public boolean insert(BPlusTreeKey key, int recordPageId) {
+        return insertEntry(key, recordPageId);
+    }
+
+    /**
+     * 插入索引项；唯一索引中键已存在、或完全相同的索引项已存在时返回false
+     */
+    public boolean insertEntry(BPlusTreeKey key, long recordId) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (key.getSize() > MAX_KEY_SIZE) {
+            throw new IllegalArgumentException("Key too large for index " + indexName + ": " + key.getSize() + " bytes");
+        }
+
+        long probe = unique ? Long.MIN_VALUE : recordId;
+        InsertResult result = insertOptimistic(key, recordId, probe);
+        boolean inserted = result == InsertResult.NEEDS_SPLIT
+                ? insertPessimistic(key, recordId, probe)
+                : result == InsertResult.INSERTED;
+        if (inserted) {
+            updateMeta(1);
+        }
+        return inserted;
+    }
+
+    /**
+     * 自底向上批量构建空索引，不经过逐条插入的查找和分裂
+     *
+     * 索引项必须按(键, 记录ID)严格升序给出（唯一索引中键也不能重复）。叶子依次填充到
+     * fillFactor比例的页面容量后写出并链接，每写完一个节点就把它的最小索引项作为分隔项
+     * 交给上一层正在填充的内部节点，页面基本按顺序分配和写入。
+     * 未排序的数据先用 {@link BPlusTreeBulkLoader} 排序。
+     *
+     * @param fillFactor 节点填充比例，取值(0, 1]，留出的空间用于之后的插入
+     * @return 写入的索引项数量
+     */
+    public long bulkLoad(Iterator<Map.Entry<BPlusTreeKey, Long>> entries, double fillFactor) {
+        if (!(fillFactor > 0 && fillFactor <= 1)) {
+            throw new IllegalArgumentException("Fill factor must be in (0, 1]: " + fillFactor);
+        }
+        rootLatch.writeLock().lock(); // 建树期间其他线程不能访问索引
+        try {
+            if (rootPageId != -1 || entryCount.get() != 0) {
+                throw new IllegalStateException("Bulk load requires an empty index: " + indexName);
+            }
+            return bulkLoadEntries(entries, fillFactor);
+        } finally {
+            rootLatch.writeLock().unlock();
+        }
+    }
+
+    private long bulkLoadEntries(Iterator<Map.Entry<BPlusTreeKey, Long>> entries, double fillFactor) {
+
+        int byteLimit = (int) (Page.PAGE_SIZE * fillFactor);
+        int keyLimit = maxKeys == Integer.MAX_VALUE ? maxKeys : Math.max(1, (int) (maxKeys * fillFactor));
+        List<BulkLevel> levels = new ArrayList<>(); // levels.get(0)是叶子的父节点层
+
+        BPlusTreeLeafNode leaf = null;
+        int leafSize = 0;
+        BPlusTreeKey leafLowKey = null; // 当前叶子与左兄弟之间的分隔项
+        long leafLowValue = 0;
+        BPlusTreeKey prevKey = null;
+        long prevValue = 0;
+        long count = 0;
+        while (entries.hasNext()) {
+            Map.Entry<BPlusTreeKey, Long> entry = entries.next();
+            BPlusTreeKey key = entry.getKey();
+            long value = entry.getValue();
+            if (key == null || key.getSize() > MAX_KEY_SIZE) {
+                throw new IllegalArgumentException("Invalid bulk load key: " + key);
+            }
+            if (prevKey != null) {
+                int cmp = prevKey.compareTo(key);
+                if (cmp > 0 || (cmp == 0 && (unique || prevValue >= value))) {
+                    throw new IllegalArgumentException("Bulk load entries out of order or duplicated at key " + key);
+                }
+            }
+
+            if (leaf == null) {
+                leaf = newLeafNode(allocateBulkPage());
+                leafSize = BPlusTreeNode.HEADER_SIZE + 2 * BPlusTreeNode.PAGE_ID_SIZE;
+                leafLowKey = key;
+                leafLowValue = separatorValue(key, key, value);
+            } else if (leafSize + leaf.appendedSize(key, value) > byteLimit || leaf.getKeyCount() >= keyLimit) {
+                // 当前叶子已满：先分配右兄弟以便写出next指针
+                BPlusTreeLeafNode next = newLeafNode(allocateBulkPage());
+                next.setPrevLeafPageId(leaf.getPageId());
+                leaf.setNextLeafPageId(next.getPageId());
+                saveNode(leaf);
+                addToBulkLevel(levels, 0, leafLowKey, leafLowValue, leaf.getPageId(), byteLimit, keyLimit);
+                leaf = next;
+                leafSize = BPlusTreeNode.HEADER_SIZE + 2 * BPlusTreeNode.PAGE_ID_SIZE;
+                leafLowKey = key.shortestSeparator(prevKey);
+                leafLowValue = separatorValue(leafLowKey, key, value);
+            }
+
+            leafSize += leaf.appendedSize(key, value);
+            leaf.addEntry(key, value);
+            prevKey = key;
+            prevValue = value;
+            count++;
+        }
+
+        if (leaf == null) {
+            return 0; // 没有索引项，保持空树
+        }
+        saveNode(leaf);
+        if (levels.isEmpty()) {
+            rootPageId = leaf.getPageId();
+        } else {
+            // 自下而上写出每层最后一个节点，最高层的节点就是根
+            addToBulkLevel(levels, 0, leafLowKey, leafLowValue, leaf.getPageId(), byteLimit, keyLimit);
+            for (int level = 0; level < levels.size(); level++) {
+                BulkLevel current = levels.get(level);
+                saveNode(current.node);
+                if (level == levels.size() - 1) {
+                    rootPageId = current.node.getPageId();
+                } else {
+                    addToBulkLevel(levels, level + 1, current.lowKey, current.lowValue,
+                            current.node.getPageId(), byteLimit, keyLimit);
+                }
+            }
+        }
+
+        entryCount.set(count);
+        saveMeta();
+        return count;
+    }
+
+    /**
+     * 删除键值（删除该键的第一个索引项）
+     */
+    public boolean delete(BPlusTreeKey key) {
+        return remove(key, 0, true);
+    }
+
+    /**
+     * 删除一个索引项
+     */
+    public boolean deleteEntry(BPlusTreeKey key, long recordId) {
+        return remove(key, recordId, false);
+    }
+
+    /**
+     * 查找键值对应的记录页面ID
+     */
+    public int search(BPlusTreeKey key) {
+        long[] result = {-1};
+        scanLeaves(key, key, (entryKey, recordId) -> {
+            result[0] = recordId;
+            return false;
+        });
+        return (int) result[0];
+    }
+
+    /**
+     * 查找键值对应的全部记录ID
+     */
+    public List<Long> searchAll(BPlusTreeKey key) {
+        List<Long> result = new ArrayList<>();
+        if (key != null) {
+            scanLeaves(key, key, (entryKey, recordId) -> result.add(recordId));
+        }
+        return result;
+    }
+
+    /**
+     * 范围查询，返回键在[startKey, endKey]内的全部记录ID（按键顺序）
+     * startKey或endKey为null表示该侧不设边界
+     */
+    public List<Long> searchRange(BPlusTreeKey startKey, BPlusTreeKey endKey) {
+        List<Long> result = new ArrayList<>();
+        scanLeaves(startKey, endKey, (entryKey, recordId) -> result.add(recordId));
+        return result;
+    }
+
+    /**
+     * 范围查询
+     */
+    public List<Integer> rangeSearch(BPlusTreeKey startKey, BPlusTreeKey endKey) {
+        List<Integer> result = new ArrayList<>();
+        if (startKey == null || endKey == null) {
+            return result;
+        }
+        for (long recordId : searchRange(startKey, endKey)) {
+            result.add((int) recordId);
+        }
+        return result;
+    }
+
+    /**
+     * 打开键在[startKey, endKey]内的游标，按(键, 记录ID)顺序逐个返回索引项，descending为true时逆序
+     * startKey或endKey为null表示该侧不设边界。游标在两次读取之间不持有闩和pin，
+     * 只在取下一个叶子时短暂pin住它并复制其中的索引项，调用方可以随时停止而无需关闭
+     */
+    public BPlusTreeCursor openCursor(BPlusTreeKey startKey, BPlusTreeKey endKey, boolean descending) {
+        return new BPlusTreeCursor(this, startKey, endKey, descending);
+    }
+
+    /**
+     * 按顺序遍历全部索引项；遍历期间持有当前叶子的共享闩，visitor不能修改本索引
+     */
+    public void scanEntries(BiConsumer<BPlusTreeKey, Long> visitor) {
+        scanLeaves(null, null, (key, recordId) -> {
+            visitor.accept(key, recordId);
+            return true;
+        });
+    }
+
+    /**
+     * 获取所有键值
+     */
+    public List<BPlusTreeKey> getAllKeys() {
+        List<BPlusTreeKey> result = new ArrayList<>();
+        scanEntries((key, recordId) -> result.add(key));
+        return result;
+    }
+
+    /**
+     * 获取树的高度
+     */
+    public int getHeight() {
+        if (rootPageId == -1) {
+            return 0;
+        }
+
+        int height = 1;
+        int currentPageId = rootPageId; // 只用于展示，不保证与并发的分裂一致
+
+        while (true) {
+            BPlusTreeNode node = loadNode(currentPageId);
+            if (node == null || node.isLeaf()) {
+                break;
+            }
+
+            BPlusTreeInternalNode internalNode = (BPlusTreeInternalNode) node;
+            currentPageId = internalNode.getChild(0);
+            height++;
+        }
+
+        return height;
+    }
+
+    /**
+     * 获取节点数量
+     */
+    public int getNodeCount() {
+        if (rootPageId == -1) {
+            return 0;
+        }
+
+        return countNodes(rootPageId);
+    }
+
+    /**
+     * 打印树结构
+     */
+    public void printTree() {
+        if (rootPageId == -1) {
+            System.out.println("Empty tree");
+            return;
+        }
+
+        System.out.println("B+ Tree Structure:");
+        printNode(rootPageId, 0);
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 创建根节点（调用方持有rootLatch的写锁）
+     */
+    private boolean createRoot(BPlusTreeKey key, long recordId) {
+        int newPageId = allocatePage();
+        if (newPageId == -1) {
+            return false;
+        }
+
+        BPlusTreeLeafNode root = newLeafNode(newPageId);
+        root.addEntry(key, recordId);
+        saveNode(root);
+
+        rootPageId = newPageId;
+        return true;
+    }
+
+    /**
+     * 用共享闩从根向下交接到(key, value)所在的叶子：先锁住子节点再释放父节点
+     * key为null时下降到最左边的叶子
+     *
+     * @param leafExclusive 叶子是否改持排他闩；换闩期间父节点仍持有共享闩，叶子不会被分裂
+     * @return 已pin并持有闩的叶子页面，树为空或读页失败时返回null
+     */
+    private Page descend(BPlusTreeKey key, long value, boolean leafExclusive) {
+        return descend(key, value, leafExclusive, false);
+    }
+
+    /**
+     * 同上；rightmost为true且key为null时下降到最右边的叶子，作为逆序游标的起点
+     */
+    Page descend(BPlusTreeKey key, long value, boolean leafExclusive, boolean rightmost) {
+        rootLatch.readLock().lock();
+        boolean rootHeld = true;
+        Page parent = null;
+        try {
+            int pageId = rootPageId;
+            if (pageId == -1) {
+                return null;
+            }
+            while (true) {
+                Page page = latchPage(pageId, false);
+                if (page == null) {
+                    return null;
+                }
+                if (BPlusTreeNode.isLeafPage(page)) {
+                    if (leafExclusive) {
+                        page.unlatchShared();
+                        page.latchExclusive();
+                    }
+                    return page;
+                }
+
+                BPlusTreeInternalNode node = (BPlusTreeInternalNode) readNode(pageId, page);
+                if (parent != null) {
+                    unlatchPage(parent, false, false);
+                } else {
+                    rootLatch.readLock().unlock();
+                    rootHeld = false;
+                }
+                parent = page;
+                if (key != null) {
+                    pageId = node.findChildPageId(key, value);
+                } else {
+                    pageId = node.getChild(rightmost ? node.getChildCount() - 1 : 0);
+                }
+            }
+        } finally {
+            if (parent != null) {
+                unlatchPage(parent, false, false);
+            }
+            if (rootHeld) {
+                rootLatch.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 从startKey开始沿叶子链表向右遍历键不超过endKey的索引项，visitor返回false时停止
+     * startKey或endKey为null表示该侧不设边界；同一时刻只持有一个叶子的共享闩（交接时两个）
+     */
+    private void scanLeaves(BPlusTreeKey startKey, BPlusTreeKey endKey, BiPredicate<BPlusTreeKey, Long> visitor) {
+        Page page = descend(startKey, Long.MIN_VALUE, false);
+        if (page == null) {
+            return;
+        }
+        try {
+            BPlusTreeLeafNode leaf = (BPlusTreeLeafNode) readNode(page.getPageId(), page);
+            int pos = startKey == null ? 0 : leaf.findEntryPosition(startKey, Long.MIN_VALUE);
+            // 同一个键的索引项可能跨越多个叶子
+            while (true) {
+                for (int i = pos; i < leaf.getKeyCount(); i++) {
+                    if (endKey != null && leaf.getKey(i).compareTo(endKey) > 0) {
+                        return; // 超出范围
+                    }
+                    if (!visitor.test(leaf.getKey(i), leaf.getRecord(i))) {
+                        return;
+                    }
+                }
+                int nextPageId = leaf.getNextLeafPageId();
+                if (nextPageId == -1) {
+                    return;
+                }
+                Page nextPage = latchPage(nextPageId, false);
+                if (nextPage == null) {
+                    return;
+                }
+                unlatchPage(page, false, false);
+                page = nextPage;
+                leaf = (BPlusTreeLeafNode) readNode(nextPageId, page);
+                pos = 0;
+            }
+        } finally {
+            unlatchPage(page, false, false);
+        }
+    }
+
+    /**
+     * 乐观插入：只对叶子加排他闩，叶子放不下时不做任何修改，返回NEEDS_SPLIT
+     */
+    private InsertResult insertOptimistic(BPlusTreeKey key, long recordId, long probe) {
+        Page page = descend(key, probe, true);
+        if (page == null) {
+            return rootPageId == -1 ? InsertResult.NEEDS_SPLIT : InsertResult.REJECTED; // 空树由悲观插入建根
+        }
+        boolean dirty = false;
+        try {
+            BPlusTreeLeafNode leaf = (BPlusTreeLeafNode) readNode(page.getPageId(), page);
+            int insertPos = leaf.findEntryPosition(key, probe);
+            if (isDuplicate(leaf, insertPos, key, probe)) {
+                return InsertResult.REJECTED;
+            }
+            leaf.insertEntry(insertPos, key, recordId);
+            if (leaf.isOverflow()) {
+                page.setAttachment(null); // 缓存的节点已被修改，页面内容没变
+                return InsertResult.NEEDS_SPLIT;
+            }
+            writeNode(leaf, page);
+            dirty = true;
+            return InsertResult.INSERTED;
+        } finally {
+            unlatchPage(page, true, dirty);
+        }
+    }
+
+    /**
+     * 悲观插入：从根用排他闩向下，节点安全时释放全部祖先，剩下的路径就是分裂可能波及的范围
+     */
+    private boolean insertPessimistic(BPlusTreeKey key, long recordId, long probe) {
+        rootLatch.writeLock().lock();
+        boolean rootHeld = true;
+        boolean success = false;
+        List<Page> held = new ArrayList<>();
+        List<BPlusTreeInternalNode> path = new ArrayList<>();
+        try {
+            if (rootPageId == -1) {
+                return createRoot(key, recordId);
+            }
+
+            int pageId = rootPageId;
+            BPlusTreeLeafNode leaf;
+            while (true) {
+                Page page = latchPage(pageId, true);
+                if (page == null) {
+                    return false;
+                }
+                BPlusTreeNode node = readNode(pageId, page);
+                if (isSafeForInsert(node, key)) {
+                    // 该节点不会分裂，祖先节点和根页号都不会被修改
+                    releaseExclusive(held);
+                    path.clear();
+                    if (rootHeld) {
+                        rootLatch.writeLock().unlock();
+                        rootHeld = false;
+                    }
+                }
+                held.add(page);
+                if (node.isLeaf()) {
+                    leaf = (BPlusTreeLeafNode) node;
+                    break;
+                }
+                BPlusTreeInternalNode internalNode = (BPlusTreeInternalNode) node;
+                path.add(internalNode);
+                pageId = internalNode.findChildPageId(key, probe);
+            }
+
+            int insertPos = leaf.findEntryPosition(key, probe);
+            if (isDuplicate(leaf, insertPos, key, probe)) {
+                return false;
+            }
+            leaf.insertEntry(insertPos, key, recordId);
+            success = leaf.isOverflow() ? splitLeaf(leaf, path) : saveNode(leaf);
+            return success;
+        } finally {
+            if (!success) {
+                for (Page page : held) {
+                    page.setAttachment(null); // 中途失败时缓存的节点可能已被修改
+                }
+            }
+            releaseExclusive(held);
+            if (rootHeld) {
+                rootLatch.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 插入位置上是否已有相同的索引项（唯一索引：相同的键）
+     */
+    private boolean isDuplicate(BPlusTreeLeafNode leaf, int insertPos, BPlusTreeKey key, long probe) {
+        if (insertPos >= leaf.getKeyCount()) {
+            return false;
+        }
+        return leaf.compareEntry(insertPos, key, probe) == 0
+                || (unique && leaf.getKey(insertPos).compareTo(key) == 0);
+    }
+
+    /**
+     * 插入后节点一定不会分裂：叶子按要插入的键计算，内部节点按最大的分隔项计算
+     */
+    private boolean isSafeForInsert(BPlusTreeNode node, BPlusTreeKey key) {
+        int reserve = node.isLeaf()
+                ? ((BPlusTreeLeafNode) node).maxEntryGrowth(key)
+                : MAX_KEY_SIZE + BPlusTreeNode.VALUE_SIZE + BPlusTreeNode.PAGE_ID_SIZE;
+        return node.getKeyCount() < maxKeys && node.getSerializedSize() + reserve <= Page.PAGE_SIZE;
+    }
+
+    /**
+     * 删除索引项；anyValue为true时删除该键的第一个索引项
+     * 删除不合并节点，只需要叶子的排他闩
+     */
+    private boolean remove(BPlusTreeKey key, long recordId, boolean anyValue) {
+        if (key == null) {
+            return false;
+        }
+
+        long probe = (anyValue || unique) ? Long.MIN_VALUE : recordId;
+        Page page = descend(key, probe, true);
+        if (page == null) {
+            return false;
+        }
+        boolean removed = false;
+        try {
+            BPlusTreeLeafNode leaf = (BPlusTreeLeafNode) readNode(page.getPageId(), page);
+            int pos = leaf.findEntryPosition(key, probe);
+            while (true) {
+                if (pos < leaf.getKeyCount()) {
+                    boolean match = leaf.getKey(pos).compareTo(key) == 0
+                            && (anyValue || leaf.getRecord(pos) == recordId);
+                    if (match) {
+                        leaf.removeEntry(pos);
+                        writeNode(leaf, page);
+                        removed = true;
+                    }
+                    break;
+                }
+                // 当前叶子之后的索引项都更大，继续检查下一个叶子（可能是空叶子）
+                int nextPageId = leaf.getNextLeafPageId();
+                Page nextPage = nextPageId == -1 ? null : latchPage(nextPageId, true);
+                if (nextPage == null) {
+                    break;
+                }
+                unlatchPage(page, true, false);
+                page = nextPage;
+                leaf = (BPlusTreeLeafNode) readNode(nextPageId, page);
+                pos = 0;
+            }
+        } finally {
+            unlatchPage(page, true, removed);
+        }
+        if (removed) {
+            updateMeta(-1);
+        }
+        return removed;
+    }
+
+    /**
+     * 分裂溢出的叶子节点并把分隔项插入父节点
+     */
+    private boolean splitLeaf(BPlusTreeLeafNode leaf, List<BPlusTreeInternalNode> path) {
+        int newPageId = allocatePage();
+        if (newPageId == -1) {
+            return false;
+        }
+
+        BPlusTreeLeafNode newLeaf = newLeafNode(newPageId);
+        int splitPoint = leaf.getKeyCount() / 2;
+        for (int i = splitPoint; i < leaf.getKeyCount(); i++) {
+            newLeaf.addEntry(leaf.getKey(i), leaf.getRecord(i));
+        }
+        for (int i = leaf.getKeyCount() - 1; i >= splitPoint; i--) {
+            leaf.removeEntry(i);
+        }
+
+        // 更新叶子节点链表：新叶子先写好再被链接，右兄弟按从左向右的顺序加排他闩
+        newLeaf.setNextLeafPageId(leaf.getNextLeafPageId());
+        newLeaf.setPrevLeafPageId(leaf.getPageId());
+        leaf.setNextLeafPageId(newPageId);
+        saveNode(newLeaf);
+        int nextPageId = newLeaf.getNextLeafPageId();
+        Page nextPage = nextPageId == -1 ? null : latchPage(nextPageId, true);
+        if (nextPage != null) {
+            BPlusTreeNode nextLeaf = readNode(nextPageId, nextPage);
+            ((BPlusTreeLeafNode) nextLeaf).setPrevLeafPageId(newPageId);
+            writeNode(nextLeaf, nextPage);
+            unlatchPage(nextPage, true, true);
+        }
+        saveNode(leaf);
+
+        // 分隔项取介于左叶子最大键和右叶子最小键之间的最短键（后缀截断），内部节点能容纳更多子节点
+        BPlusTreeKey separator = newLeaf.getKey(0).shortestSeparator(leaf.getKey(leaf.getKeyCount() - 1));
+        return insertIntoParent(path, leaf, separator,
+                separatorValue(separator, newLeaf.getKey(0), newLeaf.getRecord(0)), newPageId);
+    }
+
+    /**
+     * 分隔项的记录ID部分：唯一索引或截断后的键已严格小于右侧最小键时只看键，
+     * 否则非唯一索引带上右侧第一个记录ID区分相同的键
+     */
+    private long separatorValue(BPlusTreeKey separator, BPlusTreeKey firstKey, long firstValue) {
+        return unique || separator.compareTo(firstKey) < 0 ? Long.MIN_VALUE : firstValue;
+    }
+
+    /**
+     * 把分隔项插入父节点，父节点溢出时继续向上分裂
+     */
+    private boolean insertIntoParent(List<BPlusTreeInternalNode> path, BPlusTreeNode left,
+                                     BPlusTreeKey key, long value, int rightPageId) {
+        if (path.isEmpty()) {
+            return createNewRoot(left.getPageId(), key, value, rightPageId);
+        }
+
+        BPlusTreeInternalNode parent = path.remove(path.size() - 1);
+        int insertPos = parent.findChildIndex(key, value);
+        parent.insertEntry(insertPos, key, value);
+        parent.insertChild(insertPos + 1, rightPageId);
+
+        if (!parent.isOverflow()) {
+            saveNode(parent);
+            return true;
+        }
+
+        // 分裂内部节点：中间的分隔项提升到上一层
+        int newPageId = allocatePage();
+        if (newPageId == -1) {
+            return false;
+        }
+        BPlusTreeInternalNode newNode = new BPlusTreeInternalNode(newPageId, maxKeys, keyFactory);
+        int splitPoint = parent.getKeyCount() / 2;
+        BPlusTreeKey promoteKey = parent.getKey(splitPoint);
+        long promoteValue = parent.getValue(splitPoint);
+        for (int i = splitPoint + 1; i < parent.getKeyCount(); i++) {
+            newNode.addEntry(parent.getKey(i), parent.getValue(i));
+        }
+        for (int i = splitPoint + 1; i < parent.getChildCount(); i++) {
+            newNode.addChild(parent.getChild(i));
+        }
+        for (int i = parent.getKeyCount() - 1; i >= splitPoint; i--) {
+            parent.removeEntry(i);
+        }
+        for (int i = parent.getChildCount() - 1; i > splitPoint; i--) {
+            parent.removeChild(i);
+        }
+
+        saveNode(parent);
+        saveNode(newNode);
+        return insertIntoParent(path, parent, promoteKey, promoteValue, newPageId);
+    }
+
+    /**
+     * 创建新的根节点
+     */
+    private boolean createNewRoot(int leftPageId, BPlusTreeKey key, long value, int rightPageId) {
+        int newPageId = allocatePage();
+        if (newPageId == -1) {
+            return false;
+        }
+
+        BPlusTreeInternalNode newRoot = new BPlusTreeInternalNode(newPageId, maxKeys, keyFactory);
+        newRoot.addEntry(key, value);
+        newRoot.addChild(leftPageId);
+        newRoot.addChild(rightPageId);
+        saveNode(newRoot);
+
+        rootPageId = newPageId; // 只有持有rootLatch写锁的悲观插入才会走到这里
+        saveMeta();
+        return true;
+    }
+
+    /**
+     * 批量加载时把子节点追加到第level层正在填充的内部节点，节点写满时写出并向上一层传递
+     */
+    private void addToBulkLevel(List<BulkLevel> levels, int level, BPlusTreeKey lowKey, long lowValue,
+                                int childPageId, int byteLimit, int keyLimit) {
+        if (level == levels.size()) {
+            levels.add(new BulkLevel());
+        }
+        BulkLevel current = levels.get(level);
+        if (current.node == null) {
+            current.node = new BPlusTreeInternalNode(allocateBulkPage(), maxKeys, keyFactory);
+            current.node.addChild(childPageId);
+            current.lowKey = lowKey;
+            current.lowValue = lowValue;
+            current.size = BPlusTreeNode.HEADER_SIZE + BPlusTreeNode.PAGE_ID_SIZE;
+            return;
+        }
+
+        int entrySize = lowKey.getSize() + BPlusTreeNode.VALUE_SIZE + BPlusTreeNode.PAGE_ID_SIZE;
+        if (current.node.getKeyCount() > 0
+                && (current.size + entrySize > byteLimit || current.node.getKeyCount() >= keyLimit)) {
+            BPlusTreeInternalNode full = current.node;
+            saveNode(full);
+            current.node = null;
+            addToBulkLevel(levels, level + 1, current.lowKey, current.lowValue, full.getPageId(), byteLimit, keyLimit);
+            addToBulkLevel(levels, level, lowKey, lowValue, childPageId, byteLimit, keyLimit);
+            return;
+        }
+
+        current.node.addEntry(lowKey, lowValue); // lowValue已按separatorValue处理
+        current.node.addChild(childPageId);
+        current.size += entrySize;
+    }
+
+    /**
+     * 批量加载时分配页面，失败时无法回退已写出的节点，直接抛出异常
+     */
+    private int allocateBulkPage() {
+        int pageId = allocatePage();
+        if (pageId == -1) {
+            throw new IllegalStateException("Bulk load failed to allocate page for index " + indexName);
+        }
+        return pageId;
+    }
+
+    /**
+     * 分配一个新页面，返回页号，失败返回-1
+     */
+    private int allocatePage() {
+        int[] newPageId = new int[1];
+        Page page = pageStore.newPage(newPageId);
+        if (page == null) {
+            System.err.println("Failed to allocate page for index " + indexName);
+            return -1;
+        }
+        pageStore.unpinPage(newPageId[0], false);
+        return newPageId[0];
+    }
+
+    /**
+     * pin住页面并加共享闩或排他闩，失败返回null
+     */
+    Page latchPage(int pageId, boolean exclusive) {
+        Page page = pageStore.getPage(pageId);
+        if (page == null) {
+            return null;
+        }
+        if (exclusive) {
+            page.latchExclusive();
+        } else {
+            page.latchShared();
+        }
+        return page;
+    }
+
+    /**
+     * 释放页面的闩和pin
+     */
+    void unlatchPage(Page page, boolean exclusive, boolean dirty) {
+        int pageId = page.getPageId();
+        if (exclusive) {
+            page.unlatchExclusive();
+        } else {
+            page.unlatchShared();
+        }
+        pageStore.unpinPage(pageId, dirty);
+    }
+
+    private void releaseExclusive(List<Page> pages) {
+        for (Page page : pages) {
+            unlatchPage(page, true, false); // 修改都经saveNode写入并标记为脏页
+        }
+        pages.clear();
+    }
+
+    /**
+     * 获取调用方已持有闩的页面上的节点：优先使用挂在帧上的解码结果，没有时解码并挂上
+     */
+    BPlusTreeNode readNode(int pageId, Page page) {
+        Object cached = page.getAttachment();
+        if (cached instanceof BPlusTreeNode && ((BPlusTreeNode) cached).getPageId() == pageId) {
+            return (BPlusTreeNode) cached;
+        }
+        BPlusTreeNode node = decodeNode(pageId, page);
+        page.setAttachment(node);
+        return node;
+    }
+
+    /**
+     * 新的叶子节点；非唯一索引的叶子按倒排列表格式写出，每个键只保存一次，记录ID差值编码
+     */
+    private BPlusTreeLeafNode newLeafNode(int pageId) {
+        BPlusTreeLeafNode leaf = new BPlusTreeLeafNode(pageId, maxKeys, keyFactory);
+        leaf.setPostingLists(!unique);
+        return leaf;
+    }
+
+    /**
+     * 从页面字节反序列化出新的节点对象
+     */
+    private BPlusTreeNode decodeNode(int pageId, Page page) {
+        nodeDecodes.increment();
+        BPlusTreeNode node;
+        if (BPlusTreeNode.isLeafPage(page)) {
+            node = newLeafNode(pageId); // 旧格式的叶子照常读取，下次写回时转换为倒排列表格式
+        } else {
+            node = new BPlusTreeInternalNode(pageId, maxKeys, keyFactory);
+        }
+        node.deserializeFromPage(page);
+        return node;
+    }
+
+    /**
+     * 加载节点的独立副本（短暂持有共享闩），释放闩后仍可安全读取，只用于统计和打印
+     */
+    private BPlusTreeNode loadNode(int pageId) {
+        Page page = latchPage(pageId, false);
+        if (page == null) {
+            return null;
+        }
+        try {
+            return decodeNode(pageId, page);
+        } finally {
+            unlatchPage(page, false, false);
+        }
+    }
+
+    /**
+     * 保存节点：调用方已持有该页面的排他闩，或者页面是尚未被链接、其他线程不可见的新页面
+     */
+    private boolean saveNode(BPlusTreeNode node) {
+        Page page = pageStore.getPage(node.getPageId());
+        if (page == null) {
+            return false;
+        }
+
+        writeNode(node, page);
+        pageStore.unpinPage(node.getPageId(), true);
+        return true;
+    }
+
+    /**
+     * 把节点写入调用方持有排他闩的页面，并把节点挂在帧上供之后的访问直接使用
+     */
+    private void writeNode(BPlusTreeNode node, Page page) {
+        node.serializeToPage(page);
+        page.setAttachment(node);
+    }
+
+    /**
+     * 递归计算节点数量
+     */
+    private int countNodes(int pageId) {
+        BPlusTreeNode node = loadNode(pageId);
+        if (node == null) {
+            return 0;
+        }
+
+        int count = 1;
+        if (!node.isLeaf()) {
+            BPlusTreeInternalNode internalNode = (BPlusTreeInternalNode) node;
+            for (int i = 0; i < internalNode.getChildCount(); i++) {
+                count += countNodes(internalNode.getChild(i));
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * 递归打印节点
+     */
+    private void printNode(int pageId, int level) {
+        BPlusTreeNode node = loadNode(pageId);
+        if (node == null) {
+            return;
+        }
+
+        // 打印缩进
+        for (int i = 0; i < level; i++) {
+            System.out.print("  ");
+        }
+
+        // 打印节点信息
+        System.out.print("Page " + pageId + ": ");
+        System.out.print(node.isLeaf() ? "Leaf [" : "Internal [");
+        for (int i = 0; i < node.getKeyCount(); i++) {
+            if (i > 0) System.out.print(", ");
+            System.out.print(node.getKey(i));
+        }
+        System.out.println("]");
+
+        if (!node.isLeaf()) {
+            // 递归打印子节点
+            BPlusTreeInternalNode internal = (BPlusTreeInternalNode) node;
+            for (int i = 0; i < internal.getChildCount(); i++) {
+                printNode(internal.getChild(i), level + 1);
+            }
+        }
+    }
+
+    /**
+     * 加载元数据页；新文件或不认识的页面0按空树初始化
+     */
+    private void loadMeta() {
+        if (pageStore.getPageCount() == 0) {
+            int[] newPageId = new int[1];
+            if (pageStore.newPage(newPageId) == null) {
+                System.err.println("Failed to allocate meta page for index " + indexName);
+                return;
+            }
+            pageStore.unpinPage(newPageId[0], false);
+            saveMeta();
+            return;
+        }
+
+        Page page = pageStore.getPage(META_PAGE_ID);
+        if (page == null) {
+            return;
+        }
+        ByteBuffer buffer = page.getBuffer();
+        boolean valid = buffer.getInt(0) == META_MAGIC;
+        if (valid) {
+            rootPageId = buffer.getInt(4);
+            entryCount.set(buffer.getLong(8));
+        }
+        pageStore.unpinPage(META_PAGE_ID, false);
+        if (!valid) {
+            saveMeta();
+        }
+    }
+
+    /**
+     * 保存元数据页
+     */
+    private void saveMeta() {
+        updateMeta(0);
+    }
+
+    /**
+     * 调整索引项数量并写回元数据页；元数据页的排他闩总是最后获取，写入的总是最新的根页号和数量
+     */
+    private void updateMeta(long delta) {
+        entryCount.addAndGet(delta);
+        Page page = latchPage(META_PAGE_ID, true);
+        if (page == null) {
+            return;
+        }
+
+        ByteBuffer buffer = page.getBuffer();
+        buffer.putInt(0, META_MAGIC);
+        buffer.putInt(4, rootPageId);
+        buffer.putLong(8, entryCount.get());
+        unlatchPage(page, true, true);
+    }
+
+    // ========== Index接口实现 ==========
+
+    @Override
+    public boolean insert(Object key, int recordPageId) {
+        return insertEntry(key, recordPageId);
+    }
+
+    @Override
+    public boolean insertEntry(Object key, long recordId) {
+        BPlusTreeKey bPlusKey = createKey(key);
+        if (bPlusKey == null) {
+            return false;
+        }
+        return insertEntry(bPlusKey, recordId);
+    }
+
+    @Override
+    public boolean delete(Object key) {
+        BPlusTreeKey bPlusKey = createKey(key);
+        if (bPlusKey == null) {
+            return false;
+        }
+        return delete(bPlusKey);
+    }
+
+    @Override
+    public boolean deleteEntry(Object key, long recordId) {
+        BPlusTreeKey bPlusKey = createKey(key);
+        if (bPlusKey == null) {
+            return false;
+        }
+        return deleteEntry(bPlusKey, recordId);
+    }
+
+    @Override
+    public int search(Object key) {
+        BPlusTreeKey bPlusKey = createKey(key);
+        if (bPlusKey == null) {
+            return -1;
+        }
+        return search(bPlusKey);
+    }
+
+    @Override
+    public List<Long> searchAll(Object key) {
+        return searchAll(createKey(key));
+    }
+
+    @Override
+    public List<Integer> rangeSearch(Object startKey, Object endKey) {
+        BPlusTreeKey bPlusStartKey = createKey(startKey);
+        BPlusTreeKey bPlusEndKey = createKey(endKey);
+        if (bPlusStartKey == null || bPlusEndKey == null) {
+            return new ArrayList<>();
+        }
+        return rangeSearch(bPlusStartKey, bPlusEndKey);
+    }
+
+    @Override
+    public String getIndexName() {
+        return indexName;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.BPLUS_TREE;
+    }
+
+    @Override
+    public void printInfo() {
+        System.out.println("\n=== B+ Tree Index Information: " + indexName + " ===");
+        System.out.println("Index Type: " + getIndexType().getDescription());
+        System.out.println("Unique: " + unique);
+        System.out.println("Root Page ID: " + rootPageId);
+        System.out.println("Max Keys: " + (maxKeys == Integer.MAX_VALUE ? "page size" : String.valueOf(maxKeys)));
+        System.out.println("Entries: " + entryCount.get());
+        System.out.println("Height: " + getHeight());
+        System.out.println("Node Count: " + getNodeCount());
+    }
+
+    @Override
+    public void printStructure() {
+        System.out.println("\n=== B+ Tree Index Structure: " + indexName + " ===");
+        printTree();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entryCount.get() == 0;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(entryCount.get(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 创建BPlusTreeKey对象
+     */
+    private BPlusTreeKey createKey(Object key) {
+        if (key instanceof BPlusTreeKey) {
+            return (BPlusTreeKey) key;
+        } else if (key instanceof Integer) {
+            return new IntegerKey((Integer) key);
+        } else if (key instanceof String) {
+            return new StringKey((String) key);
+        } else {
+            System.err.println("Unsupported key type: " + (key == null ? "null" : key.getClass().getSimpleName()));
+            return null;
+        }
+    }
+
+    /**
+     * 批量加载时某一层正在填充的内部节点
+     */
+    private static final class BulkLevel {
+        BPlusTreeInternalNode node;
+        BPlusTreeKey lowKey; // 节点子树中最小的索引项，写出后作为上一层的分隔项
+        long lowValue;
+        int size; // 节点序列化后的字节数
+    }
+
+    // Getters
+    public int getRootPageId() { return rootPageId; }
+    public int getMaxKeys() { return maxKeys; }
+    public boolean isUnique() { return unique; }
+    public long getEntryCount() { return entryCount.get(); }
+    public long getNodeDecodeCount() { return nodeDecodes.sum(); }
+    Supplier<BPlusTreeKey> getKeyFactory() { return keyFactory; }
+}
@@ -0,0 +1,280 @@
+package com.database.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * B+树批量加载器 - 收集任意顺序的(键, 记录ID)索引项，排序后交给 {@link BPlusTree#bulkLoad} 自底向上建树
+ *
+ * 内存中最多缓存maxEntriesInMemory个索引项，超出时排序后写成一个临时顺串文件；
+ * finish时对所有顺串做多路归并（外部排序），归并结果直接流入建树过程。
+ * 顺串过多时先分批归并成更长的顺串，同时打开的文件数不超过 {@link #MAX_MERGE_WIDTH}。
+ * 本类不是线程安全的。
+ */
+public class BPlusTreeBulkLoader implements Closeable {
+    public static final double DEFAULT_FILL_FACTOR = 0.9;
+    public static final int DEFAULT_MAX_ENTRIES_IN_MEMORY = 1 << 20;
+
+    private static final int MAX_MERGE_WIDTH = 64; // 一次归并最多打开的顺串数
+    private static final int RUN_BUFFER_SIZE = 64 * 1024;
+
+    private static final Comparator<Map.Entry<BPlusTreeKey, Long>> ENTRY_ORDER = (a, b) -> {
+        int cmp = a.getKey().compareTo(b.getKey());
+        return cmp != 0 ? cmp : Long.compare(a.getValue(), b.getValue());
+    };
+
+    private final BPlusTree tree;
+    private final double fillFactor;
+    private final int maxEntriesInMemory;
+    private final File tempDirectory; // null表示系统临时目录
+    private final Supplier<BPlusTreeKey> keyFactory;
+    private final List<Map.Entry<BPlusTreeKey, Long>> buffer = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private boolean finished;
+
+    public BPlusTreeBulkLoader(BPlusTree tree) {
+        this(tree, DEFAULT_FILL_FACTOR, DEFAULT_MAX_ENTRIES_IN_MEMORY, null);
+    }
+
+    public BPlusTreeBulkLoader(BPlusTree tree, double fillFactor, int maxEntriesInMemory, File tempDirectory) {
+        if (maxEntriesInMemory <= 0) {
+            throw new IllegalArgumentException("maxEntriesInMemory must be positive: " + maxEntriesInMemory);
+        }
+        this.tree = tree;
+        this.fillFactor = fillFactor;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.tempDirectory = tempDirectory;
+        this.keyFactory = tree.getKeyFactory();
+    }
+
+    /**
+     * 添加一个索引项，缓存满时排序并写出一个顺串
+     */
+    public void add(BPlusTreeKey key, long recordId) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Bulk loader already finished");
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        buffer.add(new AbstractMap.SimpleImmutableEntry<>(key, recordId));
+        if (buffer.size() >= maxEntriesInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * 排序全部索引项并构建B+树
+     * @return 写入的索引项数量
+     */
+    public long finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Bulk loader already finished");
+        }
+        finished = true;
+
+        if (runs.isEmpty()) {
+            buffer.sort(ENTRY_ORDER);
+            long count = tree.bulkLoad(buffer.iterator(), fillFactor);
+            buffer.clear();
+            return count;
+        }
+
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        while (runs.size() > MAX_MERGE_WIDTH) {
+            List<Run> batch = new ArrayList<>(runs.subList(0, MAX_MERGE_WIDTH));
+            runs.subList(0, MAX_MERGE_WIDTH).clear();
+            runs.add(mergeRuns(batch));
+        }
+
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Run run : runs) {
+                readers.add(new RunReader(run));
+            }
+            return tree.bulkLoad(new MergeIterator(readers), fillFactor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * 删除剩余的临时顺串文件
+     */
+    @Override
+    public void close() {
+        for (Run run : runs) {
+            run.file.delete();
+        }
+        runs.clear();
+        buffer.clear();
+    }
+
+    /**
+     * 当前已写出的顺串数量
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(ENTRY_ORDER);
+        runs.add(writeRun(buffer.iterator()));
+        buffer.clear();
+    }
+
+    /**
+     * 把多个顺串归并成一个新顺串，并删除原顺串文件
+     */
+    private Run mergeRuns(List<Run> batch) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Run run : batch) {
+                readers.add(new RunReader(run));
+            }
+            return writeRun(new MergeIterator(readers));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+            for (Run run : batch) {
+                run.file.delete();
+            }
+        }
+    }
+
+    /**
+     * 顺串文件格式：每个索引项为 键长度(int) + 键字节 + 记录ID(long)
+     */
+    private Run writeRun(Iterator<Map.Entry<BPlusTreeKey, Long>> entries) throws IOException {
+        File file = File.createTempFile("bplus-run-", ".tmp", tempDirectory);
+        long count = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), RUN_BUFFER_SIZE))) {
+            while (entries.hasNext()) {
+                Map.Entry<BPlusTreeKey, Long> entry = entries.next();
+                byte[] keyBytes = entry.getKey().toBytes();
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.writeLong(entry.getValue());
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+        return new Run(file, count);
+    }
+
+    private static final class Run {
+        final File file;
+        final long count;
+
+        Run(File file, long count) {
+            this.file = file;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 顺序读取一个顺串，head为下一个尚未取走的索引项
+     */
+    private final class RunReader implements Closeable {
+        private final DataInputStream in;
+        private long remaining;
+        private Map.Entry<BPlusTreeKey, Long> head;
+
+        RunReader(Run run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(run.file), RUN_BUFFER_SIZE));
+            this.remaining = run.count;
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return;
+            }
+            byte[] keyBytes = new byte[in.readInt()];
+            in.readFully(keyBytes);
+            BPlusTreeKey key = keyFactory.get();
+            key.fromBytes(keyBytes, 0);
+            head = new AbstractMap.SimpleImmutableEntry<>(key, in.readLong());
+            remaining--;
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close bulk load run: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 多路归并：每次取出各顺串头部最小的索引项
+     */
+    private static final class MergeIterator implements Iterator<Map.Entry<BPlusTreeKey, Long>> {
+        private final PriorityQueue<RunReader> queue;
+
+        MergeIterator(List<RunReader> readers) {
+            this.queue = new PriorityQueue<>(Math.max(1, readers.size()),
+                    (a, b) -> ENTRY_ORDER.compare(a.head, b.head));
+            for (RunReader reader : readers) {
+                if (reader.head != null) {
+                    queue.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<BPlusTreeKey, Long> next() {
+            RunReader reader = queue.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<BPlusTreeKey, Long> entry = reader.head;
+            try {
+                reader.advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (reader.head != null) {
+                queue.add(reader);
+            }
+            return entry;
+        }
+    }
+}
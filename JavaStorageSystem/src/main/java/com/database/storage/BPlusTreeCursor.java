@@ -0,0 +1,235 @@
+package com.database.storage;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * B+树游标 - 沿叶子链表正序或逆序流式返回范围内的索引项
+ *
+ * 游标每次只处理一个叶子：短暂pin住并加共享闩，复制出范围内尚未返回的索引项后立即释放，
+ * 所以两次读取之间不占用缓冲池帧，也不会阻塞写者，调用方读到足够的结果后直接丢弃游标即可。
+ * 取下一个叶子时从上次复制到的索引项之后继续，期间发生的分裂不会导致遗漏或重复：
+ * 节点从不合并或释放，分裂只把较大的一半移到新的右兄弟。游标看到的是逐个叶子的快照，
+ * 复制之后才插入到已复制范围内的索引项不会返回。
+ * 正序时按自左向右的顺序交接闩；逆序时先释放当前叶子再锁左兄弟，左兄弟在此期间分裂时向右找回。
+ * 本类不是线程安全的，同一个游标只能由一个线程使用。
+ */
+public class BPlusTreeCursor implements Iterator<Map.Entry<BPlusTreeKey, Long>> {
+    private final BPlusTree tree;
+    private final BPlusTreeKey startKey; // null表示不设下界
+    private final BPlusTreeKey endKey;   // null表示不设上界
+    private final boolean descending;
+
+    private final List<BPlusTreeKey> keys = new ArrayList<>(); // 当前叶子中复制出的索引项
+    private final List<Long> values = new ArrayList<>();
+    private int position;
+    private int leafPageId = -1; // 上一次复制的叶子，-1表示尚未开始
+    private BPlusTreeKey boundKey; // 最后复制的索引项，下一次从它之后（逆序时之前）继续
+    private long boundValue;
+    private boolean exhausted;
+    private long leavesRead; // 读取过的叶子数
+
+    BPlusTreeCursor(BPlusTree tree, BPlusTreeKey startKey, BPlusTreeKey endKey, boolean descending) {
+        this.tree = tree;
+        this.startKey = startKey;
+        this.endKey = endKey;
+        this.descending = descending;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= keys.size() && !exhausted) {
+            keys.clear();
+            values.clear();
+            position = 0;
+            if (leafPageId == -1) {
+                first();
+            } else if (descending) {
+                stepLeft();
+            } else {
+                stepRight();
+            }
+        }
+        return position < keys.size();
+    }
+
+    @Override
+    public Map.Entry<BPlusTreeKey, Long> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<BPlusTreeKey, Long> entry = new AbstractMap.SimpleImmutableEntry<>(keys.get(position), values.get(position));
+        position++;
+        return entry;
+    }
+
+    /**
+     * 读取过的叶子数，用于观察提前停止的效果
+     */
+    public long getLeavesRead() {
+        return leavesRead;
+    }
+
+    /**
+     * 从根下降到范围一端所在的叶子
+     */
+    private void first() {
+        Page page = descending
+            ? tree.descend(endKey, Long.MAX_VALUE, false, true)
+            : tree.descend(startKey, Long.MIN_VALUE, false, false);
+        if (page == null) {
+            exhausted = true;
+            return;
+        }
+        try {
+            leafPageId = page.getPageId();
+            copyFrom(leafOf(page));
+        } finally {
+            tree.unlatchPage(page, false, false);
+        }
+    }
+
+    /**
+     * 正序：先看当前叶子在复制之后是否插入了新的索引项，没有时交接到右兄弟
+     */
+    private void stepRight() {
+        Page page = tree.latchPage(leafPageId, false);
+        if (page == null) {
+            exhausted = true;
+            return;
+        }
+        try {
+            BPlusTreeLeafNode leaf = leafOf(page);
+            copyFrom(leaf);
+            if (!keys.isEmpty() || exhausted) {
+                return;
+            }
+            int nextPageId = leaf.getNextLeafPageId();
+            if (nextPageId == -1) {
+                exhausted = true;
+                return;
+            }
+            Page nextPage = tree.latchPage(nextPageId, false);
+            if (nextPage == null) {
+                exhausted = true;
+                return;
+            }
+            tree.unlatchPage(page, false, false);
+            page = nextPage;
+            leafPageId = nextPageId;
+            copyFrom(leafOf(page));
+        } finally {
+            tree.unlatchPage(page, false, false);
+        }
+    }
+
+    /**
+     * 逆序：先看当前叶子中是否还有更小的索引项，没有时释放它再锁左兄弟，避免自右向左等待闩
+     */
+    private void stepLeft() {
+        Page page = tree.latchPage(leafPageId, false);
+        if (page == null) {
+            exhausted = true;
+            return;
+        }
+        int prevPageId;
+        try {
+            BPlusTreeLeafNode leaf = leafOf(page);
+            copyFrom(leaf);
+            if (!keys.isEmpty() || exhausted) {
+                return;
+            }
+            prevPageId = leaf.getPrevLeafPageId();
+        } finally {
+            tree.unlatchPage(page, false, false);
+        }
+        if (prevPageId == -1) {
+            exhausted = true;
+            return;
+        }
+
+        page = tree.latchPage(prevPageId, false);
+        if (page == null) {
+            exhausted = true;
+            return;
+        }
+        try {
+            BPlusTreeLeafNode leaf = leafOf(page);
+            // 左兄弟在释放闩期间分裂过：向右找到紧挨着当前叶子的那个
+            while (leaf.getNextLeafPageId() != leafPageId && leaf.getNextLeafPageId() != -1) {
+                Page nextPage = tree.latchPage(leaf.getNextLeafPageId(), false);
+                if (nextPage == null) {
+                    exhausted = true;
+                    return;
+                }
+                tree.unlatchPage(page, false, false);
+                page = nextPage;
+                leaf = leafOf(page);
+            }
+            leafPageId = page.getPageId();
+            copyFrom(leaf);
+        } finally {
+            tree.unlatchPage(page, false, false);
+        }
+    }
+
+    private BPlusTreeLeafNode leafOf(Page page) {
+        leavesRead++;
+        return (BPlusTreeLeafNode) tree.readNode(page.getPageId(), page);
+    }
+
+    /**
+     * 复制叶子中还没返回过的范围内索引项（逆序时倒着复制），越过范围另一端时标记结束
+     */
+    private void copyFrom(BPlusTreeLeafNode leaf) {
+        int count = leaf.getKeyCount();
+        if (!descending) {
+            int from;
+            if (boundKey != null) {
+                from = leaf.findEntryPosition(boundKey, boundValue);
+                if (from < count && leaf.compareEntry(from, boundKey, boundValue) == 0) {
+                    from++;
+                }
+            } else {
+                from = startKey == null ? 0 : leaf.findEntryPosition(startKey, Long.MIN_VALUE);
+            }
+            for (int i = from; i < count; i++) {
+                if (endKey != null && leaf.getKey(i).compareTo(endKey) > 0) {
+                    exhausted = true;
+                    break;
+                }
+                add(leaf.getKey(i), leaf.getRecord(i));
+            }
+        } else {
+            int to; // 不含
+            if (boundKey != null) {
+                to = leaf.findEntryPosition(boundKey, boundValue);
+            } else if (endKey == null) {
+                to = count;
+            } else {
+                to = leaf.findEntryPosition(endKey, Long.MAX_VALUE);
+                while (to < count && leaf.compareEntry(to, endKey, Long.MAX_VALUE) <= 0) {
+                    to++;
+                }
+            }
+            for (int i = to - 1; i >= 0; i--) {
+                if (startKey != null && leaf.getKey(i).compareTo(startKey) < 0) {
+                    exhausted = true;
+                    break;
+                }
+                add(leaf.getKey(i), leaf.getRecord(i));
+            }
+        }
+    }
+
+    private void add(BPlusTreeKey key, long value) {
+        keys.add(key);
+        values.add(value);
+        boundKey = key;
+        boundValue = value;
+    }
+}
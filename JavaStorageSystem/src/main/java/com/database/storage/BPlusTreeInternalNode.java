@@ -0,0 +1,95 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * B+ Tree Internal Node
+ *
+ * Child i holds entries e with sep[i-1] <= e < sep[i].
+ */
+class BPlusTreeInternalNode extends BPlusTreeNode {
+    private List<Integer> childPageIds; // Child node page ID list
+
+    public BPlusTreeInternalNode(int pageId, int maxKeys, Supplier<BPlusTreeKey> keyFactory) {
+        super(pageId, false, maxKeys, keyFactory);
+        this.childPageIds = new ArrayList<>();
+    }
+
+    public List<Integer> getChildPageIds() { return childPageIds; }
+
+    public int getChildCount() { return childPageIds.size(); }
+
+    public void addChild(int childPageId) {
+        childPageIds.add(childPageId);
+    }
+
+    public void insertChild(int index, int childPageId) {
+        childPageIds.add(index, childPageId);
+    }
+
+    public int removeChild(int index) {
+        return childPageIds.remove(index);
+    }
+
+    public int getChild(int index) {
+        return childPageIds.get(index);
+    }
+
+    /**
+     * Index of the child that covers (key, value): the first separator greater than the entry
+     */
+    public int findChildIndex(BPlusTreeKey key, long value) {
+        int left = 0, right = keys.size();
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (compareEntry(mid, key, value) <= 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Find child node by entry
+     */
+    public int findChildPageId(BPlusTreeKey key, long value) {
+        return childPageIds.get(findChildIndex(key, value));
+    }
+
+    @Override
+    protected void writeBody(ByteBuffer buffer) {
+        for (int i = 0; i < keys.size(); i++) {
+            writeEntry(buffer, i);
+        }
+        for (int childPageId : childPageIds) {
+            buffer.putInt(childPageId);
+        }
+    }
+
+    @Override
+    protected void readBody(byte[] data, ByteBuffer buffer, int keyCount) {
+        childPageIds.clear();
+        for (int i = 0; i < keyCount; i++) {
+            readEntry(data, buffer);
+        }
+        for (int i = 0; i <= keyCount; i++) {
+            childPageIds.add(buffer.getInt());
+        }
+    }
+
+    @Override
+    public int getSerializedSize() {
+        return HEADER_SIZE + entriesSize() + (keys.size() + 1) * PAGE_ID_SIZE;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        childPageIds.clear();
+    }
+}
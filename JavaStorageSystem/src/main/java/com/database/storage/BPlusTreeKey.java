@@ -0,0 +1,35 @@
+package com.database.storage;
+
+/**
+ * B+ Tree Key Interface - Defines key comparison and serialization operations
+ */
+public interface BPlusTreeKey extends Comparable<BPlusTreeKey> {
+    /**
+     * Serialize key to byte array
+     */
+    byte[] toBytes();
+    
+    /**
+     * Deserialize key from byte array
+     */
+    void fromBytes(byte[] data, int offset);
+    
+    /**
+     * Get the number of bytes occupied by the key
+     */
+    int getSize();
+    
+    /**
+     * Get string representation of the key
+     */
+    String toString();
+
+    /**
+     * Shortest key s with lower < s <= this, used as the separator between two
+     * adjacent leaves (suffix truncation) so internal nodes hold more children.
+     * Returns this when there is no shorter key or lower is not smaller.
+     */
+    default BPlusTreeKey shortestSeparator(BPlusTreeKey lower) {
+        return this;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * B+ Tree Leaf Node
+ *
+ * Leaves of non-unique trees can be stored as posting lists: each run of equal
+ * keys is written once, followed by the run length and its record ids, the first
+ * as a zigzag varint and the rest as varint deltas (they are sorted, so deltas are
+ * small and positive). A key with more records than one leaf holds continues in
+ * the following leaves, which then hold little more than deltas. Pages written
+ * with the plain layout are still readable and are converted when rewritten.
+ */
+class BPlusTreeLeafNode extends BPlusTreeNode {
+    static final byte FORMAT_POSTING_LISTS = 1;
+    private static final int MAX_VARLONG_SIZE = 10;
+
+    private int nextLeafPageId; // Next leaf node page ID
+    private int prevLeafPageId; // Previous leaf node page ID
+    private boolean postingLists; // Write the posting list layout
+
+    public BPlusTreeLeafNode(int pageId, int maxKeys, Supplier<BPlusTreeKey> keyFactory) {
+        super(pageId, true, maxKeys, keyFactory);
+        this.nextLeafPageId = -1;
+        this.prevLeafPageId = -1;
+    }
+
+    public int getNextLeafPageId() { return nextLeafPageId; }
+    public void setNextLeafPageId(int nextLeafPageId) { this.nextLeafPageId = nextLeafPageId; }
+
+    public int getPrevLeafPageId() { return prevLeafPageId; }
+    public void setPrevLeafPageId(int prevLeafPageId) { this.prevLeafPageId = prevLeafPageId; }
+
+    public int getRecordCount() { return values.size(); }
+
+    public long getRecord(int index) {
+        return values.get(index);
+    }
+
+    public boolean isPostingLists() { return postingLists; }
+    public void setPostingLists(boolean postingLists) { this.postingLists = postingLists; }
+
+    /**
+     * Upper bound of the bytes one more entry with this key can add, wherever it is inserted
+     */
+    public int maxEntryGrowth(BPlusTreeKey key) {
+        // New run: key + run length + first id; joining a run: one delta + a longer run length
+        return postingLists ? key.getSize() + 1 + MAX_VARLONG_SIZE : key.getSize() + VALUE_SIZE;
+    }
+
+    /**
+     * Bytes added by appending (key, value) after the last entry
+     */
+    public int appendedSize(BPlusTreeKey key, long value) {
+        if (!postingLists) {
+            return key.getSize() + VALUE_SIZE;
+        }
+        int last = keys.size() - 1;
+        if (last < 0 || keys.get(last).compareTo(key) != 0) {
+            return key.getSize() + 1 + varLongSize(zigzag(value));
+        }
+        // The run length takes one more byte when it reaches 2^7, 2^14, ...
+        int lengthGrowth = 0;
+        for (int length = 1 << 7; length > 0 && length <= keys.size(); length <<= 7) {
+            if (runLengthIs(last, length - 1)) {
+                lengthGrowth = 1;
+            }
+        }
+        return varLongSize(value - values.get(last)) + lengthGrowth;
+    }
+
+    @Override
+    protected byte getBodyFormat() {
+        return postingLists ? FORMAT_POSTING_LISTS : 0;
+    }
+
+    @Override
+    protected void writeBody(ByteBuffer buffer) {
+        buffer.putInt(nextLeafPageId);
+        buffer.putInt(prevLeafPageId);
+        if (!postingLists) {
+            for (int i = 0; i < keys.size(); i++) {
+                writeEntry(buffer, i);
+            }
+            return;
+        }
+        for (int start = 0; start < keys.size(); ) {
+            int end = runEnd(start);
+            buffer.put(keys.get(start).toBytes());
+            putVarLong(buffer, end - start);
+            putVarLong(buffer, zigzag(values.get(start)));
+            for (int i = start + 1; i < end; i++) {
+                putVarLong(buffer, values.get(i) - values.get(i - 1));
+            }
+            start = end;
+        }
+    }
+
+    @Override
+    protected void readBody(byte[] data, ByteBuffer buffer, int keyCount) {
+        nextLeafPageId = buffer.getInt();
+        prevLeafPageId = buffer.getInt();
+        if (data[FORMAT_OFFSET] != FORMAT_POSTING_LISTS) {
+            for (int i = 0; i < keyCount; i++) {
+                readEntry(data, buffer);
+            }
+            return;
+        }
+        while (keys.size() < keyCount) {
+            BPlusTreeKey key = keyFactory.get();
+            key.fromBytes(data, buffer.position());
+            buffer.position(buffer.position() + key.getSize());
+            int runLength = (int) getVarLong(buffer);
+            long value = unzigzag(getVarLong(buffer));
+            keys.add(key);
+            values.add(value);
+            for (int i = 1; i < runLength; i++) {
+                value += getVarLong(buffer);
+                keys.add(key); // The run shares one key instance
+                values.add(value);
+            }
+        }
+    }
+
+    @Override
+    public int getSerializedSize() {
+        int size = HEADER_SIZE + 2 * PAGE_ID_SIZE; // Additional next/prev page IDs
+        if (!postingLists) {
+            return size + entriesSize();
+        }
+        for (int start = 0; start < keys.size(); ) {
+            int end = runEnd(start);
+            size += keys.get(start).getSize() + varLongSize(end - start) + varLongSize(zigzag(values.get(start)));
+            for (int i = start + 1; i < end; i++) {
+                size += varLongSize(values.get(i) - values.get(i - 1));
+            }
+            start = end;
+        }
+        return size;
+    }
+
+    /**
+     * End (exclusive) of the run of keys equal to the key at start
+     */
+    private int runEnd(int start) {
+        int end = start + 1;
+        while (end < keys.size() && sameKey(end, start)) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Whether the run ending at last has exactly length entries, checked without walking the run
+     */
+    private boolean runLengthIs(int last, int length) {
+        int first = last - length + 1;
+        return first >= 0 && sameKey(first, last) && (first == 0 || !sameKey(first - 1, last));
+    }
+
+    private boolean sameKey(int i, int j) {
+        return keys.get(i) == keys.get(j) || keys.get(i).compareTo(keys.get(j)) == 0;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        nextLeafPageId = -1;
+        prevLeafPageId = -1;
+    }
+}
@@ -0,0 +1,241 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * B+ Tree Node Abstract Base Class
+ *
+ * Entries are ordered by (key, value). In leaves the value is the record id;
+ * in internal nodes it is the tie-breaker of the separator, so equal keys can
+ * span several leaves and still be located precisely.
+ */
+public abstract class BPlusTreeNode {
+    protected int pageId; // Node corresponding page ID
+    protected boolean isLeaf; // Whether it is a leaf node
+    protected int parentPageId; // Parent node page ID (informational only)
+    protected List<BPlusTreeKey> keys; // Key list
+    protected List<Long> values; // Record ids (leaf) or separator tie-breakers (internal)
+    protected int maxKeys; // Maximum number of keys
+    protected final Supplier<BPlusTreeKey> keyFactory; // Creates empty keys for deserialization
+
+    // Page layout constants
+    protected static final int HEADER_SIZE = 16; // Header information size (page ID + is leaf + parent page ID + key count + body format, padded)
+    protected static final int FORMAT_OFFSET = 13; // Body format byte in the header padding
+    protected static final int PAGE_ID_SIZE = 4;
+    protected static final int BOOLEAN_SIZE = 1;
+    protected static final int INT_SIZE = 4;
+    protected static final int VALUE_SIZE = 8;
+
+    public BPlusTreeNode(int pageId, boolean isLeaf, int maxKeys, Supplier<BPlusTreeKey> keyFactory) {
+        this.pageId = pageId;
+        this.isLeaf = isLeaf;
+        this.parentPageId = -1;
+        this.keys = new ArrayList<>();
+        this.values = new ArrayList<>();
+        this.maxKeys = maxKeys;
+        this.keyFactory = keyFactory;
+    }
+
+    // Getters and Setters
+    public int getPageId() { return pageId; }
+    public void setPageId(int pageId) { this.pageId = pageId; }
+
+    public boolean isLeaf() { return isLeaf; }
+    public void setLeaf(boolean isLeaf) { this.isLeaf = isLeaf; }
+
+    public int getParentPageId() { return parentPageId; }
+    public void setParentPageId(int parentPageId) { this.parentPageId = parentPageId; }
+
+    public List<BPlusTreeKey> getKeys() { return keys; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public int getKeyCount() { return keys.size(); }
+
+    /**
+     * Whether the node must be split: too many keys or too many bytes for one page
+     */
+    public boolean isOverflow() {
+        return keys.size() > maxKeys || getSerializedSize() > Page.PAGE_SIZE;
+    }
+
+    /**
+     * Insert entry at specified position
+     */
+    public void insertEntry(int index, BPlusTreeKey key, long value) {
+        keys.add(index, key);
+        values.add(index, value);
+    }
+
+    /**
+     * Append entry
+     */
+    public void addEntry(BPlusTreeKey key, long value) {
+        keys.add(key);
+        values.add(value);
+    }
+
+    /**
+     * Remove entry at specified position
+     */
+    public void removeEntry(int index) {
+        keys.remove(index);
+        values.remove(index);
+    }
+
+    /**
+     * Get key at specified position
+     */
+    public BPlusTreeKey getKey(int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Get value at specified position
+     */
+    public long getValue(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * Compare the entry at index with (key, value)
+     */
+    public int compareEntry(int index, BPlusTreeKey key, long value) {
+        int cmp = keys.get(index).compareTo(key);
+        return cmp != 0 ? cmp : Long.compare(values.get(index), value);
+    }
+
+    /**
+     * First position whose entry is not less than (key, value)
+     */
+    public int findEntryPosition(BPlusTreeKey key, long value) {
+        int left = 0, right = keys.size();
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (compareEntry(mid, key, value) < 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Serialize node to page; fails instead of truncating when the node does not fit
+     */
+    public void serializeToPage(Page page) {
+        if (getSerializedSize() > Page.PAGE_SIZE) {
+            throw new IllegalStateException("Node " + pageId + " does not fit in a page: " + getSerializedSize());
+        }
+        byte[] data = new byte[Page.PAGE_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.putInt(pageId);
+        buffer.put((byte) (isLeaf ? 1 : 0));
+        buffer.putInt(parentPageId);
+        buffer.putInt(keys.size());
+        buffer.put(getBodyFormat());
+        buffer.position(HEADER_SIZE);
+        writeBody(buffer);
+        page.setData(data);
+    }
+
+    /**
+     * Deserialize node from page
+     */
+    public void deserializeFromPage(Page page) {
+        byte[] data = pageBytes(page);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        pageId = buffer.getInt();
+        isLeaf = buffer.get() != 0;
+        parentPageId = buffer.getInt();
+        int keyCount = buffer.getInt();
+        buffer.position(HEADER_SIZE);
+        keys.clear();
+        values.clear();
+        readBody(data, buffer, keyCount);
+    }
+
+    /**
+     * Read one (key, value) entry at the buffer position
+     */
+    protected void readEntry(byte[] data, ByteBuffer buffer) {
+        BPlusTreeKey key = keyFactory.get();
+        key.fromBytes(data, buffer.position());
+        buffer.position(buffer.position() + key.getSize());
+        keys.add(key);
+        values.add(buffer.getLong());
+    }
+
+    /**
+     * Write one (key, value) entry at the buffer position
+     */
+    protected void writeEntry(ByteBuffer buffer, int index) {
+        buffer.put(keys.get(index).toBytes());
+        buffer.putLong(values.get(index));
+    }
+
+    /**
+     * Format of the body written by writeBody; 0 is the plain (key, value) list
+     */
+    protected byte getBodyFormat() {
+        return 0;
+    }
+
+    protected abstract void writeBody(ByteBuffer buffer);
+
+    protected abstract void readBody(byte[] data, ByteBuffer buffer, int keyCount);
+
+    /**
+     * Calculate bytes occupied by node in page
+     */
+    public abstract int getSerializedSize();
+
+    /**
+     * Whether the page holds a leaf node
+     */
+    static boolean isLeafPage(Page page) {
+        return page.getBuffer().get(PAGE_ID_SIZE) != 0;
+    }
+
+    /**
+     * Page contents as a byte array (copied when the frame is off-heap)
+     */
+    private static byte[] pageBytes(Page page) {
+        if (page.hasArray()) {
+            return page.getData();
+        }
+        byte[] data = new byte[Page.PAGE_SIZE];
+        ByteBuffer view = page.getBuffer().duplicate();
+        view.clear();
+        view.get(data);
+        return data;
+    }
+
+    protected int entriesSize() {
+        int size = 0;
+        for (BPlusTreeKey key : keys) {
+            size += key.getSize() + VALUE_SIZE;
+        }
+        return size;
+    }
+
+    /**
+     * Clear node
+     */
+    public void clear() {
+        keys.clear();
+        values.clear();
+        parentPageId = -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BPlusTreeNode{pageId=%d, isLeaf=%s, keyCount=%d, keys=%s}",
+                           pageId, isLeaf, keys.size(), keys);
+    }
+}
@@ -0,0 +1,765 @@
+package com.database.storage;
+
+import java.util.*; // 导入Java集合类
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock; // 导入读写锁类
+
+/**
+ * 缓冲池管理器类 - 管理页面缓存和替换策略
+ *
+ * 可选的后台写线程（{@link #startBackgroundWriter}）周期性地把未被pin的脏页按页号顺序写回，
+ * 使缓冲池中始终保持一定比例的干净帧，缺页时选中的牺牲页通常无需先同步写回。
+ *
+ * 可选的顺序预读（{@link #setReadAhead}）：检测到连续页号的访问后，由预读线程把后续若干页
+ * 异步读入空闲帧（或淘汰出的帧）；上层也可以通过 {@link #prefetch} 显式提示即将扫描的范围。
+ * 预读的磁盘I/O不持有缓冲池锁，帧在读完之前不进入页表，其他线程看不到未加载完成的页面。
+ */
+public class BufferPoolManager implements PageStore {
+    private final int poolSize; // 缓冲池大小
+    private final Page[] pages; // 缓冲池中的页面数组
+    private final DiskManager diskManager; // 磁盘管理器实例
+    private final Map<Integer, Integer> pageTable; // 页ID到缓冲池索引的映射
+    private final int[] freeFrames; // 空闲帧栈
+    private int freeCount; // 空闲帧数量
+    private final Replacer replacer; // 替换器
+    private final CacheStats stats; // 缓存统计信息
+    private final ReentrantReadWriteLock bufferLock; // 缓冲池的读写锁
+    private volatile boolean loggingEnabled = true; // 是否输出每次页面访问的日志
+    private final ReentrantLock flushLock = new ReentrantLock(); // 后台写回进行期间，显式刷新需等待其完成
+    private volatile Thread backgroundWriter; // 后台写线程，未启动时为null
+    private volatile double cleanFrameTarget; // 目标干净帧比例
+    private volatile long writerIntervalNanos; // 后台写线程的检查周期
+    private volatile int readAheadWindow; // 顺序预读窗口（页数），0表示不自动预读
+    private ExecutorService prefetcher; // 预读线程，首次预读时创建
+    private int lastAccessedPage = Page.INVALID_PAGE_ID; // 上一次访问的页号
+    private int sequentialRun; // 连续顺序访问的次数
+    private int readAheadLimit = Page.INVALID_PAGE_ID; // 当前顺序访问已提交预读的最大页号
+
+    /**
+     * 构造函数
+     */
+    public BufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy) {
+        this(poolSize, dbFilename, Replacer.create(policy, poolSize)); // 按策略创建替换器
+    }
+
+    /**
+     * 构造函数 - 使用自定义替换器
+     */
+    public BufferPoolManager(int poolSize, String dbFilename, Replacer replacer) {
+        this(poolSize, dbFilename, replacer, false);
+    }
+
+    /**
+     * 构造函数 - offHeap为true时所有帧分配在一块堆外直接内存中
+     */
+    public BufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy, boolean offHeap) {
+        this(poolSize, dbFilename, Replacer.create(policy, poolSize), offHeap); // 按策略创建替换器
+    }
+
+    /**
+     * 构造函数 - 使用自定义替换器；offHeap为true时帧由 {@link FrameArena} 在堆外分配，
+     * 页面对象是指向帧的享元，磁盘I/O直接读写帧内存
+     */
+    public BufferPoolManager(int poolSize, String dbFilename, Replacer replacer, boolean offHeap) {
+        this.poolSize = poolSize; // 初始化缓冲池大小
+        this.pages = offHeap ? new FrameArena(poolSize).createPages() : new Page[poolSize]; // 初始化页面数组
+        this.diskManager = new DiskManager(dbFilename); // 初始化磁盘管理器
+        this.pageTable = new HashMap<>(); // 初始化页表
+        this.freeFrames = new int[poolSize]; // 初始化空闲帧栈
+        this.replacer = replacer; // 设置替换器
+        this.stats = new CacheStats(); // 初始化缓存统计信息
+        this.bufferLock = new ReentrantReadWriteLock(); // 初始化读写锁
+
+        // 初始化缓冲池
+        for (int i = 0; i < poolSize; i++) {
+            if (!offHeap) {
+                pages[i] = new Page(); // 创建页面对象
+            }
+            freeFrames[freeCount++] = poolSize - 1 - i; // 将帧索引压入空闲栈，保证从0号帧开始使用
+        }
+
+        System.out.println("Buffer pool manager initialized with " + poolSize + " pages"); // 输出初始化信息
+    }
+
+    /**
+     * 获取页面
+     */
+    @Override
+    public Page getPage(int pageId) {
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            // 检查页面是否已在缓冲池中
+            detectSequentialAccess(pageId); // 顺序访问时触发预读
+            Integer frameIndex = pageTable.get(pageId);
+            if (frameIndex != null) {
+                pages[frameIndex].pin(); // 增加页面的pin计数
+                pinFrame(frameIndex); // 更新替换策略数据
+                stats.recordHit(); // 记录缓存命中
+                logCacheHit(pageId); // 记录缓存命中日志
+                return pages[frameIndex]; // 返回页面
+            }
+
+            // 页面不在缓冲池中，需要加载
+            stats.recordMiss(); // 记录缓存未命中
+            logCacheMiss(pageId); // 记录缓存未命中日志
+
+
+            // 找到空闲帧或牺牲页面，优先使用 空闲帧。如果没有空闲帧，就根据替换策略（比如 FIFO / LRU）找到一个牺牲帧（victim page）。如果所有页面都被 Pin（不可替换），就返回失败。
+            int targetFrame = acquireFrame(); // 获取空闲帧或牺牲帧
+            if (targetFrame == -1) {
+                System.err.println("No available frame for page " + pageId); // 输出错误信息
+                return null; // 返回null
+            }
+
+            // 从磁盘加载页面并且加入缓存池
+            if (!diskManager.readPage(pageId, pages[targetFrame].getBuffer())) {
+                System.err.println("Failed to read page " + pageId + " from disk"); // 输出错误信息
+                pages[targetFrame].setPageId(Page.INVALID_PAGE_ID); // 帧内容已不可用
+                freeFrames[freeCount++] = targetFrame; // 归还帧
+                return null; // 返回null
+            }
+
+            // 更新页面元数据
+            pages[targetFrame].setPageId(pageId); // 设置页面ID
+            pages[targetFrame].setDirty(false); // 设置页面未被修改
+            pages[targetFrame].setPinCount(1); // 设置页面的pin计数为1
+
+            // 更新页表
+            pageTable.put(pageId, targetFrame); // 将页面ID和帧索引添加到页表
+
+            // 更新替换数据
+            pinFrame(targetFrame); // 更新替换策略数据
+
+            return pages[targetFrame]; // 返回页面
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+        }
+    }
+
+    /**
+     * 释放页面，允许页面被替换
+     */
+    @Override
+    public boolean unpinPage(int pageId, boolean isDirty) {
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            Integer frameIndex = pageTable.get(pageId); // 获取页面的帧索引
+            if (frameIndex == null) {
+                return false; // 如果页面不在缓冲池中，返回false
+            }
+
+            if (pages[frameIndex].getPinCount() <= 0) {
+                return false; // 如果页面未被pin，返回false
+            }
+
+            pages[frameIndex].unpin(); // 减少页面的pin计数
+            if (isDirty) {
+                pages[frameIndex].setDirty(true); // 如果页面被修改，设置为dirty
+            }
+            if (!pages[frameIndex].isPinned()) {
+                replacer.setEvictable(frameIndex, true); // pin计数归零后允许被替换
+            }
+
+            return true; // 返回成功
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+        }
+    }
+
+    /**
+     * 刷新页面到磁盘
+     */
+    @Override
+    public boolean flushPage(int pageId) {
+        flushLock.lock(); // 等待进行中的后台写回完成
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            Integer frameIndex = pageTable.get(pageId); // 获取页面的帧索引
+            if (frameIndex == null) {
+                return false; // 如果页面不在缓冲池中，返回false
+            }
+            return flushPageInternal(frameIndex, false) && diskManager.sync(); // 刷新页面到磁盘并落盘
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 分配新页面，负责把磁盘上的page映射到内存中的 buffer frame，让上层逻辑可以直接用 Page 对象访问。
+     */
+    @Override
+    public Page newPage(int[] pageId) {
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            // 在磁盘上分配新页面
+            pageId[0] = diskManager.allocatePage(); // 分配新页面ID
+            if (pageId[0] == Page.INVALID_PAGE_ID) {
+                return null; // 如果分配失败，返回null
+            }
+
+            // 找到空闲帧
+            int frameIndex = acquireFrame(); // 获取空闲帧或牺牲帧
+            if (frameIndex == -1) {
+                return null; // 如果没有可用帧，返回null
+            }
+
+            // 初始化新页面
+            pages[frameIndex].reset(pageId[0]); // 复用帧对象，清零后装入新页面
+            pages[frameIndex].setPinCount(1); // 设置页面的pin计数为1
+
+            // 更新页表
+            pageTable.put(pageId[0], frameIndex); // 将页面ID和帧索引添加到页表
+
+            // 更新替换数据
+            pinFrame(frameIndex); // 更新替换策略数据
+
+            return pages[frameIndex]; // 返回新页面
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+        }
+    }
+
+    /**
+     * 删除页面
+     */
+    @Override
+    public boolean deletePage(int pageId) {
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            Integer frameIndex = pageTable.get(pageId); // 获取页面的帧索引
+            if (frameIndex == null) {
+                return false; // 如果页面不在缓冲池中，返回false
+            }
+
+            // 检查页面是否被pin
+            if (pages[frameIndex].isPinned()) {
+                return false; // 如果页面被pin，返回false
+            }
+
+            // 从页表中移除
+            pageTable.remove(pageId); // 移除页表中的页面条目
+
+            // 将帧添加到空闲列表
+            pages[frameIndex].setPageId(Page.INVALID_PAGE_ID); // 帧不再属于任何页面
+            pages[frameIndex].setDirty(false); // 已删除的页面无需写回
+            freeFrames[freeCount++] = frameIndex; // 将帧索引压入空闲栈
+
+            // 从替换数据中移除
+            replacer.remove(frameIndex); // 从替换策略数据中移除
+
+            // 在磁盘上释放页面
+            diskManager.deallocatePage(pageId); // 释放磁盘上的页面
+
+            return true; // 返回成功
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    @Override
+    public CacheStats getStats() {
+        return stats; // 返回缓存统计信息
+    }
+
+    /**
+     * 获取底层文件中的页面总数
+     */
+    @Override
+    public int getPageCount() {
+        return diskManager.getFileSize(); // 返回磁盘文件页数
+    }
+
+    /**
+     * 关闭缓冲池，写回所有脏页并关闭数据库文件
+     */
+    @Override
+    public void close() {
+        stopPrefetcher(); // 停止预读线程
+        stopBackgroundWriter(); // 停止后台写线程
+        flushAllPages(); // 写回脏页
+        diskManager.close(); // 关闭文件
+    }
+
+    /**
+     * 设置磁盘写入模式：WRITE_BACK下淘汰的脏页只写入操作系统缓存，刷新时统一fsync
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        diskManager.setWriteMode(writeMode);
+    }
+
+    /**
+     * 开启或关闭内存映射读模式：缺页时直接从映射的页缓存复制页面，不经过read系统调用
+     */
+    public void setMemoryMapped(boolean enabled) {
+        diskManager.setMemoryMapped(enabled);
+    }
+
+    /**
+     * 设置顺序预读窗口：连续访问相邻页面时，异步预读之后的windowPages个页面；0表示关闭自动预读
+     * 窗口不超过缓冲池的一半，避免预读的页面互相淘汰
+     */
+    public void setReadAhead(int windowPages) {
+        if (windowPages < 0) {
+            throw new IllegalArgumentException("Read-ahead window must not be negative"); // 抛出异常
+        }
+        this.readAheadWindow = Math.min(windowPages, maxPrefetchPages());
+    }
+
+    public int getReadAhead() {
+        return readAheadWindow;
+    }
+
+    /**
+     * 扫描提示：异步把[firstPageId, firstPageId + count)中不在缓冲池内的页面读入帧中
+     * 一次最多预读缓冲池一半大小的页面，超出部分由顺序预读继续跟进
+     */
+    @Override
+    public void prefetch(int firstPageId, int count) {
+        int pages = Math.min(count, maxPrefetchPages());
+        if (firstPageId < 0 || pages <= 0) {
+            return;
+        }
+        bufferLock.writeLock().lock();
+        try {
+            // 提示开始一次新的扫描：预读范围从提示的页面算起，扫描的第一页视为与上一次访问相邻
+            readAheadLimit = firstPageId + pages - 1;
+            lastAccessedPage = firstPageId - 1;
+            sequentialRun = 0;
+            submitPrefetch(firstPageId, pages);
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取底层磁盘管理器（用于查询I/O统计）
+     */
+    public DiskManager getDiskManager() {
+        return diskManager;
+    }
+
+    /**
+     * 开启或关闭页面访问日志（被数据库引擎嵌入使用时应关闭，避免每次访问都输出）
+     */
+    public void setLoggingEnabled(boolean enabled) {
+        this.loggingEnabled = enabled; // 设置缓冲池日志开关
+        diskManager.setLoggingEnabled(enabled); // 同步设置磁盘管理器日志开关
+    }
+
+    /**
+     * 打印统计信息
+     */
+    public void printStats() {
+        System.out.println("\n=== Buffer Pool Statistics ===");
+        System.out.println("Cache hits: " + stats.getCacheHits());
+        System.out.println("Cache misses: " + stats.getCacheMisses());
+        System.out.println("Total accesses: " + stats.getTotalAccesses());
+        System.out.printf("Hit rate: %.2f%%\n", stats.getHitRate() * 100);
+    }
+
+    /**
+     * 重置统计信息
+     */
+    public void resetStats() {
+        stats.reset(); // 重置缓存统计信息
+    }
+
+    /**
+     * 刷新所有页面：逐页写入后只做一次fsync
+     */
+    @Override
+    public boolean flushAllPages() {
+        flushLock.lock(); // 等待进行中的后台写回完成
+        bufferLock.writeLock().lock(); // 获取写锁
+        try {
+            boolean success = true;
+            for (int i = 0; i < poolSize; i++) {
+                if (pages[i].getPageId() != Page.INVALID_PAGE_ID && pages[i].isDirty()) {
+                    if (!flushPageInternal(i, false)) {
+                        success = false; // 如果刷新失败，设置成功标志为false
+                    }
+                }
+            }
+            if (success) {
+                stats.setDirtyBacklog(0);
+            }
+            return diskManager.sync() && success; // 整批写入一次落盘
+        } finally {
+            bufferLock.writeLock().unlock(); // 释放写锁
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 启动后台写线程
+     * @param cleanFrameTarget 希望保持为空闲或干净的帧所占比例（0到1之间），低于该比例时写回脏页
+     * @param intervalMillis 检查周期（毫秒）；缺页时遇到脏牺牲页会提前唤醒写线程
+     */
+    public synchronized void startBackgroundWriter(double cleanFrameTarget, long intervalMillis) {
+        if (cleanFrameTarget <= 0 || cleanFrameTarget > 1 || intervalMillis <= 0) {
+            throw new IllegalArgumentException("Invalid background writer settings"); // 抛出异常
+        }
+        this.cleanFrameTarget = cleanFrameTarget;
+        this.writerIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        if (backgroundWriter != null) {
+            return; // 已在运行，只更新参数
+        }
+        Thread writer = new Thread(this::runBackgroundWriter, "bg-writer-" + diskManager.getDbFilename());
+        writer.setDaemon(true); // 不阻止JVM退出
+        backgroundWriter = writer;
+        writer.start();
+    }
+
+    /**
+     * 停止后台写线程并等待它结束当前一轮写回
+     */
+    public synchronized void stopBackgroundWriter() {
+        Thread writer = backgroundWriter;
+        if (writer == null) {
+            return;
+        }
+        backgroundWriter = null;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 保留中断状态
+        }
+    }
+
+    public boolean isBackgroundWriterRunning() {
+        return backgroundWriter != null;
+    }
+
+    /**
+     * 后台写线程主循环
+     */
+    private void runBackgroundWriter() {
+        Thread self = Thread.currentThread();
+        while (backgroundWriter == self) {
+            writeBackRound(cleanFrameTarget);
+            LockSupport.parkNanos(this, writerIntervalNanos); // 等待下一周期或被提前唤醒
+        }
+    }
+
+    /**
+     * 执行一轮后台写回：干净帧比例低于目标时，选出不足部分的未pin脏页，按页号排序后顺序写入，最后一次fsync
+     * 写入期间这些页面被写线程pin住，不会被淘汰或删除；缓冲池锁只在选页和解除pin时短暂持有
+     * @return 本轮写回的页数
+     */
+    int writeBackRound(double targetShare) {
+        flushLock.lock();
+        try {
+            List<Page> batch = new ArrayList<>();
+            bufferLock.writeLock().lock();
+            try {
+                int clean = freeCount;
+                List<Page> candidates = new ArrayList<>();
+                for (int i = 0; i < poolSize; i++) {
+                    Page page = pages[i];
+                    if (page.getPageId() == Page.INVALID_PAGE_ID) {
+                        continue;
+                    }
+                    if (!page.isDirty()) {
+                        clean++;
+                    } else if (!page.isPinned()) {
+                        candidates.add(page); // 正在使用的页面很可能马上再次被修改，先不写
+                    }
+                }
+                stats.setDirtyBacklog(poolSize - clean);
+                int needed = (int) Math.ceil(targetShare * poolSize) - clean;
+                if (needed <= 0 || candidates.isEmpty()) {
+                    return 0;
+                }
+                candidates.sort(Comparator.comparingInt(Page::getPageId)); // 按页号排序，使写入尽量顺序
+                for (Page page : candidates.subList(0, Math.min(needed, candidates.size()))) {
+                    page.pin();
+                    replacer.setEvictable(pageTable.get(page.getPageId()), false);
+                    page.setDirty(false); // 写入前清除，写入期间的修改会在解除pin时重新标记
+                    batch.add(page);
+                }
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+
+            int written = 0;
+            for (Page page : batch) {
+                page.latchShared(); // 与按闩协议修改页面的线程互斥
+                try {
+                    if (diskManager.writePage(page.getPageId(), page.getBuffer(), false)) {
+                        written++;
+                        logPageFlush(page.getPageId());
+                    } else {
+                        page.setDirty(true); // 写入失败，保留脏标记
+                    }
+                } finally {
+                    page.unlatchShared();
+                }
+            }
+            if (!diskManager.sync()) {
+                for (Page page : batch) {
+                    page.setDirty(true); // 落盘失败，整批保留脏标记
+                }
+                written = 0;
+            }
+
+            bufferLock.writeLock().lock();
+            try {
+                for (Page page : batch) {
+                    page.unpin();
+                    if (!page.isPinned()) {
+                        replacer.setEvictable(pageTable.get(page.getPageId()), true);
+                    }
+                }
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+            stats.recordBackgroundFlush(written);
+            stats.setDirtyBacklog(Math.max(0, stats.getDirtyBacklog() - written));
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+
+    /**
+     * 顺序访问检测（持有缓冲池锁时调用）：连续两次访问相邻页面后，
+     * 每当已预读的部分消耗过半，就把预读范围推进到当前页之后一个窗口；
+     * 不相邻的访问结束当前的顺序访问，预读范围随之重置（重复扫描同一范围时重新预读）
+     */
+    private void detectSequentialAccess(int pageId) {
+        if (pageId == lastAccessedPage) {
+            return; // 同一页面的重复访问不影响顺序判断
+        }
+        boolean adjacent = lastAccessedPage != Page.INVALID_PAGE_ID && pageId == lastAccessedPage + 1;
+        sequentialRun = adjacent ? sequentialRun + 1 : 0;
+        lastAccessedPage = pageId;
+        if (!adjacent) {
+            readAheadLimit = pageId; // 新的顺序访问从这里开始，之前的预读范围不再适用
+        }
+        int window = readAheadWindow;
+        if (window == 0 || sequentialRun < 2) {
+            return;
+        }
+        if (pageId + window / 2 < readAheadLimit) {
+            return; // 前方已预读的页面还足够多
+        }
+        int first = Math.max(pageId, readAheadLimit) + 1;
+        int last = Math.min(pageId + window, diskManager.getFileSize() - 1);
+        if (first > last) {
+            return; // 已到文件末尾
+        }
+        readAheadLimit = last;
+        submitPrefetch(first, last - first + 1);
+    }
+
+    /**
+     * 把预读任务交给预读线程（持有缓冲池锁时调用）
+     */
+    private void submitPrefetch(int firstPageId, int count) {
+        if (prefetcher == null) {
+            prefetcher = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "read-ahead-" + diskManager.getDbFilename());
+                thread.setDaemon(true); // 不阻止JVM退出
+                return thread;
+            });
+        }
+        prefetcher.execute(() -> loadPages(firstPageId, count));
+    }
+
+    private int maxPrefetchPages() {
+        return Math.max(1, poolSize / 2);
+    }
+
+    /**
+     * 停止预读线程，等待进行中的预读结束
+     */
+    private void stopPrefetcher() {
+        ExecutorService executor;
+        bufferLock.writeLock().lock();
+        try {
+            executor = prefetcher;
+            prefetcher = null;
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown(); // 不中断读盘：FileChannel在线程被中断时会关闭
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 保留中断状态
+        }
+    }
+
+    /**
+     * 预读一批页面：先在锁内为尚未缓存的页面占用帧（此时帧既不在页表中也不在替换器中），
+     * 释放锁后按页号顺序读盘，最后在锁内把读好的页面装入页表；
+     * 读盘期间如果该页已被其他线程加载，或有页面写回磁盘（读到的内容可能已过时），则丢弃预读结果
+     * @return 成功装入缓冲池的页数
+     */
+    int loadPages(int firstPageId, int count) {
+        int[] pageIds = new int[count];
+        int[] frames = new int[count];
+        int loading = 0;
+        long writesBefore;
+        bufferLock.writeLock().lock();
+        try {
+            int end = Math.min(firstPageId + count, diskManager.getFileSize());
+            for (int pageId = firstPageId; pageId < end; pageId++) {
+                if (pageTable.containsKey(pageId)) {
+                    continue; // 已在缓冲池中
+                }
+                int frameIndex = acquireFrame();
+                if (frameIndex == -1) {
+                    break; // 没有可用帧，放弃剩余预读
+                }
+                pageIds[loading] = pageId;
+                frames[loading++] = frameIndex;
+            }
+            writesBefore = diskManager.getPageWriteCount();
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        boolean[] loaded = new boolean[loading];
+        for (int i = 0; i < loading; i++) {
+            loaded[i] = diskManager.readPage(pageIds[i], pages[frames[i]].getBuffer());
+        }
+
+        int installed = 0;
+        bufferLock.writeLock().lock();
+        try {
+            boolean stale = diskManager.getPageWriteCount() != writesBefore;
+            for (int i = 0; i < loading; i++) {
+                int frameIndex = frames[i];
+                if (!loaded[i] || stale || pageTable.containsKey(pageIds[i])) {
+                    freeFrames[freeCount++] = frameIndex; // 归还帧
+                    continue;
+                }
+                Page page = pages[frameIndex];
+                page.setPageId(pageIds[i]);
+                page.setDirty(false);
+                page.setPinCount(0);
+                pageTable.put(pageIds[i], frameIndex);
+                replacer.recordAccess(frameIndex, pageIds[i]);
+                replacer.setEvictable(frameIndex, true); // 未被pin，可以被淘汰
+                installed++;
+            }
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+        stats.recordPrefetch(installed);
+        return installed;
+    }
+
+    /**
+     * 获取可用帧：优先使用空闲帧，否则由替换器选出牺牲帧并淘汰其中的页面
+     * 所有页面都被pin住或牺牲页写回失败时返回-1
+     */
+    private int acquireFrame() {
+        if (freeCount > 0) {
+            return freeFrames[--freeCount]; // 从空闲栈中获取帧
+        }
+        int victim = replacer.evict(); // 由替换器选出牺牲帧
+        if (victim == -1) {
+            return -1; // 没有可替换的页面（都被 pin 住了）
+        }
+        if (!evictFrame(victim)) {
+            return -1; // 牺牲页面写回失败
+        }
+        return victim;
+    }
+
+    /**
+     * 淘汰帧中原有的页面：脏页先写回磁盘，再从页表中移除
+     */
+    private boolean evictFrame(int frameIndex) {
+        int oldPageId = pages[frameIndex].getPageId();
+        if (oldPageId == Page.INVALID_PAGE_ID) {
+            return true; // 帧中没有页面
+        }
+        if (pages[frameIndex].isDirty()) {
+            stats.recordEvictionWrite(); // 缺页的调用方需要等待这次同步写回
+            Thread writer = backgroundWriter;
+            if (writer != null) {
+                LockSupport.unpark(writer); // 干净帧不够用了，提前唤醒后台写线程
+            }
+        }
+        if (!flushPageInternal(frameIndex, diskManager.getWriteMode() == WriteMode.WRITE_THROUGH)) {
+            System.err.println("Failed to write back victim page " + oldPageId); // 输出错误信息
+            replacer.recordAccess(frameIndex, oldPageId); // 写回失败，页面保留在缓冲池中
+            replacer.setEvictable(frameIndex, true);
+            return false;
+        }
+        pageTable.remove(oldPageId); // 从页表中移除旧页面
+        pages[frameIndex].setPageId(Page.INVALID_PAGE_ID); // 帧暂时不属于任何页面
+        return true;
+    }
+
+    /**
+     * 内部刷新页面，sync表示写入后是否立即fsync
+     */
+    private boolean flushPageInternal(int frameIndex, boolean sync) {
+        if (pages[frameIndex].getPageId() == Page.INVALID_PAGE_ID || !pages[frameIndex].isDirty()) {
+            return true; // 如果页面无效或未被修改，返回true
+        }
+
+        boolean success = diskManager.writePage(pages[frameIndex].getPageId(), pages[frameIndex].getBuffer(), sync); // 将页面写入磁盘
+        if (success) {
+            pages[frameIndex].setDirty(false); // 设置页面为未修改
+            logPageFlush(pages[frameIndex].getPageId()); // 记录页面刷新日志
+        }
+
+        return success; // 返回刷新结果
+    }
+
+    /**
+     * 帧被访问并pin住：通知替换器记录访问，并在pin期间禁止淘汰
+     */
+    private void pinFrame(int frameIndex) {
+        replacer.recordAccess(frameIndex, pages[frameIndex].getPageId());
+        replacer.setEvictable(frameIndex, false);
+    }
+
+    /**
+     * 记录缓存命中
+     */
+    private void logCacheHit(int pageId) {
+        if (!loggingEnabled) {
+            return;
+        }
+        System.out.println("[CACHE HIT] Page " + pageId);
+    }
+
+    /**
+     * 记录缓存未命中
+     */
+    private void logCacheMiss(int pageId) {
+        if (!loggingEnabled) {
+            return;
+        }
+        System.out.println("[CACHE MISS] Page " + pageId);
+    }
+
+    /**
+     * 记录页面刷新
+     */
+    private void logPageFlush(int pageId) {
+        if (!loggingEnabled) {
+            return;
+        }
+        System.out.println("[PAGE FLUSH] Page " + pageId);
+    }
+}
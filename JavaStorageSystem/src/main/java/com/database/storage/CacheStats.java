@@ -0,0 +1,152 @@
+package com.database.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存统计信息类
+ * 计数器使用LongAdder，多个线程同时记录命中/未命中时不会互相争用
+ * 除命中率外还记录脏页写回情况：后台写线程刷出的页数、缺页时被迫同步写回牺牲页的次数，
+ * 以及最近一次观察到的脏页积压数量
+ */
+public class CacheStats {
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+    private final LongAdder backgroundFlushes; // 后台写线程写回的页数
+    private final LongAdder evictionWrites; // 淘汰时同步写回的脏页数
+    private final LongAdder prefetchedPages; // 预读装入缓冲池的页数
+    private volatile long dirtyBacklog; // 脏页积压
+    private volatile long startNanos; // 统计开始时间，用于计算刷新速率
+    
+    /**
+     * 构造函数
+     */
+    public CacheStats() {
+        this.cacheHits = new LongAdder();
+        this.cacheMisses = new LongAdder();
+        this.backgroundFlushes = new LongAdder();
+        this.evictionWrites = new LongAdder();
+        this.prefetchedPages = new LongAdder();
+        this.startNanos = System.nanoTime();
+    }
+    
+    /**
+     * 记录缓存命中
+     */
+    public void recordHit() {
+        this.cacheHits.increment();
+    }
+    
+    /**
+     * 记录缓存未命中
+     */
+    public void recordMiss() {
+        this.cacheMisses.increment();
+    }
+    
+    /**
+     * 记录后台写线程写回的页数
+     */
+    public void recordBackgroundFlush(int pages) {
+        this.backgroundFlushes.add(pages);
+    }
+    
+    /**
+     * 记录一次淘汰时的同步写回（缺页的查询需要等待这次写入）
+     */
+    public void recordEvictionWrite() {
+        this.evictionWrites.increment();
+    }
+    
+    /**
+     * 记录预读装入缓冲池的页数
+     */
+    public void recordPrefetch(int pages) {
+        this.prefetchedPages.add(pages);
+    }
+    
+    /**
+     * 更新当前的脏页积压数量
+     */
+    public void setDirtyBacklog(long dirtyPages) {
+        this.dirtyBacklog = dirtyPages;
+    }
+    
+    /**
+     * 累加另一份统计信息（用于汇总多个缓冲池）
+     */
+    public void add(CacheStats other) {
+        this.cacheHits.add(other.cacheHits.sum());
+        this.cacheMisses.add(other.cacheMisses.sum());
+        this.backgroundFlushes.add(other.backgroundFlushes.sum());
+        this.evictionWrites.add(other.evictionWrites.sum());
+        this.prefetchedPages.add(other.prefetchedPages.sum());
+        this.dirtyBacklog += other.dirtyBacklog;
+        this.startNanos = Math.min(this.startNanos, other.startNanos);
+    }
+    
+    /**
+     * 获取缓存命中率
+     */
+    public double getHitRate() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+    
+    /**
+     * 重置统计信息
+     */
+    public void reset() {
+        this.cacheHits.reset();
+        this.cacheMisses.reset();
+        this.backgroundFlushes.reset();
+        this.evictionWrites.reset();
+        this.prefetchedPages.reset();
+        this.startNanos = System.nanoTime();
+    }
+    
+    // Getter方法
+    public int getCacheHits() {
+        return cacheHits.intValue();
+    }
+    
+    public int getCacheMisses() {
+        return cacheMisses.intValue();
+    }
+    
+    public int getTotalAccesses() {
+        return getCacheHits() + getCacheMisses();
+    }
+    
+    public long getBackgroundFlushes() {
+        return backgroundFlushes.sum();
+    }
+    
+    public long getEvictionWrites() {
+        return evictionWrites.sum();
+    }
+    
+    public long getPrefetchedPages() {
+        return prefetchedPages.sum();
+    }
+    
+    public long getDirtyBacklog() {
+        return dirtyBacklog;
+    }
+    
+    /**
+     * 后台写线程的平均刷新速率（页/秒），从创建或上次重置开始计算
+     */
+    public double getFlushRate() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? getBackgroundFlushes() / seconds : 0.0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, total=%d, hitRate=%.2f%%, "
+                           + "backgroundFlushes=%d, evictionWrites=%d, dirtyBacklog=%d, prefetched=%d}", 
+                           getCacheHits(), getCacheMisses(), getTotalAccesses(), getHitRate() * 100,
+                           getBackgroundFlushes(), getEvictionWrites(), getDirtyBacklog(), getPrefetchedPages());
+    }
+}
@@ -0,0 +1,74 @@
+package com.database.storage;
+
+/**
+ * CLOCK（二次机会）替换器 - 用环形扫描的引用位近似LRU
+ *
+ * 访问只设置引用位，不移动任何数据；淘汰时时钟指针扫过各帧，
+ * 引用位为1的可淘汰帧被清零并获得第二次机会，遇到引用位为0的可淘汰帧即选中。
+ * 每次淘汰最多扫描两圈，均摊代价为O(1)。
+ */
+public class ClockReplacer implements Replacer {
+    private final int poolSize;
+    private final boolean[] tracked; // 帧是否被跟踪（装有页面）
+    private final boolean[] evictable; // 帧是否可淘汰
+    private final boolean[] referenced; // 引用位
+    private int hand; // 时钟指针
+    private int evictableCount;
+
+    public ClockReplacer(int poolSize) {
+        this.poolSize = poolSize;
+        this.tracked = new boolean[poolSize];
+        this.evictable = new boolean[poolSize];
+        this.referenced = new boolean[poolSize];
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        tracked[frameIndex] = true;
+        referenced[frameIndex] = true;
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean value) {
+        if (!tracked[frameIndex] || evictable[frameIndex] == value) {
+            return;
+        }
+        evictable[frameIndex] = value;
+        evictableCount += value ? 1 : -1;
+    }
+
+    @Override
+    public int evict() {
+        if (evictableCount == 0) {
+            return -1;
+        }
+        while (true) {
+            int frame = hand;
+            hand = (hand + 1) % poolSize;
+            if (!evictable[frame]) {
+                continue;
+            }
+            if (referenced[frame]) {
+                referenced[frame] = false; // 给予第二次机会
+                continue;
+            }
+            remove(frame);
+            return frame;
+        }
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        if (evictable[frameIndex]) {
+            evictableCount--;
+        }
+        tracked[frameIndex] = false;
+        evictable[frameIndex] = false;
+        referenced[frameIndex] = false;
+    }
+
+    @Override
+    public int size() {
+        return evictableCount;
+    }
+}
@@ -0,0 +1,190 @@
+package com.database.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Composite Key Implementation - several component keys compared lexicographically
+ *
+ * A key with fewer components sorts before every key it is a prefix of, so a
+ * prefix such as (tenant_id) is the lower bound of all (tenant_id, created_at)
+ * keys; {@link #prefixEnd} builds the matching upper bound. Separators in
+ * internal nodes are truncated after the first component that tells the two
+ * leaves apart, and that component is truncated in turn.
+ * Serialized as the component count (1 byte) followed by each component.
+ */
+public class CompositeKey implements BPlusTreeKey {
+    private static final int MAX_COMPONENTS = 255;
+
+    private final List<Supplier<BPlusTreeKey>> componentFactories; // null for keys built from values
+    private BPlusTreeKey[] components;
+    private boolean prefixEnd; // query bound only: greater than every key starting with the components
+
+    /**
+     * Empty key for deserialization
+     */
+    public CompositeKey(List<Supplier<BPlusTreeKey>> componentFactories) {
+        if (componentFactories.isEmpty() || componentFactories.size() > MAX_COMPONENTS) {
+            throw new IllegalArgumentException("Composite key needs 1.." + MAX_COMPONENTS + " components");
+        }
+        this.componentFactories = new ArrayList<>(componentFactories);
+        this.components = new BPlusTreeKey[0];
+    }
+
+    private CompositeKey(List<Supplier<BPlusTreeKey>> componentFactories, BPlusTreeKey[] components, boolean prefixEnd) {
+        if (components.length == 0 || components.length > MAX_COMPONENTS) {
+            throw new IllegalArgumentException("Composite key needs 1.." + MAX_COMPONENTS + " components");
+        }
+        this.componentFactories = componentFactories;
+        this.components = components;
+        this.prefixEnd = prefixEnd;
+    }
+
+    /**
+     * Key factory for a tree whose keys have the given component types
+     */
+    public static Supplier<BPlusTreeKey> factory(List<Supplier<BPlusTreeKey>> componentFactories) {
+        List<Supplier<BPlusTreeKey>> copy = new ArrayList<>(componentFactories);
+        return () -> new CompositeKey(copy);
+    }
+
+    /**
+     * Key (or key prefix) made of the given components
+     */
+    public static CompositeKey of(BPlusTreeKey... components) {
+        return new CompositeKey(null, components.clone(), false);
+    }
+
+    /**
+     * Upper bound of all keys starting with the given components
+     */
+    public static CompositeKey prefixEnd(BPlusTreeKey... components) {
+        return new CompositeKey(null, components.clone(), true);
+    }
+
+    public int getComponentCount() {
+        return components.length;
+    }
+
+    public BPlusTreeKey getComponent(int index) {
+        return components[index];
+    }
+
+    @Override
+    public int compareTo(BPlusTreeKey other) {
+        if (!(other instanceof CompositeKey)) {
+            throw new IllegalArgumentException("Cannot compare CompositeKey with " + other.getClass().getSimpleName());
+        }
+        CompositeKey that = (CompositeKey) other;
+        int common = Math.min(components.length, that.components.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = components[i].compareTo(that.components[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        // A prefix end acts as a trailing +infinity component, a plain prefix as nothing
+        if (components.length == that.components.length) {
+            return Boolean.compare(prefixEnd, that.prefixEnd);
+        }
+        if (components.length > that.components.length) {
+            return that.prefixEnd ? -1 : 1;
+        }
+        return prefixEnd ? 1 : -1;
+    }
+
+    @Override
+    public BPlusTreeKey shortestSeparator(BPlusTreeKey lower) {
+        if (!(lower instanceof CompositeKey) || prefixEnd || lower.compareTo(this) >= 0) {
+            return this;
+        }
+        CompositeKey that = (CompositeKey) lower;
+        int i = 0;
+        while (i < components.length && i < that.components.length
+                && components[i].compareTo(that.components[i]) == 0) {
+            i++;
+        }
+        if (i >= components.length) {
+            return this;
+        }
+        BPlusTreeKey[] separator = Arrays.copyOf(components, i + 1);
+        if (i < that.components.length) {
+            separator[i] = components[i].shortestSeparator(that.components[i]);
+        }
+        if (separator.length == components.length && separator[i] == components[i]) {
+            return this;
+        }
+        return new CompositeKey(componentFactories, separator, false);
+    }
+
+    @Override
+    public byte[] toBytes() {
+        if (prefixEnd) {
+            throw new IllegalStateException("Bound keys are not stored");
+        }
+        byte[] result = new byte[getSize()];
+        result[0] = (byte) components.length;
+        int offset = 1;
+        for (BPlusTreeKey component : components) {
+            byte[] bytes = component.toBytes();
+            System.arraycopy(bytes, 0, result, offset, bytes.length);
+            offset += bytes.length;
+        }
+        return result;
+    }
+
+    @Override
+    public void fromBytes(byte[] data, int offset) {
+        if (componentFactories == null) {
+            throw new IllegalStateException("Composite key has no component factories");
+        }
+        int count = data[offset] & 0xFF;
+        if (count == 0 || count > componentFactories.size()) {
+            throw new IllegalStateException("Invalid composite key component count: " + count);
+        }
+        BPlusTreeKey[] decoded = new BPlusTreeKey[count];
+        int position = offset + 1;
+        for (int i = 0; i < count; i++) {
+            decoded[i] = componentFactories.get(i).get();
+            decoded[i].fromBytes(data, position);
+            position += decoded[i].getSize();
+        }
+        this.components = decoded;
+        this.prefixEnd = false;
+    }
+
+    @Override
+    public int getSize() {
+        int size = 1;
+        for (BPlusTreeKey component : components) {
+            size += component.getSize();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(components[i]);
+        }
+        if (prefixEnd) sb.append(", +INF");
+        return sb.append(')').toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof CompositeKey)) return false;
+        CompositeKey that = (CompositeKey) obj;
+        return prefixEnd == that.prefixEnd && Arrays.equals(components, that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(components) + Boolean.hashCode(prefixEnd);
+    }
+}
@@ -0,0 +1,426 @@
+package com.database.storage;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 并发缓冲池管理器 - 面向多线程读多写少负载的分段缓冲池
+ *
+ * 缓冲帧按页面ID划分到若干段（stripe），每段有自己的锁、空闲帧和替换器，
+ * 页面只会被装入它所属段的帧中，因此同一页面的装入/淘汰由段锁串行化，不同段互不阻塞。
+ *
+ * 命中路径完全无锁：查并发页表得到帧号后用CAS增加帧的pin计数，
+ * 淘汰方则用CAS把pin计数从0改为"淘汰中"，两者只有一方能成功；
+ * 替换器的访问记录只在段锁空闲时更新（tryLock），命中永远不会等待正在进行的淘汰或磁盘I/O。
+ * 替换器不感知pin状态，淘汰时若候选帧被pin住（CAS失败），就把它当作一次访问放回替换器并继续寻找。
+ * 空闲帧始终保持"淘汰中"状态，过期的无锁命中无法pin住空闲帧，装入页面时再用CAS把它改为pin计数1。
+ */
+public class ConcurrentBufferPoolManager implements PageStore {
+    private static final int MIN_FRAMES_PER_STRIPE = 8; // 每段至少包含的帧数
+
+    private final Page[] pages; // 缓冲池中的页面数组
+    private final DiskManager diskManager; // 磁盘管理器实例
+    private final ConcurrentHashMap<Integer, Integer> pageTable; // 页ID到帧索引的映射
+    private final Stripe[] stripes; // 缓冲池分段
+    private final CacheStats stats; // 缓存统计信息
+
+    /**
+     * 缓冲池的一个分段
+     */
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock(); // 段锁，保护替换器和空闲帧
+        private final int firstFrame; // 段内第一个帧的全局索引
+        private final int frameCount; // 段内帧数
+        private final Replacer replacer; // 段内替换器（使用段内帧号）
+        private final int[] freeFrames; // 空闲帧栈（全局帧号）
+        private int freeCount;
+
+        Stripe(int firstFrame, int frameCount, ReplacementPolicy policy) {
+            this.firstFrame = firstFrame;
+            this.frameCount = frameCount;
+            this.replacer = Replacer.create(policy, frameCount);
+            this.freeFrames = new int[frameCount];
+            for (int i = frameCount - 1; i >= 0; i--) {
+                freeFrames[freeCount++] = firstFrame + i;
+            }
+        }
+    }
+
+    /**
+     * 构造函数 - 段数按CPU核数自动选择
+     */
+    public ConcurrentBufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy) {
+        this(poolSize, dbFilename, policy, defaultStripeCount(poolSize));
+    }
+
+    /**
+     * 构造函数 - 指定段数
+     */
+    public ConcurrentBufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy, int stripeCount) {
+        this(poolSize, dbFilename, policy, stripeCount, false);
+    }
+
+    /**
+     * 构造函数 - 段数按CPU核数自动选择，offHeap为true时帧分配在堆外直接内存中
+     */
+    public ConcurrentBufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy, boolean offHeap) {
+        this(poolSize, dbFilename, policy, defaultStripeCount(poolSize), offHeap);
+    }
+
+    /**
+     * 构造函数 - 指定段数，offHeap为true时帧分配在堆外直接内存中（见 {@link FrameArena}）
+     */
+    public ConcurrentBufferPoolManager(int poolSize, String dbFilename, ReplacementPolicy policy, int stripeCount,
+                                       boolean offHeap) {
+        if (stripeCount < 1 || stripeCount > poolSize) {
+            throw new IllegalArgumentException("Invalid stripe count: " + stripeCount);
+        }
+        this.pages = offHeap ? new FrameArena(poolSize).createPages() : new Page[poolSize];
+        this.diskManager = new DiskManager(dbFilename);
+        this.pageTable = new ConcurrentHashMap<>(poolSize * 2, 0.75f, stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        this.stats = new CacheStats();
+
+        for (int i = 0; i < poolSize; i++) {
+            if (!offHeap) {
+                pages[i] = new Page();
+            }
+            pages[i].tryMarkEvicting(); // 所有帧一开始都在空闲栈中
+        }
+        int firstFrame = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            int frameCount = poolSize / stripeCount + (i < poolSize % stripeCount ? 1 : 0);
+            stripes[i] = new Stripe(firstFrame, frameCount, policy);
+            firstFrame += frameCount;
+        }
+
+        System.out.println("Concurrent buffer pool initialized with " + poolSize + " pages in "
+            + stripeCount + " stripes");
+    }
+
+    /**
+     * 默认段数：不超过CPU核数的两倍，且每段至少MIN_FRAMES_PER_STRIPE个帧
+     */
+    private static int defaultStripeCount(int poolSize) {
+        int byCores = Runtime.getRuntime().availableProcessors() * 2;
+        return Math.max(1, Math.min(byCores, poolSize / MIN_FRAMES_PER_STRIPE));
+    }
+
+    /**
+     * 获取页面
+     */
+    @Override
+    public Page getPage(int pageId) {
+        if (pageId < 0) {
+            return null;
+        }
+
+        // 快速路径：无锁命中
+        Page page = tryPinResident(pageId);
+        if (page != null) {
+            stats.recordHit();
+            return page;
+        }
+
+        Stripe stripe = stripeFor(pageId);
+        stripe.lock.lock();
+        try {
+            // 持锁后再检查一次，其他线程可能已经装入了该页面
+            Integer frameIndex = pageTable.get(pageId);
+            if (frameIndex != null && pages[frameIndex].tryPin()) {
+                stats.recordHit();
+                stripe.replacer.recordAccess(frameIndex - stripe.firstFrame, pageId);
+                return pages[frameIndex];
+            }
+
+            stats.recordMiss();
+            int targetFrame = acquireFrame(stripe);
+            if (targetFrame == -1) {
+                System.err.println("No available frame for page " + pageId);
+                return null;
+            }
+
+            Page target = pages[targetFrame];
+            if (!diskManager.readPage(pageId, target.getBuffer())) {
+                System.err.println("Failed to read page " + pageId + " from disk");
+                releaseFrame(stripe, targetFrame);
+                return null;
+            }
+            installPage(stripe, targetFrame, pageId);
+            return target;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 释放页面，允许页面被替换
+     */
+    @Override
+    public boolean unpinPage(int pageId, boolean isDirty) {
+        Integer frameIndex = pageTable.get(pageId);
+        if (frameIndex == null) {
+            return false;
+        }
+        Page page = pages[frameIndex];
+        if (page.getPageId() != pageId || page.getPinCount() <= 0) {
+            return false;
+        }
+        if (isDirty) {
+            page.setDirty(true); // 先标记脏页再释放pin，淘汰方CAS成功后一定能看到脏标记
+        }
+        page.unpin();
+        return true;
+    }
+
+    /**
+     * 分配新页面
+     */
+    @Override
+    public Page newPage(int[] pageId) {
+        pageId[0] = diskManager.allocatePage();
+        if (pageId[0] == Page.INVALID_PAGE_ID) {
+            return null;
+        }
+
+        Stripe stripe = stripeFor(pageId[0]);
+        stripe.lock.lock();
+        try {
+            int frameIndex = acquireFrame(stripe);
+            if (frameIndex == -1) {
+                return null;
+            }
+            pages[frameIndex].clear(); // 新页面内容为空，直接在原帧上清零
+            installPage(stripe, frameIndex, pageId[0]);
+            return pages[frameIndex];
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 删除页面
+     */
+    @Override
+    public boolean deletePage(int pageId) {
+        Stripe stripe = stripeFor(pageId);
+        stripe.lock.lock();
+        try {
+            Integer frameIndex = pageTable.get(pageId);
+            if (frameIndex == null || !pages[frameIndex].tryMarkEvicting()) {
+                return false; // 页面不在缓冲池中或被pin住
+            }
+            pageTable.remove(pageId);
+            pages[frameIndex].setDirty(false); // 已删除的页面无需写回
+            stripe.replacer.remove(frameIndex - stripe.firstFrame);
+            releaseFrame(stripe, frameIndex);
+            diskManager.deallocatePage(pageId);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 刷新页面到磁盘
+     */
+    @Override
+    public boolean flushPage(int pageId) {
+        Stripe stripe = stripeFor(pageId);
+        stripe.lock.lock();
+        try {
+            Integer frameIndex = pageTable.get(pageId);
+            if (frameIndex == null) {
+                return false;
+            }
+            return writeBack(pages[frameIndex], false) && diskManager.sync();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 刷新所有页面：逐页写入后只做一次fsync
+     */
+    @Override
+    public boolean flushAllPages() {
+        boolean success = true;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int i = 0; i < stripe.frameCount; i++) {
+                    if (!writeBack(pages[stripe.firstFrame + i], false)) {
+                        success = false;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return diskManager.sync() && success;
+    }
+
+    @Override
+    public int getPageCount() {
+        return diskManager.getFileSize();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        flushAllPages();
+        diskManager.close();
+    }
+
+    /**
+     * 设置磁盘写入模式
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        diskManager.setWriteMode(writeMode);
+    }
+
+    /**
+     * 开启或关闭内存映射读模式：缺页时直接从映射的页缓存复制页面，不经过read系统调用
+     */
+    public void setMemoryMapped(boolean enabled) {
+        diskManager.setMemoryMapped(enabled);
+    }
+
+    /**
+     * 获取底层磁盘管理器（用于查询I/O统计）
+     */
+    public DiskManager getDiskManager() {
+        return diskManager;
+    }
+
+    /**
+     * 开启或关闭磁盘管理器的日志
+     */
+    public void setLoggingEnabled(boolean enabled) {
+        diskManager.setLoggingEnabled(enabled);
+    }
+
+    /**
+     * 段数
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Stripe stripeFor(int pageId) {
+        return stripes[Math.floorMod(pageId, stripes.length)];
+    }
+
+    /**
+     * 无锁命中：页面在缓冲池中且能被pin住时返回页面，否则返回null
+     */
+    private Page tryPinResident(int pageId) {
+        Integer frameIndex = pageTable.get(pageId);
+        if (frameIndex == null) {
+            return null;
+        }
+        Page page = pages[frameIndex];
+        if (!page.tryPin()) {
+            return null; // 帧正在被淘汰
+        }
+        if (page.getPageId() != pageId) {
+            page.unpin(); // 读页表与pin之间帧已被重新分配
+            return null;
+        }
+
+        // 替换器只在段锁空闲时更新，命中不等待淘汰
+        Stripe stripe = stripeFor(pageId);
+        if (stripe.lock.tryLock()) {
+            try {
+                stripe.replacer.recordAccess(frameIndex - stripe.firstFrame, pageId);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 在段内获取一个处于"淘汰中"状态的帧：优先使用空闲帧，否则淘汰替换器选出的页面
+     * 调用方必须持有段锁
+     */
+    private int acquireFrame(Stripe stripe) {
+        if (stripe.freeCount > 0) {
+            return stripe.freeFrames[--stripe.freeCount]; // 空闲帧已处于淘汰中状态
+        }
+
+        // 每个候选帧最多被跳过两次（第一次被pin住时放回替换器）
+        for (int attempt = 0; attempt < stripe.frameCount * 2; attempt++) {
+            int local = stripe.replacer.evict();
+            if (local == -1) {
+                return -1;
+            }
+            int frameIndex = stripe.firstFrame + local;
+            Page victim = pages[frameIndex];
+            if (!victim.tryMarkEvicting()) {
+                // 被pin住，视为一次访问放回替换器
+                stripe.replacer.recordAccess(local, victim.getPageId());
+                stripe.replacer.setEvictable(local, true);
+                continue;
+            }
+            if (!writeBack(victim, diskManager.getWriteMode() == WriteMode.WRITE_THROUGH)) {
+                System.err.println("Failed to write back victim page " + victim.getPageId());
+                victim.finishEvicting(0);
+                stripe.replacer.recordAccess(local, victim.getPageId());
+                stripe.replacer.setEvictable(local, true);
+                return -1;
+            }
+            pageTable.remove(victim.getPageId());
+            victim.setPageId(Page.INVALID_PAGE_ID);
+            return frameIndex;
+        }
+        return -1; // 所有帧都被pin住
+    }
+
+    /**
+     * 把已读入数据的帧发布到页表，新页面以pin计数1返回给调用方
+     */
+    private void installPage(Stripe stripe, int frameIndex, int pageId) {
+        Page page = pages[frameIndex];
+        page.setPageId(pageId);
+        page.setDirty(false);
+        if (!page.finishEvicting(1)) { // CAS是volatile写，之后其他线程通过页表看到的帧内容都是完整的
+            throw new IllegalStateException("Frame " + frameIndex + " is not held for eviction");
+        }
+        pageTable.put(pageId, frameIndex);
+        int local = frameIndex - stripe.firstFrame;
+        stripe.replacer.recordAccess(local, pageId);
+        stripe.replacer.setEvictable(local, true);
+    }
+
+    /**
+     * 把处于淘汰中状态的帧归还到段的空闲栈，帧保持淘汰中状态，不能被pin
+     */
+    private void releaseFrame(Stripe stripe, int frameIndex) {
+        Page page = pages[frameIndex];
+        page.setPageId(Page.INVALID_PAGE_ID);
+        stripe.freeFrames[stripe.freeCount++] = frameIndex;
+    }
+
+    /**
+     * 脏页写回磁盘；先清除脏标记再写，写入期间的并发修改会重新标记脏页而不会丢失
+     */
+    private boolean writeBack(Page page, boolean sync) {
+        int pageId = page.getPageId();
+        if (pageId == Page.INVALID_PAGE_ID || !page.isDirty()) {
+            return true;
+        }
+        page.setDirty(false);
+        if (!diskManager.writePage(pageId, page.getBuffer(), sync)) {
+            page.setDirty(true);
+            return false;
+        }
+        return true;
+    }
+}
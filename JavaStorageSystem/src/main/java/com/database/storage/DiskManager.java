@@ -0,0 +1,346 @@
+package com.database.storage;
+
+import java.io.*; // 导入Java I/O相关类
+import java.nio.ByteBuffer; // 导入字节缓冲区类
+import java.nio.channels.FileChannel; // 导入文件通道类
+import java.nio.file.Files; // 导入文件操作类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径操作类
+import java.util.concurrent.atomic.AtomicLong; // 导入原子计数类
+import java.util.concurrent.locks.ReentrantReadWriteLock; // 导入读写锁类
+
+/**
+ * 磁盘管理器类 - 负责页面的磁盘I/O操作
+ * 每个数据库文件在整个生命周期内只打开一次，页面读写使用FileChannel的定位读写（pread/pwrite），
+ * 多个线程可以同时读写不同页面；只有改变文件大小时才需要独占的写锁。
+ * 可选的内存映射读模式下，页面直接从映射的操作系统页缓存中读取，不再经过read系统调用。
+ */
+public class DiskManager implements Closeable {
+    private final String dbFilename; // 数据库文件名
+    private final ReentrantReadWriteLock fileLock; // 文件操作的读写锁（写锁只用于改变文件大小）
+    private final RandomAccessFile file; // 长期打开的数据库文件
+    private final FileChannel channel; // 文件通道，用于定位读写
+    private volatile WriteMode writeMode = WriteMode.WRITE_THROUGH; // 写入模式
+    private volatile MappedFile mappedFile; // 内存映射读模式下的映射，为null表示使用普通读
+    private volatile boolean unsyncedWrites; // 是否有尚未fsync的写入
+    private final AtomicLong pageWrites = new AtomicLong(); // 页面写入次数
+    private final AtomicLong syncCount = new AtomicLong(); // fsync次数
+    private volatile boolean loggingEnabled = true; // 是否输出页面分配/释放日志
+
+    /**
+     * 构造函数
+     */
+    public DiskManager(String filename) {
+        this.dbFilename = filename; // 初始化数据库文件名
+        this.fileLock = new ReentrantReadWriteLock(); 
+        // 初始化读写锁，“读锁”可以被多个线程同时持有（读不影响读）。“写锁”只能被一个线程持有，并且写的时候不允许其他线程读。“可重入”表示同一个线程如果已经获得了锁，可以再次进入，不会死锁。
+        initializeDatabase(); // 初始化数据库文件
+        try {
+            this.file = new RandomAccessFile(dbFilename, "rw"); // 打开文件，直到close()才关闭
+            this.channel = file.getChannel(); // 获取文件通道
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open database file: " + dbFilename, e); // 抛出异常
+        }
+    }
+
+    /**
+     * 初始化数据库文件
+     */
+    private void initializeDatabase() {
+        try {
+            Path path = Paths.get(dbFilename); // 获取数据库文件路径
+            if (!Files.exists(path)) { // 如果文件不存在
+                Files.createFile(path); // 创建新文件
+                System.out.println("Created new database file: " + dbFilename); // 输出创建文件信息
+            } else {
+                System.out.println("Opened existing database file: " + dbFilename); // 输出打开文件信息
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create or open database file: " + dbFilename, e); // 抛出异常
+        }
+    }
+
+    /**
+     * 从磁盘读取页面
+     */
+    public boolean readPage(int pageId, byte[] pageData) {
+        return readPage(pageId, ByteBuffer.wrap(pageData, 0, Page.PAGE_SIZE));
+    }
+
+    /**
+     * 从磁盘读取页面到缓冲区（可以是堆外帧），数据从内核直接读入帧中
+     * 读取不改变frame的position和limit
+     */
+    public boolean readPage(int pageId, ByteBuffer frame) {
+        if (pageId < 0) { // 检查页面ID是否有效
+            System.err.println("Invalid page ID: " + pageId); // 输出错误信息
+            return false; // 返回失败
+        }
+
+        try {
+            ensureFileSize(pageId); // 确保文件大小足够
+            MappedFile mapped = mappedFile;
+            if (mapped != null) {
+                pageWindow(frame).put(mapped.slice((long) pageId * Page.PAGE_SIZE, Page.PAGE_SIZE)); // 从映射中复制
+                return true;
+            }
+            fileLock.readLock().lock(); // 获取读锁
+            try {
+                long offset = (long) pageId * Page.PAGE_SIZE; // 计算页面偏移量
+                ByteBuffer buffer = pageWindow(frame); // 直接读入页面帧
+                while (buffer.hasRemaining()) {
+                    int bytesRead = channel.read(buffer, offset + buffer.position()); // 定位读，不移动文件指针
+                    if (bytesRead < 0) { // 检查是否读取完整页面
+                        System.err.println("Failed to read complete page " + pageId); // 输出错误信息
+                        return false; // 返回失败
+                    }
+                }
+                return true; // 返回成功
+            } finally {
+                fileLock.readLock().unlock(); // 释放读锁
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading page " + pageId + ": " + e.getMessage()); // 输出异常信息
+            return false; // 返回失败
+        }
+    }
+
+    /**
+     * 获取页面内容的只读视图而不复制数据；仅在内存映射读模式下可用，否则返回null
+     * 视图直接指向操作系统页缓存，之后对该页面的写入会反映在视图中
+     */
+    public ByteBuffer readPageView(int pageId) {
+        MappedFile mapped = mappedFile;
+        if (mapped == null || pageId < 0) {
+            return null;
+        }
+        try {
+            ensureFileSize(pageId);
+            return mapped.slice((long) pageId * Page.PAGE_SIZE, Page.PAGE_SIZE).asReadOnlyBuffer();
+        } catch (IOException e) {
+            System.err.println("Error mapping page " + pageId + ": " + e.getMessage()); // 输出异常信息
+            return null;
+        }
+    }
+
+    /**
+     * 开启或关闭内存映射读模式（适合内存充足、以读为主的场景）
+     */
+    public synchronized void setMemoryMapped(boolean enabled) {
+        if (enabled && mappedFile == null) {
+            mappedFile = new MappedFile(channel);
+        } else if (!enabled && mappedFile != null) {
+            closeMapping();
+        }
+    }
+
+    public boolean isMemoryMapped() {
+        return mappedFile != null;
+    }
+
+    /**
+     * 将页面写入磁盘，是否立即fsync由写入模式决定
+     */
+    public boolean writePage(int pageId, byte[] pageData) {
+        return writePage(pageId, pageData, writeMode == WriteMode.WRITE_THROUGH);
+    }
+
+    /**
+     * 将页面写入磁盘；sync为false时数据只进入操作系统缓存，需要之后调用sync()落盘
+     * 缓冲池刷新一批脏页时逐页以sync=false写入，最后只调用一次sync()
+     */
+    public boolean writePage(int pageId, byte[] pageData, boolean sync) {
+        return writePage(pageId, ByteBuffer.wrap(pageData, 0, Page.PAGE_SIZE), sync);
+    }
+
+    /**
+     * 将缓冲区（可以是堆外帧）中的页面写入磁盘，写入不改变frame的position和limit
+     */
+    public boolean writePage(int pageId, ByteBuffer frame, boolean sync) {
+        if (pageId < 0) { // 检查页面ID是否有效
+            System.err.println("Invalid page ID: " + pageId); // 输出错误信息
+            return false; // 返回失败
+        }
+
+        try {
+            ensureFileSize(pageId); // 确保文件大小足够
+            fileLock.readLock().lock(); // 定位写入互不干扰，读锁即可
+            try {
+                long offset = (long) pageId * Page.PAGE_SIZE; // 计算页面偏移量
+                ByteBuffer buffer = pageWindow(frame);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + buffer.position()); // 定位写，把数据写入操作系统的文件缓存（page cache）
+                }
+                pageWrites.incrementAndGet();
+                unsyncedWrites = true;
+            } finally {
+                fileLock.readLock().unlock(); // 释放读锁
+            }
+            return !sync || sync(); // 需要时强制同步到磁盘
+        } catch (IOException e) {
+            System.err.println("Error writing page " + pageId + ": " + e.getMessage()); // 输出异常信息
+            return false; // 返回失败
+        }
+    }
+
+    /**
+     * 帧开头PAGE_SIZE字节的独立视图，I/O移动的是视图的position，不影响调用方的缓冲区
+     */
+    private static ByteBuffer pageWindow(ByteBuffer frame) {
+        ByteBuffer window = frame.duplicate();
+        int start = window.position();
+        window.limit(start + Page.PAGE_SIZE);
+        return window.slice();
+    }
+
+    /**
+     * 把之前的写入强制刷到磁盘（一次fsync覆盖整批写入）
+     */
+    public boolean sync() {
+        if (!unsyncedWrites) {
+            return true; // 没有需要落盘的写入
+        }
+        try {
+            unsyncedWrites = false; // 先清除标记，fsync期间的新写入会重新设置
+            channel.force(false); // 只同步数据，不强制同步文件元数据
+            syncCount.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            unsyncedWrites = true;
+            System.err.println("Error syncing database file: " + e.getMessage()); // 输出异常信息
+            return false;
+        }
+    }
+
+    /**
+     * 分配新页面,在磁盘里，文件本质上是一串字节流。它的大小可以通过写操作来 增加，也可以截断来 减少。
+     */
+    public int allocatePage() {
+        fileLock.writeLock().lock(); // 获取写锁
+        try {
+            long fileSize = channel.size(); // 获取文件大小
+            int nextPageId = (int) (fileSize / Page.PAGE_SIZE); // 计算下一个页面ID
+            file.setLength((long) (nextPageId + 1) * Page.PAGE_SIZE); // 扩展文件
+
+            if (loggingEnabled) {
+                System.out.println("Allocated new page: " + nextPageId); // 输出分配页面信息
+            }
+            return nextPageId; // 返回新页面ID
+        } catch (IOException e) {
+            System.err.println("Error allocating page: " + e.getMessage()); // 输出异常信息
+            return Page.INVALID_PAGE_ID; // 返回无效页面ID
+        } finally {
+            fileLock.writeLock().unlock(); // 释放写锁
+        }
+    }
+
+    /**
+     * 释放页面（在简单实现中，我们实际上不释放页面）
+     */
+    public boolean deallocatePage(int pageId) {
+        if (loggingEnabled) {
+            System.out.println("Deallocated page: " + pageId); // 输出释放页面信息
+        }
+        return true; // 返回成功
+    }
+
+    /**
+     * 获取数据库文件大小（页数）
+     */
+    public int getFileSize() {
+        try {
+            return (int) (channel.size() / Page.PAGE_SIZE); // 返回页面数
+        } catch (IOException e) {
+            System.err.println("Error getting file size: " + e.getMessage()); // 输出异常信息
+            return 0; // 返回0
+        }
+    }
+
+    /**
+     * 确保文件足够大以容纳指定页面
+     */
+    private void ensureFileSize(int pageId) throws IOException {
+        long requiredSize = (long) (pageId + 1) * Page.PAGE_SIZE; // 计算所需文件大小
+        if (channel.size() >= requiredSize) {
+            return; // 大小足够时无需加写锁
+        }
+        fileLock.writeLock().lock(); // 改变文件大小需要写锁
+        try {
+            if (channel.size() < requiredSize) { // 如果当前大小不足
+                file.setLength(requiredSize); // 扩展文件大小
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void closeMapping() {
+        MappedFile mapped = mappedFile;
+        mappedFile = null;
+        if (mapped != null) {
+            try {
+                mapped.close();
+            } catch (IOException e) {
+                System.err.println("Error closing memory mapping: " + e.getMessage()); // 输出异常信息
+            }
+        }
+    }
+
+    /**
+     * 设置写入模式
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    /**
+     * 累计页面写入次数
+     */
+    public long getPageWriteCount() {
+        return pageWrites.get();
+    }
+
+    /**
+     * 累计fsync次数
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    /**
+     * 落盘尚未同步的写入并关闭文件
+     */
+    @Override
+    public void close() {
+        fileLock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                sync();
+                closeMapping();
+                file.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing database file: " + e.getMessage()); // 输出异常信息
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 开启或关闭页面分配日志
+     */
+    public void setLoggingEnabled(boolean enabled) {
+        this.loggingEnabled = enabled; // 设置日志开关
+    }
+
+    /**
+     * 获取数据库文件名
+     */
+    public String getDbFilename() {
+        return dbFilename; // 返回数据库文件名
+    }
+}
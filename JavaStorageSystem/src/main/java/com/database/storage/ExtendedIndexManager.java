@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +50,7 @@ public class ExtendedIndexManager {
             return false;
         }
         
-        BPlusTree index = new BPlusTree(storageEngine, indexName, maxKeys);
+        BPlusTree index = new BPlusTree(storageEngine, indexName, maxKeys, StringKey::new);
         indexes.put(indexName, index);
         indexTypes.put(indexName, IndexType.BPLUS_TREE);
         keyTypes.put(indexName, StringKey.class);
@@ -60,7 +62,7 @@ public class ExtendedIndexManager {
     // ========== 哈希索引方法 ==========
     
     /**
-     * 创建整数哈希索引
+     * 创建整数哈希索引（开放定址的LongHashIndex，键不装箱）
      */
     public boolean createIntegerHashIndex(String indexName, int bucketCount) {
         if (indexes.containsKey(indexName)) {
@@ -68,7 +70,7 @@ public class ExtendedIndexManager {
             return false;
         }
         
-        HashIndex index = new HashIndex(storageEngine, indexName, bucketCount);
+        LongHashIndex index = new LongHashIndex(indexName, bucketCount);
         indexes.put(indexName, index);
         indexTypes.put(indexName, IndexType.HASH_TABLE);
         keyTypes.put(indexName, Integer.class);
@@ -215,10 +217,10 @@ public class ExtendedIndexManager {
     /**
      * 获取哈希索引
      */
-    public HashIndex getHashIndex(String indexName) {
+    public Index getHashIndex(String indexName) {
         Index index = indexes.get(indexName);
-        if (index instanceof HashIndex) {
-            return (HashIndex) index;
+        if (index != null && index.getIndexType() == IndexType.HASH_TABLE) {
+            return index;
         }
         return null;
     }
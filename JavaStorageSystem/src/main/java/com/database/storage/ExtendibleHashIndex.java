@@ -0,0 +1,734 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 基于页面存储的可扩展哈希索引（extendible hashing）
+ *
+ * 页面0是元数据页（魔数、全局深度、索引项数量、空闲页链表头、目录页列表），目录是2^全局深度个桶页号，
+ * 按键哈希值的低位定位桶；多个目录项可以指向同一个桶（桶的局部深度小于全局深度）。
+ * 桶满时只分裂这一个桶：局部深度加一，按新增的那一位把索引项分到两个桶，
+ * 只有局部深度等于全局深度时目录才翻倍（复制一份指针），不需要全局重新哈希。
+ * 哈希值完全相同的索引项（比如同一个键的大量记录）无法靠分裂分开，这时给桶挂溢出页。
+ * 删除采用惰性方式：不合并桶，溢出页变空时摘下放入空闲页链表。
+ *
+ * 每个索引项保存完整的32位哈希值、键的字节和记录ID，查找时只对哈希值相同的索引项解码键；
+ * 键的hashCode必须与compareTo一致且跨进程稳定（String、BigDecimal等的hashCode都满足）。
+ * 并发控制用一把读写锁：查找共享，修改独占。
+ */
+public class ExtendibleHashIndex implements Index {
+    private final PageStore pageStore;
+    private final String indexName;
+    private final Supplier<BPlusTreeKey> keyFactory; // 比较哈希值相同的索引项时解码键
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int globalDepth;
+    private int[] directory = new int[0]; // 目录项 -> 桶页号
+    private int[] directoryPages = new int[0]; // 保存目录的页面
+    private int freeListHead = Page.INVALID_PAGE_ID;
+    private long entryCount;
+
+    // 元数据页布局
+    private static final int META_PAGE_ID = 0;
+    private static final int META_MAGIC = 0x45585448; // "EXTH"
+    private static final int META_DIRECTORY_PAGES = 24; // 目录页号列表的起始位置
+    private static final int DIRECTORY_ENTRIES_PER_PAGE = Page.PAGE_SIZE / 4;
+    // 目录页号列表要放进元数据页，2^19个目录项需要512个目录页
+    public static final int MAX_GLOBAL_DEPTH = 19;
+
+    // 桶页布局：局部深度、索引项数量、溢出页号、已用字节数，之后是索引项
+    private static final int BUCKET_HEADER_SIZE = 16;
+    private static final int ENTRY_OVERHEAD = 4 + 2 + 8; // 哈希值、键长度、记录ID
+
+    /**
+     * 在独立的页面存储上打开（或创建）索引
+     */
+    public ExtendibleHashIndex(PageStore pageStore, String indexName, Supplier<BPlusTreeKey> keyFactory) {
+        this.pageStore = pageStore;
+        this.indexName = indexName;
+        this.keyFactory = keyFactory;
+        if (pageStore.getPageCount() == 0 || !loadMeta()) {
+            initialize();
+        }
+    }
+
+    /**
+     * 插入索引项；完全相同的索引项已存在时返回false
+     */
+    public boolean insertEntry(BPlusTreeKey key, long recordId) {
+        byte[] keyBytes = checkKey(key).toBytes();
+        int hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            if (findEntry(key, hash, recordId, false)) {
+                return false;
+            }
+            addEntry(hash, keyBytes, recordId);
+            entryCount++;
+            saveMeta();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一个索引项
+     */
+    public boolean deleteEntry(BPlusTreeKey key, long recordId) {
+        if (key == null) {
+            return false;
+        }
+        int hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            if (!findEntry(key, hash, recordId, true)) {
+                return false;
+            }
+            entryCount--;
+            saveMeta();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除键的全部索引项
+     */
+    public boolean delete(BPlusTreeKey key) {
+        if (key == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Long> recordIds = searchAll(key);
+            for (long recordId : recordIds) {
+                findEntry(key, hash(key), recordId, true);
+            }
+            entryCount -= recordIds.size();
+            saveMeta();
+            return !recordIds.isEmpty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查找键对应的全部记录ID
+     */
+    public List<Long> searchAll(BPlusTreeKey key) {
+        List<Long> result = new ArrayList<>();
+        if (key == null) {
+            return result;
+        }
+        int hash = hash(key);
+        lock.readLock().lock();
+        try {
+            int pageId = directory[hash & mask()];
+            while (pageId != Page.INVALID_PAGE_ID) {
+                Page page = pageStore.getPage(pageId);
+                if (page == null) {
+                    break;
+                }
+                ByteBuffer buffer = page.getBuffer();
+                int end = buffer.getInt(12);
+                for (int offset = BUCKET_HEADER_SIZE; offset < end; offset = nextEntry(buffer, offset)) {
+                    if (buffer.getInt(offset) == hash && sameKey(buffer, offset, key)) {
+                        result.add(buffer.getLong(nextEntry(buffer, offset) - 8));
+                    }
+                }
+                int next = buffer.getInt(8);
+                pageStore.unpinPage(pageId, false);
+                pageId = next;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getGlobalDepth() {
+        lock.readLock().lock();
+        try {
+            return globalDepth;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 不同桶（含溢出页链）的数量
+     */
+    public int getBucketCount() {
+        lock.readLock().lock();
+        try {
+            return (int) Arrays.stream(directory).distinct().count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引：桶页和目录页全部放入空闲页链表，回到只有一个空桶的状态
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            BitSet visited = new BitSet(); // 已释放的桶页号，多个目录项指向同一个桶
+            for (int pageId : directory) {
+                if (!visited.get(pageId)) {
+                    visited.set(pageId);
+                    List<Integer> chain = new ArrayList<>();
+                    readChain(pageId, chain, new ArrayList<>());
+                    chain.forEach(this::freePage);
+                }
+            }
+            for (int pageId : directoryPages) {
+                freePage(pageId);
+            }
+            initialize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把脏页写回磁盘
+     */
+    public void flush() {
+        pageStore.flushAllPages();
+    }
+
+    public void close() {
+        pageStore.close();
+    }
+
+    // ========== Index接口实现 ==========
+
+    /**
+     * 按键更新：先删除键原有的索引项，一个键只保留一条记录
+     */
+    @Override
+    public boolean insert(Object key, int recordPageId) {
+        BPlusTreeKey hashKey = createKey(key);
+        if (hashKey == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(hashKey);
+            return insertEntry(hashKey, recordPageId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean insertEntry(Object key, long recordId) {
+        BPlusTreeKey hashKey = createKey(key);
+        return hashKey != null && insertEntry(hashKey, recordId);
+    }
+
+    @Override
+    public boolean delete(Object key) {
+        return delete(createKey(key));
+    }
+
+    @Override
+    public boolean deleteEntry(Object key, long recordId) {
+        return deleteEntry(createKey(key), recordId);
+    }
+
+    @Override
+    public int search(Object key) {
+        List<Long> recordIds = searchAll(createKey(key));
+        return recordIds.isEmpty() ? -1 : (int) (long) recordIds.get(0);
+    }
+
+    @Override
+    public List<Long> searchAll(Object key) {
+        return searchAll(createKey(key));
+    }
+
+    @Override
+    public List<Integer> rangeSearch(Object startKey, Object endKey) {
+        // 哈希索引不支持范围查询
+        System.out.println("Hash index does not support range search");
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getIndexName() {
+        return indexName;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.HASH_TABLE;
+    }
+
+    @Override
+    public void printInfo() {
+        System.out.println("\n=== Extendible Hash Index Information: " + indexName + " ===");
+        System.out.println("Index Type: " + getIndexType().getDescription());
+        System.out.println("Global Depth: " + getGlobalDepth());
+        System.out.println("Bucket Count: " + getBucketCount());
+        System.out.println("Entries: " + size());
+    }
+
+    @Override
+    public void printStructure() {
+        System.out.println("\n=== Extendible Hash Index Structure: " + indexName + " ===");
+        lock.readLock().lock();
+        try {
+            BitSet visited = new BitSet(); // 已打印的桶页号
+            for (int pageId : directory) {
+                if (visited.get(pageId)) {
+                    continue; // 每个桶只打印一次
+                }
+                visited.set(pageId);
+                List<Integer> chain = new ArrayList<>();
+                List<Entry> entries = new ArrayList<>();
+                int localDepth = readChain(pageId, chain, entries);
+                System.out.println("Bucket " + pageId + " (local depth " + localDepth + ", pages " + chain
+                        + "): " + entries.size() + " entries");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return (int) Math.min(entryCount, Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== 桶操作 ==========
+
+    /**
+     * 桶中的一个索引项，键保持序列化后的字节
+     */
+    private static final class Entry {
+        final int hash;
+        final byte[] keyBytes;
+        final long recordId;
+
+        Entry(int hash, byte[] keyBytes, long recordId) {
+            this.hash = hash;
+            this.keyBytes = keyBytes;
+            this.recordId = recordId;
+        }
+
+        int size() {
+            return ENTRY_OVERHEAD + keyBytes.length;
+        }
+    }
+
+    /**
+     * 把索引项放进它所属的桶：有空间就直接追加，放不下时分裂桶，分裂无济于事时挂溢出页
+     */
+    private void addEntry(int hash, byte[] keyBytes, long recordId) {
+        Entry entry = new Entry(hash, keyBytes, recordId);
+        while (true) {
+            int bucketPageId = directory[hash & mask()];
+            List<Integer> chain = new ArrayList<>();
+            List<Entry> entries = new ArrayList<>();
+            int localDepth = readChain(bucketPageId, chain, entries);
+            for (int pageId : chain) {
+                Page page = pageStore.getPage(pageId);
+                ByteBuffer buffer = page.getBuffer();
+                int used = buffer.getInt(12);
+                boolean fits = used + entry.size() <= Page.PAGE_SIZE;
+                if (fits) {
+                    writeEntry(buffer, used, entry);
+                    buffer.putInt(4, buffer.getInt(4) + 1);
+                    buffer.putInt(12, used + entry.size());
+                }
+                pageStore.unpinPage(pageId, fits);
+                if (fits) {
+                    return;
+                }
+            }
+            if (localDepth < MAX_GLOBAL_DEPTH && splittable(entries, entry, localDepth)) {
+                split(bucketPageId, localDepth, chain, entries);
+                continue;
+            }
+            entries.add(entry);
+            writeChain(chain, entries, localDepth);
+            return;
+        }
+    }
+
+    /**
+     * 桶中的索引项在局部深度以上的哈希位是否有差别，全都相同时分裂只会产生空桶
+     */
+    private static boolean splittable(List<Entry> entries, Entry entry, int localDepth) {
+        int bits = ((1 << MAX_GLOBAL_DEPTH) - 1) & ~((1 << localDepth) - 1);
+        for (Entry other : entries) {
+            if ((other.hash & bits) != (entry.hash & bits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 分裂一个桶：局部深度等于全局深度时先把目录翻倍，再按第localDepth位分配索引项
+     */
+    private void split(int bucketPageId, int localDepth, List<Integer> chain, List<Entry> entries) {
+        if (localDepth == globalDepth) {
+            int size = directory.length;
+            directory = Arrays.copyOf(directory, size * 2);
+            System.arraycopy(directory, 0, directory, size, size);
+            globalDepth++;
+        }
+        int bit = 1 << localDepth;
+        int newPageId = allocatePage();
+        for (int slot = 0; slot < directory.length; slot++) {
+            if (directory[slot] == bucketPageId && (slot & bit) != 0) {
+                directory[slot] = newPageId;
+            }
+        }
+
+        List<Entry> stay = new ArrayList<>();
+        List<Entry> move = new ArrayList<>();
+        for (Entry entry : entries) {
+            ((entry.hash & bit) == 0 ? stay : move).add(entry);
+        }
+        writeChain(chain, stay, localDepth + 1);
+        List<Integer> newChain = new ArrayList<>();
+        newChain.add(newPageId);
+        writeChain(newChain, move, localDepth + 1);
+        saveDirectory();
+    }
+
+    /**
+     * 查找完全相同的索引项，remove为true时从桶中删除它；变空的溢出页放入空闲页链表
+     */
+    private boolean findEntry(BPlusTreeKey key, int hash, long recordId, boolean remove) {
+        int bucketPageId = directory[hash & mask()];
+        int previous = Page.INVALID_PAGE_ID;
+        int pageId = bucketPageId;
+        while (pageId != Page.INVALID_PAGE_ID) {
+            Page page = pageStore.getPage(pageId);
+            if (page == null) {
+                return false;
+            }
+            ByteBuffer buffer = page.getBuffer();
+            int end = buffer.getInt(12);
+            for (int offset = BUCKET_HEADER_SIZE; offset < end; ) {
+                int next = nextEntry(buffer, offset);
+                if (buffer.getInt(offset) == hash && buffer.getLong(next - 8) == recordId
+                        && sameKey(buffer, offset, key)) {
+                    if (remove) {
+                        // 后面的索引项前移覆盖被删除的索引项
+                        ByteBuffer tail = buffer.duplicate();
+                        tail.limit(end).position(next);
+                        ByteBuffer target = buffer.duplicate();
+                        target.position(offset);
+                        target.put(tail);
+                        buffer.putInt(4, buffer.getInt(4) - 1);
+                        buffer.putInt(12, end - (next - offset));
+                    }
+                    boolean emptyOverflow = remove && pageId != bucketPageId && buffer.getInt(4) == 0;
+                    int following = buffer.getInt(8);
+                    pageStore.unpinPage(pageId, remove);
+                    if (emptyOverflow) {
+                        setNextPage(previous, following);
+                        freePage(pageId);
+                    }
+                    return true;
+                }
+                offset = next;
+            }
+            int next = buffer.getInt(8);
+            pageStore.unpinPage(pageId, false);
+            previous = pageId;
+            pageId = next;
+        }
+        return false;
+    }
+
+    /**
+     * 读出桶的页面链和全部索引项，返回桶的局部深度
+     */
+    private int readChain(int bucketPageId, List<Integer> chain, List<Entry> entries) {
+        int localDepth = 0;
+        int pageId = bucketPageId;
+        while (pageId != Page.INVALID_PAGE_ID) {
+            Page page = pageStore.getPage(pageId);
+            if (page == null) {
+                throw new IllegalStateException("Missing bucket page " + pageId + " in hash index " + indexName);
+            }
+            ByteBuffer buffer = page.getBuffer();
+            if (pageId == bucketPageId) {
+                localDepth = buffer.getInt(0);
+            }
+            int end = buffer.getInt(12);
+            for (int offset = BUCKET_HEADER_SIZE; offset < end; ) {
+                int next = nextEntry(buffer, offset);
+                byte[] keyBytes = new byte[next - offset - ENTRY_OVERHEAD];
+                ByteBuffer view = buffer.duplicate();
+                view.position(offset + 6);
+                view.get(keyBytes);
+                entries.add(new Entry(buffer.getInt(offset), keyBytes, buffer.getLong(next - 8)));
+                offset = next;
+            }
+            chain.add(pageId);
+            int next = buffer.getInt(8);
+            pageStore.unpinPage(pageId, false);
+            pageId = next;
+        }
+        return localDepth;
+    }
+
+    /**
+     * 把索引项依次写入桶的页面链，页面不够时分配溢出页，多出的溢出页放入空闲页链表
+     */
+    private void writeChain(List<Integer> chain, List<Entry> entries, int localDepth) {
+        int index = 0;
+        for (int i = 0; index < entries.size() || i == 0; i++) {
+            if (i == chain.size()) {
+                chain.add(allocatePage());
+            }
+            int pageId = chain.get(i);
+            Page page = pageStore.getPage(pageId);
+            ByteBuffer buffer = page.getBuffer();
+            int used = BUCKET_HEADER_SIZE;
+            int count = 0;
+            while (index < entries.size() && used + entries.get(index).size() <= Page.PAGE_SIZE) {
+                writeEntry(buffer, used, entries.get(index));
+                used += entries.get(index).size();
+                index++;
+                count++;
+            }
+            buffer.putInt(0, localDepth);
+            buffer.putInt(4, count);
+            buffer.putInt(8, Page.INVALID_PAGE_ID);
+            buffer.putInt(12, used);
+            if (i > 0) {
+                setNextPage(chain.get(i - 1), pageId);
+            }
+            pageStore.unpinPage(pageId, true);
+            if (index == entries.size()) {
+                for (int extra = i + 1; extra < chain.size(); extra++) {
+                    freePage(chain.get(extra));
+                }
+                return;
+            }
+        }
+    }
+
+    private static void writeEntry(ByteBuffer buffer, int offset, Entry entry) {
+        buffer.putInt(offset, entry.hash);
+        buffer.putShort(offset + 4, (short) entry.keyBytes.length);
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 6);
+        view.put(entry.keyBytes);
+        buffer.putLong(offset + 6 + entry.keyBytes.length, entry.recordId);
+    }
+
+    private static int nextEntry(ByteBuffer buffer, int offset) {
+        return offset + ENTRY_OVERHEAD + (buffer.getShort(offset + 4) & 0xFFFF);
+    }
+
+    private boolean sameKey(ByteBuffer buffer, int offset, BPlusTreeKey key) {
+        byte[] keyBytes = new byte[buffer.getShort(offset + 4) & 0xFFFF];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 6);
+        view.get(keyBytes);
+        BPlusTreeKey stored = keyFactory.get();
+        stored.fromBytes(keyBytes, 0);
+        return stored.compareTo(key) == 0;
+    }
+
+    private void setNextPage(int pageId, int nextPageId) {
+        Page page = pageStore.getPage(pageId);
+        page.getBuffer().putInt(8, nextPageId);
+        pageStore.unpinPage(pageId, true);
+    }
+
+    // ========== 页面分配与元数据 ==========
+
+    /**
+     * 优先复用空闲页链表中的页面
+     */
+    private int allocatePage() {
+        if (freeListHead != Page.INVALID_PAGE_ID) {
+            int pageId = freeListHead;
+            Page page = pageStore.getPage(pageId);
+            freeListHead = page.getBuffer().getInt(8);
+            pageStore.unpinPage(pageId, false);
+            return pageId;
+        }
+        int[] newPageId = new int[1];
+        if (pageStore.newPage(newPageId) == null) {
+            throw new IllegalStateException("Failed to allocate page for hash index " + indexName);
+        }
+        pageStore.unpinPage(newPageId[0], false);
+        return newPageId[0];
+    }
+
+    private void freePage(int pageId) {
+        Page page = pageStore.getPage(pageId);
+        ByteBuffer buffer = page.getBuffer();
+        buffer.putInt(4, 0);
+        buffer.putInt(8, freeListHead);
+        buffer.putInt(12, BUCKET_HEADER_SIZE);
+        pageStore.unpinPage(pageId, true);
+        freeListHead = pageId;
+    }
+
+    /**
+     * 新建索引：元数据页、一个目录页和一个局部深度为0的空桶
+     */
+    private void initialize() {
+        int[] newPageId = new int[1];
+        if (pageStore.getPageCount() == 0) {
+            if (pageStore.newPage(newPageId) == null) {
+                throw new IllegalStateException("Failed to allocate meta page for hash index " + indexName);
+            }
+            pageStore.unpinPage(newPageId[0], false);
+        }
+        globalDepth = 0;
+        entryCount = 0;
+        directoryPages = new int[0]; // 空闲页链表保留，清空时释放的页面在这里复用
+        int bucketPageId = allocatePage();
+        writeChain(new ArrayList<>(List.of(bucketPageId)), new ArrayList<>(), 0);
+        directory = new int[] { bucketPageId };
+        saveDirectory();
+    }
+
+    private boolean loadMeta() {
+        Page page = pageStore.getPage(META_PAGE_ID);
+        if (page == null) {
+            return false;
+        }
+        ByteBuffer buffer = page.getBuffer();
+        boolean valid = buffer.getInt(0) == META_MAGIC;
+        if (valid) {
+            globalDepth = buffer.getInt(4);
+            entryCount = buffer.getLong(8);
+            freeListHead = buffer.getInt(16);
+            directoryPages = new int[buffer.getInt(20)];
+            for (int i = 0; i < directoryPages.length; i++) {
+                directoryPages[i] = buffer.getInt(META_DIRECTORY_PAGES + i * 4);
+            }
+        }
+        pageStore.unpinPage(META_PAGE_ID, false);
+        if (!valid) {
+            return false;
+        }
+
+        directory = new int[1 << globalDepth];
+        for (int i = 0; i < directoryPages.length; i++) {
+            Page directoryPage = pageStore.getPage(directoryPages[i]);
+            ByteBuffer entries = directoryPage.getBuffer();
+            int from = i * DIRECTORY_ENTRIES_PER_PAGE;
+            for (int slot = from; slot < Math.min(directory.length, from + DIRECTORY_ENTRIES_PER_PAGE); slot++) {
+                directory[slot] = entries.getInt((slot - from) * 4);
+            }
+            pageStore.unpinPage(directoryPages[i], false);
+        }
+        return true;
+    }
+
+    /**
+     * 写回整个目录（按需分配目录页）和元数据页
+     */
+    private void saveDirectory() {
+        int pagesNeeded = (directory.length + DIRECTORY_ENTRIES_PER_PAGE - 1) / DIRECTORY_ENTRIES_PER_PAGE;
+        while (directoryPages.length < pagesNeeded) {
+            directoryPages = Arrays.copyOf(directoryPages, directoryPages.length + 1);
+            directoryPages[directoryPages.length - 1] = allocatePage();
+        }
+        for (int i = 0; i < pagesNeeded; i++) {
+            Page page = pageStore.getPage(directoryPages[i]);
+            ByteBuffer buffer = page.getBuffer();
+            int from = i * DIRECTORY_ENTRIES_PER_PAGE;
+            for (int slot = from; slot < Math.min(directory.length, from + DIRECTORY_ENTRIES_PER_PAGE); slot++) {
+                buffer.putInt((slot - from) * 4, directory[slot]);
+            }
+            pageStore.unpinPage(directoryPages[i], true);
+        }
+        saveMeta();
+    }
+
+    private void saveMeta() {
+        Page page = pageStore.getPage(META_PAGE_ID);
+        if (page == null) {
+            return;
+        }
+        ByteBuffer buffer = page.getBuffer();
+        buffer.putInt(0, META_MAGIC);
+        buffer.putInt(4, globalDepth);
+        buffer.putLong(8, entryCount);
+        buffer.putInt(16, freeListHead);
+        buffer.putInt(20, directoryPages.length);
+        for (int i = 0; i < directoryPages.length; i++) {
+            buffer.putInt(META_DIRECTORY_PAGES + i * 4, directoryPages[i]);
+        }
+        pageStore.unpinPage(META_PAGE_ID, true);
+    }
+
+    // ========== 工具方法 ==========
+
+    private int mask() {
+        return (1 << globalDepth) - 1;
+    }
+
+    /**
+     * 打散hashCode的各位（murmur3的fmix32），目录按低位定位，hashCode低位相近的键也能分散
+     */
+    private static int hash(BPlusTreeKey key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private BPlusTreeKey checkKey(BPlusTreeKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (key.getSize() > BPlusTree.MAX_KEY_SIZE) {
+            throw new IllegalArgumentException("Key too large for index " + indexName + ": " + key.getSize() + " bytes");
+        }
+        return key;
+    }
+
+    /**
+     * 创建BPlusTreeKey对象
+     */
+    private BPlusTreeKey createKey(Object key) {
+        if (key instanceof BPlusTreeKey) {
+            return (BPlusTreeKey) key;
+        } else if (key instanceof Integer) {
+            return new IntegerKey((Integer) key);
+        } else if (key instanceof String) {
+            return new StringKey((String) key);
+        } else {
+            System.err.println("Unsupported key type: " + (key == null ? "null" : key.getClass().getSimpleName()));
+            return null;
+        }
+    }
+}
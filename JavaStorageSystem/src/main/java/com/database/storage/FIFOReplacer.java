@@ -0,0 +1,58 @@
+package com.database.storage;
+
+/**
+ * FIFO替换器 - 按帧装入缓冲池的先后顺序淘汰，访问不改变顺序
+ *
+ * 淘汰时从最早装入的帧开始跳过被pin的帧，代价与被pin的帧数成正比。
+ */
+public class FIFOReplacer implements Replacer {
+    private final FrameList fifoList; // 已装入的帧，头部为最早装入
+    private final boolean[] evictable; // 帧是否可淘汰
+    private int evictableCount;
+
+    public FIFOReplacer(int poolSize) {
+        this.fifoList = new FrameList(poolSize);
+        this.evictable = new boolean[poolSize];
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        fifoList.addLast(frameIndex); // 已在队列中时保持原位置
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean value) {
+        if (!fifoList.contains(frameIndex) || evictable[frameIndex] == value) {
+            return;
+        }
+        evictable[frameIndex] = value;
+        evictableCount += value ? 1 : -1;
+    }
+
+    @Override
+    public int evict() {
+        if (evictableCount == 0) {
+            return -1;
+        }
+        for (int frame = fifoList.first(); frame != -1; frame = fifoList.next(frame)) {
+            if (evictable[frame]) {
+                remove(frame);
+                return frame;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        if (fifoList.remove(frameIndex) && evictable[frameIndex]) {
+            evictable[frameIndex] = false;
+            evictableCount--;
+        }
+    }
+
+    @Override
+    public int size() {
+        return evictableCount;
+    }
+}
@@ -0,0 +1,67 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 堆外帧区 - 在直接内存中一次性分配缓冲池的全部帧
+ *
+ * 帧区由若干块直接ByteBuffer组成（单块不超过1GB，ByteBuffer容量受int限制），
+ * 每一帧是其中PAGE_SIZE字节的切片。帧内存不在Java堆上，GC不需要扫描或移动它，
+ * 磁盘I/O可以直接在帧上进行，不经过临时堆数组。
+ */
+public class FrameArena {
+    private static final int MAX_CHUNK_BYTES = 1 << 30; // 单块1GB（页大小的整数倍）
+    private static final int FRAMES_PER_CHUNK = MAX_CHUNK_BYTES / Page.PAGE_SIZE;
+
+    private final ByteBuffer[] chunks; // 直接内存块
+    private final int frameCount; // 帧数量
+
+    public FrameArena(int frameCount) {
+        if (frameCount <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive"); // 抛出异常
+        }
+        this.frameCount = frameCount;
+        int chunkCount = (frameCount + FRAMES_PER_CHUNK - 1) / FRAMES_PER_CHUNK;
+        this.chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int frames = Math.min(FRAMES_PER_CHUNK, frameCount - i * FRAMES_PER_CHUNK);
+            chunks[i] = ByteBuffer.allocateDirect(frames * Page.PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 返回第index帧的视图（容量为PAGE_SIZE，与帧区共享内存）
+     */
+    public ByteBuffer frame(int index) {
+        if (index < 0 || index >= frameCount) {
+            throw new IndexOutOfBoundsException("Frame " + index + " out of range [0, " + frameCount + ")");
+        }
+        ByteBuffer view = chunks[index / FRAMES_PER_CHUNK].duplicate();
+        int offset = (index % FRAMES_PER_CHUNK) * Page.PAGE_SIZE;
+        view.position(offset);
+        view.limit(offset + Page.PAGE_SIZE);
+        return view.slice();
+    }
+
+    /**
+     * 为每一帧创建一个页面享元
+     */
+    public Page[] createPages() {
+        Page[] pages = new Page[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            pages[i] = new Page(frame(i));
+        }
+        return pages;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 帧区总字节数
+     */
+    public long getCapacityBytes() {
+        return (long) frameCount * Page.PAGE_SIZE;
+    }
+}
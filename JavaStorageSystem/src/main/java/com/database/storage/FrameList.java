@@ -0,0 +1,115 @@
+package com.database.storage;
+
+/**
+ * 帧链表 - 以原始int数组实现的侵入式双向链表
+ *
+ * 每个帧号最多出现一次，插入、删除、移动到尾部都是O(1)，且不产生装箱对象。
+ * 链表头是最早插入的帧，链表尾是最近插入的帧。
+ */
+final class FrameList {
+    private static final int NONE = -1;
+
+    private final int[] prev; // 前驱帧号
+    private final int[] next; // 后继帧号
+    private final boolean[] linked; // 帧是否在链表中
+    private int head = NONE; // 链表头（最旧）
+    private int tail = NONE; // 链表尾（最新）
+    private int size;
+
+    FrameList(int capacity) {
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        this.linked = new boolean[capacity];
+    }
+
+    boolean contains(int frame) {
+        return linked[frame];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 链表头的帧，链表为空时返回-1
+     */
+    int first() {
+        return head;
+    }
+
+    /**
+     * 链表中的下一个帧，到达末尾时返回-1
+     */
+    int next(int frame) {
+        return next[frame];
+    }
+
+    /**
+     * 追加到链表尾
+     */
+    void addLast(int frame) {
+        if (linked[frame]) {
+            return;
+        }
+        prev[frame] = tail;
+        next[frame] = NONE;
+        if (tail != NONE) {
+            next[tail] = frame;
+        } else {
+            head = frame;
+        }
+        tail = frame;
+        linked[frame] = true;
+        size++;
+    }
+
+    /**
+     * 从链表中摘除
+     */
+    boolean remove(int frame) {
+        if (!linked[frame]) {
+            return false;
+        }
+        int p = prev[frame];
+        int n = next[frame];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+        linked[frame] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * 移动到链表尾（不在链表中时直接追加）
+     */
+    void moveToLast(int frame) {
+        if (linked[frame] && frame == tail) {
+            return;
+        }
+        remove(frame);
+        addLast(frame);
+    }
+
+    /**
+     * 移除并返回链表头，链表为空时返回-1
+     */
+    int removeFirst() {
+        int frame = head;
+        if (frame != NONE) {
+            remove(frame);
+        }
+        return frame;
+    }
+}
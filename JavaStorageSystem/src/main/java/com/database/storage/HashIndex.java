@@ -1,8 +1,11 @@
+package com.database.storage;
+
 import java.util.*;
 
 /**
  * 哈希索引实现
- * 使用链式冲突解决法，支持整数和字符串键
+ * 使用链式冲突解决法，支持整数和字符串键，以及实现了equals/hashCode的任意键对象。
+ * insert按键更新（一个键一条记录），insertEntry允许同一个键对应多条记录。
  */
 public class HashIndex implements Index {
     private StorageEngine storageEngine;
@@ -16,9 +19,9 @@ public class HashIndex implements Index {
      */
     private static class HashEntry {
         Object key;
-        int recordPageId;
+        long recordPageId;
         
-        public HashEntry(Object key, int recordPageId) {
+        public HashEntry(Object key, long recordPageId) {
             this.key = key;
             this.recordPageId = recordPageId;
         }
@@ -42,6 +45,10 @@ public class HashIndex implements Index {
         }
     }
     
+    public HashIndex(String indexName, int bucketCount) {
+        this(null, indexName, bucketCount);
+    }
+    
     public HashIndex(StorageEngine storageEngine, String indexName, int bucketCount) {
         this.storageEngine = storageEngine;
         this.indexName = indexName;
@@ -82,6 +89,57 @@ public class HashIndex implements Index {
         return true;
     }
     
+    @Override
+    public boolean insertEntry(Object key, long recordId) {
+        if (key == null) {
+            System.err.println("Key cannot be null");
+            return false;
+        }
+        
+        List<HashEntry> bucket = buckets.get(hash(key));
+        for (HashEntry entry : bucket) {
+            if (entry.recordPageId == recordId && Objects.equals(entry.key, key)) {
+                return false; // 索引项已存在
+            }
+        }
+        bucket.add(new HashEntry(key, recordId));
+        size++;
+        return true;
+    }
+    
+    @Override
+    public boolean deleteEntry(Object key, long recordId) {
+        if (key == null) {
+            return false;
+        }
+        
+        Iterator<HashEntry> iterator = buckets.get(hash(key)).iterator();
+        while (iterator.hasNext()) {
+            HashEntry entry = iterator.next();
+            if (entry.recordPageId == recordId && Objects.equals(entry.key, key)) {
+                iterator.remove();
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<Long> searchAll(Object key) {
+        List<Long> result = new ArrayList<>();
+        if (key == null) {
+            return result;
+        }
+        
+        for (HashEntry entry : buckets.get(hash(key))) {
+            if (Objects.equals(entry.key, key)) {
+                result.add(entry.recordPageId);
+            }
+        }
+        return result;
+    }
+    
     @Override
     public boolean delete(Object key) {
         if (key == null) {
@@ -115,7 +173,7 @@ public class HashIndex implements Index {
         
         for (HashEntry entry : bucket) {
             if (Objects.equals(entry.key, key)) {
-                return entry.recordPageId;
+                return (int) entry.recordPageId;
             }
         }
         
@@ -187,13 +245,8 @@ public class HashIndex implements Index {
      * 计算键的哈希值
      */
     private int hash(Object key) {
-        if (key instanceof Integer) {
-            return Math.abs(((Integer) key).hashCode()) % bucketCount;
-        } else if (key instanceof String) {
-            return Math.abs(key.hashCode()) % bucketCount;
-        } else {
-            return Math.abs(key.hashCode()) % bucketCount;
-        }
+        // floorMod避免hashCode为Integer.MIN_VALUE时取绝对值仍为负数
+        return Math.floorMod(key.hashCode(), bucketCount);
     }
     
     /**
@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.util.List;
 
 /**
@@ -35,6 +37,29 @@ public interface Index {
      */
     List<Integer> rangeSearch(Object startKey, Object endKey);
     
+    /**
+     * 插入一个索引项（允许同一个键对应多条记录）
+     * @param key 键
+     * @param recordId 记录ID（例如页号与槽号编码成的long）
+     * @return 是否插入成功；唯一索引中键已存在时返回false
+     */
+    boolean insertEntry(Object key, long recordId);
+    
+    /**
+     * 删除一个索引项
+     * @param key 键
+     * @param recordId 记录ID
+     * @return 是否删除成功
+     */
+    boolean deleteEntry(Object key, long recordId);
+    
+    /**
+     * 查找键对应的全部记录ID
+     * @param key 键
+     * @return 记录ID列表，未找到返回空列表
+     */
+    List<Long> searchAll(Object key);
+    
     /**
      * 获取索引名称
      * @return 索引名称
@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,7 +45,7 @@ public class IndexManager {
             return false;
         }
         
-        BPlusTree index = new BPlusTree(storageEngine, indexName, maxKeys);
+        BPlusTree index = new BPlusTree(storageEngine, indexName, maxKeys, StringKey::new);
         indexes.put(indexName, index);
         keyTypes.put(indexName, StringKey.class);
         
@@ -140,6 +142,26 @@ public class IndexManager {
         return index.rangeSearch(bPlusStartKey, bPlusEndKey);
     }
     
+    /**
+     * 打开范围游标，按键顺序（descending为true时逆序）流式返回索引项；startKey或endKey为null表示不设边界
+     * @return 索引不存在或键类型不匹配时返回null
+     */
+    public BPlusTreeCursor openCursor(String indexName, Object startKey, Object endKey, boolean descending) {
+        BPlusTree index = indexes.get(indexName);
+        if (index == null) {
+            System.err.println("Index " + indexName + " does not exist");
+            return null;
+        }
+        
+        BPlusTreeKey bPlusStartKey = startKey == null ? null : createKey(indexName, startKey);
+        BPlusTreeKey bPlusEndKey = endKey == null ? null : createKey(indexName, endKey);
+        if ((startKey != null && bPlusStartKey == null) || (endKey != null && bPlusEndKey == null)) {
+            return null;
+        }
+        
+        return index.openCursor(bPlusStartKey, bPlusEndKey, descending);
+    }
+    
     /**
      * 获取索引中的所有键值
      */
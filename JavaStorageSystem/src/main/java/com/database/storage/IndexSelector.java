@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
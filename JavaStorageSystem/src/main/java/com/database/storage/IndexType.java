@@ -1,3 +1,5 @@
+package com.database.storage;
+
 /**
  * 索引类型枚举
  */
@@ -0,0 +1,69 @@
+package com.database.storage;
+
+/**
+ * Integer Key Implementation
+ */
+class IntegerKey implements BPlusTreeKey {
+    private int value;
+    
+    public IntegerKey(int value) {
+        this.value = value;
+    }
+    
+    public IntegerKey() {
+        this.value = 0;
+    }
+    
+    public int getValue() {
+        return value;
+    }
+    
+    @Override
+    public int compareTo(BPlusTreeKey other) {
+        if (other instanceof IntegerKey) {
+            return Integer.compare(this.value, ((IntegerKey) other).value);
+        }
+        throw new IllegalArgumentException("Cannot compare IntegerKey with " + other.getClass().getSimpleName());
+    }
+    
+    @Override
+    public byte[] toBytes() {
+        byte[] bytes = new byte[4];
+        bytes[0] = (byte) (value >>> 24);
+        bytes[1] = (byte) (value >>> 16);
+        bytes[2] = (byte) (value >>> 8);
+        bytes[3] = (byte) value;
+        return bytes;
+    }
+    
+    @Override
+    public void fromBytes(byte[] data, int offset) {
+        this.value = ((data[offset] & 0xFF) << 24) |
+                    ((data[offset + 1] & 0xFF) << 16) |
+                    ((data[offset + 2] & 0xFF) << 8) |
+                    (data[offset + 3] & 0xFF);
+    }
+    
+    @Override
+    public int getSize() {
+        return 4;
+    }
+    
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        IntegerKey that = (IntegerKey) obj;
+        return value == that.value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+}
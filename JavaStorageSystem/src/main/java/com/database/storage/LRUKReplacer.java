@@ -0,0 +1,163 @@
+package com.database.storage;
+
+import java.util.*;
+
+/**
+ * LRU-K替换器 - 按"倒数第K次访问时间"（后向K距离）淘汰
+ *
+ * 访问次数不足K次的帧后向K距离视为无穷大，优先淘汰，彼此之间按变为可淘汰的先后顺序；
+ * 访问满K次的帧按倒数第K次访问时间排序，最早的先淘汰。
+ * 全表扫描只访问每个页面一次，因此扫描页面总是先于热点页面被淘汰。
+ * 被淘汰页面的访问历史会保留一段时间（最多poolSize个页面），页面很快被重新读入时可以恢复。
+ */
+public class LRUKReplacer implements Replacer {
+    private final int k;
+    private final int[] framePage; // 帧中页面的ID，未跟踪时为INVALID_PAGE_ID
+    private final long[] history; // 每帧最近K次访问的时间戳（环形缓冲）
+    private final int[] accessCount; // 每帧已记录的访问次数（最多K）
+    private final int[] historyHead; // 环形缓冲的下一个写入位置
+    private final boolean[] evictable;
+    private final long[] indexedKey; // 帧在kDistanceIndex中的键，-1表示不在其中
+    private final FrameList infiniteList; // 访问不足K次的可淘汰帧
+    private final TreeMap<Long, Integer> kDistanceIndex; // 倒数第K次访问时间 -> 帧（访问满K次的可淘汰帧）
+    private final Map<Integer, long[]> retainedHistory; // 已淘汰页面保留的访问历史
+    private long currentTimestamp;
+    private int evictableCount;
+
+    public LRUKReplacer(int poolSize, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be at least 1");
+        }
+        this.k = k;
+        this.framePage = new int[poolSize];
+        this.history = new long[poolSize * k];
+        this.accessCount = new int[poolSize];
+        this.historyHead = new int[poolSize];
+        this.evictable = new boolean[poolSize];
+        this.indexedKey = new long[poolSize];
+        this.infiniteList = new FrameList(poolSize);
+        this.kDistanceIndex = new TreeMap<>();
+        Arrays.fill(framePage, Page.INVALID_PAGE_ID);
+        Arrays.fill(indexedKey, -1L);
+        this.retainedHistory = new LinkedHashMap<Integer, long[]>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+                return size() > poolSize;
+            }
+        };
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        if (framePage[frameIndex] != pageId) {
+            // 新装入的页面：恢复保留的访问历史
+            clear(frameIndex);
+            framePage[frameIndex] = pageId;
+            long[] retained = retainedHistory.remove(pageId);
+            if (retained != null) {
+                System.arraycopy(retained, 0, history, frameIndex * k, retained.length);
+                accessCount[frameIndex] = retained.length;
+                historyHead[frameIndex] = retained.length % k;
+            }
+        }
+
+        boolean indexed = evictable[frameIndex];
+        if (indexed) {
+            unindex(frameIndex); // 排序键将改变
+        }
+        history[frameIndex * k + historyHead[frameIndex]] = ++currentTimestamp;
+        historyHead[frameIndex] = (historyHead[frameIndex] + 1) % k;
+        if (accessCount[frameIndex] < k) {
+            accessCount[frameIndex]++;
+        }
+        if (indexed) {
+            index(frameIndex);
+        }
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean value) {
+        if (framePage[frameIndex] == Page.INVALID_PAGE_ID || evictable[frameIndex] == value) {
+            return;
+        }
+        evictable[frameIndex] = value;
+        if (value) {
+            evictableCount++;
+            index(frameIndex);
+        } else {
+            evictableCount--;
+            unindex(frameIndex);
+        }
+    }
+
+    @Override
+    public int evict() {
+        int frame = infiniteList.removeFirst();
+        if (frame == -1) {
+            Map.Entry<Long, Integer> oldest = kDistanceIndex.pollFirstEntry();
+            if (oldest == null) {
+                return -1;
+            }
+            frame = oldest.getValue();
+            indexedKey[frame] = -1L;
+        }
+        retainedHistory.put(framePage[frame], snapshotHistory(frame));
+        clear(frame);
+        return frame;
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        clear(frameIndex);
+    }
+
+    @Override
+    public int size() {
+        return evictableCount;
+    }
+
+    /**
+     * 把可淘汰的帧放入对应的淘汰顺序结构
+     */
+    private void index(int frame) {
+        if (accessCount[frame] < k) {
+            infiniteList.addLast(frame);
+        } else {
+            long key = history[frame * k + historyHead[frame]]; // 环形缓冲写满时下一个写入位置即最旧的记录
+            kDistanceIndex.put(key, frame);
+            indexedKey[frame] = key;
+        }
+    }
+
+    private void unindex(int frame) {
+        infiniteList.remove(frame);
+        if (indexedKey[frame] >= 0) {
+            kDistanceIndex.remove(indexedKey[frame]);
+            indexedKey[frame] = -1L;
+        }
+    }
+
+    /**
+     * 按从旧到新的顺序复制帧的访问历史
+     */
+    private long[] snapshotHistory(int frame) {
+        int count = accessCount[frame];
+        long[] snapshot = new long[count];
+        int start = count < k ? 0 : historyHead[frame];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = history[frame * k + (start + i) % k];
+        }
+        return snapshot;
+    }
+
+    private void clear(int frame) {
+        unindex(frame);
+        if (evictable[frame]) {
+            evictable[frame] = false;
+            evictableCount--;
+        }
+        framePage[frame] = Page.INVALID_PAGE_ID;
+        accessCount[frame] = 0;
+        historyHead[frame] = 0;
+    }
+}
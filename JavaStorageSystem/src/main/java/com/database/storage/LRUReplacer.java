@@ -0,0 +1,46 @@
+package com.database.storage;
+
+/**
+ * LRU替换器 - 链表中只保存可淘汰的帧，按最近使用时间排序
+ *
+ * 帧被pin时从链表摘除，pin计数归零时追加到链表尾（最近使用），
+ * 淘汰时直接取链表头，所有操作都是O(1)。
+ */
+public class LRUReplacer implements Replacer {
+    private final FrameList lruList; // 可淘汰帧，头部为最久未使用
+
+    public LRUReplacer(int poolSize) {
+        this.lruList = new FrameList(poolSize);
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        if (lruList.contains(frameIndex)) {
+            lruList.moveToLast(frameIndex); // 移到最近使用端
+        }
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean evictable) {
+        if (evictable) {
+            lruList.addLast(frameIndex);
+        } else {
+            lruList.remove(frameIndex);
+        }
+    }
+
+    @Override
+    public int evict() {
+        return lruList.removeFirst();
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        lruList.remove(frameIndex);
+    }
+
+    @Override
+    public int size() {
+        return lruList.size();
+    }
+}
@@ -0,0 +1,356 @@
+package com.database.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 整数键的内存哈希索引 - 开放定址、线性探测，键和记录ID分别放在并行的long[]数组中
+ *
+ * 与 {@link HashIndex} 相比，查找时不装箱、不经过ArrayList链表，探测序列在数组中是连续的。
+ * 同一个键可以有多条记录，它们各占一个槽位，查找时沿探测序列收集到第一个空槽位为止。
+ * 空槽位用键 {@link Long#MIN_VALUE} 标记，这个键本身的记录单独存放。
+ * 删除采用向后移动（backward shift）：把后面仍属于这段探测序列的项前移，不留墓碑。
+ * 装载因子超过MAX_LOAD_FACTOR时容量翻倍。非线程安全。
+ */
+public class LongHashIndex implements Index {
+    private static final long FREE = Long.MIN_VALUE; // 空槽位
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int MIN_CAPACITY = 16;
+
+    private final String indexName;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int used; // 占用的槽位数
+    private long[] freeKeyValues = new long[0]; // 键为Long.MIN_VALUE的记录
+    private int freeKeyCount;
+
+    public LongHashIndex(String indexName) {
+        this(indexName, MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预计的索引项数量，在此之前不需要扩容
+     */
+    public LongHashIndex(String indexName, int expectedSize) {
+        this.indexName = indexName;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * 插入索引项；完全相同的索引项已存在时返回false
+     */
+    public boolean insertEntry(long key, long recordId) {
+        if (key == FREE) {
+            for (int i = 0; i < freeKeyCount; i++) {
+                if (freeKeyValues[i] == recordId) {
+                    return false;
+                }
+            }
+            if (freeKeyCount == freeKeyValues.length) {
+                freeKeyValues = Arrays.copyOf(freeKeyValues, Math.max(4, freeKeyCount * 2));
+            }
+            freeKeyValues[freeKeyCount++] = recordId;
+            return true;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key && values[slot] == recordId) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = recordId;
+        if (++used > keys.length * MAX_LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * 删除一个索引项
+     */
+    public boolean deleteEntry(long key, long recordId) {
+        if (key == FREE) {
+            for (int i = 0; i < freeKeyCount; i++) {
+                if (freeKeyValues[i] == recordId) {
+                    freeKeyValues[i] = freeKeyValues[--freeKeyCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && values[slot] == recordId) {
+                removeAt(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 删除键的全部索引项，返回删除的数量
+     */
+    public int delete(long key) {
+        if (key == FREE) {
+            int removed = freeKeyCount;
+            freeKeyCount = 0;
+            return removed;
+        }
+        int removed = 0;
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                removeAt(slot); // 后面的项移到了slot，原地再检查一次
+                removed++;
+            } else {
+                slot = (slot + 1) & mask;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 键的第一条记录，不存在时返回-1
+     */
+    public long search(long key) {
+        if (key == FREE) {
+            return freeKeyCount > 0 ? freeKeyValues[0] : -1;
+        }
+        for (int slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 键的全部记录ID
+     */
+    public List<Long> searchAll(long key) {
+        List<Long> result = new ArrayList<>();
+        if (key == FREE) {
+            for (int i = 0; i < freeKeyCount; i++) {
+                result.add(freeKeyValues[i]);
+            }
+            return result;
+        }
+        for (int slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                result.add(values[slot]);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        used = 0;
+        freeKeyCount = 0;
+    }
+
+    /**
+     * 槽位数（容量）
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public double getLoadFactor() {
+        return (double) used / keys.length;
+    }
+
+    // ========== Index接口实现 ==========
+
+    /**
+     * 按键更新：先删除键原有的索引项，一个键只保留一条记录
+     */
+    @Override
+    public boolean insert(Object key, int recordPageId) {
+        Long longKey = createKey(key);
+        if (longKey == null) {
+            return false;
+        }
+        delete((long) longKey);
+        return insertEntry((long) longKey, recordPageId);
+    }
+
+    @Override
+    public boolean insertEntry(Object key, long recordId) {
+        Long longKey = createKey(key);
+        return longKey != null && insertEntry((long) longKey, recordId);
+    }
+
+    @Override
+    public boolean delete(Object key) {
+        Long longKey = createKey(key);
+        return longKey != null && delete((long) longKey) > 0;
+    }
+
+    @Override
+    public boolean deleteEntry(Object key, long recordId) {
+        Long longKey = createKey(key);
+        return longKey != null && deleteEntry((long) longKey, recordId);
+    }
+
+    @Override
+    public int search(Object key) {
+        Long longKey = createKey(key);
+        return longKey == null ? -1 : (int) search((long) longKey);
+    }
+
+    @Override
+    public List<Long> searchAll(Object key) {
+        Long longKey = createKey(key);
+        return longKey == null ? new ArrayList<>() : searchAll((long) longKey);
+    }
+
+    @Override
+    public List<Integer> rangeSearch(Object startKey, Object endKey) {
+        // 哈希索引不支持范围查询
+        System.out.println("Hash index does not support range search");
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getIndexName() {
+        return indexName;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.HASH_TABLE;
+    }
+
+    @Override
+    public void printInfo() {
+        System.out.println("\n=== Long Hash Index Information: " + indexName + " ===");
+        System.out.println("Index Type: " + getIndexType().getDescription());
+        System.out.println("Capacity: " + keys.length);
+        System.out.println("Size: " + size());
+        System.out.println("Load Factor: " + String.format("%.2f", getLoadFactor()));
+
+        // 统计探测距离
+        int maxDistance = 0;
+        long totalDistance = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                int distance = (slot - slot(keys[slot])) & mask;
+                maxDistance = Math.max(maxDistance, distance);
+                totalDistance += distance;
+            }
+        }
+        System.out.println("Max Probe Distance: " + maxDistance);
+        System.out.println("Average Probe Distance: "
+            + String.format("%.2f", used == 0 ? 0.0 : (double) totalDistance / used));
+    }
+
+    @Override
+    public void printStructure() {
+        System.out.println("\n=== Long Hash Index Structure: " + indexName + " ===");
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                System.out.println("Slot " + slot + ": " + keys[slot] + " -> " + values[slot]);
+            }
+        }
+        if (freeKeyCount > 0) {
+            System.out.println("Key " + FREE + ": " + searchAll(FREE));
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return used + freeKeyCount;
+    }
+
+    // ========== 工具方法 ==========
+
+    /**
+     * 删除slot上的项，并把后面探测序列中可以前移的项依次前移
+     */
+    private void removeAt(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            // next的起始槽位不在(hole, next]区间内时，它可以移到hole而不会被探测序列跳过
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        used--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        used = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD_FACTOR < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * 起始槽位：打散各位（murmur3的fmix64）后取低位，连续的键也不会聚在一起
+     */
+    private int slot(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    /**
+     * 支持Integer、Long等整数键和IntegerKey
+     */
+    private Long createKey(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        } else if (key instanceof IntegerKey) {
+            return (long) ((IntegerKey) key).getValue();
+        } else {
+            System.err.println("Unsupported key type: " + (key == null ? "null" : key.getClass().getSimpleName()));
+            return null;
+        }
+    }
+}
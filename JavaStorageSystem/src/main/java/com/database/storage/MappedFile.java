@@ -0,0 +1,139 @@
+package com.database.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 内存映射文件 - 以只读方式把文件映射到地址空间，读取直接访问操作系统页缓存
+ *
+ * 文件按固定大小的区域（REGION_SIZE）分段映射，单个MappedByteBuffer不受2GB上限限制。
+ * 文件变大后，访问超出已映射范围的位置时会重新映射最后一个不完整的区域并追加新区域，
+ * 已完整映射的区域保持不变。映射快照是不可变对象，读路径无需加锁。
+ * 写入仍应通过FileChannel进行，共享映射会看到同一份页缓存中的最新数据。
+ */
+public class MappedFile implements Closeable {
+    public static final int REGION_SIZE = 64 * 1024 * 1024; // 每个映射区域64MB（页大小的整数倍）
+
+    private final FileChannel channel; // 被映射的文件通道
+    private final boolean ownsChannel; // 关闭时是否一并关闭通道
+    private volatile Mapping mapping; // 当前映射快照
+    private long remapCount; // 重新映射次数
+
+    /**
+     * 一次映射的快照
+     */
+    private static final class Mapping {
+        private final MappedByteBuffer[] regions;
+        private final long size; // 已映射的字节数
+
+        Mapping(MappedByteBuffer[] regions, long size) {
+            this.regions = regions;
+            this.size = size;
+        }
+    }
+
+    /**
+     * 映射已打开的文件通道（例如DiskManager的通道），关闭时不关闭通道
+     */
+    public MappedFile(FileChannel channel) {
+        this(channel, false);
+    }
+
+    private MappedFile(FileChannel channel, boolean ownsChannel) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.mapping = new Mapping(new MappedByteBuffer[0], 0);
+    }
+
+    /**
+     * 以只读方式打开并映射文件
+     */
+    public static MappedFile open(Path path) throws IOException {
+        return new MappedFile(FileChannel.open(path, StandardOpenOption.READ), true);
+    }
+
+    /**
+     * 文件当前大小（字节）
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * 返回[position, position + length)的只读视图，不复制数据
+     * 视图不能跨越映射区域；按页访问时页面总是完整地落在一个区域内
+     */
+    public ByteBuffer slice(long position, int length) throws IOException {
+        int offset = (int) (position % REGION_SIZE);
+        if (offset + length > REGION_SIZE) {
+            throw new IllegalArgumentException("Slice crosses mapped region boundary at " + position);
+        }
+        Mapping current = mapping;
+        if (position + length > current.size) {
+            current = remap(position + length);
+        }
+        ByteBuffer view = current.regions[(int) (position / REGION_SIZE)].duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice();
+    }
+
+    /**
+     * 读取一段区域内的字节到数组中（一次内存拷贝，没有系统调用）
+     */
+    public void read(long position, byte[] target, int targetOffset, int length) throws IOException {
+        slice(position, length).get(target, targetOffset, length);
+    }
+
+    /**
+     * 重新映射次数（文件增长时增加）
+     */
+    public synchronized long getRemapCount() {
+        return remapCount;
+    }
+
+    /**
+     * 释放映射；映射内存由GC在缓冲区不可达后回收
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        mapping = new Mapping(new MappedByteBuffer[0], 0);
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+
+    /**
+     * 文件变大后扩展映射，至少覆盖到requiredSize
+     */
+    private synchronized Mapping remap(long requiredSize) throws IOException {
+        Mapping current = mapping;
+        if (requiredSize <= current.size) {
+            return current; // 其他线程已经完成了重新映射
+        }
+        long fileSize = channel.size();
+        if (requiredSize > fileSize) {
+            throw new IOException("Read beyond end of file: " + requiredSize + " > " + fileSize);
+        }
+
+        int regionCount = (int) ((fileSize + REGION_SIZE - 1) / REGION_SIZE);
+        MappedByteBuffer[] regions = Arrays.copyOf(current.regions, regionCount);
+        // 最后一个不完整的区域以及新增的区域需要（重新）映射
+        int firstToMap = (int) (current.size / REGION_SIZE);
+        for (int i = firstToMap; i < regionCount; i++) {
+            long start = (long) i * REGION_SIZE;
+            long length = Math.min(REGION_SIZE, fileSize - start);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+        Mapping updated = new Mapping(regions, fileSize);
+        mapping = updated;
+        remapCount++;
+        return updated;
+    }
+}
@@ -0,0 +1,310 @@
+package com.database.storage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 页结构类 - 表示数据库中的一个页面
+ * 每个页面大小为4KB，包含页面ID、数据和元数据
+ * pin计数用原子操作维护，并发缓冲池的命中路径无需加锁；
+ * 页面内容的并发访问由帧上的读写闩（latch）保护。
+ *
+ * 页面内容既可以是堆上的byte[]，也可以是堆外帧区（{@link FrameArena}）中的一段直接内存；
+ * 堆外页面是指向帧区的享元视图，没有后备数组，只能通过 {@link #getBuffer()} 按绝对位置访问。
+ *
+ * 帧上可以挂一个由页面内容解码得到的对象（如B+树节点），避免每次访问都重新解码；
+ * 帧换页、被清零或被整体改写时自动丢弃，因此缓存的大小和生命周期与缓冲池的淘汰一致。
+ * 通过getBuffer()直接修改内容的调用方需要自行调用 {@link #setAttachment(Object) setAttachment(null)}。
+ */
+public class Page {
+    public static final int PAGE_SIZE = 4096; // 4KB页大小
+    public static final int INVALID_PAGE_ID = -1; // 无效的页面ID常量
+    private static final int EVICTING = -1; // pin计数为该值表示帧正在被淘汰，不能再被pin
+    private static final AtomicIntegerFieldUpdater<Page> PIN_COUNT =
+        AtomicIntegerFieldUpdater.newUpdater(Page.class, "pinCount");
+
+    private volatile int pageId; // 页面ID
+    private static final byte[] ZEROS = new byte[PAGE_SIZE]; // 用于清零直接内存
+    private final byte[] data; // 堆上的页面数据，堆外页面为null
+    private final ByteBuffer buffer; // 页面数据视图（堆上页面包装data，堆外页面为帧区切片）
+    private volatile boolean isDirty; // 页面是否被修改的标志
+    private volatile int pinCount; // 页面被pin的计数，表示 某个页面（Page）当前被多少个线程/操作占用。
+    private final ReentrantReadWriteLock latch = new ReentrantReadWriteLock(); // 保护页面内容的读写闩
+    private volatile Object attachment; // 页面内容解码后的对象，与内容一起受latch保护
+
+    /**
+     * 构造函数 - 创建新页面
+     */
+    public Page() {
+        this.pageId = INVALID_PAGE_ID; // 初始化页面ID为无效值
+        this.data = new byte[PAGE_SIZE]; // 初始化页面数据为4KB大小
+        this.buffer = ByteBuffer.wrap(data); // 包装为缓冲区视图
+        this.isDirty = false; // 初始化页面未被修改
+        this.pinCount = 0; // 初始化pin计数为0
+    }
+
+    /**
+     * 构造函数 - 创建指向帧区切片的堆外页面（享元）
+     */
+    public Page(ByteBuffer frame) {
+        if (frame.capacity() != PAGE_SIZE) {
+            throw new IllegalArgumentException("Frame size must be " + PAGE_SIZE + " bytes"); // 抛出异常
+        }
+        this.pageId = INVALID_PAGE_ID; // 初始化页面ID为无效值
+        this.data = frame.hasArray() ? frame.array() : null; // 直接内存没有后备数组
+        this.buffer = frame; // 页面数据就是帧区中的这一段内存
+        this.isDirty = false; // 初始化页面未被修改
+        this.pinCount = 0; // 初始化pin计数为0
+    }
+
+    /**
+     * 构造函数 - 创建指定ID的页面
+     */
+    public Page(int pageId) {
+        this(); // 调用默认构造函数
+        this.pageId = pageId; // 设置页面ID
+    }
+
+    // Getter和Setter方法
+    public int getPageId() {
+        return pageId; // 返回页面ID
+    }
+
+    public void setPageId(int pageId) {
+        this.pageId = pageId; // 设置页面ID
+        this.attachment = null; // 帧换页，解码结果失效
+    }
+
+    /**
+     * 获取页面内容解码后的对象，没有时返回null
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * 挂上页面内容解码后的对象；对象必须与当前页面内容一致，调用方应持有页面的闩
+     */
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * 获取堆上页面的数据数组；堆外页面没有后备数组，应改用getBuffer()
+     */
+    public byte[] getData() {
+        if (data == null) {
+            throw new UnsupportedOperationException("Off-heap page has no backing array, use getBuffer()"); // 抛出异常
+        }
+        return data; // 返回页面数据
+    }
+
+    /**
+     * 获取页面数据的缓冲区视图，调用方应只使用按绝对位置读写的方法
+     */
+    public ByteBuffer getBuffer() {
+        return buffer; // 返回页面数据视图
+    }
+
+    /**
+     * 页面数据是否位于Java堆上（有后备数组）
+     */
+    public boolean hasArray() {
+        return data != null;
+    }
+
+    public void setData(byte[] data) {
+        if (data.length <= PAGE_SIZE) { // 检查数据大小是否超过页面大小
+            copyIn(data, data.length); // 复制数据到页面，剩余部分填充为0
+        } else {
+            throw new IllegalArgumentException("Data size exceeds page size"); // 抛出异常
+        }
+    }
+
+    public boolean isDirty() {
+        return isDirty; // 返回页面是否被修改
+    }
+
+    public void setDirty(boolean dirty) {
+        this.isDirty = dirty; // 设置页面是否被修改
+    }
+
+    public int getPinCount() {
+        return pinCount; // 返回pin计数
+    }
+
+    public void setPinCount(int pinCount) {
+        this.pinCount = pinCount; // 设置pin计数
+    }
+
+    /**
+     * 增加pin计数
+     */
+    public void pin() {
+        PIN_COUNT.incrementAndGet(this); // pin计数加1
+    }
+
+    /**
+     * 减少pin计数
+     */
+    public void unpin() {
+        while (true) {
+            int current = pinCount;
+            if (current <= 0) { // 检查pin计数是否大于0
+                return;
+            }
+            if (PIN_COUNT.compareAndSet(this, current, current - 1)) { // pin计数减1
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在帧没有被淘汰时增加pin计数，返回是否成功（并发缓冲池的无锁命中路径使用）
+     */
+    public boolean tryPin() {
+        while (true) {
+            int current = pinCount;
+            if (current < 0) {
+                return false; // 帧正在被淘汰
+            }
+            if (PIN_COUNT.compareAndSet(this, current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 把未被pin的帧标记为淘汰中，此后tryPin都会失败；帧被pin住时返回false
+     */
+    public boolean tryMarkEvicting() {
+        return PIN_COUNT.compareAndSet(this, 0, EVICTING);
+    }
+
+    /**
+     * 结束淘汰中状态并把pin计数设为pinCount（装入新页面时为1，放弃淘汰时为0）；帧不处于淘汰中时返回false
+     */
+    public boolean finishEvicting(int pinCount) {
+        return PIN_COUNT.compareAndSet(this, EVICTING, pinCount);
+    }
+
+    /**
+     * 帧是否正在被淘汰
+     */
+    public boolean isEvicting() {
+        return pinCount == EVICTING;
+    }
+
+    /**
+     * 获取页面内容的共享闩（读）
+     */
+    public void latchShared() {
+        latch.readLock().lock();
+    }
+
+    public void unlatchShared() {
+        latch.readLock().unlock();
+    }
+
+    /**
+     * 获取页面内容的排他闩（写）
+     */
+    public void latchExclusive() {
+        latch.writeLock().lock();
+    }
+
+    public void unlatchExclusive() {
+        latch.writeLock().unlock();
+    }
+
+    /**
+     * 检查页面是否被pin
+     */
+    public boolean isPinned() {
+        return this.pinCount > 0; // 返回pin计数是否大于0
+    }
+
+    /**
+     * 将字符串写入页面数据
+     */
+    public void writeString(String str) {
+        byte[] strBytes = str.getBytes(); // 将字符串转换为字节数组
+        if (strBytes.length < PAGE_SIZE) { // 检查字符串长度是否小于页面大小
+            copyIn(strBytes, strBytes.length); // 写入字符串数据，剩余部分填充0
+            this.isDirty = true; // 设置页面为已修改
+        } else {
+            throw new IllegalArgumentException("String too long for page"); // 抛出异常
+        }
+    }
+
+    /**
+     * 从页面数据读取字符串
+     */
+    public String readString() {
+        // 找到第一个null字节的位置
+        int endIndex = 0;
+        while (endIndex < PAGE_SIZE && buffer.get(endIndex) != 0) {
+            endIndex++; // 找到字符串结束位置
+        }
+        byte[] bytes = new byte[endIndex];
+        buffer.duplicate().get(bytes); // 复制出字符串字节
+        return new String(bytes); // 返回字符串
+    }
+
+    /**
+     * 检查页面是否为空
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (buffer.get(i) != 0) { // 检查是否有非0字节
+                return false; // 页面不为空
+            }
+        }
+        return true; // 页面为空
+    }
+
+    /**
+     * 清空页面数据
+     */
+    public void clear() {
+        zero(); // 将页面数据填充为0
+        this.isDirty = true; // 设置页面为已修改
+    }
+
+    /**
+     * 复用帧装入新分配的页面：清零数据并重置元数据（缓冲池分配新页面时使用，避免创建新对象）
+     */
+    public void reset(int pageId) {
+        zero();
+        this.pageId = pageId;
+        this.isDirty = false;
+        this.pinCount = 0;
+    }
+
+    private void zero() {
+        attachment = null;
+        if (data != null) {
+            Arrays.fill(data, (byte) 0);
+        } else {
+            buffer.duplicate().put(ZEROS); // 直接内存按块清零
+        }
+    }
+
+    /**
+     * 复制length字节到页面开头，其余部分清零
+     */
+    private void copyIn(byte[] source, int length) {
+        attachment = null;
+        ByteBuffer target = buffer.duplicate();
+        target.put(source, 0, length);
+        target.put(ZEROS, 0, PAGE_SIZE - length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page{id=%d, dirty=%s, pinCount=%d, data='%s'}", 
+                           pageId, isDirty, pinCount, readString()); // 返回页面信息
+    }
+}
@@ -0,0 +1,60 @@
+package com.database.storage;
+
+/**
+ * 页面存储接口 - 存储系统对上层（数据库引擎）暴露的页面访问SPI
+ * 上层通过 pin/unpin 协议访问页面：getPage/newPage 返回的页面已被pin，用完后必须调用 unpinPage
+ */
+public interface PageStore {
+
+    /**
+     * 获取并pin住页面，失败时返回null
+     */
+    Page getPage(int pageId);
+
+    /**
+     * 释放页面的pin，isDirty表示调用方是否修改了页面
+     */
+    boolean unpinPage(int pageId, boolean isDirty);
+
+    /**
+     * 分配新页面并pin住，新页面ID写入pageId[0]，失败时返回null
+     */
+    Page newPage(int[] pageId);
+
+    /**
+     * 删除页面
+     */
+    boolean deletePage(int pageId);
+
+    /**
+     * 刷新单个页面到磁盘
+     */
+    boolean flushPage(int pageId);
+
+    /**
+     * 刷新所有脏页到磁盘
+     */
+    boolean flushAllPages();
+
+    /**
+     * 扫描提示：调用方即将顺序访问[firstPageId, firstPageId + count)，实现可以提前异步读入这些页面
+     * 默认不做任何事
+     */
+    default void prefetch(int firstPageId, int count) {
+    }
+
+    /**
+     * 底层文件中的页面总数
+     */
+    int getPageCount();
+
+    /**
+     * 获取缓存统计信息
+     */
+    CacheStats getStats();
+
+    /**
+     * 刷新脏页并释放资源
+     */
+    void close();
+}
@@ -0,0 +1,13 @@
+package com.database.storage;
+
+/**
+ * 缓存替换策略枚举
+ */
+public enum ReplacementPolicy {
+    LRU,   // 最近最少使用
+    FIFO,  // 先进先出
+    CLOCK, // 时钟（二次机会）
+    LRU_K, // LRU-K（K=2），按倒数第K次访问时间淘汰
+    TWO_QUEUE, // 2Q，只访问一次的页面先进入短期队列
+    ARC    // 自适应替换缓存，在最近/频繁两个列表间自动调节
+}
@@ -0,0 +1,59 @@
+package com.database.storage;
+
+/**
+ * 页面替换器接口 - 缓冲池通过它选择牺牲帧
+ *
+ * 替换器只跟踪帧号，不关心页面内容：
+ * 帧被访问时调用 {@link #recordAccess}，pin计数归零/变为非零时调用 {@link #setEvictable}，
+ * 只有可淘汰（未被pin）的帧才会被 {@link #evict} 选中。
+ * 所有方法都由缓冲池在持锁状态下调用，实现类无需自行同步。
+ */
+public interface Replacer {
+
+    /**
+     * 记录一次对帧的访问（命中或从磁盘装入），pageId为帧中当前页面的ID
+     * 帧尚未被跟踪时视为新装入的页面，抗扫描策略据此查询历史/幽灵列表
+     */
+    void recordAccess(int frameIndex, int pageId);
+
+    /**
+     * 设置帧是否可被淘汰
+     */
+    void setEvictable(int frameIndex, boolean evictable);
+
+    /**
+     * 选出并移除一个牺牲帧，没有可淘汰的帧时返回-1
+     */
+    int evict();
+
+    /**
+     * 帧中的页面被删除，停止跟踪该帧
+     */
+    void remove(int frameIndex);
+
+    /**
+     * 当前可淘汰的帧数
+     */
+    int size();
+
+    /**
+     * 按替换策略创建替换器
+     */
+    static Replacer create(ReplacementPolicy policy, int poolSize) {
+        switch (policy) {
+            case FIFO:
+                return new FIFOReplacer(poolSize);
+            case CLOCK:
+                return new ClockReplacer(poolSize);
+            case LRU_K:
+                return new LRUKReplacer(poolSize, 2);
+            case TWO_QUEUE:
+                return new TwoQueueReplacer(poolSize);
+            case ARC:
+                return new ARCReplacer(poolSize);
+            case LRU:
+            default:
+                return new LRUReplacer(poolSize);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -6,6 +8,7 @@ import java.util.Map;
  * 存储引擎类 - 对外统一接口
  */
 public class StorageEngine {
+    private static final int DEFAULT_READ_AHEAD_PAGES = 8;
     private final BufferPoolManager bufferPoolManager;
     private final IndexManager indexManager;
     private final WALManager walManager;
@@ -17,6 +20,7 @@ public class StorageEngine {
     public StorageEngine(int bufferPoolSize, String dbFilename, ReplacementPolicy policy) {
         this.dbFilePath = dbFilename;
         this.bufferPoolManager = new BufferPoolManager(bufferPoolSize, dbFilename, policy);
+        this.bufferPoolManager.setReadAhead(DEFAULT_READ_AHEAD_PAGES); // 逐页读取记录时按顺序预读
         this.indexManager = new IndexManager(this);
         
         try {
@@ -27,6 +31,13 @@ public class StorageEngine {
         }
     }
     
+    /**
+     * 底层缓冲池（供同一包内的索引直接访问页面）
+     */
+    BufferPoolManager getBufferPoolManager() {
+        return bufferPoolManager;
+    }
+    
     /**
      * 获取页面
      */
@@ -0,0 +1,103 @@
+package com.database.storage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * String Key Implementation
+ */
+class StringKey implements BPlusTreeKey {
+    private String value;
+    private static final int MAX_LENGTH = 255; // Maximum encoded length in bytes
+    
+    public StringKey(String value) {
+        this.value = value != null ? value : "";
+        int length = this.value.getBytes(StandardCharsets.UTF_8).length;
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("String too long: " + length + " bytes");
+        }
+    }
+    
+    public StringKey() {
+        this.value = "";
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    @Override
+    public int compareTo(BPlusTreeKey other) {
+        if (other instanceof StringKey) {
+            return this.value.compareTo(((StringKey) other).value);
+        }
+        throw new IllegalArgumentException("Cannot compare StringKey with " + other.getClass().getSimpleName());
+    }
+    
+    @Override
+    public byte[] toBytes() {
+        byte[] strBytes = value.getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[1 + strBytes.length]; // 1 byte for length + string bytes
+        result[0] = (byte) strBytes.length;
+        System.arraycopy(strBytes, 0, result, 1, strBytes.length);
+        return result;
+    }
+    
+    @Override
+    public void fromBytes(byte[] data, int offset) {
+        int length = data[offset] & 0xFF;
+        if (length > 0) {
+            this.value = new String(data, offset + 1, length, StandardCharsets.UTF_8);
+        } else {
+            this.value = "";
+        }
+    }
+    
+    @Override
+    public int getSize() {
+        return 1 + value.getBytes(StandardCharsets.UTF_8).length; // 1 byte for length + string bytes
+    }
+
+    @Override
+    public BPlusTreeKey shortestSeparator(BPlusTreeKey lower) {
+        if (!(lower instanceof StringKey) || lower.compareTo(this) >= 0) {
+            return this;
+        }
+        int end = separatorLength(((StringKey) lower).value, value);
+        return end < value.length() ? new StringKey(value.substring(0, end)) : this;
+    }
+
+    /**
+     * Length of the shortest prefix of upper that is greater than lower (lower < upper),
+     * never splitting a surrogate pair
+     */
+    static int separatorLength(String lower, String upper) {
+        int common = 0;
+        int max = Math.min(lower.length(), upper.length());
+        while (common < max && lower.charAt(common) == upper.charAt(common)) {
+            common++;
+        }
+        int end = common + 1;
+        if (end < upper.length() && Character.isHighSurrogate(upper.charAt(end - 1))) {
+            end++;
+        }
+        return end;
+    }
+    
+    @Override
+    public String toString() {
+        return value;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        StringKey stringKey = (StringKey) obj;
+        return value.equals(stringKey.value);
+    }
+    
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.database.storage;
+
+import java.util.*;
+
+/**
+ * 2Q替换器 - 第一次访问的页面进入FIFO短期队列A1in，被淘汰后页面ID记入幽灵队列A1out；
+ * 页面在A1out中时再次被读入才进入LRU主队列Am。
+ *
+ * 扫描读入的页面只会在A1in中短暂停留，不会挤出Am中的热点页面。
+ * 队列大小取论文推荐值：A1in占缓冲池的1/4，A1out记录缓冲池一半数量的页面ID。
+ */
+public class TwoQueueReplacer implements Replacer {
+    private static final byte QUEUE_NONE = 0;
+    private static final byte QUEUE_A1IN = 1;
+    private static final byte QUEUE_AM = 2;
+
+    private final int[] framePage; // 帧中页面的ID
+    private final byte[] queue; // 帧所属的队列
+    private final boolean[] evictable;
+    private final FrameList a1in; // A1in中可淘汰的帧（FIFO）
+    private final FrameList am; // Am中可淘汰的帧（LRU）
+    private final LinkedHashSet<Integer> a1out; // 幽灵队列，只保存页面ID
+    private final int kin; // A1in的目标大小
+    private final int kout; // A1out的容量
+    private int a1inSize; // A1in中驻留的帧数（含被pin住的帧）
+    private int evictableCount;
+
+    public TwoQueueReplacer(int poolSize) {
+        this.framePage = new int[poolSize];
+        this.queue = new byte[poolSize];
+        this.evictable = new boolean[poolSize];
+        this.a1in = new FrameList(poolSize);
+        this.am = new FrameList(poolSize);
+        this.a1out = new LinkedHashSet<>();
+        this.kin = Math.max(1, poolSize / 4);
+        this.kout = Math.max(1, poolSize / 2);
+        Arrays.fill(framePage, Page.INVALID_PAGE_ID);
+    }
+
+    @Override
+    public void recordAccess(int frameIndex, int pageId) {
+        if (queue[frameIndex] != QUEUE_NONE && framePage[frameIndex] == pageId) {
+            // 命中：Am中的帧移到最近使用端，A1in中的帧保持FIFO顺序
+            if (queue[frameIndex] == QUEUE_AM && am.contains(frameIndex)) {
+                am.moveToLast(frameIndex);
+            }
+            return;
+        }
+
+        clear(frameIndex);
+        framePage[frameIndex] = pageId;
+        if (a1out.remove(pageId)) {
+            queue[frameIndex] = QUEUE_AM; // 短期内被再次访问，进入主队列
+        } else {
+            queue[frameIndex] = QUEUE_A1IN;
+            a1inSize++;
+        }
+    }
+
+    @Override
+    public void setEvictable(int frameIndex, boolean value) {
+        if (queue[frameIndex] == QUEUE_NONE || evictable[frameIndex] == value) {
+            return;
+        }
+        evictable[frameIndex] = value;
+        FrameList list = queue[frameIndex] == QUEUE_AM ? am : a1in;
+        if (value) {
+            evictableCount++;
+            list.addLast(frameIndex);
+        } else {
+            evictableCount--;
+            list.remove(frameIndex);
+        }
+    }
+
+    @Override
+    public int evict() {
+        int frame = -1;
+        if (a1inSize > kin || am.isEmpty()) {
+            frame = a1in.removeFirst();
+            if (frame != -1) {
+                // 记入幽灵队列，超出容量时丢弃最早的记录
+                a1out.add(framePage[frame]);
+                if (a1out.size() > kout) {
+                    Iterator<Integer> it = a1out.iterator();
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+        if (frame == -1) {
+            frame = am.removeFirst();
+        }
+        if (frame == -1) {
+            frame = a1in.removeFirst(); // Am中的帧都被pin住
+        }
+        if (frame == -1) {
+            return -1;
+        }
+        clear(frame);
+        return frame;
+    }
+
+    @Override
+    public void remove(int frameIndex) {
+        clear(frameIndex);
+    }
+
+    @Override
+    public int size() {
+        return evictableCount;
+    }
+
+    private void clear(int frame) {
+        a1in.remove(frame);
+        am.remove(frame);
+        if (evictable[frame]) {
+            evictable[frame] = false;
+            evictableCount--;
+        }
+        if (queue[frame] == QUEUE_A1IN) {
+            a1inSize--;
+        }
+        queue[frame] = QUEUE_NONE;
+        framePage[frame] = Page.INVALID_PAGE_ID;
+    }
+}
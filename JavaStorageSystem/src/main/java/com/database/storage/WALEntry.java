@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
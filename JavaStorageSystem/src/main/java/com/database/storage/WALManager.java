@@ -1,3 +1,5 @@
+package com.database.storage;
+
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -0,0 +1,9 @@
+package com.database.storage;
+
+/**
+ * 磁盘写入模式枚举
+ */
+public enum WriteMode {
+    WRITE_THROUGH, // 每次写页面后立即fsync
+    WRITE_BACK     // 写入操作系统缓存，刷新批次/检查点结束时统一fsync
+}
@@ -0,0 +1,289 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * B+树测试 - 验证分裂后的查找、范围查询、正序和逆序游标、删除、重复键、倒排列表叶子、批量加载、解码节点缓存、组合键前缀查找以及重新打开后的持久化
+ */
+public class BPlusTreeTest {
+    private final String testFile = "./test_bplus_tree.idx";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    private BufferPoolManager openPool() {
+        BufferPoolManager bufferPool = new BufferPoolManager(16, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        return bufferPool;
+    }
+
+    @Test
+    void testUniqueTreeSurvivesReopen() {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(42));
+
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "unique", IntegerKey::new, true);
+        for (int key : keys) {
+            Assertions.assertTrue(tree.insertEntry(new IntegerKey(key), key * 10L));
+        }
+        Assertions.assertFalse(tree.insertEntry(new IntegerKey(7), 1L), "唯一索引拒绝重复键");
+        Assertions.assertTrue(tree.getHeight() > 1);
+
+        for (int key = 0; key < 5000; key += 2) {
+            Assertions.assertTrue(tree.deleteEntry(new IntegerKey(key), key * 10L));
+        }
+        Assertions.assertFalse(tree.deleteEntry(new IntegerKey(1), 0L), "记录ID不匹配时不删除");
+        bufferPool.close();
+
+        bufferPool = openPool();
+        tree = new BPlusTree(bufferPool, "unique", IntegerKey::new, true);
+        Assertions.assertEquals(2500, tree.size());
+        Assertions.assertEquals(Collections.singletonList(4990L), tree.searchAll(new IntegerKey(499)));
+        Assertions.assertTrue(tree.searchAll(new IntegerKey(500)).isEmpty());
+
+        List<Long> range = tree.searchRange(new IntegerKey(100), new IntegerKey(120));
+        List<Long> expected = new ArrayList<>();
+        for (int key = 101; key <= 119; key += 2) {
+            expected.add(key * 10L);
+        }
+        Assertions.assertEquals(expected, range);
+        bufferPool.close();
+    }
+
+    @Test
+    void testDuplicateKeysSpanLeaves() {
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "dup", StringKey::new, false);
+        for (long id = 0; id < 2000; id++) {
+            Assertions.assertTrue(tree.insertEntry(new StringKey("k" + (id % 3)), id));
+        }
+        Assertions.assertFalse(tree.insertEntry(new StringKey("k0"), 0L), "完全相同的索引项只保存一次");
+
+        List<Long> ids = tree.searchAll(new StringKey("k1"));
+        Assertions.assertEquals(667, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assertions.assertEquals(1 + 3L * i, ids.get(i).longValue(), "同一个键按记录ID排序");
+        }
+
+        Assertions.assertTrue(tree.deleteEntry(new StringKey("k1"), 1000L));
+        Assertions.assertEquals(666, tree.searchAll(new StringKey("k1")).size());
+        Assertions.assertEquals(1332, tree.searchRange(new StringKey("k1"), null).size());
+        bufferPool.close();
+    }
+
+    @Test
+    void testCursorScansLazilyInBothDirections() {
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "cursor", IntegerKey::new, false);
+        for (int key = 0; key < 4000; key++) {
+            Assertions.assertTrue(tree.insertEntry(new IntegerKey(key / 2), key));
+        }
+
+        BPlusTreeCursor cursor = tree.openCursor(new IntegerKey(100), new IntegerKey(102), false);
+        List<Long> forward = new ArrayList<>();
+        cursor.forEachRemaining(entry -> forward.add(entry.getValue()));
+        Assertions.assertEquals(Arrays.asList(200L, 201L, 202L, 203L, 204L, 205L), forward);
+
+        BPlusTreeCursor reverse = tree.openCursor(new IntegerKey(100), new IntegerKey(102), true);
+        List<Long> backward = new ArrayList<>();
+        reverse.forEachRemaining(entry -> backward.add(entry.getValue()));
+        Collections.reverse(backward);
+        Assertions.assertEquals(forward, backward);
+
+        // 只取前几项时只读取一两个叶子
+        BPlusTreeCursor top = tree.openCursor(null, null, true);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(3999L - i, top.next().getValue().longValue());
+        }
+        Assertions.assertTrue(top.getLeavesRead() <= 2, "leaves: " + top.getLeavesRead());
+
+        // 遍历期间插入引起分裂：原有的索引项不遗漏也不重复，顺序不变
+        for (boolean descending : new boolean[]{false, true}) {
+            BPlusTreeCursor scan = tree.openCursor(null, null, descending);
+            BPlusTreeKey previousKey = null;
+            long previousValue = 0;
+            int original = 0;
+            int inserted = 0;
+            while (scan.hasNext()) {
+                Map.Entry<BPlusTreeKey, Long> entry = scan.next();
+                if (previousKey != null) {
+                    int cmp = previousKey.compareTo(entry.getKey());
+                    cmp = cmp != 0 ? cmp : Long.compare(previousValue, entry.getValue());
+                    Assertions.assertTrue(descending ? cmp > 0 : cmp < 0, "游标按索引项顺序返回");
+                }
+                previousKey = entry.getKey();
+                previousValue = entry.getValue();
+                if (entry.getValue() >= 4000) {
+                    inserted++;
+                } else if (++original % 50 == 0) {
+                    int key = ((IntegerKey) entry.getKey()).getValue();
+                    for (int i = 0; i < 40; i++) {
+                        long recordId = (descending ? 200000L : 100000L) + original * 40L + i;
+                        tree.insertEntry(new IntegerKey(descending ? key - 1 : key + 1), recordId);
+                    }
+                }
+            }
+            Assertions.assertEquals(4000, original);
+            Assertions.assertTrue(inserted > 0, "游标能看到后面叶子中新插入的索引项");
+        }
+        Assertions.assertFalse(tree.openCursor(new IntegerKey(5000), null, false).hasNext());
+        bufferPool.close();
+    }
+
+    @Test
+    void testLowCardinalityKeysUsePostingLists() {
+        String[] statuses = {"active", "inactive", "pending"};
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "status", StringKey::new, false);
+        for (long id = 0; id < 30000; id++) {
+            Assertions.assertTrue(tree.insertEntry(new StringKey(statuses[(int) (id % 3)]), id));
+        }
+        // 每个记录ID只占1~2字节的差值，逐项保存键和8字节记录ID时需要一百多个页面
+        Assertions.assertTrue(bufferPool.getPageCount() < 40, "pages: " + bufferPool.getPageCount());
+        Assertions.assertTrue(tree.deleteEntry(new StringKey("pending"), 29999L));
+        bufferPool.close();
+
+        bufferPool = openPool();
+        tree = new BPlusTree(bufferPool, "status", StringKey::new, false);
+        List<Long> pending = tree.searchAll(new StringKey("pending"));
+        Assertions.assertEquals(9999, pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            Assertions.assertEquals(2 + 3L * i, pending.get(i).longValue(), "同一个键按记录ID排序");
+        }
+        Assertions.assertEquals(10000, tree.searchAll(new StringKey("active")).size());
+        Assertions.assertTrue(tree.insertEntry(new StringKey("archived"), -5L), "负的记录ID同样可以编码");
+        Assertions.assertEquals(Collections.singletonList(-5L), tree.searchAll(new StringKey("archived")));
+        bufferPool.close();
+    }
+
+    @Test
+    void testBulkLoadWithExternalSort() throws Exception {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(7));
+
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "bulk", IntegerKey::new, false);
+        try (BPlusTreeBulkLoader loader = new BPlusTreeBulkLoader(tree, 0.8, 1000, null)) {
+            for (int key : keys) {
+                loader.add(new IntegerKey(key / 2), key);
+            }
+            Assertions.assertTrue(loader.getRunCount() > 1, "超出内存上限的索引项写成临时顺串");
+            Assertions.assertEquals(20000, loader.finish());
+        }
+        Assertions.assertTrue(tree.getHeight() > 1);
+        Assertions.assertEquals(Arrays.asList(200L, 201L), tree.searchAll(new IntegerKey(100)));
+
+        // 批量加载后的树仍可正常插入，并能从元数据页重新打开
+        Assertions.assertTrue(tree.insertEntry(new IntegerKey(100), 50000L));
+        Assertions.assertThrows(IllegalStateException.class,
+            () -> tree.bulkLoad(Collections.emptyIterator(), 1.0), "只能对空索引批量加载");
+        bufferPool.close();
+
+        bufferPool = openPool();
+        BPlusTree reopened = new BPlusTree(bufferPool, "bulk", IntegerKey::new, false);
+        Assertions.assertEquals(20001, reopened.size());
+        Assertions.assertEquals(3, reopened.searchAll(new IntegerKey(100)).size());
+        List<Long> range = reopened.searchRange(new IntegerKey(5000), new IntegerKey(5009));
+        Assertions.assertEquals(20, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Assertions.assertEquals(10000L + i, range.get(i).longValue());
+        }
+        bufferPool.close();
+    }
+
+    @Test
+    void testDecodedNodesAreCachedOnFrames() {
+        BufferPoolManager bufferPool = new BufferPoolManager(64, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        BPlusTree tree = new BPlusTree(bufferPool, "cached", StringKey::new, true);
+        for (int i = 0; i < 3000; i++) {
+            Assertions.assertTrue(tree.insertEntry(new StringKey("key" + i), i));
+        }
+        Assertions.assertEquals(7L, tree.search(new StringKey("key7")));
+
+        // 整棵树都在缓冲池中：重复的点查询不再解码页面
+        long decodes = tree.getNodeDecodeCount();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3000; i += 7) {
+                Assertions.assertEquals(i, tree.search(new StringKey("key" + i)));
+            }
+        }
+        Assertions.assertEquals(decodes, tree.getNodeDecodeCount());
+
+        // 修改后缓存的节点与页面一致，帧被淘汰后重新解码
+        Assertions.assertTrue(tree.deleteEntry(new StringKey("key7"), 7L));
+        Assertions.assertEquals(-1, tree.search(new StringKey("key7")));
+        int[] pageId = new int[1];
+        for (int i = 0; i < 64; i++) {
+            Assertions.assertNotNull(bufferPool.newPage(pageId));
+            bufferPool.unpinPage(pageId[0], false);
+        }
+        Assertions.assertEquals(8L, tree.search(new StringKey("key8")));
+        Assertions.assertTrue(tree.getNodeDecodeCount() > decodes);
+        Assertions.assertEquals(2999, tree.searchRange(null, null).size());
+        bufferPool.close();
+    }
+
+    @Test
+    void testCompositeKeysWithTruncatedSeparators() {
+        Assertions.assertEquals(new StringKey("apple p"),
+            new StringKey("apple pie").shortestSeparator(new StringKey("apple crumble")));
+        Assertions.assertEquals(CompositeKey.of(new IntegerKey(2)),
+            CompositeKey.of(new IntegerKey(2), new StringKey("a")).shortestSeparator(
+                CompositeKey.of(new IntegerKey(1), new StringKey("z"))), "后面的列不影响分隔");
+
+        List<Supplier<BPlusTreeKey>> components = Arrays.asList(IntegerKey::new, StringKey::new);
+        BufferPoolManager bufferPool = openPool();
+        BPlusTree tree = new BPlusTree(bufferPool, "composite", CompositeKey.factory(components), true);
+        for (int tenant = 0; tenant < 20; tenant++) {
+            for (int i = 0; i < 200; i++) {
+                Assertions.assertTrue(tree.insertEntry(
+                    CompositeKey.of(new IntegerKey(tenant), new StringKey(createdAt(i))), tenant * 1000L + i));
+            }
+        }
+        Assertions.assertTrue(tree.getHeight() > 1);
+        bufferPool.close();
+
+        bufferPool = openPool();
+        tree = new BPlusTree(bufferPool, "composite", CompositeKey.factory(components), true);
+        Assertions.assertEquals(5042L, tree.search(CompositeKey.of(new IntegerKey(5), new StringKey(createdAt(42)))));
+        List<Long> tenant = tree.searchRange(CompositeKey.of(new IntegerKey(7)), CompositeKey.prefixEnd(new IntegerKey(7)));
+        Assertions.assertEquals(200, tenant.size(), "前缀查找返回该租户的全部索引项");
+        Assertions.assertEquals(7000L, tenant.get(0).longValue());
+
+        List<Long> range = tree.searchRange(CompositeKey.of(new IntegerKey(7), new StringKey(createdAt(50))),
+            CompositeKey.prefixEnd(new IntegerKey(7), new StringKey(createdAt(59))));
+        Assertions.assertEquals(10, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Assertions.assertEquals(7050L + i, range.get(i).longValue());
+        }
+        bufferPool.close();
+    }
+
+    private static String createdAt(int i) {
+        return String.format("2024-01-01 00:%02d:%02d.000000", i / 60, i % 60);
+    }
+}
@@ -0,0 +1,103 @@
+package com.database.storage;
+
+import java.io.File;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * B+树多线程吞吐量基准测试 - 比较闩耦合的并发B+树与外部单锁保护的B+树
+ *
+ * 运行方式（在JavaStorageSystem目录下）：
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.database.storage.BPlusTreeThroughputBenchmark [keys] [seconds] [insertPercent]
+ * </pre>
+ * 先顺序插入keys个键，然后各线程随机查找，并按insertPercent的比例插入新键。
+ * 缓冲池能容纳整棵树，衡量的是索引自身的并发能力。
+ */
+public class BPlusTreeThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2.0;
+        int insertPercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int cores = Runtime.getRuntime().availableProcessors();
+        String indexFile = "./bplus_throughput_benchmark.idx";
+
+        System.out.println("=== B+ Tree Throughput Benchmark ===");
+        System.out.printf("keys=%d, inserts=%d%%, cores=%d%n", keys, insertPercent, cores);
+        System.out.printf("%-8s %22s %22s%n", "threads", "global lock", "latch crabbing");
+        try {
+            for (int threads = 1; threads <= cores * 2; threads *= 2) {
+                double lockedOps = run(indexFile, keys, threads, seconds, insertPercent, true);
+                double crabbingOps = run(indexFile, keys, threads, seconds, insertPercent, false);
+                System.out.printf("%-8d %16.0f ops/s %16.0f ops/s%n", threads, lockedOps, crabbingOps);
+            }
+        } finally {
+            new File(indexFile).delete();
+        }
+    }
+
+    /**
+     * 在新建的索引上多线程执行查找和插入，返回每秒操作数
+     * @param globalLock 是否像以前一样用一把外部锁串行化所有操作
+     */
+    private static double run(String indexFile, int keys, int threads, double seconds,
+                              int insertPercent, boolean globalLock) throws Exception {
+        new File(indexFile).delete();
+        BufferPoolManager bufferPool = new BufferPoolManager(4096, indexFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        BPlusTree tree = new BPlusTree(bufferPool, "benchmark", IntegerKey::new, true);
+        for (int key = 0; key < keys; key++) {
+            tree.insertEntry(new IntegerKey(key * 2), key); // 偶数键预先装入，奇数键留给插入
+        }
+
+        ReentrantLock lock = new ReentrantLock();
+        AtomicInteger nextInsert = new AtomicInteger();
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long durationNanos = (long) (seconds * 1_000_000_000L);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                long deadline = System.nanoTime() + durationNanos;
+                long count = 0;
+                while ((count & 255) != 0 || System.nanoTime() < deadline) {
+                    boolean insert = random.nextInt(100) < insertPercent;
+                    // 插入的键散布在整个键空间，分裂发生在不同的叶子上
+                    int key = insert ? (int) ((nextInsert.getAndIncrement() * 2654435761L) % keys) * 2 + 1
+                                     : random.nextInt(keys) * 2;
+                    if (globalLock) {
+                        lock.lock();
+                    }
+                    try {
+                        if (insert) {
+                            tree.insertEntry(new IntegerKey(key), key);
+                        } else {
+                            tree.search(new IntegerKey(key));
+                        }
+                    } finally {
+                        if (globalLock) {
+                            lock.unlock();
+                        }
+                    }
+                    count++;
+                }
+                operations.add(count);
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        double opsPerSecond = operations.sum() / ((System.nanoTime() - begin) / 1e9);
+        bufferPool.close();
+        return opsPerSecond;
+    }
+}
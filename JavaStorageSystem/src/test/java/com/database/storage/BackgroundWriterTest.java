@@ -0,0 +1,85 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+
+/**
+ * 后台写线程测试 - 验证按目标比例写回脏页，以及淘汰时不再需要同步写回
+ */
+public class BackgroundWriterTest {
+    private final String testFile = "./test_background_writer.db";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testRoundFlushesOnlyShortfall() {
+        BufferPoolManager bufferPool = new BufferPoolManager(8, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        int[] pageId = new int[1];
+        for (int i = 0; i < 8; i++) {
+            Page page = bufferPool.newPage(pageId);
+            page.getBuffer().putInt(0, 100 + i);
+            bufferPool.unpinPage(pageId[0], true);
+        }
+        long writesBefore = bufferPool.getDiskManager().getPageWriteCount();
+
+        Assertions.assertEquals(4, bufferPool.writeBackRound(0.5), "只需补足一半的干净帧");
+        Assertions.assertEquals(4, bufferPool.getStats().getBackgroundFlushes());
+        Assertions.assertEquals(4, bufferPool.getStats().getDirtyBacklog());
+        Assertions.assertEquals(writesBefore + 4, bufferPool.getDiskManager().getPageWriteCount());
+        Assertions.assertEquals(0, bufferPool.writeBackRound(0.5), "已达到目标比例");
+
+        // 按页号顺序写回：编号最小的一半页面已经干净
+        for (int i = 0; i < 8; i++) {
+            Page page = bufferPool.getPage(i);
+            Assertions.assertEquals(i >= 4, page.isDirty(), "页面 " + i);
+            bufferPool.unpinPage(i, false);
+        }
+        bufferPool.close();
+    }
+
+    @Test
+    void testWriterKeepsEvictionsClean() throws InterruptedException {
+        BufferPoolManager bufferPool = new BufferPoolManager(8, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        int[] pageId = new int[1];
+        for (int i = 0; i < 8; i++) {
+            Page page = bufferPool.newPage(pageId);
+            page.getBuffer().putInt(0, 100 + i);
+            bufferPool.unpinPage(pageId[0], true);
+        }
+
+        bufferPool.startBackgroundWriter(1.0, 5);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bufferPool.getStats().getBackgroundFlushes() < 8 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        bufferPool.stopBackgroundWriter();
+        Assertions.assertEquals(8, bufferPool.getStats().getBackgroundFlushes());
+        Assertions.assertTrue(bufferPool.getStats().getFlushRate() > 0);
+
+        // 牺牲页都已干净，分配新页面时无需同步写回
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertNotNull(bufferPool.newPage(pageId));
+            bufferPool.unpinPage(pageId[0], false);
+        }
+        Assertions.assertEquals(0, bufferPool.getStats().getEvictionWrites());
+
+        for (int i = 0; i < 8; i++) {
+            Page page = bufferPool.getPage(i);
+            Assertions.assertEquals(100 + i, page.getBuffer().getInt(0), "后台写回的数据应已持久化");
+            bufferPool.unpinPage(i, false);
+        }
+        bufferPool.close();
+    }
+}
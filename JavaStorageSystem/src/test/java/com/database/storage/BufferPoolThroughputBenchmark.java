@@ -0,0 +1,87 @@
+package com.database.storage;
+
+import java.io.File;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓冲池多线程吞吐量基准测试 - 比较单锁的BufferPoolManager与分段的ConcurrentBufferPoolManager
+ *
+ * 运行方式（在JavaStorageSystem目录下）：
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.database.storage.BufferPoolThroughputBenchmark [poolSize] [seconds]
+ * </pre>
+ * 工作集为缓冲池大小的90%，几乎全部访问都是命中，衡量的是命中路径的可扩展性。
+ */
+public class BufferPoolThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int poolSize = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2.0;
+        int workingSet = poolSize * 9 / 10;
+        int cores = Runtime.getRuntime().availableProcessors();
+        String dbFile = "./throughput_benchmark.db";
+
+        System.out.println("=== Buffer Pool Throughput Benchmark ===");
+        System.out.printf("pool=%d frames, working set=%d pages, cores=%d%n", poolSize, workingSet, cores);
+        System.out.printf("%-8s %22s %22s%n", "threads", "BufferPoolManager", "ConcurrentBufferPool");
+        try {
+            ReplacementPolicyBenchmark.createFile(dbFile, workingSet);
+            for (int threads = 1; threads <= cores * 2; threads *= 2) {
+                BufferPoolManager single = new BufferPoolManager(poolSize, dbFile, ReplacementPolicy.LRU);
+                single.setLoggingEnabled(false);
+                double singleOps = run(single, threads, workingSet, seconds);
+                single.close();
+
+                ConcurrentBufferPoolManager striped = new ConcurrentBufferPoolManager(poolSize, dbFile, ReplacementPolicy.LRU);
+                striped.setLoggingEnabled(false);
+                double stripedOps = run(striped, threads, workingSet, seconds);
+                striped.close();
+
+                System.out.printf("%-8d %16.0f ops/s %16.0f ops/s%n", threads, singleOps, stripedOps);
+            }
+        } finally {
+            new File(dbFile).delete();
+        }
+    }
+
+    /**
+     * 多线程随机执行getPage/unpinPage，返回每秒操作数
+     */
+    private static double run(PageStore pageStore, int threads, int workingSet, double seconds) throws Exception {
+        // 预热：把工作集装入缓冲池
+        for (int pageId = 0; pageId < workingSet; pageId++) {
+            if (pageStore.getPage(pageId) != null) {
+                pageStore.unpinPage(pageId, false);
+            }
+        }
+
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long durationNanos = (long) (seconds * 1_000_000_000L);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                long deadline = System.nanoTime() + durationNanos;
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    int pageId = random.nextInt(workingSet);
+                    if (pageStore.getPage(pageId) != null) {
+                        pageStore.unpinPage(pageId, false);
+                    }
+                    count++;
+                }
+                operations.add(count);
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+}
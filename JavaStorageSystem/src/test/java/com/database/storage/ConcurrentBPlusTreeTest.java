@@ -0,0 +1,118 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 并发B+树测试 - 多个写线程并发插入、删除，同时读线程不断查找，验证没有丢失或错位的索引项
+ */
+public class ConcurrentBPlusTreeTest {
+    private final String testFile = "./test_concurrent_bplus_tree.idx";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testConcurrentInsertsDeletesAndLookups() throws Exception {
+        int writers = 6;
+        int readers = 2;
+        int keysPerWriter = 4000;
+
+        // 缓冲池小于索引页数，插入过程中会不断淘汰页面
+        BufferPoolManager bufferPool = new BufferPoolManager(64, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        BPlusTree tree = new BPlusTree(bufferPool, "concurrent", IntegerKey::new, false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writerFutures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            writerFutures.add(executor.submit(() -> {
+                start.await();
+                // 各写线程的键交错分布，分裂会同时发生在相邻的叶子上；每个键对应两条记录
+                List<Integer> keys = new ArrayList<>();
+                for (int i = 0; i < keysPerWriter; i++) {
+                    keys.add(i * writers + writer);
+                }
+                Collections.shuffle(keys, new Random(writer));
+                for (int key : keys) {
+                    Assertions.assertTrue(tree.insertEntry(new IntegerKey(key), key * 2L));
+                    Assertions.assertTrue(tree.insertEntry(new IntegerKey(key), key * 2L + 1));
+                }
+                for (int key : keys) {
+                    if (key % 3 == 0) {
+                        Assertions.assertTrue(tree.deleteEntry(new IntegerKey(key), key * 2L + 1));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        AtomicBoolean writersDone = new AtomicBoolean();
+        List<Future<?>> readerFutures = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            final long seed = 100 + r;
+            readerFutures.add(executor.submit(() -> {
+                start.await();
+                Random random = new Random(seed);
+                int total = writers * keysPerWriter;
+                while (!writersDone.get()) {
+                    int key = random.nextInt(total);
+                    // 并发插入删除期间，查到的记录一定属于这个键，且按记录ID有序
+                    List<Long> ids = tree.searchAll(new IntegerKey(key));
+                    Assertions.assertTrue(ids.size() <= 2);
+                    for (int i = 0; i < ids.size(); i++) {
+                        Assertions.assertEquals(key, ids.get(i) / 2);
+                        if (i > 0) {
+                            Assertions.assertTrue(ids.get(i - 1) < ids.get(i));
+                        }
+                    }
+                    List<Long> range = tree.searchRange(new IntegerKey(key), new IntegerKey(key + 20));
+                    for (int i = 1; i < range.size(); i++) {
+                        Assertions.assertTrue(range.get(i - 1) < range.get(i), "范围查询结果按键有序");
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : writerFutures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        writersDone.set(true);
+        for (Future<?> future : readerFutures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = writers * keysPerWriter;
+        long expected = 2L * total - (total + 2) / 3;
+        Assertions.assertEquals(expected, tree.getEntryCount());
+        List<Long> all = tree.searchRange(null, null);
+        Assertions.assertEquals(expected, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            Assertions.assertTrue(all.get(i - 1) < all.get(i), "叶子链表完整且有序");
+        }
+        Assertions.assertEquals(Collections.singletonList(0L), tree.searchAll(new IntegerKey(0)));
+        Assertions.assertEquals(Arrays.asList(2L, 3L), tree.searchAll(new IntegerKey(1)));
+        bufferPool.close();
+
+        bufferPool = new BufferPoolManager(64, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        Assertions.assertEquals(expected, new BPlusTree(bufferPool, "concurrent", IntegerKey::new, false).size());
+        bufferPool.close();
+    }
+}
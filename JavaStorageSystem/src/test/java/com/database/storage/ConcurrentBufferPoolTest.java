@@ -0,0 +1,198 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发缓冲池测试 - 多线程在频繁淘汰的情况下并发修改页面，验证没有丢失更新（堆上帧与堆外帧），
+ * 以及对已淘汰页面的无锁命中与分配、删除页面竞争时不会丢失pin
+ */
+public class ConcurrentBufferPoolTest {
+    private final String testFile = "./test_concurrent_pool.db";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testConcurrentUpdatesWithEviction() throws Exception {
+        runConcurrentUpdates(false);
+    }
+
+    @Test
+    void testConcurrentUpdatesWithOffHeapFrames() throws Exception {
+        runConcurrentUpdates(true);
+    }
+
+    private void runConcurrentUpdates(boolean offHeap) throws Exception {
+        int pageCount = 128;
+        int threads = 8;
+        int opsPerThread = 5000;
+
+        ConcurrentBufferPoolManager bufferPool =
+            new ConcurrentBufferPoolManager(32, testFile, ReplacementPolicy.LRU, 4, offHeap);
+        bufferPool.setLoggingEnabled(false);
+        int[] pageId = new int[1];
+        for (int i = 0; i < pageCount; i++) {
+            Assertions.assertNotNull(bufferPool.newPage(pageId));
+            bufferPool.unpinPage(pageId[0], true);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < opsPerThread; i++) {
+                    int target = random.nextInt(pageCount);
+                    Page page;
+                    while ((page = bufferPool.getPage(target)) == null) {
+                        Thread.yield(); // 段内所有帧暂时都被pin住
+                    }
+                    Assertions.assertEquals(target, page.getPageId());
+                    Assertions.assertEquals(offHeap, page.getBuffer().isDirect());
+                    page.latchExclusive();
+                    try {
+                        ByteBuffer buffer = page.getBuffer();
+                        buffer.putInt(0, buffer.getInt(0) + 1);
+                    } finally {
+                        page.unlatchExclusive();
+                    }
+                    Assertions.assertTrue(bufferPool.unpinPage(target, true));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Assertions.assertTrue(bufferPool.getStats().getCacheMisses() > 0, "工作集大于缓冲池，应发生淘汰");
+        bufferPool.close();
+
+        // 用新的缓冲池从磁盘读回，所有更新都应已持久化
+        BufferPoolManager reader = new BufferPoolManager(8, testFile, ReplacementPolicy.LRU, offHeap);
+        reader.setLoggingEnabled(false);
+        long total = 0;
+        for (int i = 0; i < pageCount; i++) {
+            Page page = reader.getPage(i);
+            total += page.getBuffer().getInt(0);
+            reader.unpinPage(i, false);
+        }
+        Assertions.assertEquals((long) threads * opsPerThread, total);
+        reader.close();
+    }
+
+    @Test
+    void testPinnedPagesAreNotEvicted() {
+        ConcurrentBufferPoolManager bufferPool = new ConcurrentBufferPoolManager(2, testFile, ReplacementPolicy.CLOCK, 1);
+        bufferPool.setLoggingEnabled(false);
+        int[] first = new int[1];
+        int[] second = new int[1];
+        int[] third = new int[1];
+        Assertions.assertNotNull(bufferPool.newPage(first));
+        Assertions.assertNotNull(bufferPool.newPage(second));
+        Assertions.assertNull(bufferPool.newPage(third), "所有帧被pin住时应分配失败");
+
+        bufferPool.unpinPage(second[0], false);
+        Assertions.assertNotNull(bufferPool.newPage(third));
+        Assertions.assertEquals(first[0], bufferPool.getPage(first[0]).getPageId(), "被pin住的页面应保留在缓冲池中");
+        Assertions.assertFalse(bufferPool.deletePage(first[0]), "被pin住的页面不能删除");
+        bufferPool.close();
+    }
+
+    @Test
+    void testStaleHitCannotPinFreeFrame() {
+        ConcurrentBufferPoolManager bufferPool = new ConcurrentBufferPoolManager(1, testFile, ReplacementPolicy.LRU, 1);
+        bufferPool.setLoggingEnabled(false);
+        int[] deleted = new int[1];
+        Page stale = bufferPool.newPage(deleted);
+        bufferPool.unpinPage(deleted[0], false);
+        Assertions.assertTrue(bufferPool.deletePage(deleted[0]));
+
+        // 重放无锁命中的交错：读线程在页面删除前查到帧号，帧回到空闲栈后才pin，随后帧装入新页面
+        boolean stalePinned = stale.tryPin();
+        int[] created = new int[1];
+        Page page = bufferPool.newPage(created);
+        Assertions.assertSame(stale, page);
+        if (stalePinned && page.getPageId() != deleted[0]) {
+            stale.unpin(); // 读线程发现页面ID不符后撤销自己的pin
+        }
+        Assertions.assertFalse(stalePinned, "空闲帧不能被pin");
+        Assertions.assertEquals(1, page.getPinCount(), "新页面的pin不能被过期命中撤销");
+        Assertions.assertTrue(bufferPool.unpinPage(created[0], false));
+        bufferPool.close();
+    }
+
+    @Test
+    void testStaleHitsDoNotStealPinsFromNewPages() throws Exception {
+        int readers = 6;
+        int writers = 2;
+        int opsPerThread = 20000;
+
+        ConcurrentBufferPoolManager bufferPool = new ConcurrentBufferPoolManager(16, testFile, ReplacementPolicy.LRU, 1);
+        bufferPool.setLoggingEnabled(false);
+        int[] first = new int[1];
+        for (int i = 0; i < 64; i++) {
+            Assertions.assertNotNull(bufferPool.newPage(first));
+            bufferPool.unpinPage(first[0], true);
+        }
+        AtomicInteger maxPageId = new AtomicInteger(first[0]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers + writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < writers; t++) {
+            futures.add(executor.submit(() -> {
+                int[] pageId = new int[1];
+                for (int i = 0; i < opsPerThread; i++) {
+                    Page page = bufferPool.newPage(pageId);
+                    if (page == null) {
+                        Thread.yield(); // 段内所有帧暂时都被pin住
+                        continue;
+                    }
+                    maxPageId.accumulateAndGet(pageId[0], Math::max);
+                    Thread.yield();
+                    Assertions.assertEquals(pageId[0], page.getPageId(), "新页面在被pin期间不能被淘汰");
+                    Assertions.assertTrue(page.getPinCount() >= 1);
+                    Assertions.assertTrue(bufferPool.unpinPage(pageId[0], false));
+                    bufferPool.deletePage(pageId[0]); // 被读线程pin住时删除失败
+                }
+                return null;
+            }));
+        }
+        for (int t = 0; t < readers; t++) {
+            final long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < opsPerThread; i++) {
+                    int target = maxPageId.get() - random.nextInt(4); // 集中访问刚被删除、帧刚被回收的页面
+                    Page page = bufferPool.getPage(target);
+                    if (page == null) {
+                        continue;
+                    }
+                    Assertions.assertEquals(target, page.getPageId());
+                    Thread.yield();
+                    Assertions.assertEquals(target, page.getPageId(), "页面在被pin期间不能被淘汰");
+                    Assertions.assertTrue(bufferPool.unpinPage(target, false));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        bufferPool.close();
+    }
+}
@@ -0,0 +1,112 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * 磁盘管理器测试 - 验证定位读写和批量fsync
+ */
+public class DiskManagerTest {
+    private final String testFile = "./test_disk_manager.db";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testReadWriteAcrossReopen() {
+        DiskManager diskManager = new DiskManager(testFile);
+        diskManager.setLoggingEnabled(false);
+        byte[] data = new byte[Page.PAGE_SIZE];
+        data[0] = 42;
+        data[Page.PAGE_SIZE - 1] = 7;
+        Assertions.assertTrue(diskManager.writePage(3, data));
+        Assertions.assertEquals(4, diskManager.getFileSize(), "写入第3页应把文件扩展到4页");
+        Assertions.assertEquals(4, diskManager.allocatePage());
+        diskManager.close();
+
+        DiskManager reopened = new DiskManager(testFile);
+        byte[] read = new byte[Page.PAGE_SIZE];
+        Assertions.assertTrue(reopened.readPage(3, read));
+        Assertions.assertArrayEquals(data, read);
+        Assertions.assertEquals(5, reopened.getFileSize());
+        reopened.close();
+    }
+
+    @Test
+    void testFlushAllPagesIssuesOneSync() {
+        BufferPoolManager bufferPool = new BufferPoolManager(64, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        int[] pageId = new int[1];
+        for (int i = 0; i < 50; i++) {
+            Page page = bufferPool.newPage(pageId);
+            page.getData()[0] = (byte) i;
+            bufferPool.unpinPage(pageId[0], true);
+        }
+
+        DiskManager diskManager = bufferPool.getDiskManager();
+        long syncsBefore = diskManager.getSyncCount();
+        Assertions.assertTrue(bufferPool.flushAllPages());
+        Assertions.assertEquals(50, diskManager.getPageWriteCount());
+        Assertions.assertEquals(syncsBefore + 1, diskManager.getSyncCount(), "50个脏页应只触发一次fsync");
+
+        // 没有新的写入时刷新不再fsync
+        Assertions.assertTrue(bufferPool.flushAllPages());
+        Assertions.assertEquals(syncsBefore + 1, diskManager.getSyncCount());
+        bufferPool.close();
+    }
+
+    @Test
+    void testWriteBackModeDefersSyncOnEviction() {
+        BufferPoolManager bufferPool = new BufferPoolManager(4, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        int[] pageId = new int[1];
+        for (int i = 0; i < 20; i++) {
+            bufferPool.newPage(pageId);
+            bufferPool.unpinPage(pageId[0], true);
+        }
+
+        DiskManager diskManager = bufferPool.getDiskManager();
+        Assertions.assertEquals(16, diskManager.getPageWriteCount(), "被淘汰的16个脏页应已写出");
+        Assertions.assertEquals(0, diskManager.getSyncCount(), "写回模式下淘汰不应触发fsync");
+        bufferPool.flushAllPages();
+        Assertions.assertEquals(1, diskManager.getSyncCount());
+        bufferPool.close();
+    }
+
+    @Test
+    void testMemoryMappedReadsFollowFileGrowth() {
+        DiskManager diskManager = new DiskManager(testFile);
+        diskManager.setLoggingEnabled(false);
+        diskManager.setMemoryMapped(true);
+        byte[] data = new byte[Page.PAGE_SIZE];
+        data[0] = 1;
+        diskManager.writePage(0, data);
+
+        byte[] read = new byte[Page.PAGE_SIZE];
+        Assertions.assertTrue(diskManager.readPage(0, read));
+        Assertions.assertEquals(1, read[0]);
+
+        // 文件增长后读取新页面会重新映射
+        data[0] = 9;
+        diskManager.writePage(7, data);
+        Assertions.assertTrue(diskManager.readPage(7, read));
+        Assertions.assertEquals(9, read[0]);
+
+        // 零拷贝视图能看到之后通过通道写入的数据
+        ByteBuffer view = diskManager.readPageView(0);
+        Assertions.assertTrue(view.isReadOnly());
+        data[0] = 5;
+        diskManager.writePage(0, data);
+        Assertions.assertEquals(5, view.get(0));
+        diskManager.close();
+    }
+}
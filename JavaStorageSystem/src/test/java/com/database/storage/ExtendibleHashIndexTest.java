@@ -0,0 +1,103 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 可扩展哈希索引测试 - 验证逐桶分裂、同一个键大量记录时的溢出页、删除以及重新打开后的持久化
+ */
+public class ExtendibleHashIndexTest {
+    private final String testFile = "./test_extendible_hash.idx";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    private BufferPoolManager openPool() {
+        BufferPoolManager bufferPool = new BufferPoolManager(16, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK);
+        return bufferPool;
+    }
+
+    @Test
+    void testGrowsBucketByBucketAndSurvivesReopen() {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(42));
+
+        BufferPoolManager bufferPool = openPool();
+        ExtendibleHashIndex index = new ExtendibleHashIndex(bufferPool, "hash", StringKey::new);
+        Assertions.assertEquals(1, index.getBucketCount());
+        int previousBuckets = 1;
+        for (int i = 0; i < keys.size(); i++) {
+            int key = keys.get(i);
+            Assertions.assertTrue(index.insertEntry(new StringKey("key-" + key), key));
+            int buckets = index.getBucketCount();
+            Assertions.assertTrue(buckets - previousBuckets <= 1, "每次插入最多分裂一个桶");
+            previousBuckets = buckets;
+        }
+        Assertions.assertFalse(index.insertEntry(new StringKey("key-7"), 7L), "完全相同的索引项不重复插入");
+        Assertions.assertTrue(index.getGlobalDepth() > 5);
+        Assertions.assertTrue(index.getBucketCount() <= 1 << index.getGlobalDepth());
+
+        for (int key = 0; key < 20000; key += 2) {
+            Assertions.assertTrue(index.deleteEntry(new StringKey("key-" + key), key));
+        }
+        Assertions.assertFalse(index.deleteEntry(new StringKey("key-1"), 0L), "记录ID不匹配时不删除");
+        int globalDepth = index.getGlobalDepth();
+        bufferPool.close();
+
+        bufferPool = openPool();
+        index = new ExtendibleHashIndex(bufferPool, "hash", StringKey::new);
+        Assertions.assertEquals(10000, index.size());
+        Assertions.assertEquals(globalDepth, index.getGlobalDepth());
+        for (int key = 0; key < 20000; key++) {
+            List<Long> expected = key % 2 == 0 ? List.of() : List.of((long) key);
+            Assertions.assertEquals(expected, index.searchAll(new StringKey("key-" + key)));
+        }
+        Assertions.assertEquals(-1, index.search("missing"));
+        bufferPool.close();
+    }
+
+    @Test
+    void testManyRecordsForOneKeyUseOverflowPages() {
+        BufferPoolManager bufferPool = openPool();
+        ExtendibleHashIndex index = new ExtendibleHashIndex(bufferPool, "duplicates", IntegerKey::new);
+        for (long recordId = 0; recordId < 3000; recordId++) {
+            Assertions.assertTrue(index.insertEntry(new IntegerKey(5), recordId));
+        }
+        for (int key = 100; key < 200; key++) {
+            Assertions.assertTrue(index.insertEntry(new IntegerKey(key), key));
+        }
+        Assertions.assertTrue(index.getGlobalDepth() < ExtendibleHashIndex.MAX_GLOBAL_DEPTH, "相同哈希值不会无限分裂");
+        Assertions.assertEquals(3000, index.searchAll(new IntegerKey(5)).size());
+
+        for (long recordId = 0; recordId < 3000; recordId += 3) {
+            Assertions.assertTrue(index.deleteEntry(new IntegerKey(5), recordId));
+        }
+        Assertions.assertEquals(2000, index.searchAll(new IntegerKey(5)).size());
+        Assertions.assertTrue(index.delete((Object) 150));
+        Assertions.assertEquals(List.of(), index.searchAll(new IntegerKey(150)));
+        bufferPool.close();
+
+        bufferPool = openPool();
+        index = new ExtendibleHashIndex(bufferPool, "duplicates", IntegerKey::new);
+        Assertions.assertEquals(2099, index.size());
+        Assertions.assertEquals(2000, index.searchAll(new IntegerKey(5)).size());
+        Assertions.assertEquals(List.of(199L), index.searchAll(new IntegerKey(199)));
+        bufferPool.close();
+    }
+}
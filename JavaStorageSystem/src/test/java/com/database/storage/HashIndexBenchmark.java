@@ -0,0 +1,63 @@
+package com.database.storage;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * 内存哈希索引基准测试 - 比较开放定址的LongHashIndex与链式的HashIndex的插入和等值查找吞吐量
+ *
+ * 运行方式（在JavaStorageSystem目录下）：
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.database.storage.HashIndexBenchmark [keys] [rounds]
+ * </pre>
+ * 每一轮都新建索引、插入keys个随机整数键，再查找同样多的键（一半命中、一半未命中）。
+ * 前几轮作为预热不计入结果，之后取各轮的最好成绩，尽量排除JIT编译和GC的干扰。
+ */
+public class HashIndexBenchmark {
+    private static final long SEED = 42L;
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] inserted = new int[keys];
+        int[] probes = new int[keys];
+        Random random = new Random(SEED);
+        for (int i = 0; i < keys; i++) {
+            inserted[i] = random.nextInt();
+            probes[i] = i % 2 == 0 ? inserted[random.nextInt(i + 1)] : random.nextInt();
+        }
+
+        System.out.println("=== Hash Index Benchmark ===");
+        System.out.printf("keys=%d, rounds=%d (+%d warmup)%n", keys, rounds, WARMUP_ROUNDS);
+        System.out.printf("%-14s %18s %18s%n", "index", "insert", "lookup");
+        report("HashIndex", keys, rounds, () -> new HashIndex("chained", Math.max(16, keys / 4)), inserted, probes);
+        report("LongHashIndex", keys, rounds, () -> new LongHashIndex("open", keys), inserted, probes);
+    }
+
+    private static void report(String name, int keys, int rounds, Supplier<Index> factory,
+                               int[] inserted, int[] probes) {
+        double bestInsert = Double.MAX_VALUE;
+        double bestLookup = Double.MAX_VALUE;
+        long hits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            Index index = factory.get();
+            long start = System.nanoTime();
+            for (int i = 0; i < inserted.length; i++) {
+                index.insertEntry(inserted[i], i);
+            }
+            long middle = System.nanoTime();
+            hits = 0;
+            for (int probe : probes) {
+                hits += index.searchAll(probe).size();
+            }
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                bestInsert = Math.min(bestInsert, (middle - start) / (double) keys);
+                bestLookup = Math.min(bestLookup, (end - middle) / (double) keys);
+            }
+        }
+        System.out.printf("%-14s %15.1f ns %15.1f ns   (hits=%d)%n", name, bestInsert, bestLookup, hits);
+    }
+}
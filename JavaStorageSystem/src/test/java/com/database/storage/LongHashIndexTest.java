@@ -0,0 +1,69 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 开放定址整数哈希索引测试 - 与HashMap对照随机插入删除，验证扩容、向后移动删除、一键多值和空槽位标记键
+ */
+public class LongHashIndexTest {
+
+    @Test
+    void testMatchesReferenceMapUnderRandomInsertsAndDeletes() {
+        LongHashIndex index = new LongHashIndex("long");
+        Map<Long, List<Long>> reference = new HashMap<>();
+        Random random = new Random(42);
+        int initialCapacity = index.getCapacity();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5000) - 2500; // 键空间小，探测序列中有大量同键和冲突的项
+            long recordId = random.nextInt(50);
+            List<Long> recordIds = reference.computeIfAbsent(key, k -> new ArrayList<>());
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(recordIds.remove(recordId), index.deleteEntry(key, recordId));
+            } else {
+                boolean added = !recordIds.contains(recordId);
+                if (added) {
+                    recordIds.add(recordId);
+                }
+                Assertions.assertEquals(added, index.insertEntry(key, recordId));
+            }
+        }
+        Assertions.assertTrue(index.getCapacity() > initialCapacity);
+        Assertions.assertTrue(index.getLoadFactor() <= 0.75);
+
+        int size = 0;
+        for (Map.Entry<Long, List<Long>> entry : reference.entrySet()) {
+            List<Long> expected = new ArrayList<>(entry.getValue());
+            List<Long> actual = index.searchAll(entry.getKey().longValue());
+            Collections.sort(expected);
+            Collections.sort(actual);
+            Assertions.assertEquals(expected, actual, "key " + entry.getKey());
+            size += expected.size();
+        }
+        Assertions.assertEquals(size, index.size());
+    }
+
+    @Test
+    void testIndexInterfaceAndSentinelKey() {
+        Index index = new LongHashIndex("ids", 4);
+        Assertions.assertTrue(index.insert(7, 70));
+        Assertions.assertTrue(index.insert(7, 71), "insert按键更新");
+        Assertions.assertEquals(71, index.search(7));
+        Assertions.assertTrue(index.insertEntry(Long.MIN_VALUE, 1L));
+        Assertions.assertTrue(index.insertEntry(Long.MIN_VALUE, 2L));
+        Assertions.assertFalse(index.insertEntry(Long.MIN_VALUE, 2L));
+        Assertions.assertEquals(List.of(1L, 2L), index.searchAll(Long.MIN_VALUE));
+        Assertions.assertEquals(3, index.size());
+
+        Assertions.assertTrue(index.delete(Long.MIN_VALUE));
+        Assertions.assertTrue(index.deleteEntry(7, 71L));
+        Assertions.assertEquals(-1, index.search(7));
+        Assertions.assertTrue(index.isEmpty());
+        Assertions.assertFalse(index.insertEntry("text", 1L), "只支持整数键");
+    }
+}
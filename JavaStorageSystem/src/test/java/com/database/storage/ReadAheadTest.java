@@ -0,0 +1,116 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+
+/**
+ * 顺序预读测试 - 验证预读装入的页面内容正确，顺序扫描会触发预读，以及重复扫描同一范围时再次预读
+ */
+public class ReadAheadTest {
+    private static final int FILE_PAGES = 64;
+    private final String testFile = "./test_read_ahead.db";
+
+    @BeforeEach
+    void setUp() {
+        new File(testFile).delete();
+        BufferPoolManager writer = new BufferPoolManager(8, testFile, ReplacementPolicy.LRU);
+        writer.setLoggingEnabled(false);
+        writer.setWriteMode(WriteMode.WRITE_BACK);
+        int[] pageId = new int[1];
+        for (int i = 0; i < FILE_PAGES; i++) {
+            Page page = writer.newPage(pageId);
+            page.getBuffer().putInt(0, pageId[0] * 7);
+            writer.unpinPage(pageId[0], true);
+        }
+        writer.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testPrefetchedPagesAreHits() {
+        BufferPoolManager bufferPool = new BufferPoolManager(16, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+
+        Assertions.assertEquals(8, bufferPool.loadPages(10, 8));
+        Assertions.assertEquals(0, bufferPool.loadPages(10, 8), "已在缓冲池中的页面不重复读取");
+        for (int i = 10; i < 18; i++) {
+            Page page = bufferPool.getPage(i);
+            Assertions.assertEquals(i * 7, page.getBuffer().getInt(0));
+            Assertions.assertFalse(page.isDirty());
+            bufferPool.unpinPage(i, false);
+        }
+        Assertions.assertEquals(8, bufferPool.getStats().getCacheHits());
+        Assertions.assertEquals(0, bufferPool.getStats().getCacheMisses());
+        bufferPool.close();
+    }
+
+    @Test
+    void testSequentialScanTriggersReadAhead() throws InterruptedException {
+        BufferPoolManager bufferPool = new BufferPoolManager(16, testFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setReadAhead(8);
+
+        for (int i = 0; i < 3; i++) {
+            bufferPool.getPage(i);
+            bufferPool.unpinPage(i, false);
+        }
+        // 第三次相邻访问后异步预读页面3到10
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bufferPool.getStats().getPrefetchedPages() < 8 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(8, bufferPool.getStats().getPrefetchedPages());
+        long missesBefore = bufferPool.getStats().getCacheMisses();
+        for (int i = 3; i <= 10; i++) {
+            bufferPool.getPage(i);
+            bufferPool.unpinPage(i, false);
+        }
+        Assertions.assertEquals(missesBefore, bufferPool.getStats().getCacheMisses(), "预读的页面应全部命中");
+
+        // 继续扫描到文件末尾，内容与预读是否赶上无关
+        for (int i = 11; i < FILE_PAGES; i++) {
+            Page page = bufferPool.getPage(i);
+            Assertions.assertEquals(i * 7, page.getBuffer().getInt(0), "页面 " + i);
+            bufferPool.unpinPage(i, false);
+        }
+
+        // 再次从头扫描：开头的页面已被淘汰，新的顺序访问重新触发预读
+        long prefetchedBefore = awaitPrefetchIdle(bufferPool);
+        for (int i = 0; i < 3; i++) {
+            bufferPool.getPage(i);
+            bufferPool.unpinPage(i, false);
+        }
+        deadline = System.currentTimeMillis() + 5000;
+        while (bufferPool.getStats().getPrefetchedPages() < prefetchedBefore + 8
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(prefetchedBefore + 8, bufferPool.getStats().getPrefetchedPages(), "第二次扫描也预读");
+        missesBefore = bufferPool.getStats().getCacheMisses();
+        for (int i = 3; i <= 10; i++) {
+            bufferPool.getPage(i);
+            bufferPool.unpinPage(i, false);
+        }
+        Assertions.assertEquals(missesBefore, bufferPool.getStats().getCacheMisses());
+        bufferPool.close();
+    }
+
+    /**
+     * 等待进行中的预读结束（预读页数在一段时间内不再变化），返回预读页数
+     */
+    private static long awaitPrefetchIdle(BufferPoolManager bufferPool) throws InterruptedException {
+        long prefetched = bufferPool.getStats().getPrefetchedPages();
+        while (true) {
+            Thread.sleep(100);
+            long current = bufferPool.getStats().getPrefetchedPages();
+            if (current == prefetched) {
+                return current;
+            }
+            prefetched = current;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.database.storage;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * 替换策略基准测试 - 在"点查询 + 全表扫描"的混合负载下比较各策略的缓存命中率
+ *
+ * 运行方式（在JavaStorageSystem目录下）：
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.database.storage.ReplacementPolicyBenchmark [poolSize] [filePages]
+ * </pre>
+ * 点查询90%落在大小为缓冲池一半的热点页面上（模拟B+树的上层节点），其余10%随机访问整个文件。
+ * 扫描访问全部是冷页面，对所有策略都是未命中，因此结果只统计点查询的命中率。
+ */
+public class ReplacementPolicyBenchmark {
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int poolSize = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int filePages = args.length > 1 ? Integer.parseInt(args[1]) : poolSize * 16;
+        String dbFile = "./replacement_benchmark.db";
+
+        System.out.println("=== Replacement Policy Benchmark ===");
+        System.out.printf("pool=%d frames, file=%d pages, hot set=%d pages%n", poolSize, filePages, poolSize / 2);
+        System.out.println("point lookup hit rate:");
+        System.out.printf("%-10s %18s %18s %18s%n", "policy", "lookup+full scan", "interleaved scan", "lookups only");
+        try {
+            createFile(dbFile, filePages);
+            for (ReplacementPolicy policy : ReplacementPolicy.values()) {
+                System.out.printf("%-10s %17.2f%% %17.2f%% %17.2f%%%n", policy,
+                    runWorkload(dbFile, policy, poolSize, filePages, Workload.PERIODIC_SCAN) * 100,
+                    runWorkload(dbFile, policy, poolSize, filePages, Workload.INTERLEAVED_SCAN) * 100,
+                    runWorkload(dbFile, policy, poolSize, filePages, Workload.LOOKUPS_ONLY) * 100);
+            }
+        } finally {
+            new File(dbFile).delete();
+        }
+    }
+
+    /**
+     * 负载类型
+     */
+    enum Workload {
+        PERIODIC_SCAN,    // 一段点查询后做一次全表扫描
+        INTERLEAVED_SCAN, // 扫描与点查询交替进行
+        LOOKUPS_ONLY      // 只有点查询
+    }
+
+    /**
+     * 在指定策略的缓冲池上运行负载，返回点查询的命中率
+     */
+    static double runWorkload(String dbFile, ReplacementPolicy policy, int poolSize, int filePages, Workload workload) {
+        BufferPoolManager bufferPool = new BufferPoolManager(poolSize, dbFile, policy);
+        bufferPool.setLoggingEnabled(false);
+        Random random = new Random(SEED);
+        int hotPages = Math.max(1, poolSize / 2);
+        int rounds = 8;
+        int lookupsPerRound = poolSize * 2;
+        CacheStats lookupStats = new CacheStats(); // 只统计点查询
+
+        for (int round = 0; round < rounds; round++) {
+            if (workload == Workload.INTERLEAVED_SCAN) {
+                for (int pageId = 0; pageId < filePages; pageId++) {
+                    access(bufferPool, pageId);
+                    lookup(bufferPool, lookupStats, nextLookup(random, hotPages, filePages));
+                }
+            } else {
+                for (int i = 0; i < lookupsPerRound; i++) {
+                    lookup(bufferPool, lookupStats, nextLookup(random, hotPages, filePages));
+                }
+                if (workload == Workload.PERIODIC_SCAN) {
+                    for (int pageId = 0; pageId < filePages; pageId++) {
+                        access(bufferPool, pageId);
+                    }
+                }
+            }
+        }
+
+        bufferPool.close();
+        return lookupStats.getHitRate();
+    }
+
+    private static int nextLookup(Random random, int hotPages, int filePages) {
+        return random.nextInt(10) < 9 ? random.nextInt(hotPages) : random.nextInt(filePages);
+    }
+
+    /**
+     * 点查询：根据缓冲池统计的变化判断本次访问是否命中
+     */
+    private static void lookup(BufferPoolManager bufferPool, CacheStats lookupStats, int pageId) {
+        int hitsBefore = bufferPool.getStats().getCacheHits();
+        access(bufferPool, pageId);
+        if (bufferPool.getStats().getCacheHits() > hitsBefore) {
+            lookupStats.recordHit();
+        } else {
+            lookupStats.recordMiss();
+        }
+    }
+
+    private static void access(BufferPoolManager bufferPool, int pageId) {
+        if (bufferPool.getPage(pageId) != null) {
+            bufferPool.unpinPage(pageId, false);
+        }
+    }
+
+    static void createFile(String dbFile, int filePages) {
+        new File(dbFile).delete();
+        BufferPoolManager bufferPool = new BufferPoolManager(16, dbFile, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        int[] pageId = new int[1];
+        for (int i = 0; i < filePages; i++) {
+            if (bufferPool.newPage(pageId) != null) {
+                bufferPool.unpinPage(pageId[0], true);
+            }
+        }
+        bufferPool.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.database.storage;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+
+/**
+ * 替换器测试 - 验证各替换策略的淘汰顺序以及缓冲池的淘汰写回
+ */
+public class ReplacerTest {
+    private final String testFile = "./test_replacer.db";
+
+    @AfterEach
+    void tearDown() {
+        new File(testFile).delete();
+    }
+
+    @Test
+    void testLRUEvictsLeastRecentlyUnpinned() {
+        Replacer replacer = new LRUReplacer(4);
+        for (int frame = 0; frame < 4; frame++) {
+            access(replacer, frame);
+        }
+        // 再次访问0号帧，它变为最近使用
+        access(replacer, 0);
+        // 2号帧被pin住，不能被淘汰
+        replacer.setEvictable(2, false);
+
+        Assertions.assertEquals(3, replacer.size());
+        Assertions.assertEquals(1, replacer.evict());
+        Assertions.assertEquals(3, replacer.evict());
+        Assertions.assertEquals(0, replacer.evict());
+        Assertions.assertEquals(-1, replacer.evict(), "被pin住的帧不应被淘汰");
+    }
+
+    @Test
+    void testClockGivesSecondChance() {
+        Replacer replacer = new ClockReplacer(3);
+        for (int frame = 0; frame < 3; frame++) {
+            access(replacer, frame);
+        }
+        // 第一圈清除所有引用位，第二圈淘汰0号帧
+        Assertions.assertEquals(0, replacer.evict());
+
+        // 1号帧重新被访问，获得第二次机会
+        access(replacer, 1);
+        Assertions.assertEquals(2, replacer.evict());
+        Assertions.assertEquals(1, replacer.evict());
+        Assertions.assertEquals(-1, replacer.evict());
+    }
+
+    @Test
+    void testFIFOIgnoresAccessOrder() {
+        Replacer replacer = new FIFOReplacer(3);
+        for (int frame = 0; frame < 3; frame++) {
+            access(replacer, frame);
+        }
+        access(replacer, 0);
+        Assertions.assertEquals(0, replacer.evict(), "FIFO按装入顺序淘汰");
+        replacer.remove(1);
+        Assertions.assertEquals(2, replacer.evict());
+    }
+
+    @Test
+    void testLRUKEvictsPagesSeenOnceFirst() {
+        Replacer replacer = new LRUKReplacer(3, 2);
+        access(replacer, 0);
+        access(replacer, 0); // 0号帧访问两次
+        access(replacer, 1);
+        access(replacer, 1); // 1号帧访问两次
+        access(replacer, 2); // 2号帧只访问一次（例如扫描）
+
+        Assertions.assertEquals(2, replacer.evict(), "访问不足K次的帧应优先淘汰");
+        Assertions.assertEquals(0, replacer.evict(), "倒数第二次访问最早的帧先淘汰");
+        Assertions.assertEquals(1, replacer.evict());
+    }
+
+    @Test
+    void testScanResistantPoliciesKeepHotPages() {
+        String dbFile = "./test_replacer_scan.db";
+        try {
+            ReplacementPolicyBenchmark.createFile(dbFile, 400);
+            double lru = ReplacementPolicyBenchmark.runWorkload(dbFile, ReplacementPolicy.LRU, 32, 400,
+                ReplacementPolicyBenchmark.Workload.INTERLEAVED_SCAN);
+            for (ReplacementPolicy policy : new ReplacementPolicy[] {
+                    ReplacementPolicy.LRU_K, ReplacementPolicy.TWO_QUEUE, ReplacementPolicy.ARC}) {
+                double hitRate = ReplacementPolicyBenchmark.runWorkload(dbFile, policy, 32, 400,
+                    ReplacementPolicyBenchmark.Workload.INTERLEAVED_SCAN);
+                Assertions.assertTrue(hitRate > lru + 0.1,
+                    policy + " 在扫描负载下的命中率应明显高于LRU: " + hitRate + " vs " + lru);
+            }
+        } finally {
+            new File(dbFile).delete();
+        }
+    }
+
+    @Test
+    void testBufferPoolWritesBackEvictedPages() {
+        for (ReplacementPolicy policy : ReplacementPolicy.values()) {
+            new File(testFile).delete();
+            BufferPoolManager bufferPool = new BufferPoolManager(2, testFile, policy);
+            bufferPool.setLoggingEnabled(false);
+
+            int[] pageIds = new int[5];
+            for (int i = 0; i < pageIds.length; i++) {
+                int[] pageId = new int[1];
+                Page page = bufferPool.newPage(pageId);
+                Assertions.assertNotNull(page, policy + ": 淘汰后应能分配新页");
+                page.getData()[0] = (byte) (i + 1);
+                bufferPool.unpinPage(pageId[0], true);
+                pageIds[i] = pageId[0];
+            }
+
+            for (int i = 0; i < pageIds.length; i++) {
+                Page page = bufferPool.getPage(pageIds[i]);
+                Assertions.assertEquals(i + 1, page.getData()[0], policy + ": 被淘汰的脏页应已写回");
+                bufferPool.unpinPage(pageIds[i], false);
+            }
+
+            // 所有帧都被pin住时无法装入新页面
+            bufferPool.getPage(pageIds[0]);
+            bufferPool.getPage(pageIds[1]);
+            Assertions.assertNull(bufferPool.getPage(pageIds[2]), policy + ": 所有帧被pin住时应返回null");
+            bufferPool.close();
+        }
+    }
+
+    private void access(Replacer replacer, int frame) {
+        replacer.recordAccess(frame, frame);
+        replacer.setEvictable(frame, false);
+        replacer.setEvictable(frame, true);
+    }
+}
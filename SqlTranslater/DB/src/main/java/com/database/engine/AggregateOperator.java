@@ -0,0 +1,203 @@
+package com.database.engine;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 聚合运算符 - 按GROUP BY列分组（哈希分组），计算COUNT、SUM、AVG、MIN、MAX
+ *
+ * 聚合函数以"函数名(参数)"形式的列名出现，例如COUNT(*)、SUM(amount)。输出行依次是各分组列的值和
+ * 各聚合函数的结果，列名与分组列名、聚合函数列名相同。open()时读完下层的全部行，内存只与分组数成正比。
+ * SUM、AVG按数值计算，跳过NULL和非数字值；MIN、MAX与WHERE中的比较一致（两边都是数字时按数值比较）；
+ * COUNT(*)统计全部行，COUNT(列)只统计非NULL值。没有GROUP BY时即使没有输入行也输出一行。
+ */
+public class AggregateOperator implements Operator {
+    private static final Pattern AGGREGATE_CALL =
+        Pattern.compile("(COUNT|SUM|AVG|MIN|MAX)\\((.+)\\)", Pattern.CASE_INSENSITIVE);
+
+    private final Operator child;
+    private final int[] groupOrdinals; // 分组列在下层行中的序号，-1表示没有这一列
+    private final List<String> aggregates;
+    private final int[] argumentOrdinals; // 聚合函数参数列的序号，COUNT(*)为-1
+    private final RowSchema schema;
+    private Iterator<Object[]> output;
+
+    /**
+     * @param groupBy 分组列
+     * @param aggregates 要计算的聚合函数列名
+     */
+    public AggregateOperator(Operator child, List<String> groupBy, List<String> aggregates) {
+        this.child = child;
+        this.aggregates = aggregates;
+        RowSchema input = child.getSchema();
+        this.groupOrdinals = new int[groupBy.size()];
+        for (int i = 0; i < groupOrdinals.length; i++) {
+            groupOrdinals[i] = input.indexOf(groupBy.get(i));
+        }
+        this.argumentOrdinals = new int[aggregates.size()];
+        for (int i = 0; i < argumentOrdinals.length; i++) {
+            String argument = parseCall(aggregates.get(i))[1];
+            argumentOrdinals[i] = "*".equals(argument) ? -1 : input.indexOf(argument);
+        }
+        List<String> columns = new ArrayList<>(groupBy);
+        columns.addAll(aggregates);
+        this.schema = new RowSchema(columns);
+    }
+
+    /**
+     * 列名是否为聚合函数调用
+     */
+    public static boolean isAggregateCall(String name) {
+        return AGGREGATE_CALL.matcher(name).matches();
+    }
+
+    /**
+     * 拆分聚合函数调用
+     * @return {大写的函数名, 参数}
+     */
+    static String[] parseCall(String call) {
+        Matcher matcher = AGGREGATE_CALL.matcher(call);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("不支持的聚合函数: " + call);
+        }
+        return new String[] {matcher.group(1).toUpperCase(Locale.ROOT), matcher.group(2).trim()};
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        Map<List<Object>, Accumulator[]> groups = new LinkedHashMap<>();
+        Object[] row;
+        while ((row = child.next()) != null) {
+            List<Object> key = new ArrayList<>(groupOrdinals.length);
+            for (int ordinal : groupOrdinals) {
+                key.add(ordinal >= 0 ? row[ordinal] : null);
+            }
+            Accumulator[] accumulators = groups.get(key);
+            if (accumulators == null) {
+                accumulators = newAccumulators();
+                groups.put(key, accumulators);
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i].add(row, argumentOrdinals[i]);
+            }
+        }
+        if (groups.isEmpty() && groupOrdinals.length == 0) {
+            groups.put(new ArrayList<>(), newAccumulators());
+        }
+
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<List<Object>, Accumulator[]> group : groups.entrySet()) {
+            Object[] result = new Object[schema.size()];
+            for (int i = 0; i < groupOrdinals.length; i++) {
+                result[i] = group.getKey().get(i);
+            }
+            for (int i = 0; i < aggregates.size(); i++) {
+                result[groupOrdinals.length + i] = group.getValue()[i].result();
+            }
+            rows.add(result);
+        }
+        output = rows.iterator();
+    }
+
+    private Accumulator[] newAccumulators() {
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator(aggregates.get(i));
+        }
+        return accumulators;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        return output != null && output.hasNext() ? output.next() : null;
+    }
+
+    @Override
+    public void close() {
+        output = null;
+        child.close();
+    }
+
+    /**
+     * 一个分组上一个聚合函数的中间状态
+     */
+    private static final class Accumulator {
+        private final String function;
+        private final String argument; // 为"*"时统计全部行
+        private long count;
+        private BigDecimal sum;
+        private String extreme; // MIN、MAX的当前值
+
+        Accumulator(String call) {
+            String[] parts = parseCall(call);
+            this.function = parts[0];
+            this.argument = parts[1];
+        }
+
+        /**
+         * @param ordinal 参数列在行中的序号，-1表示COUNT(*)或没有这一列
+         */
+        void add(Object[] row, int ordinal) {
+            if ("*".equals(argument)) {
+                count++;
+                return;
+            }
+            Object value = ordinal >= 0 ? row[ordinal] : null;
+            if (value == null || "NULL".equals(value)) {
+                return;
+            }
+            String text = value.toString();
+            switch (function) {
+                case "SUM":
+                case "AVG":
+                    BigDecimal number = IndexKey.parseNumber(text);
+                    if (number != null) {
+                        sum = sum == null ? number : sum.add(number);
+                        count++;
+                    }
+                    break;
+                case "MIN":
+                    if (extreme == null || Executor.compareValues(text, extreme) < 0) {
+                        extreme = text;
+                    }
+                    break;
+                case "MAX":
+                    if (extreme == null || Executor.compareValues(text, extreme) > 0) {
+                        extreme = text;
+                    }
+                    break;
+                default:
+                    count++;
+            }
+        }
+
+        Object result() {
+            switch (function) {
+                case "SUM":
+                    return sum == null ? null : sum.stripTrailingZeros().toPlainString();
+                case "AVG":
+                    return sum == null ? null : sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64)
+                        .stripTrailingZeros().toPlainString();
+                case "MIN":
+                case "MAX":
+                    return extreme;
+                default:
+                    return String.valueOf(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.database.engine;
+
+/**
+ * 向量化查询运算符 - 与Operator相同的拉取模型，但每次产生一批按列存放的行
+ */
+public interface BatchOperator {
+    /**
+     * 打开运算符（及其下层运算符）
+     */
+    void open();
+
+    /**
+     * 下一批行；没有更多行时返回null。返回的批在下一次调用时可能被复用
+     */
+    ColumnBatch nextBatch();
+
+    /**
+     * 关闭运算符，释放资源
+     */
+    void close();
+}
@@ -0,0 +1,63 @@
+package com.database.engine;
+
+import java.util.List;
+
+/**
+ * 批转行运算符 - 把向量化管道的结果交给行式运算符：只为通过过滤的行生成行（延迟物化），
+ * 列值取自字典编码的列向量，与行式扫描读到的原始文本相同
+ */
+public class BatchRowOperator implements Operator {
+    private final BatchOperator child;
+    private final RowSchema schema;
+    private final int[] ordinals;
+    private ColumnBatch batch;
+    private int position; // 当前批中下一个要输出的有效行
+
+    /**
+     * @param columns 输出行的列名
+     * @param ordinals 对应的列向量编号（必须字典编码）
+     */
+    public BatchRowOperator(BatchOperator child, List<String> columns, int[] ordinals) {
+        this.child = child;
+        this.schema = new RowSchema(columns);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        batch = null;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        while (batch == null || position >= batch.getSelectedCount()) {
+            batch = child.nextBatch();
+            position = 0;
+            if (batch == null) {
+                return null;
+            }
+        }
+        int[] selection = batch.getSelection();
+        int i = selection == null ? position : selection[position];
+        position++;
+        Object[] row = new Object[ordinals.length];
+        for (int k = 0; k < ordinals.length; k++) {
+            ColumnVector vector = batch.getVector(ordinals[k]);
+            int code = vector.codes[i];
+            row[k] = code < 0 ? null : vector.dictionary[code];
+        }
+        return row;
+    }
+
+    @Override
+    public void close() {
+        batch = null;
+        child.close();
+    }
+}
@@ -52,6 +52,38 @@ public class CatalogManager {
         removeTableMetadata(tableName);
     }
     
+    /**
+     * 登记表上的索引；索引定义由StorageAdapter持久化在索引系统表中
+     */
+    public void addIndex(String tableName, IndexInfo indexInfo) {
+        TableInfo tableInfo = catalog.getTable(tableName);
+        if (tableInfo != null) {
+            tableInfo.addIndex(indexInfo);
+        }
+    }
+    
+    /**
+     * 移除表上的索引
+     */
+    public boolean dropIndex(String tableName, String indexName) {
+        TableInfo tableInfo = catalog.getTable(tableName);
+        return tableInfo != null && tableInfo.removeIndex(indexName);
+    }
+    
+    /**
+     * 查找拥有指定索引的表
+     */
+    public List<String> findTablesWithIndex(String indexName) {
+        List<String> tableNames = new ArrayList<>();
+        for (String tableName : catalog.getAllTableNames()) {
+            TableInfo tableInfo = catalog.getTable(tableName);
+            if (tableInfo.getIndex(indexName) != null) {
+                tableNames.add(tableInfo.getName());
+            }
+        }
+        return tableNames;
+    }
+    
     /**
      * 获取所有表名
      */
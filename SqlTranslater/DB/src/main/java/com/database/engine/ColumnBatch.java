@@ -0,0 +1,60 @@
+package com.database.engine;
+
+/**
+ * 列批 - 向量化执行中运算符之间传递的一批行（最多CAPACITY行），每列一个列向量，
+ * 加上选择向量：selection为null时批中全部行都有效，否则只有selection前selectedCount个行号有效。
+ * 过滤只改写选择向量，不移动列数据。
+ */
+public class ColumnBatch {
+    public static final int CAPACITY = 1024;
+
+    private final ColumnVector[] vectors;
+    private final int[] selectionBuffer = new int[CAPACITY];
+    private int size;
+    private int[] selection;
+    private int selectedCount;
+
+    public ColumnBatch(ColumnVector[] vectors) {
+        this.vectors = vectors;
+    }
+
+    /**
+     * 装入新的一批后重置：全部size行有效
+     */
+    void reset(int size) {
+        this.size = size;
+        this.selection = null;
+        this.selectedCount = size;
+    }
+
+    public ColumnVector getVector(int ordinal) {
+        return vectors[ordinal];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 有效行的行号，全部行有效时为null
+     */
+    public int[] getSelection() {
+        return selection;
+    }
+
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    /**
+     * 供过滤写入新选择向量的缓冲区（与当前选择向量可以是同一个数组：过滤时写入位置不超过读取位置）
+     */
+    int[] selectionBuffer() {
+        return selectionBuffer;
+    }
+
+    void select(int[] selection, int selectedCount) {
+        this.selection = selection;
+        this.selectedCount = selectedCount;
+    }
+}
@@ -0,0 +1,235 @@
+package com.database.engine;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列向量 - 一列值按类型存放在基本类型数组中：数值列为long[]（小数按固定的小数位数放大），
+ * 放大后超出long范围的数值列为double[]，其余列做字典编码（int[]编码 + 字典），NULL由nulls标记（字典编码的NULL编码为-1）
+ *
+ * 同一个列向量既用作整列解码的结果，也用作批中的一段（从整列按段复制，数组在批之间复用）。
+ * 列文件中的原始文本保留在source中，MIN、MAX等需要原样输出的结果按行号回查。
+ */
+public class ColumnVector {
+    public enum Kind { LONG, DOUBLE, STRING }
+
+    private static final int MAX_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final Kind kind;
+    final long[] longs;
+    final double[] doubles;
+    final int[] codes;
+    final boolean[] nulls;
+    final String[] dictionary;
+    private final List<Object> source; // 整列的原始文本
+    private int sourceOffset; // 本段第一行在整列中的行号
+    private boolean hasNulls;
+    private int scale; // LONG列的值是实际值乘以10^scale
+
+    private ColumnVector(Kind kind, int capacity, String[] dictionary, List<Object> source) {
+        this.kind = kind;
+        this.longs = kind == Kind.LONG ? new long[capacity] : null;
+        this.doubles = kind == Kind.DOUBLE ? new double[capacity] : null;
+        this.codes = kind == Kind.STRING ? new int[capacity] : null;
+        this.nulls = kind == Kind.STRING ? null : new boolean[capacity];
+        this.dictionary = dictionary;
+        this.source = source;
+    }
+
+    /**
+     * 解码整列：要求字典编码或有非数字值时做字典编码；否则数值列为LONG（小数按列中最大的小数位数放大为整数，
+     * 比较和求和都是精确的），放大后超出long范围时为DOUBLE
+     * @param values 列文件中的值，null表示NULL
+     */
+    public static ColumnVector decode(List<Object> values, boolean dictionaryEncoded) {
+        int size = values.size();
+        if (!dictionaryEncoded) {
+            BigDecimal[] decimals = new BigDecimal[size];
+            int scale = parseNumbers(values, decimals);
+            if (scale >= 0) {
+                ColumnVector vector = scale <= MAX_SCALE
+                    ? new ColumnVector(Kind.LONG, size, null, values)
+                    : new ColumnVector(Kind.DOUBLE, size, null, values);
+                vector.scale = scale;
+                if (vector.fillNumbers(values, decimals)) {
+                    return vector;
+                }
+                vector = new ColumnVector(Kind.DOUBLE, size, null, values);
+                vector.fillNumbers(values, decimals);
+                return vector;
+            }
+        }
+        Map<String, Integer> codeOf = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        boolean hasNulls = false;
+        int[] codes = new int[size];
+        for (int i = 0; i < size; i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                codes[i] = -1;
+                hasNulls = true;
+                continue;
+            }
+            String text = value.toString();
+            Integer code = codeOf.get(text);
+            if (code == null) {
+                code = dictionary.size();
+                codeOf.put(text, code);
+                dictionary.add(text);
+            }
+            codes[i] = code;
+        }
+        ColumnVector vector = new ColumnVector(Kind.STRING, size, dictionary.toArray(new String[0]), values);
+        System.arraycopy(codes, 0, vector.codes, 0, size);
+        vector.hasNulls = hasNulls;
+        return vector;
+    }
+
+    /**
+     * 解析整列的数值（纯整数走快速路径，decimals中留null），与行式比较的数字判定一致
+     * @return 最大的小数位数；有非数字值时返回-1
+     */
+    private static int parseNumbers(List<Object> values, BigDecimal[] decimals) {
+        int scale = 0;
+        for (int i = 0; i < decimals.length; i++) {
+            Object value = values.get(i);
+            if (value == null || isPlainInteger(value.toString())) {
+                continue;
+            }
+            BigDecimal number = IndexKey.parseNumber(value.toString());
+            if (number == null) {
+                return -1;
+            }
+            decimals[i] = number;
+            scale = Math.max(scale, number.scale());
+        }
+        return scale;
+    }
+
+    private static boolean isPlainInteger(String text) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > 18) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return LONG放大后超出long范围时返回false
+     */
+    private boolean fillNumbers(List<Object> values, BigDecimal[] decimals) {
+        for (int i = 0; i < decimals.length; i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                nulls[i] = hasNulls = true;
+                continue;
+            }
+            BigDecimal number = decimals[i]; // 为null时是纯整数
+            if (kind == Kind.DOUBLE) {
+                doubles[i] = number != null ? number.doubleValue() : Long.parseLong(value.toString());
+                continue;
+            }
+            try {
+                if (number == null) {
+                    long integer = Long.parseLong(value.toString());
+                    longs[i] = scale == 0 ? integer : Math.multiplyExact(integer, POWERS_OF_TEN[scale]);
+                } else {
+                    longs[i] = number.movePointRight(scale).longValueExact();
+                }
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与整列同类型、同字典的空段，容量为一批的行数
+     */
+    public ColumnVector newSegment(int capacity) {
+        ColumnVector segment = new ColumnVector(kind, capacity, dictionary, source);
+        segment.scale = scale;
+        return segment;
+    }
+
+    /**
+     * 从整列复制从offset开始的length行到本段
+     */
+    public void copyFrom(ColumnVector column, int offset, int length) {
+        switch (kind) {
+            case LONG:
+                System.arraycopy(column.longs, offset, longs, 0, length);
+                break;
+            case DOUBLE:
+                System.arraycopy(column.doubles, offset, doubles, 0, length);
+                break;
+            default:
+                System.arraycopy(column.codes, offset, codes, 0, length);
+        }
+        if (nulls != null) {
+            if (column.hasNulls) {
+                System.arraycopy(column.nulls, offset, nulls, 0, length);
+            } else if (hasNulls) {
+                Arrays.fill(nulls, 0, length, false);
+            }
+        }
+        hasNulls = column.hasNulls;
+        sourceOffset = column.sourceOffset + offset;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * LONG列的小数位数：long值是实际值乘以10^scale
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * 字典编码列的字典（编码即下标），其他类型为null
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    public boolean isNull(int i) {
+        return kind == Kind.STRING ? codes[i] < 0 : nulls[i];
+    }
+
+    /**
+     * 段内可能有NULL（为false时可以省去NULL检查）
+     */
+    public boolean mayHaveNulls() {
+        return hasNulls;
+    }
+
+    /**
+     * 第i行在列文件中的原始文本，NULL返回null
+     */
+    public String getText(int i) {
+        Object value = source.get(sourceOffset + i);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.database.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列式表的批扫描 - open()时只读取用到的列文件并解码为列向量，之后每批复制ColumnBatch.CAPACITY行
+ *
+ * 同一列可以出现多次、以不同方式解码：参与比较和聚合计算的列按值解码（整数、小数或字典），
+ * 输出或分组的列做字典编码，保证输出的是列文件中的原始文本。
+ */
+public class ColumnarBatchScan implements BatchOperator {
+    private final ColumnarStorageEngine columnarStorageEngine;
+    private final String tableName;
+    private final List<String> columns;
+    private final boolean[] dictionaryEncoded;
+    private ColumnVector[] columnVectors;
+    private ColumnBatch batch;
+    private int rowCount;
+    private int position;
+
+    /**
+     * @param columns 要读取的列，批中的列向量按此顺序编号
+     * @param dictionaryEncoded 对应的列是否强制字典编码
+     */
+    public ColumnarBatchScan(ColumnarStorageEngine columnarStorageEngine, String tableName,
+                             List<String> columns, boolean[] dictionaryEncoded) {
+        this.columnarStorageEngine = columnarStorageEngine;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.dictionaryEncoded = dictionaryEncoded;
+    }
+
+    @Override
+    public void open() {
+        rowCount = columnarStorageEngine.getRowCount(tableName);
+        columnVectors = new ColumnVector[columns.size()];
+        ColumnVector[] segments = new ColumnVector[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            List<Object> values = rowCount > 0
+                ? columnarStorageEngine.querySingleColumn(tableName, columns.get(i))
+                : new ArrayList<>();
+            if (values.size() != rowCount) {
+                // 缺少的值（列文件比其他列短，或列不存在）按NULL处理
+                List<Object> padded = new ArrayList<>(values.subList(0, Math.min(values.size(), rowCount)));
+                while (padded.size() < rowCount) {
+                    padded.add(null);
+                }
+                values = padded;
+            }
+            columnVectors[i] = ColumnVector.decode(values, dictionaryEncoded[i]);
+            segments[i] = columnVectors[i].newSegment(ColumnBatch.CAPACITY);
+        }
+        batch = new ColumnBatch(segments);
+        position = 0;
+    }
+
+    @Override
+    public ColumnBatch nextBatch() {
+        if (batch == null || position >= rowCount) {
+            return null;
+        }
+        int length = Math.min(ColumnBatch.CAPACITY, rowCount - position);
+        for (int i = 0; i < columnVectors.length; i++) {
+            batch.getVector(i).copyFrom(columnVectors[i], position, length);
+        }
+        batch.reset(length);
+        position += length;
+        return batch;
+    }
+
+    @Override
+    public void close() {
+        columnVectors = null;
+        batch = null;
+    }
+
+    /**
+     * 表的行数（open()之后有效）
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+}
@@ -1,9 +1,12 @@
 package com.database.engine;
 
+import com.database.storage.MappedFile;
 import com.sqlcompiler.catalog.*;
 import java.util.*;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 
 /**
  * 列式存储引擎
@@ -13,10 +16,13 @@ import java.nio.charset.StandardCharsets;
 public class ColumnarStorageEngine {
     private final String dataDirectory;
     private final Map<String, ColumnarTableInfo> tableInfoMap;
+    private final Map<String, MappedFile> mappedColumnFiles; // 内存映射读模式下已映射的列文件
+    private volatile boolean memoryMappedReads; // 是否通过内存映射读取列文件
     
     public ColumnarStorageEngine(String dataDirectory) {
         this.dataDirectory = dataDirectory;
         this.tableInfoMap = new HashMap<>();
+        this.mappedColumnFiles = new HashMap<>();
         
         // 确保数据目录存在
         File dir = new File(dataDirectory);
@@ -169,6 +175,38 @@ public class ColumnarStorageEngine {
         return results;
     }
     
+    /**
+     * 扫描列式存储表，每行是按columns顺序存放值的数组（不为每行建立Map），缺少的值为null
+     */
+    public List<Object[]> scanRows(String tableName, List<String> columns) {
+        List<Object[]> rows = new ArrayList<>();
+        try {
+            ColumnarTableInfo tableInfo = tableInfoMap.get(tableName);
+            if (tableInfo == null) {
+                System.err.println("表 " + tableName + " 不存在");
+                return rows;
+            }
+            
+            int rowCount = tableInfo.getRowCount();
+            List<List<Object>> columnData = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                columnData.add(rowCount == 0 ? Collections.emptyList()
+                    : readColumnValues(getColumnFilePath(tableName, column), rowCount));
+            }
+            for (int i = 0; i < rowCount; i++) {
+                Object[] row = new Object[columns.size()];
+                for (int c = 0; c < row.length; c++) {
+                    List<Object> values = columnData.get(c);
+                    row[c] = i < values.size() ? values.get(i) : null;
+                }
+                rows.add(row);
+            }
+        } catch (Exception e) {
+            System.err.println("扫描列式存储表失败: " + e.getMessage());
+        }
+        return rows;
+    }
+    
     /**
      * 聚合查询优化 - 只读取需要的列，避免数据重组
      */
@@ -671,6 +709,7 @@ public class ColumnarStorageEngine {
                 String line;
                 while ((line = reader.readLine()) != null) {
                     if (line.equals("# Data starts below")) {
+                        count = 0; // 标记之前的是列元数据，不计入行数
                         inDataSection = true;
                         hasMetadata = true;
                         continue;
@@ -744,6 +783,9 @@ public class ColumnarStorageEngine {
      * 读取列值
      */
     private List<Object> readColumnValues(String columnFile, int expectedRows) throws IOException {
+        if (memoryMappedReads) {
+            return readColumnValuesMapped(columnFile, expectedRows);
+        }
         List<Object> values = new ArrayList<>();
         
         // 优化：移除调试输出以提升性能
@@ -755,6 +797,8 @@ public class ColumnarStorageEngine {
             
             while ((line = reader.readLine()) != null) {
                 if (line.equals("# Data starts below")) {
+                    // 标记之前的是列元数据，不是数据
+                    values.clear();
                     inDataSection = true;
                     continue;
                 }
@@ -772,6 +816,105 @@ public class ColumnarStorageEngine {
         return values;
     }
     
+    /**
+     * 通过内存映射读取列值：直接扫描映射的页缓存，不经过Reader的字符缓冲
+     * 映射按文件缓存，文件追加数据后访问新内容时自动重新映射
+     */
+    private List<Object> readColumnValuesMapped(String columnFile, int expectedRows) throws IOException {
+        MappedFile mappedFile;
+        synchronized (mappedColumnFiles) {
+            mappedFile = mappedColumnFiles.get(columnFile);
+            if (mappedFile == null) {
+                mappedFile = MappedFile.open(Paths.get(columnFile));
+                mappedColumnFiles.put(columnFile, mappedFile);
+            }
+        }
+
+        List<Object> values = new ArrayList<>(Math.max(16, expectedRows));
+        byte[] lineBuffer = new byte[256];
+        int lineLength = 0;
+        boolean skipLineFeed = false; // 上一个字节是\r时跳过紧随的\n
+        long fileSize = mappedFile.size();
+        for (long position = 0; position < fileSize; ) {
+            int length = (int) Math.min(MappedFile.REGION_SIZE - position % MappedFile.REGION_SIZE, fileSize - position);
+            ByteBuffer region = mappedFile.slice(position, length);
+            while (region.hasRemaining()) {
+                byte b = region.get();
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    addColumnValue(values, lineBuffer, lineLength);
+                    lineLength = 0;
+                    skipLineFeed = b == '\r';
+                } else {
+                    if (lineLength == lineBuffer.length) {
+                        lineBuffer = Arrays.copyOf(lineBuffer, lineLength * 2);
+                    }
+                    lineBuffer[lineLength++] = b;
+                }
+            }
+            position += length;
+        }
+        if (lineLength > 0) {
+            addColumnValue(values, lineBuffer, lineLength);
+        }
+        return values;
+    }
+
+    /**
+     * 解析列文件的一行：跳过元数据（数据开始标记之前的行）、注释和空行，"NULL"表示空值
+     */
+    private void addColumnValue(List<Object> values, byte[] lineBuffer, int lineLength) {
+        if (lineLength == 0) {
+            return;
+        }
+        String line = new String(lineBuffer, 0, lineLength, StandardCharsets.UTF_8);
+        if (line.equals("# Data starts below")) {
+            values.clear(); // 标记之前的是列元数据，不是数据
+            return;
+        }
+        if (line.startsWith("#")) {
+            return;
+        }
+        if (!line.trim().isEmpty()) {
+            values.add("NULL".equals(line) ? null : line);
+        }
+    }
+
+    /**
+     * 开启或关闭列文件的内存映射读模式（适合内存充足的分析型查询）
+     */
+    public void setMemoryMappedReads(boolean enabled) {
+        this.memoryMappedReads = enabled;
+        if (!enabled) {
+            close();
+        }
+    }
+
+    public boolean isMemoryMappedReads() {
+        return memoryMappedReads;
+    }
+
+    /**
+     * 释放所有列文件映射
+     */
+    public void close() {
+        synchronized (mappedColumnFiles) {
+            for (MappedFile mappedFile : mappedColumnFiles.values()) {
+                try {
+                    mappedFile.close();
+                } catch (IOException e) {
+                    System.err.println("关闭列文件映射失败: " + e.getMessage());
+                }
+            }
+            mappedColumnFiles.clear();
+        }
+    }
+
     /**
      * 列式表信息
      */
@@ -814,6 +957,14 @@ public class ColumnarStorageEngine {
         return new ArrayList<>(tableInfoMap.keySet());
     }
     
+    /**
+     * 获取表的行数，表不存在时返回0
+     */
+    public int getRowCount(String tableName) {
+        ColumnarTableInfo columnarInfo = tableInfoMap.get(tableName);
+        return columnarInfo != null ? columnarInfo.getRowCount() : 0;
+    }
+    
     /**
      * 获取表信息
      */
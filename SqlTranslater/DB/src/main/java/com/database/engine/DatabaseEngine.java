@@ -64,6 +64,9 @@ public class DatabaseEngine {
             // 确保StorageAdapter中的列式存储表信息同步到CatalogManager
             syncColumnarTablesToCatalog();
             
+            // 从索引系统表恢复行式存储表上的索引定义
+            syncIndexesToCatalog();
+            
             initialized = true;
             return true;
         } catch (Exception e) {
@@ -72,6 +75,22 @@ public class DatabaseEngine {
         }
     }
     
+    /**
+     * 同步索引定义到目录管理器
+     */
+    private void syncIndexesToCatalog() {
+        StorageAdapter storageAdapter = executor.getStorageAdapter();
+        for (String tableName : catalogManager.getAllTableNames()) {
+            TableInfo tableInfo = catalogManager.getTable(tableName);
+            if (tableInfo == null || !tableInfo.isRowStorage() || tableName.startsWith("__system_")) {
+                continue;
+            }
+            for (IndexInfo indexInfo : storageAdapter.getIndexDefinitions(tableInfo.getName())) {
+                tableInfo.addIndex(indexInfo);
+            }
+        }
+    }
+    
     /**
      * 同步列式存储表信息到目录管理器
      */
@@ -317,6 +336,9 @@ public class DatabaseEngine {
             // 保存目录信息
             catalogManager.saveToStorage();
             
+            // 关闭表文件
+            executor.getStorageAdapter().close();
+            
             // 关闭日志管理器
             logManager.close();
             
@@ -390,6 +412,21 @@ public class DatabaseEngine {
         System.out.println("索引类型已设置为: " + indexType);
     }
     
+    /**
+     * 开启或关闭列式表的向量化执行
+     */
+    public void setVectorizedExecution(boolean enabled) {
+        executor.setVectorizedExecution(enabled);
+        System.out.println("向量化执行已" + (enabled ? "开启" : "关闭"));
+    }
+    
+    /**
+     * 设置哈希连接的内存预算（字节）
+     */
+    public void setJoinMemoryBudget(long bytes) {
+        executor.setJoinMemoryBudget(bytes);
+    }
+    
     /**
      * 获取当前索引类型
      */
@@ -701,6 +738,13 @@ public class DatabaseEngine {
         return catalogManager;
     }
     
+    /**
+     * 获取执行引擎
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+    
     /**
      * 获取SQL编译器
      */
@@ -1,18 +1,34 @@
 package com.database.engine;
 
+import com.database.storage.BPlusTreeCursor;
+import com.database.storage.BPlusTreeKey;
 import com.sqlcompiler.execution.*;
 import com.sqlcompiler.catalog.*;
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * 执行引擎 - 负责执行各种SQL操作
  * 支持 CreateTable、Insert、SeqScan、Filter、Project
  * 现在使用StorageAdapter来支持更高级的存储系统
+ * SELECT由运算符（{@link Operator}）组成的拉取式管道执行：扫描 → 连接 → 过滤 → 聚合 → 排序 → 投影 → LIMIT，
+ * 管道中的行是按列序号存放值的数组，条件、排序和投影用到的列序号在构建管道时按行结构查找一次
  */
 public class Executor {
+    // 连接方式的代价估计，以顺序读取一行为单位
+    private static final double RANDOM_ROW_COST = 2.0; // 按记录ID读取一行
+    private static final double HASH_BUILD_ROW_COST = 1.5; // 构建端的一行放入哈希表
+    private static final double SPILL_ROW_COST = 4.0; // 溢出到磁盘时一行写出再读回
+    private static final double INDEX_LOOKUP_COST = 3.0; // 在索引上查找一次（不含读取匹配的行）
+    private static final double MERGE_ROW_COST = 0.5; // 合并时一行比较一次连接键
+    
     private final StorageAdapter storageAdapter;
     private final CatalogManager catalogManager;
     private String currentIndexType = "智能选择";
+    private boolean vectorizedExecution = true; // 列式表的查询是否按列批执行
+    private long joinMemoryBudget = 64L * 1024 * 1024; // 哈希连接构建端在内存中的估计字节数上限
     
     public Executor(StorageAdapter storageAdapter, CatalogManager catalogManager) {
         this.storageAdapter = storageAdapter;
@@ -27,100 +43,137 @@ public class Executor {
     }
     
     /**
-     * 获取存储适配器
+     * 开启或关闭列式表的向量化执行；关闭时列式表也按行经过运算符管道
      */
-    public StorageAdapter getStorageAdapter() {
-        return storageAdapter;
+    public void setVectorizedExecution(boolean enabled) {
+        this.vectorizedExecution = enabled;
+    }
+    
+    public boolean isVectorizedExecution() {
+        return vectorizedExecution;
     }
     
     /**
-     * 根据索引类型查询表数据
+     * 设置哈希连接的内存预算（字节），构建端超过预算时分区写入磁盘
      */
-    private List<Map<String, Object>> queryTableWithIndex(String tableName, TablePlan tablePlan) {
-        switch (currentIndexType) {
-            case "B+树索引":
-                return queryWithBPlusTreeIndex(tableName, tablePlan);
-            case "哈希索引":
-                return queryWithHashIndex(tableName, tablePlan);
-            case "线性查找":
-                return queryWithLinearSearch(tableName, tablePlan);
-            case "智能选择":
-            default:
-                return queryWithIntelligentSelection(tableName, tablePlan);
-        }
+    public void setJoinMemoryBudget(long bytes) {
+        this.joinMemoryBudget = bytes;
     }
     
     /**
-     * 使用B+树索引查询（模拟）
+     * 获取存储适配器
      */
-    private List<Map<String, Object>> queryWithBPlusTreeIndex(String tableName, TablePlan tablePlan) {
-        // 模拟B+树索引：先进行全表扫描，然后模拟索引查找的延迟
-        List<Map<String, Object>> allData = storageAdapter.scanTable(tableName);
-        
-        // 模拟B+树索引的查找过程 - 增加更明显的延迟
-        try {
-            Thread.sleep(50); // 模拟B+树索引查找的延迟
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        System.out.println("使用B+树索引查询表: " + tableName + " (数据量: " + allData.size() + ")");
-        return allData;
+    public StorageAdapter getStorageAdapter() {
+        return storageAdapter;
     }
     
     /**
-     * 使用哈希索引查询（模拟）
+     * 根据索引类型打开表数据的行来源
+     * WHERE条件中用AND连接的"列 比较运算符 常量"能由某个索引的前几列回答时按索引逐条读取候选记录，否则逐页扫描全表；
+     * 候选记录仍由上层的过滤运算符用完整的WHERE条件过滤
      */
-    private List<Map<String, Object>> queryWithHashIndex(String tableName, TablePlan tablePlan) {
-        // 模拟哈希索引：先进行全表扫描，然后模拟哈希查找的延迟
-        List<Map<String, Object>> allData = storageAdapter.scanTable(tableName);
-        
-        // 模拟哈希索引的查找过程 - 增加更明显的延迟
-        try {
-            Thread.sleep(20); // 模拟哈希查找的延迟
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private Iterator<Object[]> queryTableWithIndex(String tableName, TablePlan tablePlan, ExpressionPlan whereClause) {
+        List<RecordId> candidates = findCandidates(tableName, tablePlan.getAlias(), whereClause);
+        if (candidates == null) {
+            System.out.println("使用线性查找查询表: " + tableName);
+            return storageAdapter.openRowScan(tableName);
         }
         
-        System.out.println("使用哈希索引查询表: " + tableName + " (数据量: " + allData.size() + ")");
-        return allData;
+        return readRows(tableName, candidates.iterator());
     }
     
     /**
-     * 使用线性查找查询
+     * 按记录ID依次读取记录，已被删除的记录跳过
      */
-    private List<Map<String, Object>> queryWithLinearSearch(String tableName, TablePlan tablePlan) {
-        // 线性查找：直接全表扫描
-        List<Map<String, Object>> allData = storageAdapter.scanTable(tableName);
+    private Iterator<Object[]> readRows(String tableName, Iterator<RecordId> recordIds) {
+        return new Iterator<Object[]>() {
+            private Object[] nextRecord;
+            
+            @Override
+            public boolean hasNext() {
+                while (nextRecord == null && recordIds.hasNext()) {
+                    nextRecord = storageAdapter.readRow(tableName, recordIds.next());
+                }
+                return nextRecord != null;
+            }
+            
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] record = nextRecord;
+                nextRecord = null;
+                return record;
+            }
+        };
+    }
+    
+    /**
+     * 通过索引查找WHERE条件的候选记录（按记录ID排序，与全表扫描的顺序一致）
+     * 选择能匹配最多索引列的索引：前几列是等值条件，最后一列是等值或范围条件
+     * @return 候选记录ID；当前为线性查找模式、条件中没有可用的简单比较或相关列上没有索引时返回null
+     */
+    private List<RecordId> findCandidates(String tableName, String tableAlias, ExpressionPlan whereClause) {
+        TableIndex.AccessMethod method = getAccessMethod();
+        List<IndexPredicate> predicates = new ArrayList<>();
+        if (method != null) {
+            IndexPredicate.collect(whereClause, tableAlias, predicates);
+        }
         
-        // 模拟线性查找的延迟 - 增加更明显的延迟
-        try {
-            Thread.sleep(100); // 模拟线性查找的延迟
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        TableIndex index = null;
+        List<String> prefixLiterals = null;
+        IndexPredicate predicate = null;
+        for (TableIndex candidate : predicates.isEmpty()
+                ? Collections.<TableIndex>emptyList() : storageAdapter.getIndexes(tableName)) {
+            List<String> literals = new ArrayList<>();
+            IndexPredicate last = null;
+            for (String column : candidate.getColumnNames()) {
+                IndexPredicate next = IndexPredicate.find(predicates, column);
+                if (next == null) {
+                    break;
+                }
+                if (last != null) {
+                    literals.add(last.literal);
+                }
+                last = next;
+                if (!"=".equals(next.operator)) {
+                    break;
+                }
+            }
+            if (last != null && (predicate == null || literals.size() > prefixLiterals.size())) {
+                index = candidate;
+                prefixLiterals = literals;
+                predicate = last;
+            }
+        }
+        List<RecordId> candidates = index == null ? null
+            : index.lookup(prefixLiterals, predicate.operator, predicate.literal, method);
+        if (candidates == null) {
+            return null;
         }
         
-        System.out.println("使用线性查找查询表: " + tableName + " (数据量: " + allData.size() + ")");
-        return allData;
+        Collections.sort(candidates);
+        String structure = index.resolve(predicate.operator, method) == TableIndex.AccessMethod.HASH ? "哈希索引" : "B+树索引";
+        System.out.println("使用" + structure + "查询表: " + tableName + " (索引: " + index.getName()
+            + ", 候选记录: " + candidates.size() + ")");
+        return candidates;
     }
     
     /**
-     * 智能选择索引类型
+     * 当前索引类型对应的索引访问方式，线性查找返回null
      */
-    private List<Map<String, Object>> queryWithIntelligentSelection(String tableName, TablePlan tablePlan) {
-        // 智能选择：根据查询条件选择最优索引
-        // 这里简化为根据表大小选择
-        List<Map<String, Object>> allData = storageAdapter.scanTable(tableName);
-        
-        if (allData.size() > 10000) {
-            // 大数据集，使用B+树索引
-            return queryWithBPlusTreeIndex(tableName, tablePlan);
-        } else if (allData.size() > 1000) {
-            // 中等数据集，使用哈希索引
-            return queryWithHashIndex(tableName, tablePlan);
-        } else {
-            // 小数据集，使用线性查找
-            return queryWithLinearSearch(tableName, tablePlan);
+    private TableIndex.AccessMethod getAccessMethod() {
+        switch (currentIndexType) {
+            case "B+树索引":
+                return TableIndex.AccessMethod.BTREE;
+            case "哈希索引":
+                return TableIndex.AccessMethod.HASH;
+            case "线性查找":
+                return null;
+            case "智能选择":
+            default:
+                return TableIndex.AccessMethod.AUTO;
         }
     }
     
@@ -138,6 +191,10 @@ public class Executor {
             return executeDelete((DeletePlan) plan);
         } else if (plan instanceof DropTablePlan) {
             return executeDropTable((DropTablePlan) plan);
+        } else if (plan instanceof CreateIndexPlan) {
+            return executeCreateIndex((CreateIndexPlan) plan);
+        } else if (plan instanceof DropIndexPlan) {
+            return executeDropIndex((DropIndexPlan) plan);
         } else if (plan instanceof BatchPlan) {
             return executeBatch((BatchPlan) plan);
         } else {
@@ -198,6 +255,11 @@ public class Executor {
                 return new ExecutionResult(false, "创建表存储失败", null);
             }
             
+            // 登记主键和唯一约束列上自动建立的索引
+            for (IndexInfo indexInfo : storageAdapter.getIndexDefinitions(tableName)) {
+                tableInfo.addIndex(indexInfo);
+            }
+            
             return new ExecutionResult(true, "表 " + tableName + " 创建成功", null);
             
         } catch (Exception e) {
@@ -245,6 +307,9 @@ public class Executor {
                 insertedRows++;
             }
             
+            // 语句结束时把脏页写回磁盘
+            storageAdapter.flushTable(tableName);
+            
             return new ExecutionResult(true, insertedRows + " 行已插入", null);
             
         } catch (Exception e) {
@@ -257,8 +322,6 @@ public class Executor {
      */
     private ExecutionResult executeSelect(SelectPlan plan) {
         try {
-            List<Map<String, Object>> results = new ArrayList<>();
-            
             // 获取表信息
             if (plan.getFromClause() == null || plan.getFromClause().isEmpty()) {
                 return new ExecutionResult(false, "SELECT语句必须指定FROM子句", null);
@@ -271,35 +334,18 @@ public class Executor {
                 return new ExecutionResult(false, "表 " + tableName + " 不存在", null);
             }
             
-            // 执行JOIN操作
-            List<Map<String, Object>> joinedRecords = executeJoins(tablePlan);
-            
-            // 处理每一行
-            for (Map<String, Object> row : joinedRecords) {
-                
-                // 应用WHERE条件
-                if (plan.getWhereClause() != null) {
-                    if (!evaluateWhereCondition(row, plan.getWhereClause(), null)) {
-                        continue;
-                    }
-                }
-                
-                // 应用SELECT列表（投影）
-                Map<String, Object> projectedRow = applyProjection(row, plan.getSelectList(), null);
-                results.add(projectedRow);
-            }
-            
-            // 应用ORDER BY
-            if (plan.getOrderByClause() != null) {
-                sortResults(results, plan.getOrderByClause(), null);
-            }
-            
-            // 应用LIMIT
-            if (plan.getLimitClause() != null) {
-                int limit = evaluateLimit(plan.getLimitClause());
-                if (limit > 0 && results.size() > limit) {
-                    results = results.subList(0, limit);
+            List<Map<String, Object>> results = new ArrayList<>();
+            Operator root = buildSelectOperator(plan, tablePlan);
+            RowSchema schema = root.getSchema();
+            root.open();
+            try {
+                // 只有返回给调用方的结果行按列名转换为Map
+                Object[] row;
+                while ((row = root.next()) != null) {
+                    results.add(schema.toMap(row));
                 }
+            } finally {
+                root.close();
             }
             
             return new ExecutionResult(true, "查询完成，返回 " + results.size() + " 行", results);
@@ -310,118 +356,582 @@ public class Executor {
     }
     
     /**
-     * 执行JOIN操作
+     * 构建SELECT的运算符管道；除排序和聚合外各运算符逐行拉取，带LIMIT的查询读够行数就停止扫描
      */
-    private List<Map<String, Object>> executeJoins(TablePlan tablePlan) {
-        List<Map<String, Object>> results = new ArrayList<>();
+    private Operator buildSelectOperator(SelectPlan plan, TablePlan tablePlan) {
+        int limit = plan.getLimitClause() == null ? 0 : evaluateLimit(plan.getLimitClause());
+        ExpressionPlan whereClause = plan.getWhereClause();
         
-        // 获取主表数据
-        String mainTableName = tablePlan.getTableName();
-        String mainTableAlias = tablePlan.getAlias();
+        // 应用GROUP BY、聚合函数和HAVING
+        List<String> aggregates = collectAggregates(plan);
+        List<String> groupBy = new ArrayList<>();
+        if (plan.getGroupByClause() != null) {
+            for (ExpressionPlan expr : plan.getGroupByClause()) {
+                groupBy.add(getColumnNameFromExpression(expr));
+            }
+        }
+        boolean aggregated = !aggregates.isEmpty() || !groupBy.isEmpty();
         
-        if (!catalogManager.tableExists(mainTableName)) {
-            return results;
+        // 列式表上形式简单的查询按列批执行扫描、WHERE和聚合，否则逐行执行
+        Operator root = buildVectorizedOperator(plan, tablePlan, groupBy, aggregates);
+        if (root == null) {
+            // ORDER BY索引列 + LIMIT时按索引顺序读取，得到前LIMIT行后提前停止；否则扫描表并执行JOIN
+            List<Object[]> indexOrdered = scanInIndexOrder(plan, tablePlan);
+            root = indexOrdered != null
+                ? new ScanOperator(indexOrdered::iterator, tableSchema(tablePlan.getTableName(), null))
+                : buildJoins(tablePlan, whereClause);
+            
+            // 应用WHERE条件
+            if (whereClause != null) {
+                root = new FilterOperator(root, compileCondition(whereClause, root.getSchema()));
+            }
+            if (aggregated) {
+                root = new AggregateOperator(root, groupBy, aggregates);
+            }
+        }
+        if (aggregated && plan.getHavingClause() != null) {
+            root = new FilterOperator(root, compileCondition(plan.getHavingClause(), root.getSchema()));
         }
         
-        // 根据索引类型选择查询策略
-        List<Map<String, Object>> mainTableData = queryTableWithIndex(mainTableName, tablePlan);
+        // 应用ORDER BY（在投影之前，可以按未选择的列排序），知道LIMIT时只保留前LIMIT行
+        if (plan.getOrderByClause() != null && !plan.getOrderByClause().isEmpty()) {
+            root = new SortOperator(root, orderByComparator(plan.getOrderByClause(), root.getSchema()), limit);
+        }
         
-        // 如果没有JOIN，直接返回主表数据（添加表别名前缀）
-        if (tablePlan.getJoins() == null || tablePlan.getJoins().isEmpty()) {
-            for (Map<String, Object> row : mainTableData) {
-                Map<String, Object> aliasedRow = new HashMap<>();
-                for (Map.Entry<String, Object> entry : row.entrySet()) {
-                    String key = entry.getKey();
-                    if (mainTableAlias != null) {
-                        key = mainTableAlias + "." + key;
+        // 应用SELECT列表（投影）
+        root = buildProjection(root, plan.getSelectList());
+        
+        // 应用LIMIT
+        if (limit > 0) {
+            root = new LimitOperator(root, limit);
+        }
+        return root;
+    }
+    
+    /**
+     * 列式表的向量化执行：单表、没有别名，WHERE是用AND连接的"列 比较运算符 常量"，
+     * 分组列不超过两个，用到的列都在表中时，按列批执行扫描、过滤和聚合（或把通过过滤的行转换为行格式）
+     * @return 产生与逐行执行扫描、WHERE和聚合相同的行的运算符；查询不符合条件时返回null
+     */
+    private Operator buildVectorizedOperator(SelectPlan plan, TablePlan tablePlan,
+                                             List<String> groupBy, List<String> aggregates) {
+        String tableName = tablePlan.getTableName();
+        ColumnarStorageEngine columnarStorageEngine = storageAdapter.getColumnarStorageEngine();
+        TableInfo tableInfo = columnarStorageEngine.getTableInfo(tableName);
+        if (!vectorizedExecution || tableInfo == null || tablePlan.getAlias() != null
+                || (tablePlan.getJoins() != null && !tablePlan.getJoins().isEmpty()) || groupBy.size() > 2) {
+            return null;
+        }
+        List<IndexPredicate> predicates = new ArrayList<>();
+        if (plan.getWhereClause() != null && !collectConjuncts(plan.getWhereClause(), predicates)) {
+            return null;
+        }
+        
+        // 列向量：参与比较和计算的列按值解码，输出和分组的列字典编码；同一列的两种解码各占一个编号
+        Map<String, Integer> ordinals = new LinkedHashMap<>();
+        List<String> columns = new ArrayList<>();
+        List<Boolean> dictionaryEncoded = new ArrayList<>();
+        List<VectorFilterOperator.Comparison> comparisons = new ArrayList<>();
+        for (IndexPredicate predicate : predicates) {
+            boolean numeric = IndexKey.parseNumber(predicate.literal.trim()) != null;
+            int ordinal = vectorOrdinal(tableInfo, predicate.column, !numeric, ordinals, columns, dictionaryEncoded);
+            if (ordinal < 0 || "NULL".equalsIgnoreCase(predicate.literal)) {
+                return null;
+            }
+            comparisons.add(new VectorFilterOperator.Comparison(ordinal, predicate.operator, predicate.literal));
+        }
+        
+        int[] outputOrdinals;
+        List<String> outputColumns = new ArrayList<>();
+        int[] argumentOrdinals = new int[aggregates.size()];
+        if (!groupBy.isEmpty() || !aggregates.isEmpty()) {
+            outputColumns.addAll(groupBy);
+            for (int i = 0; i < aggregates.size(); i++) {
+                String argument = AggregateOperator.parseCall(aggregates.get(i))[1];
+                argumentOrdinals[i] = "*".equals(argument) ? -1
+                    : vectorOrdinal(tableInfo, argument, false, ordinals, columns, dictionaryEncoded);
+                if (argumentOrdinals[i] == -1 && !"*".equals(argument)) {
+                    return null;
+                }
+            }
+        } else {
+            for (ExpressionPlan expr : plan.getSelectList()) {
+                if (!(expr instanceof IdentifierExpressionPlan)) {
+                    return null;
+                }
+                String name = ((IdentifierExpressionPlan) expr).getName();
+                if (name.equals("*")) {
+                    for (ColumnInfo column : tableInfo.getColumns()) {
+                        outputColumns.add(column.getName());
                     }
-                    aliasedRow.put(key, entry.getValue());
+                } else {
+                    outputColumns.add(name);
+                }
+            }
+            if (plan.getOrderByClause() != null) {
+                for (OrderByItem item : plan.getOrderByClause()) {
+                    outputColumns.add(getColumnNameFromExpression(item.getExpression()));
                 }
-                results.add(aliasedRow);
             }
-            return results;
+            outputColumns = new ArrayList<>(new LinkedHashSet<>(outputColumns));
+        }
+        outputOrdinals = new int[outputColumns.size()];
+        for (int i = 0; i < outputOrdinals.length; i++) {
+            outputOrdinals[i] = vectorOrdinal(tableInfo, outputColumns.get(i), true, ordinals, columns, dictionaryEncoded);
+            if (outputOrdinals[i] < 0) {
+                return null;
+            }
         }
         
-        // 处理JOIN操作
-        results = mainTableData;
-        
-        for (JoinPlan join : tablePlan.getJoins()) {
-            results = executeJoin(results, join, mainTableAlias);
+        boolean[] encodings = new boolean[dictionaryEncoded.size()];
+        for (int i = 0; i < encodings.length; i++) {
+            encodings[i] = dictionaryEncoded.get(i);
+        }
+        BatchOperator batches = new ColumnarBatchScan(columnarStorageEngine, tableName, columns, encodings);
+        if (!comparisons.isEmpty()) {
+            batches = new VectorFilterOperator(batches, comparisons);
+        }
+        System.out.println("向量化扫描列式表: " + tableName + " (读取列: " + new LinkedHashSet<>(columns) + ")");
+        if (!groupBy.isEmpty() || !aggregates.isEmpty()) {
+            return new VectorAggregateOperator(batches, outputOrdinals, groupBy, aggregates, argumentOrdinals);
+        }
+        return new BatchRowOperator(batches, outputColumns, outputOrdinals);
+    }
+    
+    /**
+     * 把WHERE条件拆成用AND连接的简单比较
+     * @return 条件中有其他形式（OR、列与列比较等）时返回false
+     */
+    private static boolean collectConjuncts(ExpressionPlan whereClause, List<IndexPredicate> predicates) {
+        if (whereClause instanceof BinaryExpressionPlan
+                && "AND".equals(((BinaryExpressionPlan) whereClause).getOperator())) {
+            return collectConjuncts(((BinaryExpressionPlan) whereClause).getLeft(), predicates)
+                && collectConjuncts(((BinaryExpressionPlan) whereClause).getRight(), predicates);
+        }
+        IndexPredicate predicate = IndexPredicate.from(whereClause, null);
+        if (predicate == null) {
+            return false;
+        }
+        predicates.add(predicate);
+        return true;
+    }
+    
+    /**
+     * 列（按给定方式解码）在批中的列向量编号，第一次用到时分配
+     * @return 列不在表中时返回-1
+     */
+    private static int vectorOrdinal(TableInfo tableInfo, String column, boolean dictionary, Map<String, Integer> ordinals,
+                                     List<String> columns, List<Boolean> dictionaryEncoded) {
+        ColumnInfo columnInfo = tableInfo.getColumn(column);
+        if (columnInfo == null || !columnInfo.getName().equals(column)) {
+            return -1;
+        }
+        String key = (dictionary ? "D:" : "V:") + column;
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = columns.size();
+            ordinals.put(key, ordinal);
+            columns.add(column);
+            dictionaryEncoded.add(dictionary);
+        }
+        return ordinal;
+    }
+    
+    /**
+     * SELECT列表和HAVING中出现的聚合函数（去重，按出现顺序）
+     */
+    private static List<String> collectAggregates(SelectPlan plan) {
+        Set<String> aggregates = new LinkedHashSet<>();
+        for (ExpressionPlan expr : plan.getSelectList()) {
+            collectAggregates(expr, aggregates);
+        }
+        collectAggregates(plan.getHavingClause(), aggregates);
+        return new ArrayList<>(aggregates);
+    }
+    
+    private static void collectAggregates(ExpressionPlan expr, Set<String> aggregates) {
+        if (expr instanceof IdentifierExpressionPlan) {
+            String name = ((IdentifierExpressionPlan) expr).getName();
+            if (AggregateOperator.isAggregateCall(name)) {
+                aggregates.add(name);
+            }
+        } else if (expr instanceof BinaryExpressionPlan) {
+            collectAggregates(((BinaryExpressionPlan) expr).getLeft(), aggregates);
+            collectAggregates(((BinaryExpressionPlan) expr).getRight(), aggregates);
+        }
+    }
+    
+    /**
+     * 单表查询按一个数值列排序并带LIMIT、且WHERE条件用不上索引时，沿该列索引的游标按顺序读取记录，
+     * 满足WHERE条件的行够LIMIT行、且后面的索引键与最后一行不同时停止（键相同的行可能因截断而顺序不定，
+     * 一并交给后面的排序）。返回的行仍经过正常的WHERE过滤、排序和LIMIT。
+     * @return 按索引顺序读到的行；条件不满足时返回null，调用方改用全表扫描
+     */
+    private List<Object[]> scanInIndexOrder(SelectPlan plan, TablePlan tablePlan) {
+        int limit = plan.getLimitClause() == null ? 0 : evaluateLimit(plan.getLimitClause());
+        List<OrderByItem> orderBy = plan.getOrderByClause();
+        if (getAccessMethod() == null || limit <= 0 || orderBy == null || orderBy.size() != 1
+                || tablePlan.getAlias() != null || (tablePlan.getJoins() != null && !tablePlan.getJoins().isEmpty())
+                || !(orderBy.get(0).getExpression() instanceof IdentifierExpressionPlan)) {
+            return null;
+        }
+        String tableName = tablePlan.getTableName();
+        String column = ((IdentifierExpressionPlan) orderBy.get(0).getExpression()).getName();
+        TableIndex index = storageAdapter.getIndex(tableName, column);
+        // 只有数值列的索引顺序与排序比较（按数值比较）一致
+        if (index == null || !index.isNumericColumn() || !isSelected(plan.getSelectList(), column)
+                || hasIndexForWhere(tableName, plan.getWhereClause())) {
+            return null;
         }
         
-        return results;
+        Predicate<Object[]> where = plan.getWhereClause() == null ? null
+            : compileCondition(plan.getWhereClause(), tableSchema(tableName, null));
+        List<Object[]> rows = new ArrayList<>();
+        BPlusTreeCursor cursor = index.openCursor(orderBy.get(0).getOrder() == OrderByItem.SortOrder.DESC);
+        BPlusTreeKey lastKey = null;
+        while (cursor.hasNext()) {
+            Map.Entry<BPlusTreeKey, Long> entry = cursor.next();
+            if (rows.size() >= limit && entry.getKey().compareTo(lastKey) != 0) {
+                break;
+            }
+            Object[] row = storageAdapter.readRow(tableName, RecordId.fromLong(entry.getValue()));
+            if (row == null || (where != null && !where.test(row))) {
+                continue;
+            }
+            rows.add(row);
+            lastKey = entry.getKey();
+        }
+        System.out.println("按索引顺序读取表: " + tableName + " (索引: " + index.getName()
+            + ", 读取记录: " + rows.size() + ", 叶子页面: " + cursor.getLeavesRead() + ")");
+        return rows;
+    }
+    
+    private static boolean isSelected(List<ExpressionPlan> selectList, String column) {
+        for (ExpressionPlan expr : selectList) {
+            if (expr instanceof IdentifierExpressionPlan) {
+                String name = ((IdentifierExpressionPlan) expr).getName();
+                if (name.equals("*") || name.equals(column)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * WHERE条件中是否有能用某个索引回答的比较
+     */
+    private boolean hasIndexForWhere(String tableName, ExpressionPlan whereClause) {
+        List<IndexPredicate> predicates = new ArrayList<>();
+        IndexPredicate.collect(whereClause, null, predicates);
+        for (TableIndex index : storageAdapter.getIndexes(tableName)) {
+            if (IndexPredicate.find(predicates, index.getColumnName()) != null) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
-     * 执行单个JOIN操作
+     * 构建扫描和JOIN运算符：没有JOIN时按索引类型读取主表（列名加表别名前缀）；
+     * 有JOIN时各表的列名都加上别名（没有别名时用表名）前缀，按JOIN顺序左深连接，WHERE条件在连接之后统一过滤；
+     * 连接两边的大小按表的估计行数推算，等值连接的结果按较大一边估计
      */
-    private List<Map<String, Object>> executeJoin(List<Map<String, Object>> leftResults, JoinPlan join, String leftTableAlias) {
-        List<Map<String, Object>> joinResults = new ArrayList<>();
+    private Operator buildJoins(TablePlan tablePlan, ExpressionPlan whereClause) {
+        String mainTableName = tablePlan.getTableName();
+        String mainTableAlias = tablePlan.getAlias();
         
+        if (tablePlan.getJoins() == null || tablePlan.getJoins().isEmpty()) {
+            return new ScanOperator(() -> queryTableWithIndex(mainTableName, tablePlan, whereClause),
+                tableSchema(mainTableName, mainTableAlias));
+        }
+        
+        Operator root = new ScanOperator(() -> storageAdapter.openRowScan(mainTableName),
+            tableSchema(mainTableName, mainTableAlias != null ? mainTableAlias : mainTableName));
+        long leftRows = storageAdapter.estimateRowCount(mainTableName);
+        String leftTable = mainTableName; // 左边还是主表的扫描时，排序合并连接可以改为按索引顺序读取主表
+        boolean[] leftNumeric = numericColumns(mainTableName);
+        for (JoinPlan join : tablePlan.getJoins()) {
+            long rightRows = catalogManager.tableExists(join.getTableName())
+                ? storageAdapter.estimateRowCount(join.getTableName()) : 0;
+            root = buildJoin(root, leftTable, leftNumeric, join, leftRows, rightRows);
+            leftRows = root instanceof NestedLoopJoinOperator ? saturatedMultiply(leftRows, rightRows)
+                : Math.max(leftRows, rightRows);
+            leftTable = null;
+            leftNumeric = concat(leftNumeric, numericColumns(join.getTableName()));
+        }
+        return root;
+    }
+    
+    /**
+     * 构建单个JOIN运算符；右表不存在时连接结果为空
+     * 连接条件中有用AND连接的"左边列 = 右边列"时，按估计代价在以下连接方式中选择，否则用嵌套循环连接：
+     * 哈希连接（在估计较小的一边上建哈希表，超过内存预算时溢出到磁盘）；
+     * 索引嵌套循环连接（右表的连接列上有数值列开头的索引、左边的连接列也是数值列时，左边每一行在索引上查找）；
+     * 排序合并连接（左边是主表，两边的连接列上都有单列数值索引时，沿索引顺序读取两表后合并）
+     * 文本列上"5"与"05"按数值比较相等而索引键不同，所以这两种方式只用于数值列
+     *
+     * @param leftNumeric 左边各列是否是数值列
+     */
+    private Operator buildJoin(Operator left, String leftTable, boolean[] leftNumeric, JoinPlan join,
+                               long leftRows, long rightRows) {
         String rightTableName = join.getTableName();
-        String rightTableAlias = join.getAlias();
+        String rightTableAlias = join.getAlias() != null ? join.getAlias() : rightTableName;
         
-        if (!catalogManager.tableExists(rightTableName)) {
-            return joinResults;
+        Operator right = new ScanOperator(() -> catalogManager.tableExists(rightTableName)
+            ? storageAdapter.openRowScan(rightTableName)
+            : Collections.<Object[]>emptyIterator(), tableSchema(rightTableName, rightTableAlias));
+        RowSchema joined = left.getSchema().concat(right.getSchema());
+        
+        List<Integer> leftKeys = new ArrayList<>();
+        List<Integer> rightKeys = new ArrayList<>();
+        List<ExpressionPlan> residual = new ArrayList<>();
+        splitJoinCondition(join.getCondition(), joined, left.getSchema().size(), leftKeys, rightKeys, residual);
+        if (leftKeys.isEmpty()) {
+            return new NestedLoopJoinOperator(left, right, compileCondition(join.getCondition(), joined));
         }
         
-        List<Map<String, Object>> rightTableData = storageAdapter.scanTable(rightTableName);
+        // 哈希连接：两边各读一遍，较小的一边建哈希表；构建端估计超过内存预算时两边都要写出再读回
+        boolean buildLeft = leftRows < rightRows;
+        long buildBytes = saturatedMultiply(Math.min(leftRows, rightRows), HashJoinOperator.estimateSize(
+            buildLeft ? left.getSchema().size() : right.getSchema().size()));
+        double hashCost = leftRows + rightRows + HASH_BUILD_ROW_COST * Math.min(leftRows, rightRows)
+            + (buildBytes > joinMemoryBudget ? SPILL_ROW_COST * ((double) leftRows + rightRows) : 0);
         
-        // 为右表数据添加别名前缀
-        List<Map<String, Object>> aliasedRightData = new ArrayList<>();
-        for (Map<String, Object> row : rightTableData) {
-            Map<String, Object> aliasedRow = new HashMap<>();
-            for (Map.Entry<String, Object> entry : row.entrySet()) {
-                String key = entry.getKey();
-                if (rightTableAlias != null) {
-                    key = rightTableAlias + "." + key;
-                }
-                aliasedRow.put(key, entry.getValue());
+        // 索引嵌套循环连接假定左边每一行平均匹配一行；排序合并连接按记录ID读取两表的每一行
+        TableIndex.AccessMethod method = getAccessMethod();
+        double bestCost = hashCost;
+        int indexKey = -1;
+        int mergeKey = -1;
+        TableIndex innerIndex = null;
+        TableIndex leftIndex = null;
+        TableIndex rightIndex = null;
+        List<String> rightColumns = storageAdapter.getColumnNames(rightTableName);
+        for (int k = 0; method != null && k < leftKeys.size(); k++) {
+            TableIndex index = catalogManager.tableExists(rightTableName)
+                ? storageAdapter.getIndex(rightTableName, rightColumns.get(rightKeys.get(k))) : null;
+            if (index == null || !index.isNumericColumn() || !leftNumeric[leftKeys.get(k)]) {
+                continue;
+            }
+            double indexCost = leftRows * (1 + INDEX_LOOKUP_COST + RANDOM_ROW_COST);
+            if (indexCost < bestCost) {
+                bestCost = indexCost;
+                indexKey = k;
+                innerIndex = index;
+                mergeKey = -1;
+            }
+            TableIndex outerIndex = leftTable == null ? null : storageAdapter.getIndex(leftTable,
+                storageAdapter.getColumnNames(leftTable).get(leftKeys.get(k)));
+            double mergeCost = (RANDOM_ROW_COST + MERGE_ROW_COST) * ((double) leftRows + rightRows);
+            if (outerIndex != null && isSingleNumericIndex(outerIndex) && isSingleNumericIndex(index)
+                    && mergeCost < bestCost) {
+                bestCost = mergeCost;
+                mergeKey = k;
+                leftIndex = outerIndex;
+                rightIndex = index;
+                indexKey = -1;
             }
-            aliasedRightData.add(aliasedRow);
         }
         
-        // 执行JOIN
-        for (Map<String, Object> leftRow : leftResults) {
-            for (Map<String, Object> rightRow : aliasedRightData) {
-                // 合并左右两行数据
-                Map<String, Object> joinedRow = new HashMap<>(leftRow);
-                joinedRow.putAll(rightRow);
-                
-                // 检查JOIN条件
-                if (evaluateJoinCondition(joinedRow, join.getCondition())) {
-                    joinResults.add(joinedRow);
-                }
-            }
+        String estimate = String.format("估计行数: %d / %d, 估计代价: %.0f", leftRows, rightRows, bestCost);
+        if (mergeKey >= 0) {
+            System.out.println("使用排序合并连接: " + leftTable + ", " + rightTableName + " (索引: "
+                + leftIndex.getName() + ", " + rightIndex.getName() + ", " + estimate + ")");
+            TableIndex outerIndex = leftIndex;
+            TableIndex innerOrder = rightIndex;
+            Operator orderedLeft = new ScanOperator(() -> readRows(leftTable, indexOrder(outerIndex)), left.getSchema());
+            Operator orderedRight = new ScanOperator(() -> readRows(rightTableName, indexOrder(innerOrder)),
+                right.getSchema());
+            return new MergeJoinOperator(orderedLeft, orderedRight, leftKeys.get(mergeKey), rightKeys.get(mergeKey),
+                true, compileCondition(join.getCondition(), joined));
+        }
+        if (indexKey >= 0) {
+            System.out.println("使用索引嵌套循环连接: " + rightTableName + " (索引: " + innerIndex.getName()
+                + ", " + estimate + ")");
+            TableIndex index = innerIndex;
+            return new IndexNestedLoopJoinOperator(left, right.getSchema(), leftKeys.get(indexKey),
+                value -> lookupRows(rightTableName, index, value, method), compileCondition(join.getCondition(), joined));
         }
         
-        return joinResults;
+        Predicate<Object[]> rest = null;
+        for (ExpressionPlan condition : residual) {
+            Predicate<Object[]> predicate = compileCondition(condition, joined);
+            rest = rest == null ? predicate : rest.and(predicate);
+        }
+        System.out.println("使用哈希连接: " + rightTableName + " (构建端: " + (buildLeft ? "左边" : "右边")
+            + ", " + estimate + ")");
+        return new HashJoinOperator(left, right, toIntArray(leftKeys), toIntArray(rightKeys),
+            rest, buildLeft, joinMemoryBudget);
     }
     
     /**
-     * 评估JOIN条件
+     * 在内表的数值列索引上查找连接键等于value的记录（包括NULL），按记录ID顺序读取
      */
-    private boolean evaluateJoinCondition(Map<String, Object> row, ExpressionPlan condition) {
-        if (condition instanceof BinaryExpressionPlan) {
-            BinaryExpressionPlan binary = (BinaryExpressionPlan) condition;
-            String leftValue = getColumnValueFromRow(row, binary.getLeft());
-            String rightValue = getColumnValueFromRow(row, binary.getRight());
-            String operator = binary.getOperator();
+    private Iterator<Object[]> lookupRows(String tableName, TableIndex index, Object value,
+                                          TableIndex.AccessMethod method) {
+        List<RecordId> candidates = index.lookupEqual(value, method);
+        Collections.sort(candidates);
+        return readRows(tableName, candidates.iterator());
+    }
+    
+    /**
+     * 按索引键顺序遍历的记录ID
+     */
+    private static Iterator<RecordId> indexOrder(TableIndex index) {
+        BPlusTreeCursor cursor = index.openCursor(false);
+        return new Iterator<RecordId>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
             
-            switch (operator) {
-                case "=":
-                    return leftValue.equals(rightValue);
-                case "!=":
-                    return !leftValue.equals(rightValue);
-                case ">":
-                    return leftValue.compareTo(rightValue) > 0;
-                case "<":
-                    return leftValue.compareTo(rightValue) < 0;
-                default:
-                    return false;
+            @Override
+            public RecordId next() {
+                return RecordId.fromLong(cursor.next().getValue());
+            }
+        };
+    }
+    
+    /**
+     * 单列数值索引的顺序与连接键的比较一致（按数值比较），可以作为排序合并连接的输入顺序
+     */
+    private static boolean isSingleNumericIndex(TableIndex index) {
+        return index.getColumnNames().size() == 1 && index.isNumericColumn();
+    }
+    
+    /**
+     * 把连接条件拆成用AND连接的部分：一边是左边的列、另一边是右边的列的等值比较作为连接键，其余放入residual；
+     * 列按拼接后的行结构解析，序号小于leftWidth的是左边的列
+     */
+    private static void splitJoinCondition(ExpressionPlan condition, RowSchema joined, int leftWidth,
+                                           List<Integer> leftKeys, List<Integer> rightKeys,
+                                           List<ExpressionPlan> residual) {
+        if (!(condition instanceof BinaryExpressionPlan)) {
+            return;
+        }
+        BinaryExpressionPlan binary = (BinaryExpressionPlan) condition;
+        if ("AND".equals(binary.getOperator())) {
+            splitJoinCondition(binary.getLeft(), joined, leftWidth, leftKeys, rightKeys, residual);
+            splitJoinCondition(binary.getRight(), joined, leftWidth, leftKeys, rightKeys, residual);
+            return;
+        }
+        if ("=".equals(binary.getOperator()) && binary.getLeft() instanceof IdentifierExpressionPlan
+                && binary.getRight() instanceof IdentifierExpressionPlan) {
+            int first = joined.indexOf(((IdentifierExpressionPlan) binary.getLeft()).getName());
+            int second = joined.indexOf(((IdentifierExpressionPlan) binary.getRight()).getName());
+            if (first >= 0 && second >= 0 && (first < leftWidth) != (second < leftWidth)) {
+                leftKeys.add(Math.min(first, second));
+                rightKeys.add(Math.max(first, second) - leftWidth);
+                return;
             }
         }
-        return true;
+        residual.add(condition);
+    }
+    
+    private static int[] toIntArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+    
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        return high != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+    
+    /**
+     * 表的行结构，列名加上前缀（表别名）；表不存在时没有列
+     */
+    private RowSchema tableSchema(String tableName, String prefix) {
+        return RowSchema.of(storageAdapter.getColumnNames(tableName), prefix);
+    }
+    
+    /**
+     * 表的各列是否是按数值比较的列，顺序与tableSchema相同
+     */
+    private boolean[] numericColumns(String tableName) {
+        List<ColumnInfo> columns = storageAdapter.getColumns(tableName);
+        boolean[] numeric = new boolean[columns.size()];
+        for (int i = 0; i < numeric.length; i++) {
+            numeric[i] = TableIndex.isNumericType(columns.get(i).getDataType());
+        }
+        return numeric;
+    }
+    
+    private static boolean[] concat(boolean[] left, boolean[] right) {
+        boolean[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+    
+    /**
+     * 把WHERE、HAVING或JOIN条件编译为按列序号读取行的谓词：支持AND、OR和比较，
+     * 列名在这里按行结构查找一次，行中没有的列和NULL值都按"NULL"比较
+     */
+    private Predicate<Object[]> compileCondition(ExpressionPlan condition, RowSchema schema) {
+        if (!(condition instanceof BinaryExpressionPlan)) {
+            return row -> true;
+        }
+        BinaryExpressionPlan binary = (BinaryExpressionPlan) condition;
+        String operator = binary.getOperator();
+        if ("AND".equals(operator) || "OR".equals(operator)) {
+            Predicate<Object[]> left = compileCondition(binary.getLeft(), schema);
+            Predicate<Object[]> right = compileCondition(binary.getRight(), schema);
+            return "AND".equals(operator) ? left.and(right) : left.or(right);
+        }
+        Function<Object[], String> left = compileOperand(binary.getLeft(), schema);
+        Function<Object[], String> right = compileOperand(binary.getRight(), schema);
+        return row -> evaluateComparison(operator, left.apply(row), right.apply(row));
+    }
+    
+    /**
+     * 比较运算的一边：列按序号取值，常量直接返回
+     */
+    private static Function<Object[], String> compileOperand(ExpressionPlan expr, RowSchema schema) {
+        if (expr instanceof IdentifierExpressionPlan) {
+            int ordinal = schema.indexOf(((IdentifierExpressionPlan) expr).getName());
+            if (ordinal < 0) {
+                return row -> "NULL";
+            }
+            return row -> row[ordinal] != null ? row[ordinal].toString() : "NULL";
+        } else if (expr instanceof LiteralExpressionPlan) {
+            String value = ((LiteralExpressionPlan) expr).getValue();
+            return row -> value;
+        }
+        return row -> "NULL";
+    }
+    
+    /**
+     * 比较运算：两边都是数字时按数值比较（"5.50" = "5.5"，"10" > "9"），否则按字符串比较
+     */
+    private boolean evaluateComparison(String operator, String leftValue, String rightValue) {
+        switch (operator) {
+            case "=":
+                return compareValues(leftValue, rightValue) == 0;
+            case "!=":
+                return compareValues(leftValue, rightValue) != 0;
+            case ">":
+                return compareValues(leftValue, rightValue) > 0;
+            case "<":
+                return compareValues(leftValue, rightValue) < 0;
+            case ">=":
+                return compareValues(leftValue, rightValue) >= 0;
+            case "<=":
+                return compareValues(leftValue, rightValue) <= 0;
+            default:
+                return false;
+        }
+    }
+    
+    static int compareValues(String leftValue, String rightValue) {
+        BigDecimal leftNumber = IndexKey.parseNumber(leftValue);
+        BigDecimal rightNumber = leftNumber == null ? null : IndexKey.parseNumber(rightValue);
+        if (rightNumber != null) {
+            return leftNumber.compareTo(rightNumber);
+        }
+        return leftValue.compareTo(rightValue);
     }
     
     /**
@@ -450,9 +960,37 @@ public class Executor {
             }
             
             TableInfo tableInfo = catalogManager.getTable(tableName);
-            int deletedRows = 0;
+            ExpressionPlan whereClause = plan.getWhereClause();
+            
+            // 行式存储表：通过索引或带记录ID的扫描找出要删除的记录，再按记录ID删除
+            List<RecordId> idsToDelete = new ArrayList<>();
+            List<RecordId> candidates = whereClause == null ? null : findCandidates(tableName, null, whereClause);
+            boolean rowStorage = true;
+            if (candidates != null) {
+                for (RecordId recordId : candidates) {
+                    Map<String, Object> row = storageAdapter.readRecord(tableName, recordId);
+                    if (row != null && evaluateWhereCondition(row, whereClause, tableInfo)) {
+                        idsToDelete.add(recordId);
+                    }
+                }
+            } else {
+                rowStorage = storageAdapter.scanTable(tableName, (recordId, row) -> {
+                    if (whereClause == null || evaluateWhereCondition(row, whereClause, tableInfo)) {
+                        idsToDelete.add(recordId);
+                    }
+                    return true;
+                });
+            }
+            if (rowStorage) {
+                for (RecordId recordId : idsToDelete) {
+                    storageAdapter.deleteRecord(tableName, recordId);
+                }
+                storageAdapter.flushTable(tableName);
+                return new ExecutionResult(true, idsToDelete.size() + " 行已删除", null);
+            }
             
-            // 扫描所有记录
+            // 其他存储格式：扫描所有记录，按记录内容删除
+            int deletedRows = 0;
             List<Map<String, Object>> allRecords = storageAdapter.scanTable(tableName);
             List<Map<String, Object>> recordsToDelete = new ArrayList<>();
             
@@ -475,6 +1013,7 @@ public class Executor {
             for (Map<String, Object> record : recordsToDelete) {
                 storageAdapter.deleteRecord(tableName, record);
             }
+            storageAdapter.flushTable(tableName);
             
             return new ExecutionResult(true, deletedRows + " 行已删除", null);
             
@@ -514,6 +1053,91 @@ public class Executor {
         }
     }
     
+    /**
+     * 执行CREATE INDEX
+     */
+    private ExecutionResult executeCreateIndex(CreateIndexPlan plan) {
+        try {
+            String tableName = plan.getTableName();
+            String indexName = plan.getIndexName();
+            
+            // 检查表是否存在
+            TableInfo tableInfo = catalogManager.getTable(tableName);
+            if (tableInfo == null) {
+                return new ExecutionResult(false, "表 " + tableName + " 不存在", null);
+            }
+            if (tableInfo.isColumnarStorage()) {
+                return new ExecutionResult(false, "列式存储表 " + tableName + " 不支持索引", null);
+            }
+            if (tableInfo.getIndex(indexName) != null) {
+                return new ExecutionResult(false, "索引 " + indexName + " 已存在", null);
+            }
+            
+            // 使用目录中的表名和列名，保证与存储层一致
+            List<String> columns = new ArrayList<>();
+            for (String columnName : plan.getColumns()) {
+                ColumnInfo column = tableInfo.getColumn(columnName);
+                if (column == null) {
+                    return new ExecutionResult(false, "列 " + columnName + " 在表 " + tableName + " 中不存在", null);
+                }
+                columns.add(column.getName());
+            }
+            IndexInfo indexInfo = new IndexInfo(indexName, tableInfo.getName(), columns, plan.isUnique(),
+                                                IndexInfo.IndexMethod.valueOf(plan.getMethod()));
+            
+            if (!storageAdapter.createIndex(tableInfo.getName(), indexInfo)) {
+                return new ExecutionResult(false, "创建索引 " + indexName + " 失败", null);
+            }
+            catalogManager.addIndex(tableInfo.getName(), indexInfo);
+            
+            return new ExecutionResult(true, "索引 " + indexName + " 创建成功", null);
+            
+        } catch (Exception e) {
+            return new ExecutionResult(false, "创建索引时发生错误: " + e.getMessage(), null);
+        }
+    }
+    
+    /**
+     * 执行DROP INDEX
+     */
+    private ExecutionResult executeDropIndex(DropIndexPlan plan) {
+        try {
+            String indexName = plan.getIndexName();
+            
+            // 确定索引所属的表
+            List<String> tableNames;
+            if (plan.getTableName() != null) {
+                TableInfo tableInfo = catalogManager.getTable(plan.getTableName());
+                tableNames = tableInfo != null && tableInfo.getIndex(indexName) != null
+                    ? Collections.singletonList(tableInfo.getName()) : Collections.emptyList();
+            } else {
+                tableNames = catalogManager.findTablesWithIndex(indexName);
+            }
+            
+            if (tableNames.isEmpty()) {
+                if (plan.isIfExists()) {
+                    return new ExecutionResult(true, "索引 " + indexName + " 不存在，但使用了IF EXISTS，操作成功", null);
+                }
+                return new ExecutionResult(false, "索引 " + indexName + " 不存在", null);
+            }
+            if (tableNames.size() > 1) {
+                return new ExecutionResult(false, "多个表上存在索引 " + indexName + "，请使用 DROP INDEX " 
+                    + indexName + " ON 表名", null);
+            }
+            
+            String tableName = tableNames.get(0);
+            if (!storageAdapter.dropIndex(tableName, indexName)) {
+                return new ExecutionResult(false, "删除索引 " + indexName + " 失败", null);
+            }
+            catalogManager.dropIndex(tableName, indexName);
+            
+            return new ExecutionResult(true, "索引 " + indexName + " 删除成功", null);
+            
+        } catch (Exception e) {
+            return new ExecutionResult(false, "删除索引时发生错误: " + e.getMessage(), null);
+        }
+    }
+    
     /**
      * 执行批量计划
      */
@@ -567,22 +1191,19 @@ public class Executor {
         // 简化的WHERE条件评估
         if (whereClause instanceof BinaryExpressionPlan) {
             BinaryExpressionPlan binary = (BinaryExpressionPlan) whereClause;
+            if ("AND".equals(binary.getOperator())) {
+                return evaluateWhereCondition(row, binary.getLeft(), tableInfo)
+                    && evaluateWhereCondition(row, binary.getRight(), tableInfo);
+            }
+            if ("OR".equals(binary.getOperator())) {
+                return evaluateWhereCondition(row, binary.getLeft(), tableInfo)
+                    || evaluateWhereCondition(row, binary.getRight(), tableInfo);
+            }
             String leftValue = getColumnValueFromRow(row, binary.getLeft());
             String rightValue = getColumnValueFromRow(row, binary.getRight());
             String operator = binary.getOperator();
             
-            switch (operator) {
-                case "=":
-                    return leftValue.equals(rightValue);
-                case "!=":
-                    return !leftValue.equals(rightValue);
-                case ">":
-                    return leftValue.compareTo(rightValue) > 0;
-                case "<":
-                    return leftValue.compareTo(rightValue) < 0;
-                default:
-                    return false;
-            }
+            return evaluateComparison(operator, leftValue, rightValue);
         }
         return true;
     }
@@ -597,58 +1218,63 @@ public class Executor {
         return "NULL";
     }
     
-    private Map<String, Object> applyProjection(Map<String, Object> row, List<ExpressionPlan> selectList, TableInfo tableInfo) {
-        Map<String, Object> projectedRow = new HashMap<>();
-        
+    /**
+     * 按SELECT列表构建投影运算符，输出列名去掉表别名前缀；SELECT *输出下层的全部列
+     */
+    private Operator buildProjection(Operator child, List<ExpressionPlan> selectList) {
+        RowSchema input = child.getSchema();
+        List<String> columns = new ArrayList<>();
+        List<Integer> ordinals = new ArrayList<>();
         for (ExpressionPlan expr : selectList) {
             if (expr instanceof IdentifierExpressionPlan) {
                 String columnName = ((IdentifierExpressionPlan) expr).getName();
                 if (columnName.equals("*")) {
-                    // SELECT * - 返回所有列，但使用简化的列名（不带表别名）
-                    for (Map.Entry<String, Object> entry : row.entrySet()) {
-                        String key = entry.getKey();
-                        // 如果列名包含表别名前缀，去掉前缀
-                        if (key.contains(".")) {
-                            String simpleKey = key.substring(key.lastIndexOf(".") + 1);
-                            projectedRow.put(simpleKey, entry.getValue());
-                        } else {
-                            projectedRow.put(key, entry.getValue());
-                        }
+                    for (int i = 0; i < input.size(); i++) {
+                        columns.add(simpleColumnName(input.getColumn(i)));
+                        ordinals.add(i);
                     }
                 } else {
-                    // 处理带表别名的列名
-                    Object value = row.getOrDefault(columnName, "NULL");
-                    
-                    // 确定输出列名
-                    String outputColumnName = columnName;
-                    if (columnName.contains(".")) {
-                        // 如果输入列名包含表别名，输出时去掉表别名
-                        outputColumnName = columnName.substring(columnName.lastIndexOf(".") + 1);
-                    }
-                    
-                    projectedRow.put(outputColumnName, value);
+                    columns.add(simpleColumnName(columnName));
+                    ordinals.add(input.indexOf(columnName));
                 }
             }
         }
-        
-        return projectedRow;
+        return new ProjectOperator(child, new RowSchema(columns), toIntArray(ordinals));
     }
     
-    private void sortResults(List<Map<String, Object>> results, List<OrderByItem> orderByClause, TableInfo tableInfo) {
-        // 简化的排序实现
-        results.sort((a, b) -> {
-            for (OrderByItem item : orderByClause) {
-                String columnName = getColumnNameFromExpression(item.getExpression());
-                String valueA = (String) a.getOrDefault(columnName, "");
-                String valueB = (String) b.getOrDefault(columnName, "");
+    /**
+     * 去掉列名的表别名前缀
+     */
+    private static String simpleColumnName(String columnName) {
+        return columnName.contains(".") ? columnName.substring(columnName.lastIndexOf(".") + 1) : columnName;
+    }
+    
+    /**
+     * ORDER BY的比较器：与WHERE中的比较一致，两边都是数字时按数值比较，NULL排在最前；
+     * 排序列的序号按行结构查找一次，行中没有的列按NULL处理
+     */
+    private Comparator<Object[]> orderByComparator(List<OrderByItem> orderByClause, RowSchema schema) {
+        int[] ordinals = new int[orderByClause.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = schema.indexOf(getColumnNameFromExpression(orderByClause.get(i).getExpression()));
+        }
+        return (a, b) -> {
+            for (int i = 0; i < ordinals.length; i++) {
+                Object valueA = ordinals[i] >= 0 ? a[ordinals[i]] : null;
+                Object valueB = ordinals[i] >= 0 ? b[ordinals[i]] : null;
                 
-                int comparison = valueA.compareTo(valueB);
+                int comparison;
+                if (valueA == null || valueB == null) {
+                    comparison = valueA == null ? (valueB == null ? 0 : -1) : 1;
+                } else {
+                    comparison = compareValues(valueA.toString(), valueB.toString());
+                }
                 if (comparison != 0) {
-                    return item.getOrder() == OrderByItem.SortOrder.ASC ? comparison : -comparison;
+                    return orderByClause.get(i).getOrder() == OrderByItem.SortOrder.ASC ? comparison : -comparison;
                 }
             }
             return 0;
-        });
+        };
     }
     
     private String getColumnNameFromExpression(ExpressionPlan expr) {
@@ -687,4 +1313,109 @@ public class Executor {
                 throw new IllegalArgumentException("未知的约束类型: " + type);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 可以由索引回答的简单条件：列 运算符 常量
+     */
+    private static final class IndexPredicate {
+        private final String column;
+        private final String operator;
+        private final String literal;
+        
+        private IndexPredicate(String column, String operator, String literal) {
+            this.column = column;
+            this.operator = operator;
+            this.literal = literal;
+        }
+        
+        /**
+         * 收集WHERE条件中用AND连接的各个简单比较，OR下面的条件不能单独使用
+         */
+        static void collect(ExpressionPlan whereClause, String tableAlias, List<IndexPredicate> predicates) {
+            if (whereClause instanceof BinaryExpressionPlan
+                    && "AND".equals(((BinaryExpressionPlan) whereClause).getOperator())) {
+                collect(((BinaryExpressionPlan) whereClause).getLeft(), tableAlias, predicates);
+                collect(((BinaryExpressionPlan) whereClause).getRight(), tableAlias, predicates);
+                return;
+            }
+            IndexPredicate predicate = from(whereClause, tableAlias);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        
+        /**
+         * 列上可由索引回答的条件，优先返回等值条件，没有时返回null
+         */
+        static IndexPredicate find(List<IndexPredicate> predicates, String column) {
+            IndexPredicate range = null;
+            for (IndexPredicate predicate : predicates) {
+                if (!predicate.column.equals(column)) {
+                    continue;
+                }
+                if ("=".equals(predicate.operator)) {
+                    return predicate;
+                }
+                if (range == null && flip(predicate.operator) != null) {
+                    range = predicate;
+                }
+            }
+            return range;
+        }
+        
+        /**
+         * 从WHERE条件中提取；列名必须与扫描时行数据的键一致（有别名时为"别名.列名"），否则返回null
+         */
+        static IndexPredicate from(ExpressionPlan whereClause, String tableAlias) {
+            if (!(whereClause instanceof BinaryExpressionPlan)) {
+                return null;
+            }
+            BinaryExpressionPlan binary = (BinaryExpressionPlan) whereClause;
+            ExpressionPlan left = binary.getLeft();
+            ExpressionPlan right = binary.getRight();
+            String operator = binary.getOperator();
+            if (left instanceof LiteralExpressionPlan && right instanceof IdentifierExpressionPlan) {
+                // 常量在左边时交换两边
+                ExpressionPlan temp = left;
+                left = right;
+                right = temp;
+                operator = flip(operator);
+            }
+            if (operator == null || !(left instanceof IdentifierExpressionPlan) || !(right instanceof LiteralExpressionPlan)) {
+                return null;
+            }
+            
+            String name = ((IdentifierExpressionPlan) left).getName();
+            String column;
+            if (tableAlias != null) {
+                if (!name.startsWith(tableAlias + ".")) {
+                    return null;
+                }
+                column = name.substring(tableAlias.length() + 1);
+            } else {
+                if (name.contains(".")) {
+                    return null;
+                }
+                column = name;
+            }
+            return new IndexPredicate(column, operator, ((LiteralExpressionPlan) right).getValue());
+        }
+        
+        private static String flip(String operator) {
+            switch (operator) {
+                case "=":
+                    return "=";
+                case ">":
+                    return "<";
+                case "<":
+                    return ">";
+                case ">=":
+                    return "<=";
+                case "<=":
+                    return ">=";
+                default:
+                    return null;
+            }
+        }
+    }
+}
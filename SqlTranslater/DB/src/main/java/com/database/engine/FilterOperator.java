@@ -0,0 +1,42 @@
+package com.database.engine;
+
+import java.util.function.Predicate;
+
+/**
+ * 过滤运算符 - 只放行满足条件的行（WHERE、HAVING）
+ */
+public class FilterOperator implements Operator {
+    private final Operator child;
+    private final Predicate<Object[]> condition;
+
+    public FilterOperator(Operator child, Predicate<Object[]> condition) {
+        this.child = child;
+        this.condition = condition;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return child.getSchema();
+    }
+
+    @Override
+    public Object[] next() {
+        Object[] row;
+        while ((row = child.next()) != null) {
+            if (condition.test(row)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
@@ -0,0 +1,436 @@
+package com.database.engine;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 哈希连接运算符 - 等值连接：open()时把构建端（估计较小的一边）的行按连接键放入哈希表，
+ * 探测端逐行流过，只与连接键相同的构建行拼接，再检查其余的连接条件；连接结果仍是左边的列在前、右边的列在后
+ *
+ * 连接键的比较与WHERE一致：两边都是数字时按数值比较，因此数字以规范化后的数值作为键（"5.50"与"5.5"相同），
+ * NULL按"NULL"比较。构建端估计占用的内存超过预算时改为Grace哈希连接：两边的行按连接键的哈希值分到
+ * 若干分区写入临时文件，再逐个分区在内存中连接，某个构建分区仍超过预算时换一个哈希函数再分区。
+ * 在内存中连接且构建端是右边时，输出顺序与嵌套循环连接相同；溢出到磁盘后按分区顺序输出。
+ */
+public class HashJoinOperator implements Operator {
+    static final int PARTITIONS = 16;
+    private static final int MAX_PARTITION_DEPTH = 3; // 超过此深度的分区（例如全部是同一个键）直接读入内存
+
+    private final Operator left;
+    private final Operator right;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    private final Predicate<Object[]> residual;
+    private final boolean buildLeft;
+    private final long memoryBudget;
+    private final RowSchema schema;
+
+    private Map<Object, List<Object[]>> table; // 当前在内存中的构建行（整个构建端或一个分区）
+    private Operator probeOperator; // 没有溢出时直接从探测端运算符读取
+    private SpillFile.Reader probeReader; // 溢出后从当前分区的探测文件读取
+    private final Deque<Partition> partitions = new ArrayDeque<>();
+    private final List<SpillFile> spillFiles = new ArrayList<>();
+    private Object[] probeRow;
+    private List<Object[]> matches;
+    private int matchIndex;
+    private int partitionsSpilled;
+
+    /**
+     * @param leftKeys 左边各连接键列在左边行中的序号
+     * @param rightKeys 右边对应的连接键列在右边行中的序号
+     * @param residual 连接键之外的连接条件，在拼接后的行上检查；没有时为null
+     * @param buildLeft 为true时用左边建哈希表、右边探测，否则相反
+     * @param memoryBudget 构建端在内存中的估计字节数上限，超过时溢出到磁盘
+     */
+    public HashJoinOperator(Operator left, Operator right, int[] leftKeys, int[] rightKeys,
+                            Predicate<Object[]> residual, boolean buildLeft, long memoryBudget) {
+        this.left = left;
+        this.right = right;
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.residual = residual;
+        this.buildLeft = buildLeft;
+        this.memoryBudget = memoryBudget;
+        this.schema = left.getSchema().concat(right.getSchema());
+    }
+
+    @Override
+    public void open() {
+        Operator build = buildLeft ? left : right;
+        Operator probe = buildLeft ? right : left;
+        int[] buildKeys = buildLeft ? leftKeys : rightKeys;
+        int[] probeKeys = buildLeft ? rightKeys : leftKeys;
+        partitionsSpilled = 0;
+        matches = null;
+        try {
+            SpillFile[] buildPartitions = null;
+            Map<Object, List<Object[]>> memory = new HashMap<>();
+            long bytes = 0;
+            build.open();
+            try {
+                Object[] row;
+                while ((row = build.next()) != null) {
+                    if (buildPartitions != null) {
+                        buildPartitions[partitionOf(joinKey(row, buildKeys), 0)].write(row);
+                        continue;
+                    }
+                    memory.computeIfAbsent(joinKey(row, buildKeys), key -> new ArrayList<>(1)).add(row);
+                    bytes += estimateSize(row);
+                    if (bytes > memoryBudget) {
+                        // 超过内存预算：已读入的行和之后的行都按分区写入临时文件
+                        buildPartitions = newPartitions();
+                        for (Map.Entry<Object, List<Object[]>> entry : memory.entrySet()) {
+                            SpillFile partition = buildPartitions[partitionOf(entry.getKey(), 0)];
+                            for (Object[] buildRow : entry.getValue()) {
+                                partition.write(buildRow);
+                            }
+                        }
+                        memory = null;
+                    }
+                }
+            } finally {
+                build.close();
+            }
+
+            probe.open();
+            if (buildPartitions == null) {
+                table = memory;
+                probeOperator = probe;
+                return;
+            }
+            SpillFile[] probePartitions = newPartitions();
+            try {
+                Object[] row;
+                while ((row = probe.next()) != null) {
+                    probePartitions[partitionOf(joinKey(row, probeKeys), 0)].write(row);
+                }
+            } finally {
+                probe.close();
+            }
+            for (int i = 0; i < PARTITIONS; i++) {
+                partitions.add(new Partition(buildPartitions[i], probePartitions[i], 0));
+            }
+            partitionsSpilled = PARTITIONS;
+            System.out.println("哈希连接构建端超过内存预算，分为 " + PARTITIONS + " 个分区写入磁盘");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        int[] probeKeys = buildLeft ? rightKeys : leftKeys;
+        while (true) {
+            if (matches != null && matchIndex < matches.size()) {
+                Object[] buildRow = matches.get(matchIndex++);
+                Object[] joined = buildLeft
+                    ? NestedLoopJoinOperator.concat(buildRow, probeRow)
+                    : NestedLoopJoinOperator.concat(probeRow, buildRow);
+                if (residual == null || residual.test(joined)) {
+                    return joined;
+                }
+                continue;
+            }
+            probeRow = nextProbeRow();
+            if (probeRow == null) {
+                matches = null;
+                return null;
+            }
+            matches = table.get(joinKey(probeRow, probeKeys));
+            matchIndex = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (probeOperator != null) {
+            probeOperator.close();
+            probeOperator = null;
+        }
+        if (probeReader != null) {
+            probeReader.close();
+            probeReader = null;
+        }
+        for (SpillFile file : spillFiles) {
+            file.delete();
+        }
+        spillFiles.clear();
+        partitions.clear();
+        table = null;
+        matches = null;
+    }
+
+    /**
+     * 溢出到磁盘的分区数（含再分区产生的分区），没有溢出时为0
+     */
+    public int getPartitionsSpilled() {
+        return partitionsSpilled;
+    }
+
+    /**
+     * 探测端的下一行：没有溢出时从探测端运算符读取，否则依次读取各分区的探测文件，
+     * 每开始一个分区先把它的构建文件读入哈希表
+     */
+    private Object[] nextProbeRow() {
+        if (probeOperator != null) {
+            return probeOperator.next();
+        }
+        try {
+            while (true) {
+                if (probeReader != null) {
+                    Object[] row = probeReader.read();
+                    if (row != null) {
+                        return row;
+                    }
+                    probeReader.close();
+                    probeReader = null;
+                }
+                Partition partition = partitions.poll();
+                if (partition == null) {
+                    table = null;
+                    return null;
+                }
+                if (partition.build.getRowCount() == 0 || partition.probe.getRowCount() == 0) {
+                    partition.build.delete();
+                    partition.probe.delete();
+                    continue;
+                }
+                table = loadPartition(partition);
+                if (table != null) {
+                    probeReader = partition.probe.openReader();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 把分区的构建文件读入哈希表；超过内存预算时按下一层的哈希函数把这个分区的两个文件再分区
+     * @return 哈希表；分区被再分区时返回null
+     */
+    private Map<Object, List<Object[]>> loadPartition(Partition partition) throws IOException {
+        int[] buildKeys = buildLeft ? leftKeys : rightKeys;
+        int[] probeKeys = buildLeft ? rightKeys : leftKeys;
+        Map<Object, List<Object[]>> memory = new HashMap<>();
+        long bytes = 0;
+        try (SpillFile.Reader reader = partition.build.openReader()) {
+            Object[] row;
+            while ((row = reader.read()) != null) {
+                memory.computeIfAbsent(joinKey(row, buildKeys), key -> new ArrayList<>(1)).add(row);
+                bytes += estimateSize(row);
+                if (bytes > memoryBudget && partition.depth < MAX_PARTITION_DEPTH) {
+                    memory = null;
+                    break;
+                }
+            }
+        }
+        if (memory != null) {
+            partition.build.delete();
+            return memory;
+        }
+
+        int depth = partition.depth + 1;
+        SpillFile[] buildPartitions = repartition(partition.build, buildKeys, depth);
+        SpillFile[] probePartitions = repartition(partition.probe, probeKeys, depth);
+        for (int i = PARTITIONS - 1; i >= 0; i--) {
+            partitions.addFirst(new Partition(buildPartitions[i], probePartitions[i], depth));
+        }
+        partitionsSpilled += PARTITIONS;
+        return null;
+    }
+
+    private SpillFile[] repartition(SpillFile file, int[] keys, int depth) throws IOException {
+        SpillFile[] output = newPartitions();
+        try (SpillFile.Reader reader = file.openReader()) {
+            Object[] row;
+            while ((row = reader.read()) != null) {
+                output[partitionOf(joinKey(row, keys), depth)].write(row);
+            }
+        }
+        file.delete();
+        return output;
+    }
+
+    private SpillFile[] newPartitions() throws IOException {
+        SpillFile[] files = new SpillFile[PARTITIONS];
+        for (int i = 0; i < PARTITIONS; i++) {
+            files[i] = new SpillFile();
+            spillFiles.add(files[i]);
+        }
+        return files;
+    }
+
+    /**
+     * 连接键所在的分区，每一层分区使用不同的哈希函数
+     */
+    private static int partitionOf(Object key, int depth) {
+        int h = (key.hashCode() + depth * 0x9E3779B9) * 0x85EBCA6B;
+        h ^= h >>> 15;
+        return Math.floorMod(h, PARTITIONS);
+    }
+
+    /**
+     * 行的连接键：单列时是规范化后的值，多列时是各列规范化后的值组成的列表
+     */
+    static Object joinKey(Object[] row, int[] ordinals) {
+        if (ordinals.length == 1) {
+            return keyValue(row[ordinals[0]]);
+        }
+        List<String> key = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            key.add(keyValue(row[ordinal]));
+        }
+        return key;
+    }
+
+    /**
+     * 与compareValues()的相等判断一致的键：数字规范为去掉多余的零后的数值，其他值（包括"NULL"）保持原文；
+     * 数字的规范形式仍是数字，所以不会与不是数字的值相同
+     */
+    private static String keyValue(Object value) {
+        String text = value == null ? "NULL" : value.toString();
+        BigDecimal number = IndexKey.parseNumber(text);
+        return number == null ? text : number.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 行在哈希表中占用内存的粗略估计（数组、字符串和哈希表条目的开销）
+     */
+    static long estimateSize(Object[] row) {
+        long size = 64 + 8L * row.length;
+        for (Object value : row) {
+            if (value != null) {
+                size += 40 + 2L * value.toString().length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 有columnCount列的行在哈希表中的估计大小（查询计划估计构建端的内存时使用，每个值按16个字符估计）
+     */
+    static long estimateSize(int columnCount) {
+        return 64 + columnCount * (8 + 40 + 2 * 16L);
+    }
+
+    private static final class Partition {
+        private final SpillFile build;
+        private final SpillFile probe;
+        private final int depth;
+
+        private Partition(SpillFile build, SpillFile probe, int depth) {
+            this.build = build;
+            this.probe = probe;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * 溢出文件：行依次写入临时文件，写完后可以从头读取。每行先写列数，
+     * 每个值写UTF-8字节长度（NULL为-1）和字节
+     */
+    static final class SpillFile {
+        private final File file;
+        private DataOutputStream out;
+        private long rowCount;
+
+        SpillFile() throws IOException {
+            file = File.createTempFile("hashjoin", ".spill");
+            file.deleteOnExit();
+        }
+
+        void write(Object[] row) throws IOException {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            }
+            out.writeInt(row.length);
+            for (Object value : row) {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            rowCount++;
+        }
+
+        long getRowCount() {
+            return rowCount;
+        }
+
+        Reader openReader() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            return new Reader(new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+        }
+
+        void delete() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // 文件随后删除，忽略关闭失败
+                }
+                out = null;
+            }
+            file.delete();
+        }
+
+        static final class Reader implements Closeable {
+            private final DataInputStream in;
+
+            private Reader(DataInputStream in) {
+                this.in = in;
+            }
+
+            /**
+             * 下一行，读到文件末尾时返回null
+             */
+            Object[] read() throws IOException {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return null;
+                }
+                Object[] row = new Object[length];
+                for (int i = 0; i < length; i++) {
+                    int size = in.readInt();
+                    if (size >= 0) {
+                        byte[] bytes = new byte[size];
+                        in.readFully(bytes);
+                        row[i] = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                }
+                return row;
+            }
+
+            @Override
+            public void close() {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // 只读文件，忽略关闭失败
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.database.engine;
+
+import com.database.storage.CacheStats;
+import com.database.storage.Page;
+import com.database.storage.PageStore;
+import com.sqlcompiler.catalog.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 堆文件 - 行式存储表的二进制页式存储
+ *
+ * 文件由若干4KB页面组成：
+ * 开头的头部页保存文本格式的表元数据（与原.tbl文件头兼容，目录管理器仍可直接解析），
+ * 之后的每一页都是 {@link HeapPage} 分槽页，记录按 {@link RecordSerializer} 的二进制格式存储。
+ * 记录通过 {@link RecordId}(页号, 槽号) 定位。
+ * 数据页的读写全部经由存储系统的 {@link PageStore}（缓冲池）完成。
+ */
+public class HeapFile implements Closeable {
+    private static final String FORMAT_LINE = "FORMAT=HEAP";
+    private static final String FIRST_DATA_PAGE_PREFIX = "FIRST_DATA_PAGE=";
+
+    private final String filePath;
+    private final String tableName;
+    private final List<ColumnInfo> columns;
+    private final RecordSerializer serializer;
+    private final int firstDataPage;
+    private final PageStore pageStore;
+    private final TreeSet<Integer> pagesWithFreeSpace; // 删除记录后有空闲空间的页
+    private int pageCount; // 文件中的总页数（含头部页）
+    
+    /**
+     * 记录访问器，返回false时提前结束扫描
+     */
+    public interface RecordVisitor {
+        boolean visit(RecordId recordId, Map<String, Object> record);
+    }
+
+    /**
+     * 从页面缓冲区中的记录字节解码
+     */
+    private interface RecordDecoder<T> {
+        T decode(ByteBuffer buffer, int offset, int length);
+    }
+
+    private HeapFile(String filePath, String tableName, List<ColumnInfo> columns, int firstDataPage,
+                     PageStore pageStore) {
+        this.filePath = filePath;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.serializer = new RecordSerializer(columns);
+        this.firstDataPage = firstDataPage;
+        this.pageStore = pageStore;
+        this.pagesWithFreeSpace = new TreeSet<>();
+        this.pageCount = pageStore.getPageCount();
+    }
+
+    /**
+     * 创建新的堆文件，写入元数据头部页
+     */
+    public static HeapFile create(String filePath, TableInfo tableInfo,
+                                  Function<String, PageStore> pageStoreFactory) throws IOException {
+        List<ColumnInfo> columns = new ArrayList<>(tableInfo.getColumns());
+        int firstDataPage = writeHeader(new File(filePath), tableInfo.getName(), columns);
+        return new HeapFile(filePath, tableInfo.getName(), columns, firstDataPage, pageStoreFactory.apply(filePath));
+    }
+
+    /**
+     * 打开已有的堆文件；旧版文本格式(RECORD:行)的表文件会被自动转换
+     */
+    public static HeapFile open(String filePath, Function<String, PageStore> pageStoreFactory) throws IOException {
+        File tableFile = new File(filePath);
+        Header header = readHeader(tableFile);
+        if (header == null) {
+            throw new IOException("无法解析表文件头: " + filePath);
+        }
+
+        if (!header.heapFormat) {
+            migrateLegacyFile(tableFile, header, pageStoreFactory);
+            header = readHeader(tableFile);
+        }
+
+        return new HeapFile(filePath, header.tableName, header.columns, header.firstDataPage,
+            pageStoreFactory.apply(filePath));
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<ColumnInfo> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * 数据页数量（不含头部页）
+     */
+    public int getDataPageCount() {
+        return Math.max(0, pageCount - firstDataPage);
+    }
+
+    /**
+     * 估计记录数：第一个数据页上的记录数乘以数据页数，只读一个页面（查询计划比较输入大小时使用）
+     */
+    public synchronized long estimateRecordCount() throws IOException {
+        int dataPages = getDataPageCount();
+        if (dataPages == 0) {
+            return 0;
+        }
+        Page page = pinPage(firstDataPage);
+        try {
+            ByteBuffer data = page.getBuffer();
+            if (!HeapPage.isHeapPage(data)) {
+                return 0;
+            }
+            HeapPage heapPage = new HeapPage(data);
+            int live = 0;
+            for (int slot = 0; slot < heapPage.getSlotCount(); slot++) {
+                if (heapPage.isLive(slot)) {
+                    live++;
+                }
+            }
+            return (long) live * dataPages;
+        } finally {
+            pageStore.unpinPage(firstDataPage, false);
+        }
+    }
+
+    /**
+     * 插入记录，返回记录ID
+     */
+    public synchronized RecordId insert(Map<String, Object> record) throws IOException {
+        byte[] recordBytes = serializer.serialize(record);
+        if (recordBytes.length > HeapPage.MAX_RECORD_SIZE) {
+            throw new IOException("记录大小 " + recordBytes.length + " 字节超过单页容量");
+        }
+
+        // 优先填充删除记录后留下的空闲空间
+        Iterator<Integer> it = pagesWithFreeSpace.iterator();
+        while (it.hasNext()) {
+            int pageId = it.next();
+            int slot = insertIntoPage(pageId, recordBytes);
+            if (slot >= 0) {
+                return new RecordId(pageId, slot);
+            }
+            it.remove();
+        }
+
+        // 其次追加到最后一个数据页
+        if (getDataPageCount() > 0) {
+            int lastPageId = pageCount - 1;
+            int slot = insertIntoPage(lastPageId, recordBytes);
+            if (slot >= 0) {
+                return new RecordId(lastPageId, slot);
+            }
+        }
+
+        // 分配新页
+        int[] newPageId = new int[1];
+        Page page = pageStore.newPage(newPageId);
+        if (page == null) {
+            throw new IOException("无法为表 " + tableName + " 分配新页面");
+        }
+        try {
+            int slot = HeapPage.format(page.getBuffer()).insert(recordBytes);
+            pageCount = Math.max(pageCount, newPageId[0] + 1);
+            return new RecordId(newPageId[0], slot);
+        } finally {
+            pageStore.unpinPage(newPageId[0], true);
+        }
+    }
+
+    /**
+     * 按记录ID读取记录，记录不存在时返回null
+     */
+    public Map<String, Object> read(RecordId recordId) throws IOException {
+        return read(recordId, serializer::deserialize);
+    }
+
+    /**
+     * 按记录ID读取记录，值按列定义顺序存放（与getColumns()对应），记录不存在时返回null
+     */
+    public Object[] readRow(RecordId recordId) throws IOException {
+        return read(recordId, serializer::deserializeRow);
+    }
+
+    private synchronized <T> T read(RecordId recordId, RecordDecoder<T> decoder) throws IOException {
+        int pageId = recordId.getPageId();
+        if (!isDataPage(pageId)) {
+            return null;
+        }
+        Page page = pinPage(pageId);
+        try {
+            HeapPage heapPage = new HeapPage(page.getBuffer());
+            if (!heapPage.isLive(recordId.getSlot())) {
+                return null;
+            }
+            return decoder.decode(page.getBuffer(), heapPage.getRecordOffset(recordId.getSlot()),
+                heapPage.getRecordLength(recordId.getSlot()));
+        } finally {
+            pageStore.unpinPage(pageId, false);
+        }
+    }
+
+    /**
+     * 按记录ID删除记录
+     */
+    public synchronized boolean delete(RecordId recordId) throws IOException {
+        int pageId = recordId.getPageId();
+        if (!isDataPage(pageId)) {
+            return false;
+        }
+        Page page = pinPage(pageId);
+        boolean deleted = false;
+        try {
+            deleted = new HeapPage(page.getBuffer()).delete(recordId.getSlot());
+        } finally {
+            pageStore.unpinPage(pageId, deleted);
+        }
+        if (deleted && pageId != pageCount - 1) {
+            pagesWithFreeSpace.add(pageId);
+        }
+        return deleted;
+    }
+
+    /**
+     * 顺序扫描所有记录
+     */
+    public synchronized void scan(RecordVisitor visitor) throws IOException {
+        pageStore.prefetch(firstDataPage, pageCount - firstDataPage); // 扫描提示，之后由顺序预读跟进
+        for (int pageId = firstDataPage; pageId < pageCount; pageId++) {
+            Page page = pinPage(pageId);
+            try {
+                ByteBuffer data = page.getBuffer();
+                if (!HeapPage.isHeapPage(data)) {
+                    continue;
+                }
+                HeapPage heapPage = new HeapPage(data);
+                int slotCount = heapPage.getSlotCount();
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (!heapPage.isLive(slot)) {
+                        continue;
+                    }
+                    Map<String, Object> record = serializer.deserialize(data, heapPage.getRecordOffset(slot),
+                        heapPage.getRecordLength(slot));
+                    if (!visitor.visit(new RecordId(pageId, slot), record)) {
+                        return;
+                    }
+                }
+            } finally {
+                pageStore.unpinPage(pageId, false);
+            }
+        }
+    }
+
+    /**
+     * 按页拉取记录的迭代器：每次读出一个页面上的全部记录后就释放页面，两次调用之间不持有页面，
+     * 内存中最多缓存一页的记录；迭代期间插入或删除的记录可能看到也可能看不到
+     */
+    public Iterator<Map<String, Object>> iterator() {
+        return pageIterator(serializer::deserialize);
+    }
+
+    /**
+     * 与iterator()相同，但每条记录是按列定义顺序存放值的数组（与getColumns()对应）
+     */
+    public Iterator<Object[]> rowIterator() {
+        return pageIterator(serializer::deserializeRow);
+    }
+
+    private <T> Iterator<T> pageIterator(RecordDecoder<T> decoder) {
+        return new Iterator<T>() {
+            private final Deque<T> buffered = new ArrayDeque<>();
+            private int nextPageId = firstDataPage;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (buffered.isEmpty() && !exhausted) {
+                    try {
+                        exhausted = !readPage(nextPageId++, buffered, decoder);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return !buffered.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffered.poll();
+            }
+        };
+    }
+
+    /**
+     * 把一个数据页上的全部记录解码后加入out
+     * @return 页号超出文件末尾时返回false
+     */
+    private synchronized <T> boolean readPage(int pageId, Collection<T> out, RecordDecoder<T> decoder) throws IOException {
+        if (pageId >= pageCount) {
+            return false;
+        }
+        if (pageId == firstDataPage) {
+            pageStore.prefetch(firstDataPage, pageCount - firstDataPage); // 扫描提示，之后由顺序预读跟进
+        }
+        Page page = pinPage(pageId);
+        try {
+            ByteBuffer data = page.getBuffer();
+            if (HeapPage.isHeapPage(data)) {
+                HeapPage heapPage = new HeapPage(data);
+                for (int slot = 0; slot < heapPage.getSlotCount(); slot++) {
+                    if (heapPage.isLive(slot)) {
+                        out.add(decoder.decode(data, heapPage.getRecordOffset(slot), heapPage.getRecordLength(slot)));
+                    }
+                }
+            }
+        } finally {
+            pageStore.unpinPage(pageId, false);
+        }
+        return true;
+    }
+
+    /**
+     * 扫描并返回所有记录
+     */
+    public List<Map<String, Object>> scanAll() throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        scan((recordId, record) -> records.add(record));
+        return records;
+    }
+
+    /**
+     * 把缓冲池中的脏页写回磁盘
+     */
+    public synchronized boolean flush() {
+        return pageStore.flushAllPages();
+    }
+
+    /**
+     * 获取该表缓冲池的缓存统计
+     */
+    public CacheStats getCacheStats() {
+        return pageStore.getStats();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        pageStore.close();
+    }
+
+    // ========== 页面访问 ==========
+
+    private boolean isDataPage(int pageId) {
+        return pageId >= firstDataPage && pageId < pageCount;
+    }
+
+    private Page pinPage(int pageId) throws IOException {
+        Page page = pageStore.getPage(pageId);
+        if (page == null) {
+            throw new IOException("无法读取表 " + tableName + " 的页面 " + pageId);
+        }
+        return page;
+    }
+
+    private int insertIntoPage(int pageId, byte[] recordBytes) throws IOException {
+        Page page = pinPage(pageId);
+        int slot = -1;
+        try {
+            if (HeapPage.isHeapPage(page.getBuffer())) {
+                slot = new HeapPage(page.getBuffer()).insert(recordBytes);
+            }
+        } finally {
+            pageStore.unpinPage(pageId, slot >= 0);
+        }
+        return slot;
+    }
+
+    // ========== 文件头 ==========
+
+    /**
+     * 写入文本元数据头部，返回第一个数据页的页号
+     */
+    private static int writeHeader(File tableFile, String tableName, List<ColumnInfo> columns) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Table Metadata\n");
+        sb.append("TABLE_NAME=").append(tableName).append('\n');
+        sb.append("COLUMN_COUNT=").append(columns.size()).append('\n');
+        for (ColumnInfo column : columns) {
+            sb.append("COLUMN=").append(column.getName()).append(':')
+              .append(column.getDataType()).append(':').append(column.getLength()).append('\n');
+        }
+        sb.append(FORMAT_LINE).append('\n');
+        sb.append("PAGE_SIZE=").append(HeapPage.PAGE_SIZE).append('\n');
+
+        // 头部页数取决于元数据长度，先按不含该行估算再修正
+        int firstDataPage = 1;
+        byte[] headerBytes;
+        while (true) {
+            String text = sb + FIRST_DATA_PAGE_PREFIX + firstDataPage + "\n# End Metadata\n\n";
+            headerBytes = text.getBytes(StandardCharsets.UTF_8);
+            int needed = (headerBytes.length + HeapPage.PAGE_SIZE - 1) / HeapPage.PAGE_SIZE;
+            if (needed <= firstDataPage) {
+                break;
+            }
+            firstDataPage = needed;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(tableFile, "rw")) {
+            raf.setLength(0);
+            raf.write(headerBytes);
+            raf.setLength((long) firstDataPage * HeapPage.PAGE_SIZE);
+        }
+        return firstDataPage;
+    }
+
+    private static Header readHeader(File tableFile) throws IOException {
+        Header header = new Header();
+        header.columns = new ArrayList<>();
+        header.firstDataPage = 1;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(tableFile), StandardCharsets.UTF_8))) {
+            String line;
+            boolean ended = false;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.equals("# End Metadata")) {
+                    ended = true;
+                    break;
+                }
+                if (line.startsWith("TABLE_NAME=")) {
+                    header.tableName = line.substring("TABLE_NAME=".length());
+                } else if (line.startsWith("COLUMN=")) {
+                    String[] parts = line.substring("COLUMN=".length()).split(":");
+                    if (parts.length >= 3) {
+                        header.columns.add(new ColumnInfo(parts[0], parts[1], Integer.parseInt(parts[2])));
+                    }
+                } else if (line.equals(FORMAT_LINE)) {
+                    header.heapFormat = true;
+                } else if (line.startsWith(FIRST_DATA_PAGE_PREFIX)) {
+                    header.firstDataPage = Integer.parseInt(line.substring(FIRST_DATA_PAGE_PREFIX.length()));
+                }
+            }
+            if (!ended || header.tableName == null || header.columns.isEmpty()) {
+                return null;
+            }
+        }
+        return header;
+    }
+
+    /**
+     * 把旧版文本格式的表文件转换为堆文件格式
+     */
+    private static void migrateLegacyFile(File tableFile, Header header,
+                                          Function<String, PageStore> pageStoreFactory) throws IOException {
+        List<Map<String, Object>> legacyRecords = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(tableFile), StandardCharsets.UTF_8))) {
+            String line;
+            boolean inDataSection = false;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("# End Metadata")) {
+                    inDataSection = true;
+                } else if (inDataSection && line.startsWith("RECORD:")) {
+                    legacyRecords.add(parseLegacyRecord(line.substring(7)));
+                }
+            }
+        }
+
+        File tempFile = new File(tableFile.getPath() + ".migrating");
+        TableInfo tableInfo = new TableInfo(header.tableName);
+        for (ColumnInfo column : header.columns) {
+            tableInfo.addColumn(column);
+        }
+        try (HeapFile heapFile = create(tempFile.getPath(), tableInfo, pageStoreFactory)) {
+            for (Map<String, Object> record : legacyRecords) {
+                heapFile.insert(record);
+            }
+        }
+        Files.move(tempFile.toPath(), tableFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("表文件已转换为堆文件格式: " + tableFile.getName() + " (" + legacyRecords.size() + " 条记录)");
+    }
+
+    private static Map<String, Object> parseLegacyRecord(String recordData) {
+        Map<String, Object> record = new HashMap<>();
+        for (String pair : recordData.split("\\|")) {
+            String[] keyValue = pair.split("=", 2);
+            if (keyValue.length == 2) {
+                record.put(keyValue[0], keyValue[1]);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 解析出的文件头信息
+     */
+    private static class Header {
+        private String tableName;
+        private List<ColumnInfo> columns;
+        private boolean heapFormat;
+        private int firstDataPage;
+    }
+}
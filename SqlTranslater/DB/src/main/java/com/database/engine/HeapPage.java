@@ -0,0 +1,302 @@
+package com.database.engine;
+
+import com.database.storage.Page;
+import java.nio.ByteBuffer;
+
+/**
+ * 分槽页（Slotted Page）视图 - 在4KB页面缓冲区上解释堆文件页格式
+ *
+ * 页面缓冲区可以是堆上数组，也可以是缓冲池的堆外帧；所有访问都按绝对位置进行。
+ *
+ * 页面布局：
+ * <pre>
+ * +--------+-----------+---------------+------------------+-----------------+
+ * | magic  | slotCount | freeSpaceEnd  | 槽目录(向后增长)  | ... 记录(向前增长) |
+ * | 4字节  | 2字节     | 2字节         | 每槽4字节         |                 |
+ * +--------+-----------+---------------+------------------+-----------------+
+ * </pre>
+ * 每个槽保存记录在页内的偏移和长度，偏移为0表示空槽（已删除）。
+ * 页内压缩只移动记录字节，不改变槽号，因此(页号, 槽号)构成稳定的记录ID。
+ */
+public class HeapPage {
+    public static final int PAGE_SIZE = Page.PAGE_SIZE;
+    public static final int MAGIC = 0x48454150; // "HEAP"
+
+    private static final int HEADER_SIZE = 8;
+    private static final int SLOT_SIZE = 4;
+    private static final int OFFSET_SLOT_COUNT = 4;
+    private static final int OFFSET_FREE_SPACE_END = 6;
+
+    /** 单条记录允许的最大字节数（页面只容纳这一条记录时） */
+    public static final int MAX_RECORD_SIZE = PAGE_SIZE - HEADER_SIZE - SLOT_SIZE;
+
+    private static final byte[] ZEROS = new byte[PAGE_SIZE];
+
+    private final ByteBuffer data;
+
+    public HeapPage(byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    public HeapPage(ByteBuffer data) {
+        if (data.capacity() != PAGE_SIZE) {
+            throw new IllegalArgumentException("页面大小必须为 " + PAGE_SIZE + " 字节");
+        }
+        this.data = data;
+    }
+
+    /**
+     * 将字节数组格式化为空的堆页
+     */
+    public static HeapPage format(byte[] data) {
+        return format(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * 将页面缓冲区格式化为空的堆页
+     */
+    public static HeapPage format(ByteBuffer data) {
+        HeapPage page = new HeapPage(data);
+        page.fill(0, PAGE_SIZE);
+        data.putInt(0, MAGIC);
+        data.putShort(OFFSET_SLOT_COUNT, (short) 0);
+        page.writeUnsignedShort(OFFSET_FREE_SPACE_END, PAGE_SIZE);
+        return page;
+    }
+
+    /**
+     * 检查字节数组是否为已格式化的堆页
+     */
+    public static boolean isHeapPage(byte[] data) {
+        return data.length == PAGE_SIZE && readInt(data, 0) == MAGIC;
+    }
+
+    /**
+     * 检查页面缓冲区是否为已格式化的堆页
+     */
+    public static boolean isHeapPage(ByteBuffer data) {
+        return data.capacity() == PAGE_SIZE && data.getInt(0) == MAGIC;
+    }
+
+    public ByteBuffer getData() {
+        return data;
+    }
+
+    public int getSlotCount() {
+        return readUnsignedShort(OFFSET_SLOT_COUNT);
+    }
+
+    /**
+     * 槽是否保存着一条有效记录
+     */
+    public boolean isLive(int slot) {
+        return slot >= 0 && slot < getSlotCount() && getSlotOffset(slot) != 0;
+    }
+
+    /**
+     * 记录在页内的起始偏移（供反序列化时原地读取，避免复制）
+     */
+    public int getRecordOffset(int slot) {
+        return getSlotOffset(slot);
+    }
+
+    /**
+     * 记录的字节长度
+     */
+    public int getRecordLength(int slot) {
+        return readUnsignedShort(slotPosition(slot) + 2);
+    }
+
+    /**
+     * 复制出一条记录的字节
+     */
+    public byte[] getRecord(int slot) {
+        if (!isLive(slot)) {
+            return null;
+        }
+        byte[] record = new byte[getRecordLength(slot)];
+        ByteBuffer view = data.duplicate();
+        view.position(getSlotOffset(slot));
+        view.get(record);
+        return record;
+    }
+
+    /**
+     * 连续空闲空间（槽目录末尾到记录区起点之间）
+     */
+    public int getContiguousFreeSpace() {
+        return getFreeSpaceEnd() - (HEADER_SIZE + getSlotCount() * SLOT_SIZE);
+    }
+
+    /**
+     * 判断页面能否容纳指定长度的记录（必要时会在插入前压缩）
+     */
+    public boolean canFit(int recordLength) {
+        int needed = recordLength + (findEmptySlot() < 0 ? SLOT_SIZE : 0);
+        return needed <= getTotalFreeSpace();
+    }
+
+    /**
+     * 插入记录，返回槽号；空间不足时返回-1
+     */
+    public int insert(byte[] record) {
+        int length = record.length;
+        if (length == 0 || length > MAX_RECORD_SIZE) {
+            return -1;
+        }
+
+        int slot = findEmptySlot();
+        int needed = length + (slot < 0 ? SLOT_SIZE : 0);
+        if (needed > getTotalFreeSpace()) {
+            return -1;
+        }
+        if (needed > getContiguousFreeSpace()) {
+            compact();
+        }
+
+        if (slot < 0) {
+            slot = getSlotCount();
+            writeUnsignedShort(OFFSET_SLOT_COUNT, slot + 1);
+        }
+
+        int offset = getFreeSpaceEnd() - length;
+        ByteBuffer view = data.duplicate();
+        view.position(offset);
+        view.put(record, 0, length);
+        writeUnsignedShort(OFFSET_FREE_SPACE_END, offset);
+        setSlot(slot, offset, length);
+        return slot;
+    }
+
+    /**
+     * 删除记录，槽位置空但保留槽号
+     */
+    public boolean delete(int slot) {
+        if (!isLive(slot)) {
+            return false;
+        }
+        setSlot(slot, 0, 0);
+
+        // 末尾的空槽可以直接回收
+        int slotCount = getSlotCount();
+        while (slotCount > 0 && getSlotOffset(slotCount - 1) == 0) {
+            slotCount--;
+        }
+        writeUnsignedShort(OFFSET_SLOT_COUNT, slotCount);
+        if (slotCount == 0) {
+            writeUnsignedShort(OFFSET_FREE_SPACE_END, PAGE_SIZE);
+        }
+        return true;
+    }
+
+    /**
+     * 页内压缩：把所有有效记录紧凑地移到页尾，槽号保持不变
+     */
+    public void compact() {
+        int slotCount = getSlotCount();
+        byte[] copy = new byte[PAGE_SIZE];
+        ByteBuffer source = data.duplicate();
+        source.clear();
+        source.get(copy);
+        ByteBuffer target = data.duplicate();
+        int freeSpaceEnd = PAGE_SIZE;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int offset = getSlotOffset(slot);
+            if (offset == 0) {
+                continue;
+            }
+            int length = getRecordLength(slot);
+            freeSpaceEnd -= length;
+            target.position(freeSpaceEnd);
+            target.put(copy, offset, length);
+            setSlot(slot, freeSpaceEnd, length);
+        }
+        int directoryEnd = HEADER_SIZE + slotCount * SLOT_SIZE;
+        fill(directoryEnd, freeSpaceEnd);
+        writeUnsignedShort(OFFSET_FREE_SPACE_END, freeSpaceEnd);
+    }
+
+    /**
+     * 删除后可回收的总空闲空间
+     */
+    private int getTotalFreeSpace() {
+        int slotCount = getSlotCount();
+        int used = HEADER_SIZE + slotCount * SLOT_SIZE;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (getSlotOffset(slot) != 0) {
+                used += getRecordLength(slot);
+            }
+        }
+        return PAGE_SIZE - used;
+    }
+
+    private int findEmptySlot() {
+        int slotCount = getSlotCount();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (getSlotOffset(slot) == 0) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int getFreeSpaceEnd() {
+        return readUnsignedShort(OFFSET_FREE_SPACE_END);
+    }
+
+    private int getSlotOffset(int slot) {
+        return readUnsignedShort(slotPosition(slot));
+    }
+
+    private void setSlot(int slot, int offset, int length) {
+        int position = slotPosition(slot);
+        writeUnsignedShort(position, offset);
+        writeUnsignedShort(position + 2, length);
+    }
+
+    private int readUnsignedShort(int position) {
+        return data.getShort(position) & 0xFFFF;
+    }
+
+    private void writeUnsignedShort(int position, int value) {
+        data.putShort(position, (short) value);
+    }
+
+    /**
+     * 把[from, to)清零
+     */
+    private void fill(int from, int to) {
+        ByteBuffer view = data.duplicate();
+        view.position(from);
+        view.put(ZEROS, 0, to - from);
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    // ========== 字节读写辅助（大端序） ==========
+
+    static int readShort(byte[] buffer, int position) {
+        return ((buffer[position] & 0xFF) << 8) | (buffer[position + 1] & 0xFF);
+    }
+
+    static void writeShort(byte[] buffer, int position, int value) {
+        buffer[position] = (byte) (value >>> 8);
+        buffer[position + 1] = (byte) value;
+    }
+
+    static int readInt(byte[] buffer, int position) {
+        return ((buffer[position] & 0xFF) << 24)
+            | ((buffer[position + 1] & 0xFF) << 16)
+            | ((buffer[position + 2] & 0xFF) << 8)
+            | (buffer[position + 3] & 0xFF);
+    }
+
+    static void writeInt(byte[] buffer, int position, int value) {
+        buffer[position] = (byte) (value >>> 24);
+        buffer[position + 1] = (byte) (value >>> 16);
+        buffer[position + 2] = (byte) (value >>> 8);
+        buffer[position + 3] = (byte) value;
+    }
+}
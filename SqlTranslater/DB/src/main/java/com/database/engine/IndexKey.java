@@ -0,0 +1,263 @@
+package com.database.engine;
+
+import com.database.storage.BPlusTreeKey;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 表索引的键 - 把一个列值编码成可比较、可序列化的B+树键
+ *
+ * 键带有类型标记，排序为 NULL < 数值 < 文本：
+ * 数值列中能解析为数字的值按数值比较（"5.50"与"5.5"相等），其余值按文本比较。
+ * 文本最多保留 {@link #MAX_TEXT_LENGTH} 个字符，超长的值截断后作为索引键，
+ * 因此索引查找得到的是候选记录，调用方需要再用完整的条件过滤一次。
+ * 序列化格式：标记(1字节) + 长度(1字节) + UTF-8内容。
+ */
+public final class IndexKey implements BPlusTreeKey {
+    public static final int MAX_TEXT_LENGTH = 85; // 85个字符的UTF-8编码不超过255字节
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_NUMBER = 1;
+    private static final byte TAG_TEXT = 2;
+
+    private byte tag;
+    private BigDecimal number;
+    private String text;
+    private boolean upperBound; // 只用于查询边界：大于同一标记下的所有键
+
+    /**
+     * 反序列化用的空键
+     */
+    public IndexKey() {
+        this.tag = TAG_NULL;
+    }
+
+    private IndexKey(byte tag, BigDecimal number, String text, boolean upperBound) {
+        this.tag = tag;
+        this.number = number;
+        this.text = text;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * 由列值创建键；numericColumn为true时能解析为数字的值编码为数值键
+     */
+    public static IndexKey of(Object value, boolean numericColumn) {
+        return of(value, numericColumn, MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * 由列值创建键，文本最多保留maxTextLength个字符（多列索引按列数分摊键长度）
+     */
+    public static IndexKey of(Object value, boolean numericColumn, int maxTextLength) {
+        if (value == null) {
+            return new IndexKey();
+        }
+        String str = value.toString();
+        if (numericColumn) {
+            BigDecimal parsed = parseNumber(str);
+            if (parsed != null && parsed.toString().length() <= maxTextLength) {
+                return new IndexKey(TAG_NUMBER, parsed, null, false);
+            }
+        }
+        return new IndexKey(TAG_TEXT, null, truncate(str, maxTextLength), false);
+    }
+
+    /**
+     * 所有NULL键
+     */
+    public static IndexKey nullKey() {
+        return new IndexKey();
+    }
+
+    /**
+     * 数值键的下界（小于所有数值键）
+     */
+    public static IndexKey minNumber() {
+        return new IndexKey(TAG_NUMBER, null, null, false);
+    }
+
+    /**
+     * 数值键的上界（大于所有数值键）
+     */
+    public static IndexKey maxNumber() {
+        return new IndexKey(TAG_NUMBER, null, null, true);
+    }
+
+    /**
+     * 文本键的下界（即空字符串）
+     */
+    public static IndexKey minText() {
+        return new IndexKey(TAG_TEXT, null, "", false);
+    }
+
+    /**
+     * 文本键的上界（大于所有文本键）
+     */
+    public static IndexKey maxText() {
+        return new IndexKey(TAG_TEXT, null, "", true);
+    }
+
+    /**
+     * 解析数字，不是数字时返回null
+     */
+    public static BigDecimal parseNumber(String str) {
+        if (str == null || str.isEmpty()) {
+            return null;
+        }
+        char first = str.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null; // 快速排除普通文本，避免异常开销
+        }
+        try {
+            return new BigDecimal(str.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 截断到索引保留的长度；比较截断值时相等意味着"可能相等"
+     */
+    public static String truncate(String str) {
+        return truncate(str, MAX_TEXT_LENGTH);
+    }
+
+    private static String truncate(String str, int maxLength) {
+        if (str.length() <= maxLength) {
+            return str;
+        }
+        int end = maxLength;
+        if (Character.isHighSurrogate(str.charAt(end - 1))) {
+            end--; // 不拆开代理对
+        }
+        return str.substring(0, end);
+    }
+
+    public boolean isNull() {
+        return tag == TAG_NULL;
+    }
+
+    public boolean isNumber() {
+        return tag == TAG_NUMBER;
+    }
+
+    @Override
+    public int compareTo(BPlusTreeKey other) {
+        IndexKey that = (IndexKey) other;
+        if (tag != that.tag) {
+            return Byte.compare(tag, that.tag);
+        }
+        if (upperBound || that.upperBound) {
+            return Boolean.compare(upperBound, that.upperBound);
+        }
+        switch (tag) {
+            case TAG_NUMBER:
+                if (number == null || that.number == null) {
+                    return number == null ? (that.number == null ? 0 : -1) : 1; // null为下界
+                }
+                return number.compareTo(that.number);
+            case TAG_TEXT:
+                return text.compareTo(that.text);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 文本键的分隔项取比lower大的最短前缀；数值键的十进制串没有保序的截断方式，保持不变
+     */
+    @Override
+    public BPlusTreeKey shortestSeparator(BPlusTreeKey lower) {
+        if (tag != TAG_TEXT || upperBound || !(lower instanceof IndexKey)) {
+            return this;
+        }
+        IndexKey that = (IndexKey) lower;
+        if (that.tag != TAG_TEXT || that.upperBound || that.text.compareTo(text) >= 0) {
+            return this;
+        }
+        int common = 0;
+        int max = Math.min(text.length(), that.text.length());
+        while (common < max && text.charAt(common) == that.text.charAt(common)) {
+            common++;
+        }
+        int end = common + 1;
+        if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end++; // 不拆开代理对
+        }
+        return end < text.length() ? new IndexKey(TAG_TEXT, null, text.substring(0, end), false) : this;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        byte[] content = contentBytes();
+        byte[] bytes = new byte[2 + content.length];
+        bytes[0] = tag;
+        bytes[1] = (byte) content.length;
+        System.arraycopy(content, 0, bytes, 2, content.length);
+        return bytes;
+    }
+
+    @Override
+    public void fromBytes(byte[] data, int offset) {
+        tag = data[offset];
+        int length = data[offset + 1] & 0xFF;
+        String content = new String(data, offset + 2, length, StandardCharsets.UTF_8);
+        number = tag == TAG_NUMBER ? new BigDecimal(content) : null;
+        text = tag == TAG_TEXT ? content : null;
+        upperBound = false;
+    }
+
+    @Override
+    public int getSize() {
+        return 2 + contentBytes().length;
+    }
+
+    private byte[] contentBytes() {
+        if (upperBound || (tag == TAG_NUMBER && number == null)) {
+            throw new IllegalStateException("Bound keys are not stored");
+        }
+        switch (tag) {
+            case TAG_NUMBER:
+                return number.toString().getBytes(StandardCharsets.UTF_8);
+            case TAG_TEXT:
+                return text.getBytes(StandardCharsets.UTF_8);
+            default:
+                return new byte[0];
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof IndexKey)) return false;
+        return compareTo((IndexKey) obj) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        switch (tag) {
+            case TAG_NUMBER:
+                return number == null ? 1 : number.stripTrailingZeros().hashCode();
+            case TAG_TEXT:
+                return text.hashCode();
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (upperBound) {
+            return tag == TAG_NUMBER ? "+INF" : "+TEXT";
+        }
+        switch (tag) {
+            case TAG_NUMBER:
+                return number == null ? "-INF" : number.toPlainString();
+            case TAG_TEXT:
+                return "'" + text + "'";
+            default:
+                return "NULL";
+        }
+    }
+}
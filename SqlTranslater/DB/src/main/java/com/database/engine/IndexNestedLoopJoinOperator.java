@@ -0,0 +1,86 @@
+package com.database.engine;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 索引嵌套循环连接运算符 - 外表（左边）逐行流过，每一行用连接键的值在内表（右边）的索引上查找匹配的行，
+ * 只读取索引给出的记录，不扫描内表；适合外表小、内表大且内表的连接列上有索引的连接
+ *
+ * 查找由调用方提供（B+树或哈希索引），每次只读取索引给出的行，返回的行只是候选，
+ * 拼接后的行还要检查完整的连接条件。连接结果的列是左边的列在前、右边的列在后。
+ */
+public class IndexNestedLoopJoinOperator implements Operator {
+    private final Operator outer;
+    private final int outerKey;
+    private final Function<Object, Iterator<Object[]>> lookup;
+    private final Predicate<Object[]> condition;
+    private final RowSchema schema;
+    private Object[] outerRow;
+    private Iterator<Object[]> matches;
+    private long lookups;
+
+    /**
+     * @param innerSchema 内表行的结构
+     * @param outerKey 连接键列在外表行中的序号
+     * @param lookup 由连接键的值（可能为null）得到内表候选行
+     * @param condition 在拼接后的行上检查的完整连接条件
+     */
+    public IndexNestedLoopJoinOperator(Operator outer, RowSchema innerSchema, int outerKey,
+                                       Function<Object, Iterator<Object[]>> lookup, Predicate<Object[]> condition) {
+        this.outer = outer;
+        this.outerKey = outerKey;
+        this.lookup = lookup;
+        this.condition = condition;
+        this.schema = outer.getSchema().concat(innerSchema);
+    }
+
+    @Override
+    public void open() {
+        outer.open();
+        outerRow = null;
+        matches = null;
+        lookups = 0;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        while (true) {
+            if (matches != null) {
+                while (matches.hasNext()) {
+                    Object[] joinedRow = NestedLoopJoinOperator.concat(outerRow, matches.next());
+                    if (condition.test(joinedRow)) {
+                        return joinedRow;
+                    }
+                }
+                matches = null;
+            }
+            outerRow = outer.next();
+            if (outerRow == null) {
+                return null;
+            }
+            matches = lookup.apply(outerRow[outerKey]);
+            lookups++;
+        }
+    }
+
+    @Override
+    public void close() {
+        outerRow = null;
+        matches = null;
+        outer.close();
+    }
+
+    /**
+     * 已经在内表上查找的次数
+     */
+    public long getLookups() {
+        return lookups;
+    }
+}
@@ -0,0 +1,43 @@
+package com.database.engine;
+
+/**
+ * LIMIT运算符 - 产生limit行后不再向下层拉取
+ */
+public class LimitOperator implements Operator {
+    private final Operator child;
+    private final int limit;
+    private int produced;
+
+    public LimitOperator(Operator child, int limit) {
+        this.child = child;
+        this.limit = limit;
+    }
+
+    @Override
+    public void open() {
+        produced = 0;
+        child.open();
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return child.getSchema();
+    }
+
+    @Override
+    public Object[] next() {
+        if (produced >= limit) {
+            return null;
+        }
+        Object[] row = child.next();
+        if (row != null) {
+            produced++;
+        }
+        return row;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
@@ -0,0 +1,120 @@
+package com.database.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 排序合并连接运算符 - 两边的行已经按连接键的索引键（{@link IndexKey}）顺序排列时（例如沿单列索引的游标读取），
+ * 同时向前推进两边，只在连接键相同的一组行之间拼接，不需要把任何一边整个读入内存
+ *
+ * 连接键按与索引相同的方式编码（NULL < 数值 < 文本，文本有截断），索引键相同只是连接条件成立的必要条件，
+ * 拼接后的行还要检查完整的连接条件。右边每次只缓存键相同的一组行，输出按左边的顺序。
+ */
+public class MergeJoinOperator implements Operator {
+    private final Operator left;
+    private final Operator right;
+    private final int leftKey;
+    private final int rightKey;
+    private final boolean numericKeys;
+    private final Predicate<Object[]> condition;
+    private final RowSchema schema;
+
+    private Object[] leftRow;
+    private IndexKey leftRowKey;
+    private Object[] rightRow;
+    private IndexKey rightRowKey;
+    private List<Object[]> rightGroup; // 与当前左边行键相同的右边行
+    private IndexKey groupKey;
+    private int groupIndex;
+
+    /**
+     * @param leftKey 连接键列在左边行中的序号
+     * @param rightKey 连接键列在右边行中的序号
+     * @param numericKeys 连接键是否按数值列编码（与两边排序所用的索引一致）
+     * @param condition 在拼接后的行上检查的完整连接条件
+     */
+    public MergeJoinOperator(Operator left, Operator right, int leftKey, int rightKey, boolean numericKeys,
+                             Predicate<Object[]> condition) {
+        this.left = left;
+        this.right = right;
+        this.leftKey = leftKey;
+        this.rightKey = rightKey;
+        this.numericKeys = numericKeys;
+        this.condition = condition;
+        this.schema = left.getSchema().concat(right.getSchema());
+    }
+
+    @Override
+    public void open() {
+        left.open();
+        right.open();
+        advanceLeft();
+        advanceRight();
+        rightGroup = null;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        while (true) {
+            if (rightGroup != null) {
+                if (groupIndex < rightGroup.size()) {
+                    Object[] joinedRow = NestedLoopJoinOperator.concat(leftRow, rightGroup.get(groupIndex++));
+                    if (condition.test(joinedRow)) {
+                        return joinedRow;
+                    }
+                    continue;
+                }
+                // 下一个左边行的键仍相同时与同一组右边行拼接
+                advanceLeft();
+                if (leftRow != null && leftRowKey.compareTo(groupKey) == 0) {
+                    groupIndex = 0;
+                } else {
+                    rightGroup = null;
+                }
+                continue;
+            }
+            if (leftRow == null || rightRow == null) {
+                return null;
+            }
+            int cmp = leftRowKey.compareTo(rightRowKey);
+            if (cmp < 0) {
+                advanceLeft();
+            } else if (cmp > 0) {
+                advanceRight();
+            } else {
+                groupKey = rightRowKey;
+                rightGroup = new ArrayList<>();
+                while (rightRow != null && rightRowKey.compareTo(groupKey) == 0) {
+                    rightGroup.add(rightRow);
+                    advanceRight();
+                }
+                groupIndex = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        leftRow = null;
+        rightRow = null;
+        rightGroup = null;
+        left.close();
+        right.close();
+    }
+
+    private void advanceLeft() {
+        leftRow = left.next();
+        leftRowKey = leftRow == null ? null : IndexKey.of(leftRow[leftKey], numericKeys);
+    }
+
+    private void advanceRight() {
+        rightRow = right.next();
+        rightRowKey = rightRow == null ? null : IndexKey.of(rightRow[rightKey], numericKeys);
+    }
+}
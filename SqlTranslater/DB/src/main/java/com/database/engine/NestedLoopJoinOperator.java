@@ -0,0 +1,87 @@
+package com.database.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 嵌套循环连接运算符 - 内表（右边）在open()时读入内存，外表（左边）逐行流过，
+ * 每个外表行与全部内表行拼接后检查连接条件（连接结果的列是左边的列在前、右边的列在后）
+ */
+public class NestedLoopJoinOperator implements Operator {
+    private final Operator left;
+    private final Operator right;
+    private final Predicate<Object[]> condition;
+    private final RowSchema schema;
+    private List<Object[]> rightRows;
+    private Object[] leftRow;
+    private int rightIndex;
+
+    /**
+     * @param condition 在拼接后的行上检查的连接条件
+     */
+    public NestedLoopJoinOperator(Operator left, Operator right, Predicate<Object[]> condition) {
+        this.left = left;
+        this.right = right;
+        this.condition = condition;
+        this.schema = left.getSchema().concat(right.getSchema());
+    }
+
+    @Override
+    public void open() {
+        rightRows = new ArrayList<>();
+        right.open();
+        try {
+            Object[] row;
+            while ((row = right.next()) != null) {
+                rightRows.add(row);
+            }
+        } finally {
+            right.close();
+        }
+        left.open();
+        leftRow = null;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        while (true) {
+            if (leftRow == null) {
+                leftRow = left.next();
+                if (leftRow == null) {
+                    return null;
+                }
+                rightIndex = 0;
+            }
+            while (rightIndex < rightRows.size()) {
+                Object[] joinedRow = concat(leftRow, rightRows.get(rightIndex++));
+                if (condition.test(joinedRow)) {
+                    return joinedRow;
+                }
+            }
+            leftRow = null;
+        }
+    }
+
+    /**
+     * 拼接左右两行
+     */
+    static Object[] concat(Object[] leftRow, Object[] rightRow) {
+        Object[] joinedRow = new Object[leftRow.length + rightRow.length];
+        System.arraycopy(leftRow, 0, joinedRow, 0, leftRow.length);
+        System.arraycopy(rightRow, 0, joinedRow, leftRow.length, rightRow.length);
+        return joinedRow;
+    }
+
+    @Override
+    public void close() {
+        rightRows = null;
+        left.close();
+        right.close();
+    }
+}
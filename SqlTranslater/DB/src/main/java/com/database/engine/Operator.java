@@ -0,0 +1,34 @@
+package com.database.engine;
+
+/**
+ * 查询运算符 - 火山模型（Volcano）的拉取式迭代器
+ *
+ * 上层运算符每调用一次next()，下层就产生一行，需要时再向自己的下层拉取。
+ * 只有排序、聚合这类必须看到全部输入的运算符才缓存行，扫描、过滤、投影、LIMIT都逐行流过，
+ * 因此LIMIT取够行数后整个管道随即停止读取。
+ * 使用顺序：open() → 反复调用next()直到返回null → close()；close()同时关闭下层运算符。
+ * 行是按列序号存放值的Object[]，列名由{@link RowSchema}给出；行结构在构建运算符时确定，
+ * 上层在构建查询计划时按列名查找一次列序号，之后只按序号读取。
+ */
+public interface Operator {
+
+    /**
+     * 准备产生行（打开下层运算符、初始化状态）
+     */
+    void open();
+
+    /**
+     * 产生的行的结构（构建后即可调用，不需要先open()）
+     */
+    RowSchema getSchema();
+
+    /**
+     * 下一行，没有更多行时返回null
+     */
+    Object[] next();
+
+    /**
+     * 释放资源并关闭下层运算符，可以重复调用
+     */
+    void close();
+}
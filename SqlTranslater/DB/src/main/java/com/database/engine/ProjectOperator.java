@@ -0,0 +1,48 @@
+package com.database.engine;
+
+/**
+ * 投影运算符 - 按构建时查好的列序号从每一行中取出SELECT列表中的列
+ */
+public class ProjectOperator implements Operator {
+    private final Operator child;
+    private final RowSchema schema;
+    private final int[] ordinals;
+
+    /**
+     * @param schema 输出行的结构
+     * @param ordinals 输出的各列在下层行中的序号；为-1时输出"NULL"（下层没有这一列）
+     */
+    public ProjectOperator(Operator child, RowSchema schema, int[] ordinals) {
+        this.child = child;
+        this.schema = schema;
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        Object[] row = child.next();
+        if (row == null) {
+            return null;
+        }
+        Object[] projected = new Object[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            projected[i] = ordinals[i] >= 0 ? row[ordinals[i]] : "NULL";
+        }
+        return projected;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
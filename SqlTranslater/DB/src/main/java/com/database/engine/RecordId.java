@@ -0,0 +1,67 @@
+package com.database.engine;
+
+/**
+ * 记录标识符 - 由(页号, 槽号)唯一定位堆文件中的一条记录
+ * 槽号在页内压缩时保持不变，因此记录ID在记录被删除前始终有效
+ */
+public final class RecordId implements Comparable<RecordId> {
+    private final int pageId;
+    private final int slot;
+
+    public RecordId(int pageId, int slot) {
+        this.pageId = pageId;
+        this.slot = slot;
+    }
+
+    public int getPageId() {
+        return pageId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * 编码为一个long，便于在索引中以原始类型保存
+     */
+    public long toLong() {
+        return ((long) pageId << 32) | (slot & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 从long解码记录ID
+     */
+    public static RecordId fromLong(long value) {
+        return new RecordId((int) (value >>> 32), (int) value);
+    }
+
+    @Override
+    public int compareTo(RecordId other) {
+        if (pageId != other.pageId) {
+            return Integer.compare(pageId, other.pageId);
+        }
+        return Integer.compare(slot, other.slot);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RecordId)) {
+            return false;
+        }
+        RecordId other = (RecordId) obj;
+        return pageId == other.pageId && slot == other.slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * pageId + slot;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + pageId + ", " + slot + ")";
+    }
+}
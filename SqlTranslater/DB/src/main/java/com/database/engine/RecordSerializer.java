@@ -0,0 +1,274 @@
+package com.database.engine;
+
+import com.sqlcompiler.catalog.*;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 记录序列化器 - 按表结构把记录编码为紧凑的二进制格式
+ *
+ * 记录布局（按列的定义顺序）：
+ * <pre>
+ * | 空值位图 | 文本位图 | 列1 | 列2 | ... |
+ * </pre>
+ * 定长类型（INT、BIGINT、FLOAT/DOUBLE、BOOLEAN）直接以原始字节存储；
+ * 其他类型以2字节长度 + UTF-8字节存储。
+ * 定长列的值只有在能无损往返（例如"42"而不是"042"）时才按原始类型编码，
+ * 否则在文本位图中标记并退化为变长文本，保证读回的值与写入时完全一致。
+ */
+public class RecordSerializer {
+    private static final byte TYPE_TEXT = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+
+    private final String[] columnNames;
+    private final String[] lowerCaseNames;
+    private final byte[] columnTypes;
+    private final int bitmapSize;
+
+    public RecordSerializer(Collection<ColumnInfo> columns) {
+        int count = columns.size();
+        this.columnNames = new String[count];
+        this.lowerCaseNames = new String[count];
+        this.columnTypes = new byte[count];
+        this.bitmapSize = (count + 7) / 8;
+
+        int i = 0;
+        for (ColumnInfo column : columns) {
+            columnNames[i] = column.getName();
+            lowerCaseNames[i] = column.getName().toLowerCase();
+            columnTypes[i] = resolveType(column.getDataType());
+            i++;
+        }
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    public List<String> getColumnNames() {
+        return Arrays.asList(columnNames);
+    }
+
+    /**
+     * 编码记录；记录中不属于表结构的键会被忽略
+     */
+    public byte[] serialize(Map<String, Object> record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        byte[] nullBitmap = new byte[bitmapSize];
+        byte[] textBitmap = new byte[bitmapSize];
+        byte[][] encoded = new byte[columnNames.length][];
+
+        for (int i = 0; i < columnNames.length; i++) {
+            Object value = record.get(columnNames[i]);
+            if (value == null && !columnNames[i].equals(lowerCaseNames[i])) {
+                value = record.get(lowerCaseNames[i]);
+            }
+            if (value == null) {
+                nullBitmap[i >> 3] |= (byte) (1 << (i & 7));
+                continue;
+            }
+
+            String text = value.toString();
+            byte[] fixed = encodeFixed(columnTypes[i], text);
+            if (fixed != null) {
+                encoded[i] = fixed;
+            } else {
+                if (columnTypes[i] != TYPE_TEXT) {
+                    textBitmap[i >> 3] |= (byte) (1 << (i & 7));
+                }
+                encoded[i] = encodeText(text);
+            }
+        }
+
+        out.write(nullBitmap, 0, bitmapSize);
+        out.write(textBitmap, 0, bitmapSize);
+        for (byte[] field : encoded) {
+            if (field != null) {
+                out.write(field, 0, field.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 直接从页面字节中解码记录，不复制记录字节
+     */
+    public Map<String, Object> deserialize(byte[] buffer, int offset, int length) {
+        return deserialize(ByteBuffer.wrap(buffer), offset, length);
+    }
+
+    /**
+     * 直接从页面缓冲区（可以是堆外帧）中按绝对位置解码记录，不改变缓冲区的position
+     */
+    public Map<String, Object> deserialize(ByteBuffer buffer, int offset, int length) {
+        Object[] row = deserializeRow(buffer, offset, length);
+        Map<String, Object> record = new HashMap<>(columnNames.length * 2);
+        for (int i = 0; i < columnNames.length; i++) {
+            record.put(columnNames[i], row[i]);
+        }
+        return record;
+    }
+
+    /**
+     * 解码为按列定义顺序存放值的数组（与getColumnNames()对应），不建立列名到值的映射
+     */
+    public Object[] deserializeRow(ByteBuffer buffer, int offset, int length) {
+        Object[] row = new Object[columnNames.length];
+        int end = offset + length;
+        int nullBitmapStart = offset;
+        int textBitmapStart = offset + bitmapSize;
+        int position = offset + bitmapSize * 2;
+
+        for (int i = 0; i < columnNames.length; i++) {
+            if ((buffer.get(nullBitmapStart + (i >> 3)) & (1 << (i & 7))) != 0) {
+                continue;
+            }
+
+            byte type = columnTypes[i];
+            if ((buffer.get(textBitmapStart + (i >> 3)) & (1 << (i & 7))) != 0) {
+                type = TYPE_TEXT;
+            }
+
+            switch (type) {
+                case TYPE_INT:
+                    row[i] = Integer.toString(buffer.getInt(position));
+                    position += 4;
+                    break;
+                case TYPE_LONG:
+                    row[i] = Long.toString(buffer.getLong(position));
+                    position += 8;
+                    break;
+                case TYPE_DOUBLE:
+                    row[i] = Double.toString(Double.longBitsToDouble(buffer.getLong(position)));
+                    position += 8;
+                    break;
+                case TYPE_BOOLEAN:
+                    row[i] = buffer.get(position) != 0 ? "true" : "false";
+                    position += 1;
+                    break;
+                default:
+                    int textLength = buffer.getShort(position) & 0xFFFF;
+                    position += 2;
+                    row[i] = readText(buffer, position, textLength);
+                    position += textLength;
+                    break;
+            }
+
+            if (position > end) {
+                throw new IllegalStateException("记录数据已损坏");
+            }
+        }
+        return row;
+    }
+
+    public Map<String, Object> deserialize(byte[] recordBytes) {
+        return deserialize(recordBytes, 0, recordBytes.length);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static byte resolveType(String dataType) {
+        if (dataType == null) {
+            return TYPE_TEXT;
+        }
+        switch (dataType.toUpperCase()) {
+            case "INT":
+            case "INTEGER":
+            case "SMALLINT":
+            case "TINYINT":
+                return TYPE_INT;
+            case "BIGINT":
+            case "LONG":
+                return TYPE_LONG;
+            case "FLOAT":
+            case "DOUBLE":
+            case "REAL":
+                return TYPE_DOUBLE;
+            case "BOOLEAN":
+            case "BOOL":
+                return TYPE_BOOLEAN;
+            default:
+                return TYPE_TEXT;
+        }
+    }
+
+    /**
+     * 尝试按定长类型编码，只有能无损往返时才返回结果
+     */
+    private static byte[] encodeFixed(byte type, String text) {
+        try {
+            switch (type) {
+                case TYPE_INT: {
+                    int value = Integer.parseInt(text);
+                    if (!Integer.toString(value).equals(text)) {
+                        return null;
+                    }
+                    byte[] bytes = new byte[4];
+                    HeapPage.writeInt(bytes, 0, value);
+                    return bytes;
+                }
+                case TYPE_LONG: {
+                    long value = Long.parseLong(text);
+                    if (!Long.toString(value).equals(text)) {
+                        return null;
+                    }
+                    byte[] bytes = new byte[8];
+                    writeLong(bytes, 0, value);
+                    return bytes;
+                }
+                case TYPE_DOUBLE: {
+                    double value = Double.parseDouble(text);
+                    if (!Double.toString(value).equals(text)) {
+                        return null;
+                    }
+                    byte[] bytes = new byte[8];
+                    writeLong(bytes, 0, Double.doubleToLongBits(value));
+                    return bytes;
+                }
+                case TYPE_BOOLEAN:
+                    if ("true".equals(text)) {
+                        return new byte[] {1};
+                    } else if ("false".equals(text)) {
+                        return new byte[] {0};
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] encodeText(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > 0xFFFF) {
+            throw new IllegalArgumentException("字段值过长: " + utf8.length + " 字节");
+        }
+        byte[] bytes = new byte[utf8.length + 2];
+        HeapPage.writeShort(bytes, 0, utf8.length);
+        System.arraycopy(utf8, 0, bytes, 2, utf8.length);
+        return bytes;
+    }
+
+    private static String readText(ByteBuffer buffer, int position, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        }
+        byte[] utf8 = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(byte[] buffer, int position, long value) {
+        HeapPage.writeInt(buffer, position, (int) (value >>> 32));
+        HeapPage.writeInt(buffer, position + 4, (int) value);
+    }
+}
@@ -0,0 +1,107 @@
+package com.database.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行结构 - 运算符之间传递的行是按列序号存放值的Object[]，行结构给出各序号的列名
+ *
+ * 列名可以带表别名前缀（"u.name"）。查找列序号时先按完整列名匹配，没有时按"前缀.列名"的后缀匹配，
+ * 因此不带前缀的列名也能找到连接后的列。列序号在构建查询计划时查找一次，之后按序号读取行中的值。
+ */
+public final class RowSchema {
+    private final String[] columns;
+    private final Map<String, Integer> ordinals;
+
+    public RowSchema(List<String> columns) {
+        this.columns = columns.toArray(new String[0]);
+        this.ordinals = new HashMap<>(this.columns.length * 2);
+        for (int i = this.columns.length - 1; i >= 0; i--) {
+            ordinals.put(this.columns[i], i); // 重名时取第一个
+        }
+    }
+
+    /**
+     * 表的列加上前缀（表别名）后的行结构，prefix为null时保持原列名
+     */
+    public static RowSchema of(List<String> columns, String prefix) {
+        if (prefix == null) {
+            return new RowSchema(columns);
+        }
+        List<String> prefixed = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            prefixed.add(prefix + "." + column);
+        }
+        return new RowSchema(prefixed);
+    }
+
+    /**
+     * 连接后的行结构：本结构的列在前，other的列在后
+     */
+    public RowSchema concat(RowSchema other) {
+        List<String> combined = new ArrayList<>(Arrays.asList(columns));
+        combined.addAll(Arrays.asList(other.columns));
+        return new RowSchema(combined);
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    public String getColumn(int ordinal) {
+        return columns[ordinal];
+    }
+
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    /**
+     * 列序号：先按完整列名匹配，再按"前缀.列名"匹配
+     * @return 没有这一列时返回-1
+     */
+    public int indexOf(String column) {
+        Integer ordinal = ordinals.get(column);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        String suffix = "." + column;
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].endsWith(suffix)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按列名把行转换为Map（查询结果和需要列名的旧接口使用）
+     */
+    public Map<String, Object> toMap(Object[] row) {
+        Map<String, Object> map = new HashMap<>(columns.length * 2);
+        for (int i = 0; i < columns.length; i++) {
+            map.put(columns[i], row[i]);
+        }
+        return map;
+    }
+
+    /**
+     * 按列名从Map中取值组成行，缺少的列为null
+     */
+    public Object[] fromMap(Map<String, Object> record) {
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = record.get(columns[i]);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(columns);
+    }
+}
@@ -0,0 +1,57 @@
+package com.database.engine;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * 扫描运算符 - 从表扫描、索引查找等行来源逐行取出记录
+ *
+ * 记录按表的列顺序存放值，直接向上层传递；表别名只体现在行结构的列名前缀上，不复制行。
+ */
+public class ScanOperator implements Operator {
+    private final Supplier<Iterator<Object[]>> source;
+    private final RowSchema schema;
+    private Iterator<Object[]> iterator;
+    private long rowsRead;
+
+    /**
+     * @param source open()时调用，返回逐行产生记录的迭代器
+     * @param schema 记录的结构（列名已加上表别名前缀）
+     */
+    public ScanOperator(Supplier<Iterator<Object[]>> source, RowSchema schema) {
+        this.source = source;
+        this.schema = schema;
+    }
+
+    @Override
+    public void open() {
+        iterator = source.get();
+        rowsRead = 0;
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        if (iterator == null || !iterator.hasNext()) {
+            return null;
+        }
+        rowsRead++;
+        return iterator.next();
+    }
+
+    @Override
+    public void close() {
+        iterator = null;
+    }
+
+    /**
+     * 已经从来源读取的行数
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+}
@@ -0,0 +1,86 @@
+package com.database.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 排序运算符 - open()时读完下层的全部行再按顺序产生
+ *
+ * 知道后面的LIMIT时只保留前limit行（大小为limit的堆），内存与LIMIT成正比而不是与输入行数成正比。
+ * 排序是稳定的：比较相等的行保持输入顺序。
+ */
+public class SortOperator implements Operator {
+    private final Operator child;
+    private final Comparator<Object[]> comparator;
+    private final int limit; // 大于0时只需要前limit行
+    private Iterator<Object[]> sorted;
+
+    public SortOperator(Operator child, Comparator<Object[]> comparator, int limit) {
+        this.child = child;
+        this.comparator = comparator;
+        this.limit = limit;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        List<Object[]> rows = new ArrayList<>();
+        if (limit > 0) {
+            // 堆顶是目前保留的行中排在最后的一行，输入序号参与比较以保持稳定
+            Comparator<SequencedRow> order = (a, b) -> {
+                int cmp = comparator.compare(a.row, b.row);
+                return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+            };
+            PriorityQueue<SequencedRow> heap = new PriorityQueue<>(limit + 1, order.reversed());
+            long sequence = 0;
+            Object[] row;
+            while ((row = child.next()) != null) {
+                heap.add(new SequencedRow(row, sequence++));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<SequencedRow> kept = new ArrayList<>(heap);
+            kept.sort(order);
+            for (SequencedRow sequencedRow : kept) {
+                rows.add(sequencedRow.row);
+            }
+        } else {
+            Object[] row;
+            while ((row = child.next()) != null) {
+                rows.add(row);
+            }
+            rows.sort(comparator);
+        }
+        sorted = rows.iterator();
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return child.getSchema();
+    }
+
+    @Override
+    public Object[] next() {
+        return sorted != null && sorted.hasNext() ? sorted.next() : null;
+    }
+
+    @Override
+    public void close() {
+        sorted = null;
+        child.close();
+    }
+
+    private static final class SequencedRow {
+        final Object[] row;
+        final long sequence;
+
+        SequencedRow(Object[] row, long sequence) {
+            this.row = row;
+            this.sequence = sequence;
+        }
+    }
+}
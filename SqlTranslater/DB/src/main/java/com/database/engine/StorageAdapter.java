@@ -5,6 +5,11 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import com.database.storage.BufferPoolManager;
+import com.database.storage.CacheStats;
+import com.database.storage.PageStore;
+import com.database.storage.ReplacementPolicy;
+import com.database.storage.WriteMode;
 import com.sqlcompiler.catalog.*;
 
 /**
@@ -12,24 +17,26 @@ import com.sqlcompiler.catalog.*;
  * 将高级存储系统接口适配为数据库引擎所需的接口
  */
 public class StorageAdapter {
-    // Java存储系统组件（导入外部包）
-    private Object bufferPoolManager;
-    private Object diskManager;
     private final String dataDirectory;
     private final Map<String, TableStorageInfo> tableStorageMap;
-    private final Map<String, Integer> nextPageIdMap;
     
     // 列式存储引擎
     private final ColumnarStorageEngine columnarStorageEngine;
     
-    // 存储系统配置
+    // 存储系统配置（每个行式存储表文件拥有一个缓冲池）
     private static final int BUFFER_POOL_SIZE = 50;
-    private static final String REPLACEMENT_POLICY = "LRU";
+    private static final ReplacementPolicy REPLACEMENT_POLICY = ReplacementPolicy.LRU;
+    private static final int READ_AHEAD_PAGES = 16; // 顺序扫描时的预读窗口
+    private static final String INDEX_FILE_SUFFIX = ".idx";
+    private static final String HASH_FILE_SUFFIX = ".hash"; // USING HASH索引的可扩展哈希文件
+    private static final String INDEX_CATALOG_TABLE = "__system_indexes__"; // 索引定义系统表
+    private volatile boolean memoryMappedReads; // 是否以内存映射方式读取表文件
+    private volatile boolean offHeapBufferPool; // 缓冲池帧是否分配在堆外直接内存中
+    private HeapFile indexCatalog; // 延迟打开
     
     public StorageAdapter(String dataDirectory) {
         this.dataDirectory = dataDirectory;
         this.tableStorageMap = new HashMap<>();
-        this.nextPageIdMap = new HashMap<>();
         this.columnarStorageEngine = new ColumnarStorageEngine(dataDirectory);
         
         // 确保数据目录存在
@@ -38,16 +45,6 @@ public class StorageAdapter {
             dir.mkdirs();
         }
         
-        // 初始化存储系统（如果Java存储系统类在classpath中）
-        try {
-            initializeStorageSystem();
-        } catch (Exception e) {
-            System.err.println("警告：无法初始化高级存储系统，使用简单文件存储: " + e.getMessage());
-        }
-        
-        // 初始化系统表
-        initializeSystemTables();
-        
         // 自动发现并注册现有的表
         discoverAndRegisterExistingTables();
     }
@@ -60,28 +57,33 @@ public class StorageAdapter {
     }
     
     /**
-     * 初始化存储系统
+     * 开启或关闭内存映射读模式：行式表的缺页和列式表的列文件都直接从映射的页缓存读取
+     * 对之后打开的行式表生效
      */
-    private void initializeStorageSystem() {
-        try {
-            // 动态加载Java存储系统类
-            Class<?> replacementPolicyClass = Class.forName("ReplacementPolicy");
-            Class<?> bufferPoolManagerClass = Class.forName("BufferPoolManager");
-            
-            // 获取LRU枚举值
-            Object lruPolicy = Enum.valueOf((Class<Enum>) replacementPolicyClass, "LRU");
-            
-            // 创建BufferPoolManager实例
-            String dbFilename = dataDirectory + File.separator + "storage_system.db";
-            this.bufferPoolManager = bufferPoolManagerClass
-                .getConstructor(int.class, String.class, replacementPolicyClass)
-                .newInstance(BUFFER_POOL_SIZE, dbFilename, lruPolicy);
-                
-            System.out.println("高级存储系统初始化成功");
-        } catch (Exception e) {
-            System.out.println("使用简单文件存储系统");
-            this.bufferPoolManager = null;
-        }
+    public void setMemoryMappedReads(boolean enabled) {
+        this.memoryMappedReads = enabled;
+        columnarStorageEngine.setMemoryMappedReads(enabled);
+    }
+
+    /**
+     * 开启或关闭堆外缓冲池：帧分配在直接内存中，不占用Java堆、不参与GC扫描
+     * 对之后打开的行式表生效
+     */
+    public void setOffHeapBufferPool(boolean enabled) {
+        this.offHeapBufferPool = enabled;
+    }
+
+    /**
+     * 为表文件创建页面存储（缓冲池）
+     */
+    private PageStore createPageStore(String filePath) {
+        BufferPoolManager bufferPool = new BufferPoolManager(BUFFER_POOL_SIZE, filePath, REPLACEMENT_POLICY,
+            offHeapBufferPool);
+        bufferPool.setLoggingEnabled(false);
+        bufferPool.setWriteMode(WriteMode.WRITE_BACK); // 语句结束时统一刷新，一次fsync
+        bufferPool.setMemoryMapped(memoryMappedReads);
+        bufferPool.setReadAhead(READ_AHEAD_PAGES);
+        return bufferPool;
     }
     
     /**
@@ -108,21 +110,37 @@ public class StorageAdapter {
      */
     private boolean createRowStorageTable(String tableName, TableInfo tableInfo) {
         try {
-            // 创建表存储信息
-            TableStorageInfo storageInfo = new TableStorageInfo(tableName);
+            // 创建堆文件（头部页写入表元数据）
+            closeHeapFile(tableName);
+            HeapFile heapFile = HeapFile.create(getTableFilePath(tableName), tableInfo, this::createPageStore);
+            TableStorageInfo storageInfo = new TableStorageInfo(tableName, heapFile);
             tableStorageMap.put(tableName, storageInfo);
-            nextPageIdMap.put(tableName, 1);
             
-            // 创建表文件
-            String tableFile = getTableFilePath(tableName);
-            File file = new File(tableFile);
-            if (!file.exists()) {
-                file.createNewFile();
+            // 主键和唯一约束列自动建立B+树索引，索引名与列名相同
+            deleteIndexFiles(tableName);
+            removeIndexDefinitions(tableName, null);
+            Set<String> indexedColumns = new LinkedHashSet<>();
+            for (ColumnInfo column : tableInfo.getColumns()) {
+                if (column.isPrimaryKey() || column.isUnique()) {
+                    indexedColumns.add(column.getName());
+                }
+            }
+            for (ConstraintInfo constraint : tableInfo.getConstraints()) {
+                if ((constraint.getType() == ConstraintInfo.ConstraintType.PRIMARY_KEY
+                        || constraint.getType() == ConstraintInfo.ConstraintType.UNIQUE)
+                        && constraint.getColumns() != null && constraint.getColumns().size() == 1) {
+                    indexedColumns.add(constraint.getColumns().get(0));
+                }
+            }
+            for (String columnName : indexedColumns) {
+                IndexInfo info = new IndexInfo(columnName, tableName, Collections.singletonList(columnName),
+                                               false, IndexInfo.IndexMethod.BTREE);
+                TableIndex index = openIndex(tableName, info, heapFile);
+                if (index != null) {
+                    storageInfo.getIndexes().add(index);
+                    saveIndexDefinition(info);
+                }
             }
-            
-            // 写入表元数据到文件头
-            writeTableMetadata(tableFile, tableInfo);
-            
             return true;
         } catch (Exception e) {
             System.err.println("创建行式存储表失败: " + e.getMessage());
@@ -135,26 +153,35 @@ public class StorageAdapter {
      */
     public boolean insertRecord(String tableName, Map<String, Object> record) {
         try {
-            // 检查是否为列式存储表
-            if (isColumnarStorageTable(tableName)) {
-                return columnarStorageEngine.insertRecord(tableName, record);
-            }
-            
-            TableStorageInfo storageInfo = tableStorageMap.get(tableName);
-            if (storageInfo == null) {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
+                // 检查是否为列式存储表
+                if (isColumnarStorageTable(tableName)) {
+                    return columnarStorageEngine.insertRecord(tableName, record);
+                }
                 return false;
             }
             
-            // 序列化记录
-            String serializedRecord = serializeRecord(record);
+            List<TableIndex> indexes = tableStorageMap.get(tableName).getIndexes();
+            for (TableIndex index : indexes) {
+                if (index.isUnique() && index.containsDuplicate(record, heapFile)) {
+                    System.err.println("插入记录失败: 违反唯一索引 " + index.getName());
+                    return false;
+                }
+            }
             
-            if (bufferPoolManager != null) {
-                // 使用高级存储系统
-                return insertRecordWithBufferPool(tableName, serializedRecord);
-            } else {
-                // 使用简单文件存储
-                return insertRecordWithFileStorage(tableName, serializedRecord);
+            RecordId recordId = heapFile.insert(record);
+            int updated = 0;
+            try {
+                for (TableIndex index : indexes) {
+                    updated++; // 失败的索引可能已写入部分索引项，回滚时一并删除
+                    index.insert(record, recordId);
+                }
+            } catch (Exception e) {
+                rollbackInsert(heapFile, indexes.subList(0, updated), record, recordId);
+                throw e;
             }
+            return true;
             
         } catch (Exception e) {
             System.err.println("插入记录失败: " + e.getMessage());
@@ -162,6 +189,26 @@ public class StorageAdapter {
         }
     }
     
+    /**
+     * 撤销插入：与deleteRecord一样从堆文件和已更新的索引中删除刚插入的记录，
+     * 避免记录留在表中却缺少部分索引项（索引查找漏掉记录，唯一性检查放过重复值）
+     */
+    private void rollbackInsert(HeapFile heapFile, List<TableIndex> indexes, Map<String, Object> record,
+                                RecordId recordId) {
+        try {
+            heapFile.delete(recordId);
+        } catch (Exception e) {
+            System.err.println("撤销插入失败: " + e.getMessage());
+        }
+        for (TableIndex index : indexes) {
+            try {
+                index.delete(record, recordId);
+            } catch (Exception e) {
+                System.err.println("撤销索引 " + index.getName() + " 的插入失败: " + e.getMessage());
+            }
+        }
+    }
+    
     /**
      * 扫描表记录
      */
@@ -169,26 +216,16 @@ public class StorageAdapter {
         List<Map<String, Object>> records = new ArrayList<>();
         
         try {
-            // 检查是否为列式存储表
-            if (isColumnarStorageTable(tableName)) {
-                return columnarStorageEngine.scanTable(tableName);
-            }
-            
-            // 确保表已注册
-            ensureTableRegistered(tableName);
-            
-            TableStorageInfo storageInfo = tableStorageMap.get(tableName);
-            if (storageInfo == null) {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
+                // 检查是否为列式存储表
+                if (isColumnarStorageTable(tableName)) {
+                    return columnarStorageEngine.scanTable(tableName);
+                }
                 return records;
             }
             
-            if (bufferPoolManager != null) {
-                // 使用高级存储系统扫描
-                records = scanTableWithBufferPool(tableName);
-            } else {
-                // 使用简单文件存储扫描
-                records = scanTableWithFileStorage(tableName);
-            }
+            records = heapFile.scanAll();
             
         } catch (Exception e) {
             System.err.println("扫描表失败: " + e.getMessage());
@@ -198,37 +235,276 @@ public class StorageAdapter {
     }
     
     /**
-     * 删除记录
+     * 逐行拉取表记录：行式存储表按页读取，不会一次读入整张表；其他存储格式仍整体读出后逐行返回
+     */
+    public Iterator<Map<String, Object>> openScan(String tableName) {
+        HeapFile heapFile = getHeapFile(tableName);
+        if (heapFile != null) {
+            return heapFile.iterator();
+        }
+        return scanTable(tableName).iterator();
+    }
+
+    /**
+     * 表的列名，按openRowScan()和readRow()返回的数组中值的顺序；表不存在时返回空列表
+     */
+    public List<String> getColumnNames(String tableName) {
+        List<String> columnNames = new ArrayList<>();
+        for (ColumnInfo column : getColumns(tableName)) {
+            columnNames.add(column.getName());
+        }
+        return columnNames;
+    }
+    
+    /**
+     * 表的列定义，顺序与getColumnNames相同；表不存在时返回空列表
+     */
+    public List<ColumnInfo> getColumns(String tableName) {
+        HeapFile heapFile = getHeapFile(tableName);
+        if (heapFile != null) {
+            return heapFile.getColumns();
+        }
+        TableInfo columnarTable = columnarStorageEngine.getTableInfo(tableName);
+        return columnarTable != null ? new ArrayList<>(columnarTable.getColumns()) : Collections.emptyList();
+    }
+    
+    /**
+     * 与openScan()相同，但每条记录是按getColumnNames()顺序存放值的数组，不为每行建立Map
+     */
+    public Iterator<Object[]> openRowScan(String tableName) {
+        HeapFile heapFile = getHeapFile(tableName);
+        if (heapFile != null) {
+            return heapFile.rowIterator();
+        }
+        if (isColumnarStorageTable(tableName)) {
+            return columnarStorageEngine.scanRows(tableName, getColumnNames(tableName)).iterator();
+        }
+        return Collections.emptyIterator();
+    }
+    
+    /**
+     * 删除记录（删除第一条与给定记录完全相同的记录）
      */
     public boolean deleteRecord(String tableName, Map<String, Object> record) {
         try {
-            TableStorageInfo storageInfo = tableStorageMap.get(tableName);
-            if (storageInfo == null) {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
                 return false;
             }
             
-            if (bufferPoolManager != null) {
-                return deleteRecordWithBufferPool(tableName, record);
-            } else {
-                return deleteRecordWithFileStorage(tableName, record);
+            RecordId[] match = new RecordId[1];
+            heapFile.scan((recordId, current) -> {
+                if (recordsEqual(current, record)) {
+                    match[0] = recordId;
+                    return false;
+                }
+                return true;
+            });
+            
+            return match[0] != null && deleteRecord(tableName, match[0]);
+            
+        } catch (Exception e) {
+            System.err.println("删除记录失败: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 按记录ID删除记录，并从表的所有索引中删除对应的索引项
+     */
+    public boolean deleteRecord(String tableName, RecordId recordId) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
+                return false;
             }
             
+            Map<String, Object> record = heapFile.read(recordId);
+            if (record == null || !heapFile.delete(recordId)) {
+                return false;
+            }
+            for (TableIndex index : tableStorageMap.get(tableName).getIndexes()) {
+                index.delete(record, recordId);
+            }
+            return true;
+            
         } catch (Exception e) {
             System.err.println("删除记录失败: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * 按记录ID读取记录，记录不存在时返回null
+     */
+    public Map<String, Object> readRecord(String tableName, RecordId recordId) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            return heapFile == null ? null : heapFile.read(recordId);
+        } catch (Exception e) {
+            System.err.println("读取记录失败: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 按记录ID读取记录，值按getColumnNames()的顺序存放；记录不存在时返回null
+     */
+    public Object[] readRow(String tableName, RecordId recordId) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            return heapFile == null ? null : heapFile.readRow(recordId);
+        } catch (Exception e) {
+            System.err.println("读取记录失败: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 带记录ID扫描行式存储表
+     * @return 表不是行式存储表或扫描失败时返回false
+     */
+    public boolean scanTable(String tableName, HeapFile.RecordVisitor visitor) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
+                return false;
+            }
+            heapFile.scan(visitor);
+            return true;
+        } catch (Exception e) {
+            System.err.println("扫描表失败: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 获取列上的索引，没有时返回null
+     */
+    public TableIndex getIndex(String tableName, String columnName) {
+        if (getHeapFile(tableName) == null) {
+            return null;
+        }
+        for (TableIndex index : tableStorageMap.get(tableName).getIndexes()) {
+            if (index.getColumnName().equals(columnName)) {
+                return index;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 获取表上的全部索引，表不存在时返回空列表
+     */
+    public List<TableIndex> getIndexes(String tableName) {
+        if (getHeapFile(tableName) == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(tableStorageMap.get(tableName).getIndexes());
+    }
+    
+    /**
+     * 在行式存储表上创建索引，并用表中已有的记录构建索引
+     * @return 表不存在、不是行式存储表、索引名已存在、列不存在或唯一索引遇到重复值时返回false
+     */
+    public boolean createIndex(String tableName, IndexInfo info) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile == null) {
+                System.err.println("创建索引失败: " + tableName + " 不是行式存储表");
+                return false;
+            }
+            TableStorageInfo storageInfo = tableStorageMap.get(tableName);
+            if (findIndex(storageInfo, info.getName()) != null) {
+                System.err.println("创建索引失败: 索引 " + info.getName() + " 已存在");
+                return false;
+            }
+            
+            // 删除可能残留的同名索引文件
+            File indexFile = new File(getIndexFilePath(tableName, info.getName()));
+            File hashFile = new File(getHashFilePath(tableName, info.getName()));
+            if ((indexFile.exists() && !indexFile.delete()) || (hashFile.exists() && !hashFile.delete())) {
+                System.err.println("创建索引失败: 无法删除残留的索引文件 " + indexFile.getName());
+                return false;
+            }
+            TableIndex index = openIndex(tableName, info, heapFile);
+            if (index == null) {
+                return false;
+            }
+            
+            // 已有记录批量排序后自底向上建树，而不是逐条插入
+            if (!index.build(heapFile, new File(dataDirectory))) {
+                index.close();
+                indexFile.delete();
+                hashFile.delete();
+                System.err.println("创建唯一索引失败: " + info.getName() + " 的索引列中存在重复值");
+                return false;
+            }
+            
+            saveIndexDefinition(info);
+            storageInfo.getIndexes().add(index);
+            return index.flush();
+            
+        } catch (Exception e) {
+            System.err.println("创建索引失败: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 删除表上的索引及其索引文件
+     */
+    public boolean dropIndex(String tableName, String indexName) {
+        try {
+            if (getHeapFile(tableName) == null) {
+                return false;
+            }
+            TableStorageInfo storageInfo = tableStorageMap.get(tableName);
+            TableIndex index = findIndex(storageInfo, indexName);
+            if (index == null) {
+                return false;
+            }
+            
+            storageInfo.getIndexes().remove(index);
+            index.close();
+            removeIndexDefinitions(tableName, index.getName());
+            File indexFile = new File(getIndexFilePath(tableName, index.getName()));
+            File hashFile = new File(getHashFilePath(tableName, index.getName()));
+            if ((indexFile.exists() && !indexFile.delete()) || (hashFile.exists() && !hashFile.delete())) {
+                System.err.println("索引文件删除失败: " + indexFile.getName());
+                return false;
+            }
+            return true;
+            
+        } catch (Exception e) {
+            System.err.println("删除索引失败: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 获取表上全部索引的定义，不是行式存储表时返回空列表
+     */
+    public List<IndexInfo> getIndexDefinitions(String tableName) {
+        List<IndexInfo> definitions = new ArrayList<>();
+        if (getHeapFile(tableName) != null) {
+            for (TableIndex index : tableStorageMap.get(tableName).getIndexes()) {
+                definitions.add(index.getInfo());
+            }
+        }
+        return definitions;
+    }
+    
     /**
      * 获取表统计信息
      */
     public TableStats getTableStats(String tableName) {
-        TableStorageInfo storageInfo = tableStorageMap.get(tableName);
-        if (storageInfo == null) {
+        HeapFile heapFile = getHeapFile(tableName);
+        if (heapFile == null) {
             return null;
         }
         
-        int totalPages = nextPageIdMap.get(tableName) - 1;
+        int totalPages = heapFile.getDataPageCount();
         int totalRecords = 0;
         
         List<Map<String, Object>> records = scanTable(tableName);
@@ -237,14 +513,32 @@ public class StorageAdapter {
         return new TableStats(tableName, totalPages, totalRecords);
     }
     
+    /**
+     * 估计表的行数，不扫描整张表：行式存储表按第一个数据页的记录数乘以页数估计，列式存储表读取元数据中的行数
+     * @return 表不存在或读取失败时返回0
+     */
+    public long estimateRowCount(String tableName) {
+        try {
+            HeapFile heapFile = getHeapFile(tableName);
+            if (heapFile != null) {
+                return heapFile.estimateRecordCount();
+            }
+            return isColumnarStorageTable(tableName) ? columnarStorageEngine.getRowCount(tableName) : 0;
+        } catch (Exception e) {
+            System.err.println("估计表行数失败: " + e.getMessage());
+            return 0;
+        }
+    }
+    
     /**
      * 删除表
      */
     public boolean dropTable(String tableName) {
         try {
-            // 从内存中移除表信息
-            tableStorageMap.remove(tableName);
-            nextPageIdMap.remove(tableName);
+            // 关闭并移除堆文件和索引，删除索引文件
+            closeHeapFile(tableName);
+            deleteIndexFiles(tableName);
+            removeIndexDefinitions(tableName, null);
             
             // 删除表文件
             String tableFile = getTableFilePath(tableName);
@@ -270,43 +564,63 @@ public class StorageAdapter {
     }
     
     /**
-     * 获取缓存统计信息
+     * 关闭所有打开的堆文件
      */
-    public String getCacheStats() {
-        if (bufferPoolManager != null) {
+    public void close() {
+        for (String tableName : new ArrayList<>(tableStorageMap.keySet())) {
+            closeHeapFile(tableName);
+        }
+        if (indexCatalog != null) {
             try {
-                // 反射调用getCacheStats方法
-                Object stats = bufferPoolManager.getClass().getMethod("getStats").invoke(bufferPoolManager);
-                return stats.toString();
-            } catch (Exception e) {
-                return "缓存统计信息获取失败: " + e.getMessage();
+                indexCatalog.close();
+            } catch (IOException e) {
+                System.err.println("关闭索引系统表失败: " + e.getMessage());
+            }
+            indexCatalog = null;
+        }
+        columnarStorageEngine.close();
+    }
+    
+    /**
+     * 获取缓存统计信息（汇总所有行式存储表的缓冲池）
+     */
+    public String getCacheStats() {
+        if (tableStorageMap.isEmpty()) {
+            return "无打开的行式存储表 - 无缓存统计";
+        }
+        CacheStats total = new CacheStats();
+        for (TableStorageInfo storageInfo : tableStorageMap.values()) {
+            total.add(storageInfo.getHeapFile().getCacheStats());
+            for (TableIndex index : storageInfo.getIndexes()) {
+                total.add(index.getCacheStats());
             }
         }
-        return "简单文件存储系统 - 无缓存统计";
+        return total.toString();
     }
     
     /**
      * 刷新所有页面
      */
     public boolean flushAllPages() {
-        if (bufferPoolManager != null) {
-            try {
-                return (Boolean) bufferPoolManager.getClass().getMethod("flushAllPages").invoke(bufferPoolManager);
-            } catch (Exception e) {
-                System.err.println("刷新页面失败: " + e.getMessage());
-                return false;
+        boolean success = true;
+        for (TableStorageInfo storageInfo : tableStorageMap.values()) {
+            if (!storageInfo.flush()) {
+                success = false;
             }
         }
-        return true; // 文件存储自动刷新
+        return success;
     }
     
-    // ========== 私有辅助方法 ==========
-    
-    private void initializeSystemTables() {
-        tableStorageMap.put("__system_tables__", new TableStorageInfo("__system_tables__"));
-        nextPageIdMap.put("__system_tables__", 1);
+    /**
+     * 刷新单个表的脏页
+     */
+    public boolean flushTable(String tableName) {
+        TableStorageInfo storageInfo = tableStorageMap.get(tableName);
+        return storageInfo == null || storageInfo.flush();
     }
     
+    // ========== 私有辅助方法 ==========
+    
     /**
      * 自动发现并注册现有的表
      */
@@ -326,15 +640,8 @@ public class StorageAdapter {
                 String fileName = tblFile.getName();
                 String tableName = fileName.substring(0, fileName.lastIndexOf(".tbl"));
                 
-                // 跳过系统表
-                if (tableName.startsWith("__system_")) {
-                    continue;
-                }
-                
-                // 注册表到存储适配器
-                if (!tableStorageMap.containsKey(tableName)) {
-                    tableStorageMap.put(tableName, new TableStorageInfo(tableName));
-                    nextPageIdMap.put(tableName, 1);
+                // 注册表到存储适配器（系统表由StorageEngine管理，会被跳过）
+                if (!tableStorageMap.containsKey(tableName) && getHeapFile(tableName) != null) {
                     System.out.println("StorageAdapter发现并注册表: " + tableName);
                 }
             }
@@ -345,305 +652,226 @@ public class StorageAdapter {
     }
     
     /**
-     * 确保表已注册到存储适配器
+     * 获取表的堆文件，必要时打开已存在的表文件并注册
      */
-    private void ensureTableRegistered(String tableName) {
-        if (!tableStorageMap.containsKey(tableName)) {
-            // 检查表文件是否存在
-            String tableFile = getTableFilePath(tableName);
-            File file = new File(tableFile);
-            if (file.exists()) {
-                tableStorageMap.put(tableName, new TableStorageInfo(tableName));
-                nextPageIdMap.put(tableName, 1);
-                System.out.println("StorageAdapter动态注册表: " + tableName);
-            }
+    private HeapFile getHeapFile(String tableName) {
+        TableStorageInfo storageInfo = tableStorageMap.get(tableName);
+        if (storageInfo != null) {
+            return storageInfo.getHeapFile();
         }
-    }
-    
-    private String getTableFilePath(String tableName) {
-        return dataDirectory + File.separator + tableName + ".tbl";
-    }
-    
-    /**
-     * 检查表是否为列式存储
-     */
-    private boolean isColumnarStorageTable(String tableName) {
-        // 检查是否存在列式存储目录和元数据文件
-        String columnarDir = dataDirectory + File.separator + tableName;
-        String metaFile = columnarDir + File.separator + "metadata.txt";
-        File file = new File(metaFile);
         
+        // 系统表由StorageEngine以文本格式管理
+        if (tableName.startsWith("__system_")) {
+            return null;
+        }
+        
+        File file = new File(getTableFilePath(tableName));
         if (!file.exists()) {
-            return false;
+            return null;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("STORAGE_FORMAT=")) {
-                    String format = line.substring("STORAGE_FORMAT=".length());
-                    return "COLUMN".equalsIgnoreCase(format);
+        try {
+            HeapFile heapFile = HeapFile.open(file.getPath(), this::createPageStore);
+            TableStorageInfo opened = new TableStorageInfo(tableName, heapFile);
+            tableStorageMap.put(tableName, opened);
+            
+            // 按索引系统表中的定义重新打开表上的索引
+            for (IndexInfo info : loadIndexDefinitions(tableName)) {
+                TableIndex index = openIndex(tableName, info, heapFile);
+                if (index != null) {
+                    opened.getIndexes().add(index);
                 }
             }
+            return heapFile;
         } catch (IOException e) {
-            // 如果读取失败，假设是行式存储
+            System.err.println("打开表文件失败: " + tableName + " - " + e.getMessage());
+            return null;
         }
-        
-        return false;
     }
     
-    private void writeTableMetadata(String tableFile, TableInfo tableInfo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(tableFile))) {
-            writer.println("# Table Metadata");
-            writer.println("TABLE_NAME=" + tableInfo.getName());
-            writer.println("COLUMN_COUNT=" + tableInfo.getColumns().size());
-            
-            for (ColumnInfo column : tableInfo.getColumns()) {
-                writer.println("COLUMN=" + column.getName() + ":" + column.getDataType() + ":" + column.getLength());
+    private void closeHeapFile(String tableName) {
+        TableStorageInfo storageInfo = tableStorageMap.remove(tableName);
+        if (storageInfo != null) {
+            try {
+                for (TableIndex index : storageInfo.getIndexes()) {
+                    index.close();
+                }
+                storageInfo.getHeapFile().close();
+            } catch (IOException e) {
+                System.err.println("关闭表文件失败: " + tableName + " - " + e.getMessage());
             }
-            
-            writer.println("# End Metadata");
-            writer.println();
-        } catch (IOException e) {
-            System.err.println("写入表元数据失败: " + e.getMessage());
         }
     }
     
-    private String serializeRecord(Map<String, Object> record) {
-        StringBuilder sb = new StringBuilder();
-        boolean first = true;
-        
-        for (Map.Entry<String, Object> entry : record.entrySet()) {
-            if (!first) {
-                sb.append("|");
+    private String getTableFilePath(String tableName) {
+        return dataDirectory + File.separator + tableName + ".tbl";
+    }
+    
+    private String getIndexFilePath(String tableName, String indexName) {
+        return dataDirectory + File.separator + tableName + "." + indexName + INDEX_FILE_SUFFIX;
+    }
+    
+    private String getHashFilePath(String tableName, String indexName) {
+        return dataDirectory + File.separator + tableName + "." + indexName + HASH_FILE_SUFFIX;
+    }
+    
+    /**
+     * 打开（或创建）索引文件，USING HASH的单列索引还有一个可扩展哈希文件；索引列在表中不存在时返回null
+     */
+    private TableIndex openIndex(String tableName, IndexInfo info, HeapFile heapFile) {
+        List<ColumnInfo> columns = new ArrayList<>();
+        for (String columnName : info.getColumns()) {
+            ColumnInfo column = findColumn(heapFile, columnName);
+            if (column == null) {
+                System.err.println("打开索引失败: 表 " + tableName + " 中不存在列 " + columnName);
+                return null;
+            }
+            columns.add(column);
+        }
+        PageStore hashPageStore = null;
+        if (info.getMethod() == IndexInfo.IndexMethod.HASH && columns.size() == 1) {
+            hashPageStore = createPageStore(getHashFilePath(tableName, info.getName()));
+        }
+        return new TableIndex(info, columns, createPageStore(getIndexFilePath(tableName, info.getName())),
+            hashPageStore);
+    }
+    
+    private static TableIndex findIndex(TableStorageInfo storageInfo, String indexName) {
+        for (TableIndex index : storageInfo.getIndexes()) {
+            if (index.getName().equalsIgnoreCase(indexName)) {
+                return index;
             }
-            sb.append(entry.getKey()).append("=").append(entry.getValue());
-            first = false;
         }
-        
-        return sb.toString();
+        return null;
     }
     
-    private Map<String, Object> deserializeRecord(String recordData) {
-        Map<String, Object> record = new HashMap<>();
-        
-        try {
-            String[] pairs = recordData.split("\\|");
-            for (String pair : pairs) {
-                String[] keyValue = pair.split("=", 2);
-                if (keyValue.length == 2) {
-                    record.put(keyValue[0], keyValue[1]);
-                }
+    /**
+     * 索引定义系统表（行式堆文件），不存在时创建
+     */
+    private HeapFile getIndexCatalog() throws IOException {
+        if (indexCatalog == null) {
+            String filePath = getTableFilePath(INDEX_CATALOG_TABLE);
+            if (new File(filePath).exists()) {
+                indexCatalog = HeapFile.open(filePath, this::createPageStore);
+            } else {
+                TableInfo catalogInfo = new TableInfo(INDEX_CATALOG_TABLE);
+                catalogInfo.addColumn(new ColumnInfo("table_name", "VARCHAR", 255));
+                catalogInfo.addColumn(new ColumnInfo("index_name", "VARCHAR", 255));
+                catalogInfo.addColumn(new ColumnInfo("column_names", "VARCHAR", 1000));
+                catalogInfo.addColumn(new ColumnInfo("is_unique", "VARCHAR", 5));
+                catalogInfo.addColumn(new ColumnInfo("index_method", "VARCHAR", 10));
+                indexCatalog = HeapFile.create(filePath, catalogInfo, this::createPageStore);
             }
-        } catch (Exception e) {
-            return null;
         }
-        
-        return record;
+        return indexCatalog;
     }
     
-    // ========== 高级存储系统方法 ==========
-    
-    private boolean insertRecordWithBufferPool(String tableName, String serializedRecord) {
-        try {
-            // 查找合适的页面或分配新页面
-            int pageId = findOrAllocatePageForRecord(tableName, serializedRecord);
-            if (pageId == -1) {
-                return false;
-            }
-            
-            // 使用反射调用BufferPoolManager的方法
-            Object page = bufferPoolManager.getClass().getMethod("getPage", int.class).invoke(bufferPoolManager, pageId);
-            if (page == null) {
-                return false;
+    private List<IndexInfo> loadIndexDefinitions(String tableName) throws IOException {
+        List<IndexInfo> definitions = new ArrayList<>();
+        getIndexCatalog().scan((recordId, record) -> {
+            if (tableName.equals(record.get("table_name"))) {
+                definitions.add(new IndexInfo(
+                    (String) record.get("index_name"),
+                    tableName,
+                    Arrays.asList(((String) record.get("column_names")).split(",")),
+                    Boolean.parseBoolean((String) record.get("is_unique")),
+                    IndexInfo.IndexMethod.valueOf((String) record.get("index_method"))
+                ));
             }
-            
-            // 写入记录到页面（简化实现）
-            String existingData = (String) page.getClass().getMethod("readString").invoke(page);
-            String newData = existingData + serializedRecord + "\n";
-            
-            page.getClass().getMethod("writeString", String.class).invoke(page, newData);
-            bufferPoolManager.getClass().getMethod("unpinPage", int.class, boolean.class).invoke(bufferPoolManager, pageId, true);
-            
             return true;
-        } catch (Exception e) {
-            System.err.println("使用缓冲池插入记录失败: " + e.getMessage());
-            return false;
-        }
+        });
+        return definitions;
     }
     
-    private List<Map<String, Object>> scanTableWithBufferPool(String tableName) {
-        List<Map<String, Object>> records = new ArrayList<>();
-        
-        try {
-            // 扫描所有页面
-            for (int pageId = 1; pageId < nextPageIdMap.get(tableName); pageId++) {
-                Object page = bufferPoolManager.getClass().getMethod("getPage", int.class).invoke(bufferPoolManager, pageId);
-                if (page != null) {
-                    String data = (String) page.getClass().getMethod("readString").invoke(page);
-                    String[] lines = data.split("\n");
-                    
-                    for (String line : lines) {
-                        if (!line.trim().isEmpty()) {
-                            Map<String, Object> record = deserializeRecord(line.trim());
-                            if (record != null) {
-                                records.add(record);
-                            }
-                        }
-                    }
-                    
-                    bufferPoolManager.getClass().getMethod("unpinPage", int.class, boolean.class).invoke(bufferPoolManager, pageId, false);
-                }
+    private void saveIndexDefinition(IndexInfo info) throws IOException {
+        Map<String, Object> record = new HashMap<>();
+        record.put("table_name", info.getTableName());
+        record.put("index_name", info.getName());
+        record.put("column_names", String.join(",", info.getColumns()));
+        record.put("is_unique", String.valueOf(info.isUnique()));
+        record.put("index_method", info.getMethod().name());
+        HeapFile catalog = getIndexCatalog();
+        catalog.insert(record);
+        catalog.flush();
+    }
+    
+    /**
+     * 删除表上指定索引的定义，indexName为null时删除表上全部索引的定义
+     */
+    private void removeIndexDefinitions(String tableName, String indexName) throws IOException {
+        HeapFile catalog = getIndexCatalog();
+        List<RecordId> matches = new ArrayList<>();
+        catalog.scan((recordId, record) -> {
+            if (tableName.equals(record.get("table_name"))
+                    && (indexName == null || indexName.equalsIgnoreCase((String) record.get("index_name")))) {
+                matches.add(recordId);
             }
-        } catch (Exception e) {
-            System.err.println("使用缓冲池扫描表失败: " + e.getMessage());
+            return true;
+        });
+        for (RecordId recordId : matches) {
+            catalog.delete(recordId);
+        }
+        if (!matches.isEmpty()) {
+            catalog.flush();
         }
-        
-        return records;
     }
     
-    private boolean deleteRecordWithBufferPool(String tableName, Map<String, Object> record) {
-        // 实现类似于文件存储的删除逻辑，但使用缓冲池管理器
-        return deleteRecordWithFileStorage(tableName, record);
+    /**
+     * 表的全部以suffix结尾的索引文件
+     */
+    private File[] listIndexFiles(String tableName, String suffix) {
+        String prefix = tableName + ".";
+        File[] files = new File(dataDirectory).listFiles((dir, name) ->
+            name.startsWith(prefix) && name.endsWith(suffix)
+                && name.indexOf('.', prefix.length()) == name.length() - suffix.length());
+        return files != null ? files : new File[0];
     }
     
-    private int findOrAllocatePageForRecord(String tableName, String recordData) {
-        try {
-            // 查找现有页面是否有空间
-            for (int pageId = 1; pageId < nextPageIdMap.get(tableName); pageId++) {
-                Object page = bufferPoolManager.getClass().getMethod("getPage", int.class).invoke(bufferPoolManager, pageId);
-                if (page != null) {
-                    String existingData = (String) page.getClass().getMethod("readString").invoke(page);
-                    bufferPoolManager.getClass().getMethod("unpinPage", int.class, boolean.class).invoke(bufferPoolManager, pageId, false);
-                    
-                    if (existingData.length() + recordData.length() + 1 < 4000) { // 4KB页面
-                        return pageId;
-                    }
-                }
-            }
-            
-            // 分配新页面
-            int newPageId = nextPageIdMap.get(tableName);
-            nextPageIdMap.put(tableName, newPageId + 1);
-            
-            // 初始化新页面
-            Object page = bufferPoolManager.getClass().getMethod("getPage", int.class).invoke(bufferPoolManager, newPageId);
-            if (page != null) {
-                page.getClass().getMethod("writeString", String.class).invoke(page, "");
-                bufferPoolManager.getClass().getMethod("unpinPage", int.class, boolean.class).invoke(bufferPoolManager, newPageId, true);
-                return newPageId;
+    private void deleteIndexFiles(String tableName) {
+        List<File> files = new ArrayList<>(Arrays.asList(listIndexFiles(tableName, INDEX_FILE_SUFFIX)));
+        files.addAll(Arrays.asList(listIndexFiles(tableName, HASH_FILE_SUFFIX)));
+        for (File indexFile : files) {
+            if (!indexFile.delete()) {
+                System.err.println("索引文件删除失败: " + indexFile.getName());
             }
-            
-        } catch (Exception e) {
-            System.err.println("查找或分配页面失败: " + e.getMessage());
         }
-        
-        return -1;
     }
     
-    // ========== 简单文件存储方法 ==========
-    
-    private boolean insertRecordWithFileStorage(String tableName, String serializedRecord) {
-        try {
-            String tableFile = getTableFilePath(tableName);
-            
-            // 追加记录到文件 - 使用UTF-8编码
-            try (FileWriter writer = new FileWriter(tableFile, StandardCharsets.UTF_8, true)) {
-                writer.write("RECORD:" + serializedRecord + "\n");
+    private static ColumnInfo findColumn(HeapFile heapFile, String columnName) {
+        for (ColumnInfo column : heapFile.getColumns()) {
+            if (column.getName().equals(columnName)) {
+                return column;
             }
-            
-            return true;
-        } catch (IOException e) {
-            System.err.println("文件存储插入记录失败: " + e.getMessage());
-            return false;
         }
+        return null;
     }
     
-    private List<Map<String, Object>> scanTableWithFileStorage(String tableName) {
-        List<Map<String, Object>> records = new ArrayList<>();
+    /**
+     * 检查表是否为列式存储
+     */
+    private boolean isColumnarStorageTable(String tableName) {
+        // 检查是否存在列式存储目录和元数据文件
+        String columnarDir = dataDirectory + File.separator + tableName;
+        String metaFile = columnarDir + File.separator + "metadata.txt";
+        File file = new File(metaFile);
         
-        try {
-            String tableFile = getTableFilePath(tableName);
-            File file = new File(tableFile);
-            if (!file.exists()) {
-                return records;
-            }
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader(tableFile, StandardCharsets.UTF_8))) {
-                String line;
-                boolean inDataSection = false;
-                
-                while ((line = reader.readLine()) != null) {
-                    if (line.startsWith("# End Metadata")) {
-                        inDataSection = true;
-                        continue;
-                    }
-                    
-                    if (inDataSection && line.startsWith("RECORD:")) {
-                        String recordData = line.substring(7); // 移除"RECORD:"前缀
-                        Map<String, Object> record = deserializeRecord(recordData);
-                        if (record != null) {
-                            records.add(record);
-                        }
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("文件存储扫描表失败: " + e.getMessage());
+        if (!file.exists()) {
+            return false;
         }
         
-        return records;
-    }
-    
-    private boolean deleteRecordWithFileStorage(String tableName, Map<String, Object> targetRecord) {
-        try {
-            String tableFile = getTableFilePath(tableName);
-            File file = new File(tableFile);
-            if (!file.exists()) {
-                return false;
-            }
-            
-            // 读取所有内容
-            List<String> allLines = new ArrayList<>();
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    allLines.add(line);
-                }
-            }
-            
-            // 重写文件，跳过要删除的记录
-            boolean recordDeleted = false;
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-                boolean inDataSection = false;
-                
-                for (String line : allLines) {
-                    if (line.startsWith("# End Metadata")) {
-                        writer.println(line);
-                        inDataSection = true;
-                        continue;
-                    }
-                    
-                    if (inDataSection && line.startsWith("RECORD:")) {
-                        String recordData = line.substring(7);
-                        Map<String, Object> currentRecord = deserializeRecord(recordData);
-                        
-                        if (currentRecord != null && recordsEqual(currentRecord, targetRecord) && !recordDeleted) {
-                            // 跳过此记录（删除）
-                            recordDeleted = true;
-                            continue;
-                        }
-                    }
-                    
-                    writer.println(line);
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("STORAGE_FORMAT=")) {
+                    String format = line.substring("STORAGE_FORMAT=".length());
+                    return "COLUMN".equalsIgnoreCase(format);
                 }
             }
-            
-            return recordDeleted;
         } catch (IOException e) {
-            System.err.println("文件存储删除记录失败: " + e.getMessage());
-            return false;
+            // 如果读取失败，假设是行式存储
         }
+        
+        return false;
     }
     
     private boolean recordsEqual(Map<String, Object> record1, Map<String, Object> record2) {
@@ -652,7 +880,7 @@ public class StorageAdapter {
         }
         
         for (Map.Entry<String, Object> entry : record1.entrySet()) {
-            if (!entry.getValue().equals(record2.get(entry.getKey()))) {
+            if (!Objects.equals(entry.getValue(), record2.get(entry.getKey()))) {
                 return false;
             }
         }
@@ -667,17 +895,42 @@ public class StorageAdapter {
      */
     private static class TableStorageInfo {
         private final String tableName;
+        private final HeapFile heapFile;
+        private final List<TableIndex> indexes;
         private final long createTime;
         
-        public TableStorageInfo(String tableName) {
+        public TableStorageInfo(String tableName, HeapFile heapFile) {
             this.tableName = tableName;
+            this.heapFile = heapFile;
+            this.indexes = new ArrayList<>();
             this.createTime = System.currentTimeMillis();
         }
         
+        public List<TableIndex> getIndexes() {
+            return indexes;
+        }
+        
+        /**
+         * 刷新表文件和全部索引文件
+         */
+        public boolean flush() {
+            boolean success = heapFile.flush();
+            for (TableIndex index : indexes) {
+                if (!index.flush()) {
+                    success = false;
+                }
+            }
+            return success;
+        }
+        
         public String getTableName() {
             return tableName;
         }
         
+        public HeapFile getHeapFile() {
+            return heapFile;
+        }
+        
         public long getCreateTime() {
             return createTime;
         }
@@ -0,0 +1,519 @@
+package com.database.engine;
+
+import com.database.storage.BPlusTree;
+import com.database.storage.BPlusTreeBulkLoader;
+import com.database.storage.BPlusTreeCursor;
+import com.database.storage.BPlusTreeKey;
+import com.database.storage.CacheStats;
+import com.database.storage.CompositeKey;
+import com.database.storage.ExtendibleHashIndex;
+import com.database.storage.HashIndex;
+import com.database.storage.Index;
+import com.database.storage.PageStore;
+import com.sqlcompiler.catalog.ColumnInfo;
+import com.sqlcompiler.catalog.IndexInfo;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 表索引 - 建在行式表上的B+树索引，索引项为(索引列的值, RecordId)
+ *
+ * B+树保存在独立的索引文件中，拥有自己的缓冲池，随表一起打开和关闭。
+ * 单列索引的键是 {@link IndexKey}；多列索引的键是由各列IndexKey组成的 {@link CompositeKey}，
+ * 按列依次比较，每列的文本长度按列数分摊，整个键不超过单列键的长度。
+ * 多列索引可以回答前几列等值、下一列等值或范围的条件，例如 tenant_id = 1 AND created_at >= '2024'。
+ * 单列索引的等值查询也可以走内存哈希索引：第一次按哈希方式访问时由B+树的索引项构建，之后随插入、删除同步维护；
+ * USING HASH的单列索引另有一个持久化的可扩展哈希文件（{@link ExtendibleHashIndex}），随插入、删除同步维护，
+ * 重新打开时不需要重建，也不受堆内存大小限制。
+ * 索引查找只返回候选记录，调用方仍需用完整的WHERE条件过滤（文本键有截断，NULL和非数字值也会作为候选）。
+ */
+public class TableIndex implements Closeable {
+    /**
+     * 索引访问方式
+     */
+    public enum AccessMethod {
+        BTREE, // 总是使用B+树
+        HASH,  // 等值查询使用哈希索引，范围查询仍使用B+树
+        AUTO   // 哈希索引已构建时等值查询使用哈希索引，否则使用B+树
+    }
+
+    private static final int MIN_HASH_BUCKETS = 16;
+
+    private final IndexInfo info;
+    private final List<ColumnInfo> columns;
+    private final boolean[] numericColumns;
+    private final int maxTextLength; // 每列键的文本最多保留的字符数
+    private final PageStore pageStore;
+    private final BPlusTree tree;
+    private final PageStore hashPageStore; // USING HASH索引的哈希文件，其他索引为null
+    private Index hashIndex; // 持久化哈希索引，或延迟构建的内存哈希索引
+
+    public TableIndex(IndexInfo info, List<ColumnInfo> columns, PageStore pageStore) {
+        this(info, columns, pageStore, null);
+    }
+
+    /**
+     * @param columns 索引列，顺序与info中的列名一致
+     * @param hashPageStore 单列索引的持久化哈希索引所在的页面存储，为null时只按需构建内存哈希索引
+     */
+    public TableIndex(IndexInfo info, List<ColumnInfo> columns, PageStore pageStore, PageStore hashPageStore) {
+        this.info = info;
+        this.columns = columns;
+        this.numericColumns = new boolean[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            numericColumns[i] = isNumericType(columns.get(i).getDataType());
+        }
+        this.maxTextLength = Math.max(1, IndexKey.MAX_TEXT_LENGTH / columns.size());
+        this.pageStore = pageStore;
+        Supplier<BPlusTreeKey> keyFactory = IndexKey::new;
+        if (columns.size() > 1) {
+            keyFactory = CompositeKey.factory(Collections.nCopies(columns.size(), IndexKey::new));
+        }
+        // 非唯一B+树：同一个键可以对应多条记录，唯一性由containsDuplicate在插入前检查
+        this.tree = new BPlusTree(pageStore, info.getName(), keyFactory, false);
+        this.hashPageStore = columns.size() == 1 ? hashPageStore : null;
+        if (this.hashPageStore != null) {
+            ExtendibleHashIndex persistent = new ExtendibleHashIndex(this.hashPageStore, info.getName(), keyFactory);
+            if (persistent.size() != tree.size()) {
+                // 哈希文件缺失或与B+树不一致（例如上次没有正常关闭）时按B+树的索引项重建
+                persistent.clear();
+                tree.scanEntries(persistent::insertEntry);
+            }
+            hashIndex = persistent;
+        }
+    }
+
+    public IndexInfo getInfo() {
+        return info;
+    }
+
+    public String getName() {
+        return info.getName();
+    }
+
+    /**
+     * 索引首列的列名
+     */
+    public String getColumnName() {
+        return columns.get(0).getName();
+    }
+
+    /**
+     * 全部索引列的列名，按索引键中的顺序
+     */
+    public List<String> getColumnNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ColumnInfo column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    public boolean isUnique() {
+        return info.isUnique();
+    }
+
+    /**
+     * 首列是否按数值比较
+     */
+    public boolean isNumericColumn() {
+        return numericColumns[0];
+    }
+
+    public BPlusTree getTree() {
+        return tree;
+    }
+
+    /**
+     * 哈希索引是否已经构建
+     */
+    public boolean isHashIndexLoaded() {
+        return hashIndex != null;
+    }
+
+    /**
+     * 记录插入后维护索引
+     */
+    public void insert(Map<String, Object> record, RecordId recordId) {
+        BPlusTreeKey key = keyOf(record);
+        tree.insertEntry(key, recordId.toLong());
+        if (hashIndex != null) {
+            hashIndex.insertEntry(key, recordId.toLong());
+        }
+    }
+
+    /**
+     * 记录删除后维护索引
+     */
+    public void delete(Map<String, Object> record, RecordId recordId) {
+        BPlusTreeKey key = keyOf(record);
+        tree.deleteEntry(key, recordId.toLong());
+        if (hashIndex != null) {
+            hashIndex.deleteEntry(key, recordId.toLong());
+        }
+    }
+
+    /**
+     * 用表中已有的记录批量构建空索引：收集全部索引项排序后自底向上写出B+树，
+     * 内存放不下的索引项先写成临时顺串放在tempDirectory中
+     * @return 唯一索引的索引列中存在重复值时返回false，此时索引内容不完整，调用方应丢弃该索引
+     */
+    public boolean build(HeapFile heapFile, File tempDirectory) throws IOException {
+        try (BPlusTreeBulkLoader loader = new BPlusTreeBulkLoader(tree, BPlusTreeBulkLoader.DEFAULT_FILL_FACTOR,
+                BPlusTreeBulkLoader.DEFAULT_MAX_ENTRIES_IN_MEMORY, tempDirectory)) {
+            try {
+                heapFile.scan((recordId, record) -> {
+                    try {
+                        loader.add(keyOf(record), recordId.toLong());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            loader.finish();
+        }
+
+        if (isUnique() && hasDuplicateEntries(heapFile)) {
+            return false;
+        }
+        if (hashIndex instanceof ExtendibleHashIndex) {
+            ((ExtendibleHashIndex) hashIndex).clear();
+            tree.scanEntries(hashIndex::insertEntry);
+        } else if (hashIndex != null) {
+            hashIndex = null; // 按新的索引项重建
+            getHashIndex();
+        }
+        return true;
+    }
+
+    /**
+     * 唯一索引中是否已有与record在全部索引列上都相等的记录；任一索引列为NULL时不视为重复
+     */
+    public boolean containsDuplicate(Map<String, Object> record, HeapFile heapFile) throws IOException {
+        if (hasNullColumn(record)) {
+            return false;
+        }
+        // 键相等只说明可能重复（文本键有截断），需要读出记录比较完整的列值
+        for (long recordId : tree.searchAll(keyOf(record))) {
+            Map<String, Object> existing = heapFile.read(RecordId.fromLong(recordId));
+            if (existing != null && sameIndexValues(record, existing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查找满足 首列 operator literal 的候选记录
+     * @return 候选记录ID；索引无法回答该条件时返回null，调用方应改用全表扫描
+     */
+    public List<RecordId> lookup(String operator, String literal, AccessMethod method) {
+        return lookup(Collections.emptyList(), operator, literal, method);
+    }
+
+    /**
+     * 查找满足 前几列分别等于prefixLiterals、下一列 operator literal 的候选记录
+     * @return 候选记录ID；索引无法回答该条件时返回null，调用方应改用全表扫描
+     */
+    public List<RecordId> lookup(List<String> prefixLiterals, String operator, String literal, AccessMethod method) {
+        int column = prefixLiterals.size();
+        if (column >= columns.size()) {
+            return null;
+        }
+        IndexKey[] prefix = new IndexKey[column];
+        for (int i = 0; i < column; i++) {
+            prefix[i] = keyOfLiteral(i, prefixLiterals.get(i));
+            if (prefix[i] == null) {
+                return null;
+            }
+        }
+        IndexKey key = keyOfLiteral(column, literal);
+        if (key == null) {
+            return null;
+        }
+
+        boolean numericColumn = numericColumns[column];
+        List<Long> recordIds;
+        switch (operator) {
+            case "=":
+                recordIds = searchEqual(prefix, key, method);
+                break;
+            case ">":
+            case ">=":
+                recordIds = rangeWithOthers(prefix, key, numericColumn ? IndexKey.maxNumber() : IndexKey.maxText());
+                break;
+            case "<":
+            case "<=":
+                recordIds = rangeWithOthers(prefix, numericColumn ? IndexKey.minNumber() : IndexKey.minText(), key);
+                break;
+            default:
+                return null;
+        }
+
+        List<RecordId> result = new ArrayList<>(recordIds.size());
+        for (long recordId : recordIds) {
+            result.add(RecordId.fromLong(recordId));
+        }
+        return result;
+    }
+
+    /**
+     * 查找首列与value相等的记录，相等按执行器的比较语义：两边都是数字时按数值比较，否则按字符串比较，
+     * NULL按字符串"NULL"比较。只用于首列是数值列的索引，这时键相等与值相等一致，
+     * 所以总能由索引回答，不会像lookup那样返回null（连接时内表的每次查找都不需要扫描全表）
+     */
+    public List<RecordId> lookupEqual(Object value, AccessMethod method) {
+        if (!numericColumns[0]) {
+            throw new IllegalStateException("Index " + getName() + " is not on a numeric column");
+        }
+        String literal = value == null ? "NULL" : value.toString();
+        IndexKey[] prefix = new IndexKey[0];
+        List<Long> recordIds = new ArrayList<>(searchEqual(prefix, IndexKey.of(literal, true, maxTextLength), method));
+        if ("NULL".equals(literal)) {
+            recordIds.addAll(searchEqual(prefix, IndexKey.nullKey(), method));
+        }
+        List<RecordId> result = new ArrayList<>(recordIds.size());
+        for (long recordId : recordIds) {
+            result.add(RecordId.fromLong(recordId));
+        }
+        return result;
+    }
+
+    /**
+     * 按索引键顺序（descending为true时逆序）流式遍历全部索引项，键的值是记录ID（RecordId.toLong）
+     * 顺序为 NULL < 数值 < 文本，文本键有截断，键相等的记录之间按记录ID排序
+     */
+    public BPlusTreeCursor openCursor(boolean descending) {
+        return tree.openCursor(null, null, descending);
+    }
+
+    /**
+     * 实际使用的索引结构：只有单列索引的等值查询可能使用哈希索引
+     */
+    public AccessMethod resolve(String operator, AccessMethod method) {
+        boolean useHash = "=".equals(operator) && columns.size() == 1
+            && (method == AccessMethod.HASH || (method == AccessMethod.AUTO && hashIndex != null));
+        return useHash ? AccessMethod.HASH : AccessMethod.BTREE;
+    }
+
+    public boolean flush() {
+        boolean flushed = pageStore.flushAllPages();
+        if (hashPageStore != null) {
+            flushed &= hashPageStore.flushAllPages();
+        }
+        return flushed;
+    }
+
+    public CacheStats getCacheStats() {
+        return pageStore.getStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        pageStore.close();
+        if (hashPageStore != null) {
+            hashPageStore.close();
+        }
+    }
+
+    /**
+     * 前缀相同、下一列的键等于key的索引项
+     */
+    private List<Long> searchEqual(IndexKey[] prefix, IndexKey key, AccessMethod method) {
+        if (resolve("=", method) == AccessMethod.HASH) {
+            return getHashIndex().searchAll(key);
+        } else if (columns.size() == 1) {
+            return tree.searchAll(key);
+        }
+        return tree.searchRange(lowerBound(prefix, key), upperBound(prefix, key));
+    }
+
+    /**
+     * 前缀相同、下一列在[low, high]内的索引项，加上该列比较结果取决于字符串顺序的NULL键和数值列中的文本键
+     */
+    private List<Long> rangeWithOthers(IndexKey[] prefix, IndexKey low, IndexKey high) {
+        IndexKey nullKey = IndexKey.nullKey();
+        List<Long> recordIds = tree.searchRange(lowerBound(prefix, nullKey), upperBound(prefix, nullKey));
+        recordIds.addAll(tree.searchRange(lowerBound(prefix, low), upperBound(prefix, high)));
+        if (numericColumns[prefix.length]) {
+            recordIds.addAll(tree.searchRange(lowerBound(prefix, IndexKey.minText()),
+                upperBound(prefix, IndexKey.maxText())));
+        }
+        return recordIds;
+    }
+
+    /**
+     * 以prefix加key开头的索引键的下界；单列索引就是key本身
+     */
+    private BPlusTreeKey lowerBound(IndexKey[] prefix, IndexKey key) {
+        return columns.size() == 1 ? key : CompositeKey.of(append(prefix, key));
+    }
+
+    /**
+     * 以prefix加key开头的索引键的上界，包含后面各列取任意值的索引键
+     */
+    private BPlusTreeKey upperBound(IndexKey[] prefix, IndexKey key) {
+        return columns.size() == 1 ? key : CompositeKey.prefixEnd(append(prefix, key));
+    }
+
+    private static IndexKey[] append(IndexKey[] prefix, IndexKey key) {
+        IndexKey[] components = Arrays.copyOf(prefix, prefix.length + 1);
+        components[prefix.length] = key;
+        return components;
+    }
+
+    /**
+     * 第column列与字面量比较时使用的键；NULL或类型与列不一致时返回null，
+     * 比较两边都是数字时按数值比较，只有数值列上的数字字面量和文本列上的非数字字面量与键的顺序一致
+     */
+    private IndexKey keyOfLiteral(int column, String literal) {
+        if (literal == null || "NULL".equalsIgnoreCase(literal)) {
+            return null;
+        }
+        boolean numericLiteral = IndexKey.parseNumber(literal) != null;
+        if (numericLiteral != numericColumns[column]) {
+            return null;
+        }
+        return IndexKey.of(literal, numericColumns[column], maxTextLength);
+    }
+
+    private Index getHashIndex() {
+        if (hashIndex == null) {
+            HashIndex built = new HashIndex(info.getName(), Math.max(MIN_HASH_BUCKETS, tree.size() / 4));
+            tree.scanEntries(built::insertEntry);
+            hashIndex = built;
+        }
+        return hashIndex;
+    }
+
+    /**
+     * 按键顺序扫描索引，比较键相等的每组记录是否在全部索引列上都相等
+     */
+    private boolean hasDuplicateEntries(HeapFile heapFile) throws IOException {
+        List<Long> group = new ArrayList<>();
+        BPlusTreeKey[] groupKey = new BPlusTreeKey[1];
+        boolean[] duplicate = new boolean[1];
+        try {
+            tree.scanEntries((key, recordId) -> {
+                if (duplicate[0]) {
+                    return;
+                }
+                if (groupKey[0] != null && groupKey[0].compareTo(key) != 0) {
+                    duplicate[0] = groupHasDuplicate(group, heapFile);
+                    group.clear();
+                }
+                groupKey[0] = key;
+                group.add(recordId);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return duplicate[0] || groupHasDuplicate(group, heapFile);
+    }
+
+    private boolean groupHasDuplicate(List<Long> group, HeapFile heapFile) {
+        if (group.size() < 2) {
+            return false;
+        }
+        try {
+            List<Map<String, Object>> records = new ArrayList<>(group.size());
+            for (long recordId : group) {
+                Map<String, Object> record = heapFile.read(RecordId.fromLong(recordId));
+                if (record == null || hasNullColumn(record)) {
+                    continue;
+                }
+                for (Map<String, Object> other : records) {
+                    if (sameIndexValues(record, other)) {
+                        return true;
+                    }
+                }
+                records.add(record);
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean hasNullColumn(Map<String, Object> record) {
+        for (ColumnInfo column : columns) {
+            if (record.get(column.getName()) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BPlusTreeKey keyOf(Map<String, Object> record) {
+        if (columns.size() == 1) {
+            return IndexKey.of(record.get(getColumnName()), numericColumns[0]);
+        }
+        IndexKey[] components = new IndexKey[columns.size()];
+        for (int i = 0; i < components.length; i++) {
+            components[i] = IndexKey.of(record.get(columns.get(i).getName()), numericColumns[i], maxTextLength);
+        }
+        return CompositeKey.of(components);
+    }
+
+    private boolean sameIndexValues(Map<String, Object> record, Map<String, Object> existing) {
+        for (ColumnInfo column : columns) {
+            Object value = record.get(column.getName());
+            Object other = existing.get(column.getName());
+            if (other == null) {
+                return false;
+            }
+            if (isNumericType(column.getDataType())) {
+                BigDecimal left = IndexKey.parseNumber(value.toString());
+                BigDecimal right = IndexKey.parseNumber(other.toString());
+                if (left != null && right != null) {
+                    if (left.compareTo(right) != 0) {
+                        return false;
+                    }
+                    continue;
+                }
+            }
+            if (!value.toString().equals(other.toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否按数值比较的列类型
+     */
+    static boolean isNumericType(String dataType) {
+        if (dataType == null) {
+            return false;
+        }
+        switch (dataType.toUpperCase(Locale.ROOT)) {
+            case "INT":
+            case "INTEGER":
+            case "SMALLINT":
+            case "TINYINT":
+            case "BIGINT":
+            case "LONG":
+            case "FLOAT":
+            case "DOUBLE":
+            case "REAL":
+            case "DECIMAL":
+            case "NUMERIC":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
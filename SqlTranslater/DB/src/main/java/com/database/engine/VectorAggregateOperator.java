@@ -0,0 +1,442 @@
+package com.database.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 向量化聚合运算符 - 逐批读取列向量计算COUNT、SUM、AVG、MIN、MAX，输出与AggregateOperator相同的行
+ *
+ * 分组列是字典编码的，分组号由各分组列的字典编码直接组合得到（分组数不多时查数组，不用哈希），
+ * 每个聚合函数的中间状态按分组号存放在基本类型数组中。数值列求和把每个值拆成高低32位分别累加，
+ * 循环里没有分支和装箱，结果仍是精确的。MIN、MAX按数值比较，输出列文件中的原始文本。
+ */
+public class VectorAggregateOperator implements Operator {
+    private static final int MAX_DIRECT_GROUPS = 1 << 20; // 组合编码不超过此数时用数组查分组号
+
+    private final BatchOperator child;
+    private final int[] groupOrdinals;
+    private final List<String> aggregates;
+    private final int[] argumentOrdinals;
+    private final RowSchema schema;
+    private Iterator<Object[]> output;
+
+    /**
+     * @param groupOrdinals 分组列在批中的列向量编号（这些列必须字典编码）
+     * @param groupBy 分组列名，与groupOrdinals对应
+     * @param aggregates 聚合函数列名
+     * @param argumentOrdinals 各聚合函数参数列的列向量编号，COUNT(*)为-1
+     */
+    public VectorAggregateOperator(BatchOperator child, int[] groupOrdinals, List<String> groupBy,
+                                   List<String> aggregates, int[] argumentOrdinals) {
+        this.child = child;
+        this.groupOrdinals = groupOrdinals;
+        this.aggregates = aggregates;
+        this.argumentOrdinals = argumentOrdinals;
+        List<String> columns = new ArrayList<>(groupBy);
+        columns.addAll(aggregates);
+        this.schema = new RowSchema(columns);
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator(AggregateOperator.parseCall(aggregates.get(i))[0], argumentOrdinals[i]);
+        }
+        boolean grouped = groupOrdinals.length > 0;
+        GroupTable groups = null;
+        int[] groupIds = new int[ColumnBatch.CAPACITY];
+        int groupCount = grouped ? 0 : 1; // 没有GROUP BY时即使没有输入行也输出一行
+        ColumnBatch batch;
+        while ((batch = child.nextBatch()) != null) {
+            if (groups == null) {
+                groups = new GroupTable(batch);
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.bind(batch);
+                }
+            }
+            if (grouped) {
+                groupCount = groups.assign(batch, groupIds);
+            }
+            for (Accumulator accumulator : accumulators) {
+                accumulator.ensureCapacity(groupCount);
+                accumulator.add(batch, grouped ? groupIds : null);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            Object[] row = new Object[schema.size()];
+            for (int k = 0; k < groupOrdinals.length; k++) {
+                row[k] = groups.value(group, k);
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                row[groupOrdinals.length + i] = accumulators[i].result(group);
+            }
+            rows.add(row);
+        }
+        output = rows.iterator();
+    }
+
+    @Override
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] next() {
+        return output != null && output.hasNext() ? output.next() : null;
+    }
+
+    @Override
+    public void close() {
+        output = null;
+        child.close();
+    }
+
+    /**
+     * 分组号分配：各分组列的字典编码（NULL取字典大小）按混合进制组合成一个long，
+     * 第一次出现的组合按出现顺序分配分组号，因此输出顺序与AggregateOperator一致
+     */
+    private final class GroupTable {
+        private final String[][] dictionaries;
+        private final long[] multipliers;
+        private final int[] directSlots; // 组合编码 -> 分组号，-1表示还没有出现
+        private final Map<Long, Integer> slots;
+        private final long[] combined = new long[ColumnBatch.CAPACITY]; // 批中各有效行的组合编码
+        private long[] keys = new long[16]; // 分组号 -> 组合编码
+        private int size;
+
+        GroupTable(ColumnBatch batch) {
+            dictionaries = new String[groupOrdinals.length][];
+            multipliers = new long[groupOrdinals.length];
+            long combinations = 1;
+            for (int k = 0; k < groupOrdinals.length; k++) {
+                dictionaries[k] = batch.getVector(groupOrdinals[k]).getDictionary();
+                multipliers[k] = combinations;
+                combinations = Math.multiplyExact(combinations, dictionaries[k].length + 1L);
+            }
+            if (combinations <= MAX_DIRECT_GROUPS) {
+                directSlots = new int[(int) combinations];
+                Arrays.fill(directSlots, -1);
+                slots = null;
+            } else {
+                directSlots = null;
+                slots = new HashMap<>();
+            }
+        }
+
+        /**
+         * 为批中各有效行分配分组号，写入groupIds（与选择向量一一对应）
+         * @return 目前的分组数
+         */
+        int assign(ColumnBatch batch, int[] groupIds) {
+            int[] selection = batch.getSelection();
+            int count = batch.getSelectedCount();
+            Arrays.fill(combined, 0, count, 0);
+            for (int k = 0; k < groupOrdinals.length; k++) {
+                int[] codes = batch.getVector(groupOrdinals[k]).codes;
+                int nullCode = dictionaries[k].length;
+                long multiplier = multipliers[k];
+                for (int j = 0; j < count; j++) {
+                    int code = codes[selection == null ? j : selection[j]];
+                    combined[j] += (code < 0 ? nullCode : code) * multiplier;
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                long key = combined[j];
+                int group;
+                if (directSlots != null) {
+                    group = directSlots[(int) key];
+                    if (group < 0) {
+                        group = directSlots[(int) key] = newGroup(key);
+                    }
+                } else {
+                    Integer slot = slots.get(key);
+                    if (slot == null) {
+                        slot = newGroup(key);
+                        slots.put(key, slot);
+                    }
+                    group = slot;
+                }
+                groupIds[j] = group;
+            }
+            return size;
+        }
+
+        private int newGroup(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size] = key;
+            return size++;
+        }
+
+        /**
+         * 分组的第k个分组列的值
+         */
+        String value(int group, int k) {
+            int code = (int) (keys[group] / multipliers[k] % (dictionaries[k].length + 1L));
+            return code < dictionaries[k].length ? dictionaries[k][code] : null;
+        }
+    }
+
+    /**
+     * 一个聚合函数在各分组上的中间状态，数组下标是分组号
+     */
+    private static final class Accumulator {
+        private final String function;
+        private final int ordinal; // 参数列的列向量编号，COUNT(*)为-1
+        private ColumnVector.Kind kind;
+        private int scale;
+        private String[] dictionary;
+        private BigDecimal[] codeNumbers; // 字典编码列求和时每个字典值的数值，不是数字为null
+        private long[] counts = new long[1]; // COUNT(*)为行数，其余为参与计算的非NULL值个数
+        private long[] lowSums; // LONG列求和：各值低32位（无符号）之和
+        private long[] highSums; // LONG列求和：各值高32位（有符号）之和
+        private double[] doubleSums;
+        private BigDecimal[] decimalSums;
+        private long[] longExtremes;
+        private double[] doubleExtremes;
+        private int[] codeExtremes;
+        private String[] extremeTexts;
+        private boolean allocated; // 按类型的中间状态数组已经分配
+
+        Accumulator(String function, int ordinal) {
+            this.function = function;
+            this.ordinal = ordinal;
+        }
+
+        /**
+         * 按参数列的类型准备中间状态（第一批到来时调用）
+         */
+        void bind(ColumnBatch batch) {
+            if (ordinal < 0) {
+                return;
+            }
+            ColumnVector vector = batch.getVector(ordinal);
+            kind = vector.getKind();
+            scale = vector.getScale();
+            dictionary = vector.getDictionary();
+            if (kind == ColumnVector.Kind.STRING && isSum()) {
+                codeNumbers = new BigDecimal[dictionary.length];
+                for (int code = 0; code < dictionary.length; code++) {
+                    codeNumbers[code] = IndexKey.parseNumber(dictionary[code]);
+                }
+            }
+            ensureCapacity(1);
+        }
+
+        private boolean isSum() {
+            return "SUM".equals(function) || "AVG".equals(function);
+        }
+
+        private boolean isExtreme() {
+            return "MIN".equals(function) || "MAX".equals(function);
+        }
+
+        void ensureCapacity(int groups) {
+            if (groups <= counts.length && (kind == null || allocated)) {
+                return;
+            }
+            int capacity = groups <= counts.length ? counts.length : Math.max(groups, counts.length * 2);
+            counts = Arrays.copyOf(counts, capacity);
+            if (kind == null) {
+                return;
+            }
+            allocated = true;
+            if (isSum()) {
+                switch (kind) {
+                    case LONG:
+                        lowSums = lowSums == null ? new long[capacity] : Arrays.copyOf(lowSums, capacity);
+                        highSums = highSums == null ? new long[capacity] : Arrays.copyOf(highSums, capacity);
+                        break;
+                    case DOUBLE:
+                        doubleSums = doubleSums == null ? new double[capacity] : Arrays.copyOf(doubleSums, capacity);
+                        break;
+                    default:
+                        decimalSums = decimalSums == null ? new BigDecimal[capacity] : Arrays.copyOf(decimalSums, capacity);
+                }
+            } else if (isExtreme()) {
+                switch (kind) {
+                    case LONG:
+                        longExtremes = longExtremes == null ? new long[capacity] : Arrays.copyOf(longExtremes, capacity);
+                        break;
+                    case DOUBLE:
+                        doubleExtremes = doubleExtremes == null ? new double[capacity] : Arrays.copyOf(doubleExtremes, capacity);
+                        break;
+                    default:
+                        codeExtremes = codeExtremes == null ? new int[capacity] : Arrays.copyOf(codeExtremes, capacity);
+                }
+                extremeTexts = extremeTexts == null ? new String[capacity] : Arrays.copyOf(extremeTexts, capacity);
+            }
+        }
+
+        /**
+         * @param groupIds 各有效行的分组号，没有GROUP BY时为null（全部属于分组0）
+         */
+        void add(ColumnBatch batch, int[] groupIds) {
+            int[] selection = batch.getSelection();
+            int count = batch.getSelectedCount();
+            if (ordinal < 0) {
+                if (groupIds == null) {
+                    counts[0] += count;
+                } else {
+                    for (int j = 0; j < count; j++) {
+                        counts[groupIds[j]]++;
+                    }
+                }
+                return;
+            }
+            ColumnVector vector = batch.getVector(ordinal);
+            if (isSum()) {
+                addSums(vector, selection, count, groupIds);
+            } else if (isExtreme()) {
+                addExtremes(vector, selection, count, groupIds, "MIN".equals(function) ? -1 : 1);
+            } else {
+                addCounts(vector, selection, count, groupIds);
+            }
+        }
+
+        private void addCounts(ColumnVector vector, int[] selection, int count, int[] groupIds) {
+            for (int j = 0; j < count; j++) {
+                int i = selection == null ? j : selection[j];
+                counts[groupIds == null ? 0 : groupIds[j]] += vector.isNull(i) ? 0 : 1;
+            }
+        }
+
+        private void addSums(ColumnVector vector, int[] selection, int count, int[] groupIds) {
+            switch (kind) {
+                case LONG: {
+                    long[] values = vector.longs;
+                    boolean[] nulls = vector.nulls;
+                    if (groupIds == null) {
+                        long low = 0;
+                        long high = 0;
+                        long present = 0;
+                        for (int j = 0; j < count; j++) {
+                            int i = selection == null ? j : selection[j];
+                            long value = nulls[i] ? 0 : values[i];
+                            low += value & 0xFFFFFFFFL;
+                            high += value >> 32;
+                            present += nulls[i] ? 0 : 1;
+                        }
+                        lowSums[0] += low;
+                        highSums[0] += high;
+                        counts[0] += present;
+                    } else {
+                        for (int j = 0; j < count; j++) {
+                            int i = selection == null ? j : selection[j];
+                            int group = groupIds[j];
+                            long value = nulls[i] ? 0 : values[i];
+                            lowSums[group] += value & 0xFFFFFFFFL;
+                            highSums[group] += value >> 32;
+                            counts[group] += nulls[i] ? 0 : 1;
+                        }
+                    }
+                    break;
+                }
+                case DOUBLE: {
+                    double[] values = vector.doubles;
+                    boolean[] nulls = vector.nulls;
+                    for (int j = 0; j < count; j++) {
+                        int i = selection == null ? j : selection[j];
+                        int group = groupIds == null ? 0 : groupIds[j];
+                        doubleSums[group] += nulls[i] ? 0 : values[i];
+                        counts[group] += nulls[i] ? 0 : 1;
+                    }
+                    break;
+                }
+                default: {
+                    int[] codes = vector.codes;
+                    for (int j = 0; j < count; j++) {
+                        int code = codes[selection == null ? j : selection[j]];
+                        BigDecimal number = code < 0 ? null : codeNumbers[code];
+                        if (number != null) {
+                            int group = groupIds == null ? 0 : groupIds[j];
+                            decimalSums[group] = decimalSums[group] == null ? number : decimalSums[group].add(number);
+                            counts[group]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param direction MIN为-1，MAX为1：新值与当前值比较的结果同号时替换（相等时保留先出现的值）
+         */
+        private void addExtremes(ColumnVector vector, int[] selection, int count, int[] groupIds, int direction) {
+            for (int j = 0; j < count; j++) {
+                int i = selection == null ? j : selection[j];
+                if (vector.isNull(i)) {
+                    continue;
+                }
+                int group = groupIds == null ? 0 : groupIds[j];
+                boolean first = counts[group]++ == 0;
+                switch (kind) {
+                    case LONG: {
+                        long value = vector.longs[i];
+                        if (first || Long.compare(value, longExtremes[group]) == direction) {
+                            longExtremes[group] = value;
+                            extremeTexts[group] = vector.getText(i);
+                        }
+                        break;
+                    }
+                    case DOUBLE: {
+                        double value = vector.doubles[i];
+                        if (first || Double.compare(value, doubleExtremes[group]) == direction) {
+                            doubleExtremes[group] = value;
+                            extremeTexts[group] = vector.getText(i);
+                        }
+                        break;
+                    }
+                    default: {
+                        int code = vector.codes[i];
+                        if (first || (code != codeExtremes[group]
+                                && Integer.signum(Executor.compareValues(dictionary[code], dictionary[codeExtremes[group]])) == direction)) {
+                            codeExtremes[group] = code;
+                            extremeTexts[group] = dictionary[code];
+                        }
+                    }
+                }
+            }
+        }
+
+        Object result(int group) {
+            long count = group < counts.length ? counts[group] : 0;
+            if ("COUNT".equals(function)) {
+                return String.valueOf(count);
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (isExtreme()) {
+                return extremeTexts[group];
+            }
+            BigDecimal sum;
+            switch (kind) {
+                case LONG:
+                    sum = new BigDecimal(BigInteger.valueOf(highSums[group]).shiftLeft(32)
+                        .add(BigInteger.valueOf(lowSums[group])), scale);
+                    break;
+                case DOUBLE:
+                    sum = BigDecimal.valueOf(doubleSums[group]);
+                    break;
+                default:
+                    sum = decimalSums[group];
+            }
+            if ("AVG".equals(function)) {
+                sum = sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+            }
+            return sum.stripTrailingZeros().toPlainString();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.database.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * 向量化过滤运算符 - 对每批行依次应用用AND连接的"列 比较运算符 常量"，只改写批的选择向量
+ *
+ * 数值列的比较先换算成闭区间[low, high]（!=为区间取反），每行只做两次基本类型比较，没有分支和装箱；
+ * 字典编码列对字典中的每个值算一次比较结果，之后每行只查一次数组。比较语义与行式的WHERE一致
+ * （两边都是数字时按数值比较，否则按字符串比较），NULL按字符串"NULL"比较，每个条件只算一次结果。
+ */
+public class VectorFilterOperator implements BatchOperator {
+    private final BatchOperator child;
+    private final List<Comparison> comparisons;
+
+    public VectorFilterOperator(BatchOperator child, List<Comparison> comparisons) {
+        this.child = child;
+        this.comparisons = comparisons;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public ColumnBatch nextBatch() {
+        ColumnBatch batch;
+        while ((batch = child.nextBatch()) != null) {
+            for (Comparison comparison : comparisons) {
+                comparison.apply(batch);
+                if (batch.getSelectedCount() == 0) {
+                    break;
+                }
+            }
+            if (batch.getSelectedCount() > 0) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+
+    /**
+     * 一个"列 比较运算符 常量"条件，列由批中的列向量编号指定；
+     * 常量不是数字时列应当字典编码（按字符串比较）
+     */
+    public static final class Comparison {
+        private final int ordinal;
+        private final String operator;
+        private final String literal;
+        private final boolean nullMatches; // NULL（按"NULL"比较）是否满足条件
+        // 数值列：换算后的闭区间，negate为true时取区间之外
+        private boolean bound;
+        private long longLow;
+        private long longHigh;
+        private double doubleLow;
+        private double doubleHigh;
+        private boolean negate;
+        // 字典编码列：每个字典值是否满足条件
+        private String[] dictionary;
+        private boolean[] matches;
+
+        /**
+         * @param operator =、!=、<、<=、>、>=之一
+         */
+        public Comparison(int ordinal, String operator, String literal) {
+            this.ordinal = ordinal;
+            this.operator = operator;
+            this.literal = literal;
+            this.nullMatches = test(Executor.compareValues("NULL", literal));
+        }
+
+        void apply(ColumnBatch batch) {
+            ColumnVector vector = batch.getVector(ordinal);
+            int[] selection = batch.getSelection();
+            int count = batch.getSelectedCount();
+            int[] output = batch.selectionBuffer();
+            int selected;
+            switch (vector.getKind()) {
+                case LONG:
+                    bindLong(vector.getScale());
+                    selected = filterLongs(vector.longs, vector.nulls, selection, count, output);
+                    break;
+                case DOUBLE:
+                    bindDouble();
+                    selected = filterDoubles(vector.doubles, vector.nulls, selection, count, output);
+                    break;
+                default:
+                    bindDictionary(vector.getDictionary());
+                    selected = filterCodes(vector.codes, selection, count, output);
+            }
+            batch.select(output, selected);
+        }
+
+        private int filterLongs(long[] values, boolean[] nulls, int[] selection, int count, int[] output) {
+            long low = longLow;
+            long high = longHigh;
+            boolean negate = this.negate;
+            boolean nullMatches = this.nullMatches;
+            int selected = 0;
+            for (int j = 0; j < count; j++) {
+                int i = selection == null ? j : selection[j];
+                long value = values[i];
+                boolean isNull = nulls[i];
+                output[selected] = i;
+                selected += ((value >= low & value <= high) != negate) & !isNull | isNull & nullMatches ? 1 : 0;
+            }
+            return selected;
+        }
+
+        private int filterDoubles(double[] values, boolean[] nulls, int[] selection, int count, int[] output) {
+            double low = doubleLow;
+            double high = doubleHigh;
+            boolean negate = this.negate;
+            boolean nullMatches = this.nullMatches;
+            int selected = 0;
+            for (int j = 0; j < count; j++) {
+                int i = selection == null ? j : selection[j];
+                double value = values[i];
+                boolean isNull = nulls[i];
+                output[selected] = i;
+                selected += ((value >= low & value <= high) != negate) & !isNull | isNull & nullMatches ? 1 : 0;
+            }
+            return selected;
+        }
+
+        private int filterCodes(int[] codes, int[] selection, int count, int[] output) {
+            boolean[] matches = this.matches;
+            boolean nullMatches = this.nullMatches;
+            int selected = 0;
+            for (int j = 0; j < count; j++) {
+                int i = selection == null ? j : selection[j];
+                int code = codes[i];
+                output[selected] = i;
+                selected += (code < 0 ? nullMatches : matches[code]) ? 1 : 0;
+            }
+            return selected;
+        }
+
+        /**
+         * 把常量按列的小数位数放大后换算成long闭区间（常量不是整数时向内取整）
+         */
+        private void bindLong(int scale) {
+            if (bound) {
+                return;
+            }
+            BigDecimal value = new BigDecimal(literal.trim()).movePointRight(scale);
+            BigDecimal floor = value.setScale(0, RoundingMode.FLOOR);
+            BigDecimal ceiling = value.setScale(0, RoundingMode.CEILING);
+            BigDecimal low;
+            BigDecimal high;
+            switch (operator) {
+                case "<":
+                    low = null;
+                    high = ceiling.subtract(BigDecimal.ONE);
+                    break;
+                case "<=":
+                    low = null;
+                    high = floor;
+                    break;
+                case ">":
+                    low = floor.add(BigDecimal.ONE);
+                    high = null;
+                    break;
+                case ">=":
+                    low = ceiling;
+                    high = null;
+                    break;
+                default: // =、!=：常量不是整数时区间为空
+                    low = ceiling;
+                    high = floor;
+                    negate = "!=".equals(operator);
+            }
+            BigDecimal min = BigDecimal.valueOf(Long.MIN_VALUE);
+            BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE);
+            if ((low != null && low.compareTo(max) > 0) || (high != null && high.compareTo(min) < 0)
+                    || (low != null && high != null && low.compareTo(high) > 0)) {
+                longLow = 1; // 空区间
+                longHigh = 0;
+            } else {
+                longLow = low == null || low.compareTo(min) < 0 ? Long.MIN_VALUE : low.longValue();
+                longHigh = high == null || high.compareTo(max) > 0 ? Long.MAX_VALUE : high.longValue();
+            }
+            bound = true;
+        }
+
+        private void bindDouble() {
+            if (bound) {
+                return;
+            }
+            double value = Double.parseDouble(literal.trim());
+            doubleLow = Double.NEGATIVE_INFINITY;
+            doubleHigh = Double.POSITIVE_INFINITY;
+            switch (operator) {
+                case "<":
+                    doubleHigh = Math.nextDown(value);
+                    break;
+                case "<=":
+                    doubleHigh = value;
+                    break;
+                case ">":
+                    doubleLow = Math.nextUp(value);
+                    break;
+                case ">=":
+                    doubleLow = value;
+                    break;
+                default:
+                    doubleLow = value;
+                    doubleHigh = value;
+                    negate = "!=".equals(operator);
+            }
+            bound = true;
+        }
+
+        private void bindDictionary(String[] dictionary) {
+            if (this.dictionary == dictionary) {
+                return;
+            }
+            boolean[] matches = new boolean[dictionary.length];
+            for (int code = 0; code < dictionary.length; code++) {
+                matches[code] = test(Executor.compareValues(dictionary[code], literal));
+            }
+            this.matches = matches;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * 列值与常量的比较结果（compareValues的返回值）是否满足比较运算符
+         */
+        private boolean test(int cmp) {
+            switch (operator) {
+                case "=":
+                    return cmp == 0;
+                case "!=":
+                    return cmp != 0;
+                case "<":
+                    return cmp < 0;
+                case "<=":
+                    return cmp <= 0;
+                case ">":
+                    return cmp > 0;
+                default:
+                    return cmp >= 0;
+            }
+        }
+    }
+}
@@ -186,6 +186,36 @@ public class ASTPrinter implements ASTVisitor<String> {
         return sb.toString();
     }
     
+    @Override
+    public String visit(CreateIndexStatement node) throws CompilationException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CreateIndexStatement {\n");
+        increaseIndent();
+        sb.append(getIndent()).append("indexName: ").append(node.getIndexName()).append("\n");
+        sb.append(getIndent()).append("tableName: ").append(node.getTableName()).append("\n");
+        sb.append(getIndent()).append("columns: ").append(node.getColumns()).append("\n");
+        sb.append(getIndent()).append("unique: ").append(node.isUnique()).append("\n");
+        sb.append(getIndent()).append("method: ").append(node.getMethod()).append("\n");
+        decreaseIndent();
+        sb.append(getIndent()).append("}");
+        return sb.toString();
+    }
+    
+    @Override
+    public String visit(DropIndexStatement node) throws CompilationException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DropIndexStatement {\n");
+        increaseIndent();
+        sb.append(getIndent()).append("indexName: ").append(node.getIndexName()).append("\n");
+        if (node.getTableName() != null) {
+            sb.append(getIndent()).append("tableName: ").append(node.getTableName()).append("\n");
+        }
+        sb.append(getIndent()).append("ifExists: ").append(node.isIfExists()).append("\n");
+        decreaseIndent();
+        sb.append(getIndent()).append("}");
+        return sb.toString();
+    }
+    
     @Override
     public String visit(ColumnDefinition node) throws CompilationException {
         StringBuilder sb = new StringBuilder();
@@ -14,6 +14,8 @@ public interface ASTVisitor<T> {
     T visit(UpdateStatement node) throws CompilationException;
     T visit(DeleteStatement node) throws CompilationException;
     T visit(DropTableStatement node) throws CompilationException;
+    T visit(CreateIndexStatement node) throws CompilationException;
+    T visit(DropIndexStatement node) throws CompilationException;
     T visit(ColumnDefinition node) throws CompilationException;
     T visit(Expression node) throws CompilationException;
     T visit(BinaryExpression node) throws CompilationException;
@@ -0,0 +1,50 @@
+package com.sqlcompiler.ast;
+
+import com.sqlcompiler.lexer.Position;
+import java.util.List;
+
+/**
+ * CREATE INDEX语句
+ */
+public class CreateIndexStatement extends Statement {
+    private final String indexName;
+    private final String tableName;
+    private final List<String> columns;
+    private final boolean unique;
+    private final String method; // BTREE 或 HASH
+    
+    public CreateIndexStatement(String indexName, String tableName, List<String> columns,
+                                boolean unique, String method, Position position) {
+        super(position);
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.unique = unique;
+        this.method = method;
+    }
+    
+    public String getIndexName() {
+        return indexName;
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public List<String> getColumns() {
+        return columns;
+    }
+    
+    public boolean isUnique() {
+        return unique;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    @Override
+    public <T> T accept(ASTVisitor<T> visitor) throws com.sqlcompiler.exception.CompilationException {
+        return visitor.visit(this);
+    }
+}
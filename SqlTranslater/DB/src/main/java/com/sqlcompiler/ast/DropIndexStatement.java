@@ -0,0 +1,36 @@
+package com.sqlcompiler.ast;
+
+import com.sqlcompiler.lexer.Position;
+
+/**
+ * DROP INDEX语句
+ */
+public class DropIndexStatement extends Statement {
+    private final String indexName;
+    private final String tableName; // 可选的ON子句，为null时按索引名查找所属表
+    private final boolean ifExists;
+    
+    public DropIndexStatement(String indexName, String tableName, boolean ifExists, Position position) {
+        super(position);
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.ifExists = ifExists;
+    }
+    
+    public String getIndexName() {
+        return indexName;
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public boolean isIfExists() {
+        return ifExists;
+    }
+    
+    @Override
+    public <T> T accept(ASTVisitor<T> visitor) throws com.sqlcompiler.exception.CompilationException {
+        return visitor.visit(this);
+    }
+}
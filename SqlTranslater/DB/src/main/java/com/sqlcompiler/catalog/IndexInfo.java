@@ -0,0 +1,67 @@
+package com.sqlcompiler.catalog;
+
+import java.util.List;
+
+/**
+ * 索引信息
+ */
+public class IndexInfo {
+    public enum IndexMethod {
+        BTREE,
+        HASH
+    }
+
+    private final String name;
+    private final String tableName;
+    private final List<String> columns;
+    private final boolean unique;
+    private final IndexMethod method;
+
+    public IndexInfo(String name, String tableName, List<String> columns, boolean unique, IndexMethod method) {
+        this.name = name;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.unique = unique;
+        this.method = method != null ? method : IndexMethod.BTREE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 索引的首列，索引键按首列建立
+     */
+    public String getLeadingColumn() {
+        return columns.get(0);
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public IndexMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append(": ");
+        if (unique) {
+            sb.append("UNIQUE ");
+        }
+        sb.append("INDEX ON ").append(tableName);
+        sb.append(" (").append(String.join(", ", columns)).append(")");
+        sb.append(" USING ").append(method);
+        return sb.toString();
+    }
+}
@@ -9,6 +9,7 @@ public class TableInfo {
     private final String name;
     private final Map<String, ColumnInfo> columns;
     private final List<ConstraintInfo> constraints;
+    private final List<IndexInfo> indexes;
     private final String storageFormat; // 存储格式：ROW 或 COLUMN
     
     public TableInfo(String name) {
@@ -20,6 +21,7 @@ public class TableInfo {
         this.storageFormat = storageFormat != null ? storageFormat : "ROW";
         this.columns = new LinkedHashMap<>();
         this.constraints = new ArrayList<>();
+        this.indexes = new ArrayList<>();
     }
     
     public String getName() {
@@ -54,6 +56,31 @@ public class TableInfo {
         return constraints;
     }
     
+    public void addIndex(IndexInfo index) {
+        removeIndex(index.getName());
+        indexes.add(index);
+    }
+    
+    public List<IndexInfo> getIndexes() {
+        return indexes;
+    }
+    
+    /**
+     * 按名称获取索引（不区分大小写），不存在时返回null
+     */
+    public IndexInfo getIndex(String indexName) {
+        for (IndexInfo index : indexes) {
+            if (index.getName().equalsIgnoreCase(indexName)) {
+                return index;
+            }
+        }
+        return null;
+    }
+    
+    public boolean removeIndex(String indexName) {
+        return indexes.removeIf(index -> index.getName().equalsIgnoreCase(indexName));
+    }
+    
     public String getStorageFormat() {
         return storageFormat;
     }
@@ -0,0 +1,80 @@
+package com.sqlcompiler.execution;
+
+import java.util.List;
+
+/**
+ * CREATE INDEX执行计划
+ */
+public class CreateIndexPlan extends ExecutionPlan {
+    private final String indexName;
+    private final String tableName;
+    private final List<String> columns;
+    private final boolean unique;
+    private final String method;
+    
+    public CreateIndexPlan(String indexName, String tableName, List<String> columns, boolean unique, String method) {
+        super("CREATE_INDEX");
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.unique = unique;
+        this.method = method;
+    }
+    
+    public String getIndexName() {
+        return indexName;
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public List<String> getColumns() {
+        return columns;
+    }
+    
+    public boolean isUnique() {
+        return unique;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    @Override
+    public String toTreeString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE_INDEX\n");
+        sb.append("├── 索引名: ").append(indexName).append("\n");
+        sb.append("├── 表名: ").append(tableName).append("\n");
+        sb.append("├── 列: ").append(String.join(", ", columns)).append("\n");
+        sb.append("├── UNIQUE: ").append(unique).append("\n");
+        sb.append("└── 索引方式: ").append(method);
+        return sb.toString();
+    }
+    
+    @Override
+    public String toJSON() {
+        StringBuilder columnsJson = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                columnsJson.append(", ");
+            }
+            columnsJson.append("\"").append(columns.get(i)).append("\"");
+        }
+        return String.format("{\n" +
+                "  \"type\": \"CREATE_INDEX\",\n" +
+                "  \"indexName\": \"%s\",\n" +
+                "  \"tableName\": \"%s\",\n" +
+                "  \"columns\": [%s],\n" +
+                "  \"unique\": %s,\n" +
+                "  \"method\": \"%s\"\n" +
+                "}", indexName, tableName, columnsJson, unique, method);
+    }
+    
+    @Override
+    public String toSExpression() {
+        return String.format("(CREATE_INDEX %s %s (%s) %s %s)",
+                indexName, tableName, String.join(" ", columns), unique, method);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sqlcompiler.execution;
+
+/**
+ * DROP INDEX执行计划
+ */
+public class DropIndexPlan extends ExecutionPlan {
+    private final String indexName;
+    private final String tableName; // 为null时由执行器按索引名查找所属表
+    private final boolean ifExists;
+    
+    public DropIndexPlan(String indexName, String tableName, boolean ifExists) {
+        super("DROP_INDEX");
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.ifExists = ifExists;
+    }
+    
+    public String getIndexName() {
+        return indexName;
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public boolean isIfExists() {
+        return ifExists;
+    }
+    
+    @Override
+    public String toTreeString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DROP_INDEX\n");
+        sb.append("├── 索引名: ").append(indexName).append("\n");
+        if (tableName != null) {
+            sb.append("├── 表名: ").append(tableName).append("\n");
+        }
+        sb.append("└── IF EXISTS: ").append(ifExists);
+        return sb.toString();
+    }
+    
+    @Override
+    public String toJSON() {
+        return String.format("{\n" +
+                "  \"type\": \"DROP_INDEX\",\n" +
+                "  \"indexName\": \"%s\",\n" +
+                "  \"tableName\": %s,\n" +
+                "  \"ifExists\": %s\n" +
+                "}", indexName, tableName != null ? "\"" + tableName + "\"" : "null", ifExists);
+    }
+    
+    @Override
+    public String toSExpression() {
+        return String.format("(DROP_INDEX %s %s %s)", indexName, tableName, ifExists);
+    }
+}
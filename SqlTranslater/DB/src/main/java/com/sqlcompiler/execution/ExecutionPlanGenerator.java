@@ -168,6 +168,17 @@ public class ExecutionPlanGenerator implements ASTVisitor<ExecutionPlan> {
         return new DropTablePlan(node.getTableName(), node.isIfExists());
     }
     
+    @Override
+    public ExecutionPlan visit(CreateIndexStatement node) throws CompilationException {
+        return new CreateIndexPlan(node.getIndexName(), node.getTableName(), node.getColumns(),
+                                   node.isUnique(), node.getMethod());
+    }
+    
+    @Override
+    public ExecutionPlan visit(DropIndexStatement node) throws CompilationException {
+        return new DropIndexPlan(node.getIndexName(), node.getTableName(), node.isIfExists());
+    }
+    
     @Override
     public ExecutionPlan visit(ColumnDefinition node) {
         // 列定义在CREATE TABLE中处理
@@ -284,8 +295,22 @@ public class ExecutionPlanGenerator implements ASTVisitor<ExecutionPlan> {
             return new IdentifierExpressionPlan(dot.getTableName() + "." + dot.getFieldName());
         } else if (expr instanceof FunctionCallExpression) {
             FunctionCallExpression func = (FunctionCallExpression) expr;
-            // 简化处理：将函数调用转换为标识符表达式
-            return new IdentifierExpressionPlan(func.getFunctionName() + "()");
+            // 简化处理：将函数调用转换为"函数名(参数, ...)"形式的标识符表达式，聚合函数在执行时按这个名字计算
+            StringBuilder name = new StringBuilder(func.getFunctionName()).append('(');
+            for (int i = 0; i < func.getArguments().size(); i++) {
+                ExpressionPlan argument = convertExpression(func.getArguments().get(i));
+                if (i > 0) {
+                    name.append(", ");
+                }
+                if (argument instanceof IdentifierExpressionPlan) {
+                    name.append(((IdentifierExpressionPlan) argument).getName());
+                } else if (argument instanceof LiteralExpressionPlan) {
+                    name.append(((LiteralExpressionPlan) argument).getValue());
+                } else {
+                    name.append(argument.toSExpression());
+                }
+            }
+            return new IdentifierExpressionPlan(name.append(')').toString());
         } else {
             throw new CompilationException("不支持的表达式类型: " + expr.getClass().getSimpleName(), 
                                         expr.getPosition(), "执行计划生成错误");
@@ -37,7 +37,8 @@ public class SQLAutoComplete {
         "PRIMARY", "KEY", "FOREIGN", "REFERENCES", "UNIQUE", "DEFAULT",
         "AUTO_INCREMENT", "CHECK", "COUNT", "SUM", "AVG", "MAX", "MIN",
         "INT", "INTEGER", "VARCHAR", "CHAR", "TEXT", "DECIMAL", "FLOAT",
-        "DOUBLE", "BOOLEAN", "DATE", "TIME", "TIMESTAMP"
+        "DOUBLE", "BOOLEAN", "DATE", "TIME", "TIMESTAMP",
+        "INDEX", "USING", "BTREE", "HASH"
     ));
     
     public SQLAutoComplete(JTextComponent textArea, Catalog catalog) {
@@ -48,7 +48,8 @@ public class SQLSyntaxHighlighter {
         "PRIMARY", "KEY", "FOREIGN", "REFERENCES", "UNIQUE", "DEFAULT", "AUTO_INCREMENT",
         "INT", "INTEGER", "VARCHAR", "CHAR", "TEXT", "DECIMAL", "FLOAT", "DOUBLE", "BOOLEAN",
         "DATE", "TIME", "TIMESTAMP", "DATETIME",
-        "TRUE", "FALSE", "ASC", "DESC", "COUNT", "SUM", "AVG", "MAX", "MIN"
+        "TRUE", "FALSE", "ASC", "DESC", "COUNT", "SUM", "AVG", "MAX", "MIN",
+        "USING", "BTREE", "HASH"
     ));
     
     // SQL函数
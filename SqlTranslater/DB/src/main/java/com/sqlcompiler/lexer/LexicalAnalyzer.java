@@ -118,6 +118,10 @@ public class LexicalAnalyzer {
         keywordMap.put("STORAGE", TokenType.STORAGE);
         keywordMap.put("ROW", TokenType.ROW);
         keywordMap.put("COLUMN", TokenType.COLUMN);
+        
+        // 索引关键字
+        keywordMap.put("INDEX", TokenType.INDEX);
+        keywordMap.put("USING", TokenType.USING);
 
         return keywordMap;
     }
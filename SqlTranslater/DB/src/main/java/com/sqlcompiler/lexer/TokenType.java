@@ -79,6 +79,10 @@ public enum TokenType {
     ROW_STORAGE("ROW_STORAGE"),
     COLUMN_STORAGE("COLUMN_STORAGE"),
     
+    // 索引关键字
+    INDEX("INDEX"),
+    USING("USING"),
+    
     // 聚合函数
     COUNT("COUNT"),
     SUM("SUM"),
@@ -157,6 +161,7 @@ public enum TokenType {
                this == DEFAULT || this == AUTO_INCREMENT || this == CHECK ||
                this == ASC || this == DESC ||
                this == STORAGE || this == ROW || this == COLUMN || this == ROW_STORAGE || this == COLUMN_STORAGE ||
+               this == INDEX || this == USING ||
                this == COUNT || this == SUM || this == AVG || this == MAX || this == MIN ||
                this == LIKE || this == IN || this == BETWEEN;
     }
@@ -89,7 +89,10 @@ public class SyntaxAnalyzer {
         
         switch (token.getType()) {
             case CREATE:
-                return parseCreateTableStatement();
+                if (peekToken().getType() == TokenType.TABLE) {
+                    return parseCreateTableStatement();
+                }
+                return parseCreateIndexStatement();
             case INSERT:
                 return parseInsertStatement();
             case SELECT:
@@ -99,12 +102,15 @@ public class SyntaxAnalyzer {
             case DELETE:
                 return parseDeleteStatement();
             case DROP:
+                if (peekToken().getType() == TokenType.INDEX) {
+                    return parseDropIndexStatement();
+                }
                 return parseDropTableStatement();
             default:
                 throw new SyntaxException(
                     String.format("不支持的语句类型 '%s'", token.getValue()),
                     token.getPosition(),
-                    "CREATE TABLE, INSERT INTO, SELECT, UPDATE, DELETE FROM, DROP TABLE"
+                    "CREATE TABLE, CREATE INDEX, INSERT INTO, SELECT, UPDATE, DELETE FROM, DROP TABLE, DROP INDEX"
                 );
         }
     }
@@ -835,6 +841,91 @@ public class SyntaxAnalyzer {
         return new DropTableStatement(tableName, ifExists, startPos);
     }
     
+    /**
+     * 解析CREATE INDEX语句
+     * CREATE [UNIQUE] INDEX 索引名 ON 表名 (列名, ...) [USING BTREE|HASH]
+     */
+    private CreateIndexStatement parseCreateIndexStatement() throws SyntaxException {
+        Position startPos = currentToken().getPosition();
+        
+        // CREATE [UNIQUE] INDEX
+        expect(TokenType.CREATE);
+        boolean unique = false;
+        if (currentToken().getType() == TokenType.UNIQUE) {
+            nextToken();
+            unique = true;
+        }
+        expect(TokenType.INDEX);
+        
+        // 索引名
+        String indexName = expectIdentifier();
+        
+        // ON 表名 (列名列表)
+        expect(TokenType.ON);
+        String tableName = expectIdentifier();
+        expect(TokenType.LEFT_PAREN);
+        List<String> columns = parseColumnList();
+        expect(TokenType.RIGHT_PAREN);
+        
+        // 可选的USING子句，默认为B+树
+        String method = "BTREE";
+        if (currentToken().getType() == TokenType.USING) {
+            nextToken();
+            Token methodToken = currentToken();
+            method = methodToken.getValue().toUpperCase();
+            if (methodToken.getType() != TokenType.IDENTIFIER
+                    || (!"BTREE".equals(method) && !"HASH".equals(method))) {
+                throw new SyntaxException("不支持的索引方式 '" + methodToken.getValue() + "'",
+                                        methodToken.getPosition(), "BTREE, HASH");
+            }
+            nextToken();
+        }
+        
+        // 可选的分号
+        if (currentToken().getType() == TokenType.SEMICOLON) {
+            nextToken();
+        }
+        
+        return new CreateIndexStatement(indexName, tableName, columns, unique, method, startPos);
+    }
+    
+    /**
+     * 解析DROP INDEX语句
+     * DROP INDEX [IF EXISTS] 索引名 [ON 表名]
+     */
+    private DropIndexStatement parseDropIndexStatement() throws SyntaxException {
+        Position startPos = currentToken().getPosition();
+        
+        // DROP INDEX
+        expect(TokenType.DROP);
+        expect(TokenType.INDEX);
+        
+        // 可选的IF EXISTS
+        boolean ifExists = false;
+        if (currentToken().getType() == TokenType.IF) {
+            nextToken();
+            expect(TokenType.EXISTS);
+            ifExists = true;
+        }
+        
+        // 索引名
+        String indexName = expectIdentifier();
+        
+        // 可选的ON 表名
+        String tableName = null;
+        if (currentToken().getType() == TokenType.ON) {
+            nextToken();
+            tableName = expectIdentifier();
+        }
+        
+        // 可选的分号
+        if (currentToken().getType() == TokenType.SEMICOLON) {
+            nextToken();
+        }
+        
+        return new DropIndexStatement(indexName, tableName, ifExists, startPos);
+    }
+    
     /**
      * 解析表达式
      */
@@ -1191,6 +1282,16 @@ public class SyntaxAnalyzer {
         return tokens.get(currentTokenIndex);
     }
     
+    /**
+     * 查看下一个token，不移动位置
+     */
+    private Token peekToken() {
+        if (currentTokenIndex + 1 >= tokens.size()) {
+            return new Token(TokenType.EOF, "", new Position(1, 1));
+        }
+        return tokens.get(currentTokenIndex + 1);
+    }
+    
     /**
      * 移动到下一个token
      */
@@ -532,6 +532,80 @@ public class SemanticAnalyzer implements ASTVisitor<Void> {
         return null;
     }
     
+    @Override
+    public Void visit(CreateIndexStatement node) throws CompilationException {
+        String tableName = node.getTableName();
+        
+        // 检查表是否存在
+        TableInfo tableInfo = catalog.getTable(tableName);
+        if (tableInfo == null) {
+            errors.add(String.format("[语义错误, %s, 表 '%s' 不存在]", 
+                                   node.getPosition(), tableName));
+            return null;
+        }
+        if (tableInfo.isColumnarStorage()) {
+            errors.add(String.format("[语义错误, %s, 列式存储表 '%s' 不支持索引]", 
+                                   node.getPosition(), tableName));
+        }
+        
+        // 检查索引名是否已存在
+        if (tableInfo.getIndex(node.getIndexName()) != null) {
+            errors.add(String.format("[语义错误, %s, 索引 '%s' 已存在]", 
+                                   node.getPosition(), node.getIndexName()));
+        }
+        
+        // 检查索引列
+        Set<String> indexColumns = new HashSet<>();
+        for (String columnName : node.getColumns()) {
+            if (!tableInfo.columnExists(columnName)) {
+                errors.add(String.format("[语义错误, %s, 列 '%s' 在表 '%s' 中不存在]", 
+                                       node.getPosition(), columnName, tableName));
+            } else if (!indexColumns.add(columnName.toLowerCase())) {
+                errors.add(String.format("[语义错误, %s, 索引列 '%s' 重复]", 
+                                       node.getPosition(), columnName));
+            }
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public Void visit(DropIndexStatement node) throws CompilationException {
+        if (node.isIfExists()) {
+            return null;
+        }
+        
+        String indexName = node.getIndexName();
+        if (node.getTableName() != null) {
+            TableInfo tableInfo = catalog.getTable(node.getTableName());
+            if (tableInfo == null) {
+                errors.add(String.format("[语义错误, %s, 表 '%s' 不存在]", 
+                                       node.getPosition(), node.getTableName()));
+            } else if (tableInfo.getIndex(indexName) == null) {
+                errors.add(String.format("[语义错误, %s, 索引 '%s' 不存在]", 
+                                       node.getPosition(), indexName));
+            }
+            return null;
+        }
+        
+        // 未指定表时索引名必须在所有表中唯一
+        int matches = 0;
+        for (String tableName : catalog.getAllTableNames()) {
+            if (catalog.getTable(tableName).getIndex(indexName) != null) {
+                matches++;
+            }
+        }
+        if (matches == 0) {
+            errors.add(String.format("[语义错误, %s, 索引 '%s' 不存在]", 
+                                   node.getPosition(), indexName));
+        } else if (matches > 1) {
+            errors.add(String.format("[语义错误, %s, 多个表上存在索引 '%s'，请使用 DROP INDEX %s ON 表名]", 
+                                   node.getPosition(), indexName, indexName));
+        }
+        
+        return null;
+    }
+    
     /**
      * 验证表达式类型
      */
@@ -0,0 +1,73 @@
+package com.database.engine;
+
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.*;
+
+/**
+ * 引擎测试的公共基类 - 每个测试前后删除测试数据目录，并提供拉取运算符全部输出的辅助方法
+ */
+abstract class EngineTestSupport {
+    protected final String testDataDir;
+
+    protected EngineTestSupport(String testDataDir) {
+        this.testDataDir = testDataDir;
+    }
+
+    @BeforeEach
+    void cleanupBeforeTest() {
+        deleteRecursively(new File(testDataDir));
+    }
+
+    @AfterEach
+    void cleanupAfterTest() {
+        deleteRecursively(new File(testDataDir));
+    }
+
+    /**
+     * 拉取运算符的全部输出，每行按列名转换为Map
+     */
+    static List<Map<String, Object>> drain(Operator operator) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        RowSchema schema = operator.getSchema();
+        for (Object[] row : drainRows(operator)) {
+            result.add(schema.toMap(row));
+        }
+        return result;
+    }
+
+    /**
+     * 拉取运算符的全部输出，每行按列序号保留为List（可以直接比较）
+     */
+    static List<List<Object>> drainValues(Operator operator) {
+        List<List<Object>> result = new ArrayList<>();
+        for (Object[] row : drainRows(operator)) {
+            result.add(Arrays.asList(row));
+        }
+        return result;
+    }
+
+    private static List<Object[]> drainRows(Operator operator) {
+        List<Object[]> result = new ArrayList<>();
+        operator.open();
+        try {
+            Object[] row;
+            while ((row = operator.next()) != null) {
+                result.add(row);
+            }
+        } finally {
+            operator.close();
+        }
+        return result;
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
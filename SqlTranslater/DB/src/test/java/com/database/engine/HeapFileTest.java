@@ -0,0 +1,181 @@
+package com.database.engine;
+
+import com.database.storage.BufferPoolManager;
+import com.database.storage.PageStore;
+import com.database.storage.ReplacementPolicy;
+import com.sqlcompiler.catalog.*;
+import org.junit.jupiter.api.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 堆文件测试 - 验证分槽页格式、记录ID稳定性和旧格式转换
+ */
+public class HeapFileTest {
+    private final String testDataDir = "./test_data_heap";
+    private TableInfo tableInfo;
+
+    @BeforeEach
+    void setUp() {
+        cleanupTestDirectory();
+        new File(testDataDir).mkdirs();
+
+        tableInfo = new TableInfo("items");
+        tableInfo.addColumn(new ColumnInfo("id", "INT", 4));
+        tableInfo.addColumn(new ColumnInfo("name", "VARCHAR", 50));
+        tableInfo.addColumn(new ColumnInfo("price", "DECIMAL", 10));
+        tableInfo.addColumn(new ColumnInfo("stock", "BIGINT", 8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanupTestDirectory();
+    }
+
+    @Test
+    void testInsertReadAndScan() throws IOException {
+        String path = testDataDir + File.separator + "items.tbl";
+        List<RecordId> ids = new ArrayList<>();
+        try (HeapFile heapFile = HeapFile.create(path, tableInfo, this::createPageStore)) {
+            for (int i = 0; i < 2000; i++) {
+                ids.add(heapFile.insert(row(String.valueOf(i), "商品" + i, "9.90", "007")));
+            }
+            Assertions.assertTrue(heapFile.getDataPageCount() > 4, "记录页数应超过缓冲池大小，触发页面淘汰");
+
+            Map<String, Object> record = heapFile.read(ids.get(123));
+            Assertions.assertEquals("123", record.get("id"));
+            Assertions.assertEquals("商品123", record.get("name"));
+            Assertions.assertEquals("9.90", record.get("price"), "DECIMAL应按原文保存");
+            Assertions.assertEquals("007", record.get("stock"), "无法无损编码的数值应按原文保存");
+        }
+
+        // 重新打开后数据仍然存在
+        try (HeapFile heapFile = HeapFile.open(path, this::createPageStore)) {
+            List<Map<String, Object>> records = heapFile.scanAll();
+            Assertions.assertEquals(2000, records.size());
+            Assertions.assertEquals("1999", records.get(1999).get("id"));
+        }
+    }
+
+    @Test
+    void testDeleteKeepsRecordIdsStable() throws IOException {
+        String path = testDataDir + File.separator + "items.tbl";
+        try (HeapFile heapFile = HeapFile.create(path, tableInfo, this::createPageStore)) {
+            RecordId first = heapFile.insert(row("1", "a", null, "10"));
+            RecordId second = heapFile.insert(row("2", "b", null, "20"));
+            RecordId third = heapFile.insert(row("3", "c", null, "30"));
+
+            Assertions.assertTrue(heapFile.delete(second));
+            Assertions.assertFalse(heapFile.delete(second), "重复删除应该失败");
+            Assertions.assertNull(heapFile.read(second));
+
+            // 其余记录的ID不受删除和页内压缩影响
+            Assertions.assertEquals("1", heapFile.read(first).get("id"));
+            Assertions.assertEquals("3", heapFile.read(third).get("id"));
+            Assertions.assertNull(heapFile.read(first).get("price"), "空值应该保留");
+            Assertions.assertEquals(2, heapFile.scanAll().size());
+        }
+    }
+
+    @Test
+    void testOffHeapBufferPool() throws IOException {
+        String path = testDataDir + File.separator + "items.tbl";
+        List<RecordId> ids = new ArrayList<>();
+        try (HeapFile heapFile = HeapFile.create(path, tableInfo, this::createOffHeapPageStore)) {
+            for (int i = 0; i < 1000; i++) {
+                ids.add(heapFile.insert(row(String.valueOf(i), "商品" + i, "9.90", String.valueOf(i * 10))));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                Assertions.assertTrue(heapFile.delete(ids.get(i)));
+            }
+            // 删除后的空间被复用，触发堆外帧上的页内压缩
+            ids.add(heapFile.insert(row("1000", "商品1000", null, "1")));
+        }
+
+        try (HeapFile heapFile = HeapFile.open(path, this::createOffHeapPageStore)) {
+            Assertions.assertEquals(501, heapFile.scanAll().size());
+            Assertions.assertEquals("商品999", heapFile.read(ids.get(999)).get("name"));
+            Assertions.assertEquals("9990", heapFile.read(ids.get(999)).get("stock"));
+            Assertions.assertNull(heapFile.read(ids.get(998)));
+        }
+    }
+
+    @Test
+    void testSlottedPageCompaction() {
+        HeapPage page = HeapPage.format(new byte[HeapPage.PAGE_SIZE]);
+        byte[] record = new byte[1000];
+        Arrays.fill(record, (byte) 7);
+
+        int s0 = page.insert(record);
+        int s1 = page.insert(record);
+        int s2 = page.insert(record);
+        int s3 = page.insert(record);
+        Assertions.assertEquals(-1, page.insert(record), "页面已满");
+
+        page.delete(s1);
+        page.delete(s2);
+        byte[] large = new byte[1900];
+        int slot = page.insert(large);
+        Assertions.assertTrue(slot >= 0, "删除后压缩应能腾出连续空间");
+        Assertions.assertArrayEquals(record, page.getRecord(s0));
+        Assertions.assertArrayEquals(record, page.getRecord(s3));
+        Assertions.assertEquals(1900, page.getRecordLength(slot));
+    }
+
+    @Test
+    void testLegacyTextFileIsMigrated() throws IOException {
+        String path = testDataDir + File.separator + "legacy.tbl";
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8)) {
+            writer.write("# Table Metadata\n");
+            writer.write("TABLE_NAME=legacy\n");
+            writer.write("COLUMN_COUNT=2\n");
+            writer.write("COLUMN=id:INT:4\n");
+            writer.write("COLUMN=name:VARCHAR:50\n");
+            writer.write("# End Metadata\n\n");
+            writer.write("RECORD:name=张三|id=1\n");
+            writer.write("RECORD:name=李四|id=2\n");
+        }
+
+        try (HeapFile heapFile = HeapFile.open(path, this::createPageStore)) {
+            List<Map<String, Object>> records = heapFile.scanAll();
+            Assertions.assertEquals(2, records.size());
+            Assertions.assertEquals("李四", records.get(1).get("name"));
+        }
+        Assertions.assertEquals(0, new File(path).length() % HeapPage.PAGE_SIZE, "转换后的文件应按页对齐");
+    }
+
+    private PageStore createPageStore(String path) {
+        BufferPoolManager bufferPool = new BufferPoolManager(4, path, ReplacementPolicy.LRU);
+        bufferPool.setLoggingEnabled(false);
+        return bufferPool;
+    }
+
+    private PageStore createOffHeapPageStore(String path) {
+        BufferPoolManager bufferPool = new BufferPoolManager(4, path, ReplacementPolicy.LRU, true);
+        bufferPool.setLoggingEnabled(false);
+        return bufferPool;
+    }
+
+    private Map<String, Object> row(String id, String name, String price, String stock) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("id", id);
+        record.put("name", name);
+        record.put("price", price);
+        record.put("stock", stock);
+        return record;
+    }
+
+    private void cleanupTestDirectory() {
+        File testDir = new File(testDataDir);
+        if (testDir.exists()) {
+            File[] files = testDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            testDir.delete();
+        }
+    }
+}
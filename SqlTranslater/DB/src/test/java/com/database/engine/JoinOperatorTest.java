@@ -0,0 +1,223 @@
+package com.database.engine;
+
+import org.junit.jupiter.api.*;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 连接运算符测试 - 验证哈希连接与嵌套循环连接结果一致（数值键规范化、多列键和其余条件、
+ * 构建端在左右两边），构建端超过内存预算时分区溢出到磁盘，排序合并连接和索引嵌套循环连接的结果，
+ * 以及SELECT中的等值JOIN按代价选择连接方式时结果不变
+ */
+public class JoinOperatorTest extends EngineTestSupport {
+    public JoinOperatorTest() {
+        super("./test_data_join");
+    }
+
+    @Test
+    void testHashJoinMatchesNestedLoop() {
+        List<Object[]> orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            orders.add(new Object[] {String.valueOf(i), (i % 40) + (i % 2 == 0 ? ".0" : ""), "r" + (i % 3)});
+        }
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            customers.add(new Object[] {String.valueOf(i), i % 7 == 0 ? null : "r" + (i % 3)});
+        }
+        customers.add(new Object[] {"5", "r2"}); // 重复的键
+
+        // o.cust = c.id AND o.region = c.region AND o.id > 50
+        Predicate<Object[]> condition = row -> Executor.compareValues(String.valueOf(row[1]), String.valueOf(row[3])) == 0
+            && String.valueOf(row[2]).equals(String.valueOf(row[4])) && Integer.parseInt((String) row[0]) > 50;
+        List<List<Object>> expected = drainValues(new NestedLoopJoinOperator(scan(orders, "o", "id", "cust", "region"),
+            scan(customers, "c", "id", "region"), condition));
+        Assertions.assertFalse(expected.isEmpty());
+
+        Predicate<Object[]> residual = row -> Integer.parseInt((String) row[0]) > 50;
+        for (boolean buildLeft : new boolean[] {false, true}) {
+            HashJoinOperator join = new HashJoinOperator(scan(orders, "o", "id", "cust", "region"),
+                scan(customers, "c", "id", "region"), new int[] {1, 2}, new int[] {0, 1}, residual, buildLeft,
+                Long.MAX_VALUE);
+            Assertions.assertEquals(Arrays.asList("o.id", "o.cust", "o.region", "c.id", "c.region"),
+                join.getSchema().getColumns());
+            List<List<Object>> actual = drainValues(join);
+            if (buildLeft) {
+                Assertions.assertEquals(sorted(expected), sorted(actual), "以左边为构建端时结果相同");
+            } else {
+                Assertions.assertEquals(expected, actual, "以右边为构建端时输出顺序与嵌套循环相同");
+            }
+            Assertions.assertEquals(0, join.getPartitionsSpilled());
+        }
+    }
+
+    @Test
+    void testHashJoinSpillsPartitionsToDisk() {
+        List<Object[]> left = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            left.add(new Object[] {String.valueOf(i), String.valueOf(i % 500)});
+        }
+        List<Object[]> right = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            right.add(new Object[] {String.valueOf(i % 600), "v" + i});
+        }
+        right.add(new Object[] {null, "null-key"});
+        Predicate<Object[]> condition = row -> row[2] != null
+            && Executor.compareValues((String) row[1], (String) row[2]) == 0;
+        List<List<Object>> expected = drainValues(new NestedLoopJoinOperator(
+            scan(left, "l", "id", "k"), scan(right, "r", "k", "v"), condition));
+
+        HashJoinOperator join = new HashJoinOperator(scan(left, "l", "id", "k"), scan(right, "r", "k", "v"),
+            new int[] {1}, new int[] {0}, null, false, 4096);
+        List<List<Object>> actual = drainValues(join);
+        Assertions.assertTrue(join.getPartitionsSpilled() >= HashJoinOperator.PARTITIONS, "构建端超过预算时分区写入磁盘");
+        Assertions.assertEquals(6 * (400 * 2 + 100), actual.size(), "键小于400的左边行匹配两个右边行，其余匹配一个");
+        Assertions.assertEquals(sorted(expected), sorted(actual));
+
+        // 全部是同一个键时再分区也无法变小，达到最大深度后直接读入内存
+        List<Object[]> same = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            same.add(new Object[] {String.valueOf(i), "7"});
+        }
+        HashJoinOperator skewed = new HashJoinOperator(scan(same, "a", "id", "k"), scan(same, "b", "id", "k"),
+            new int[] {1}, new int[] {1}, null, true, 1024);
+        Assertions.assertEquals(300 * 300, drainValues(skewed).size());
+    }
+
+    @Test
+    void testMergeJoinMatchesNestedLoop() {
+        // 两边都按索引键顺序排列：NULL在前，数值按大小，两边都有重复的键
+        List<Object[]> left = new ArrayList<>();
+        left.add(new Object[] {"a0", null});
+        for (int i = 0; i < 60; i++) {
+            left.add(new Object[] {"a" + (i + 1), String.valueOf(i / 3)});
+        }
+        List<Object[]> right = new ArrayList<>();
+        right.add(new Object[] {null, "r0"});
+        right.add(new Object[] {null, "r1"});
+        for (int i = 0; i < 40; i++) {
+            right.add(new Object[] {(i / 2 * 2) + ".0", "r" + (i + 2)});
+        }
+        Predicate<Object[]> condition = row -> Executor.compareValues(String.valueOf(row[1]).replace("null", "NULL"),
+            String.valueOf(row[2]).replace("null", "NULL")) == 0;
+        List<List<Object>> expected = drainValues(new NestedLoopJoinOperator(
+            scan(left, "l", "name", "k"), scan(right, "r", "k", "v"), condition));
+
+        List<List<Object>> actual = drainValues(new MergeJoinOperator(
+            scan(left, "l", "name", "k"), scan(right, "r", "k", "v"), 1, 0, true, condition));
+        Assertions.assertEquals(2 + 10 * 3 * 2, actual.size(), "NULL键与NULL键相等，0到18的偶数键各匹配3×2行");
+        Assertions.assertEquals(expected, actual, "输出顺序与以左边为外表的嵌套循环相同");
+    }
+
+    @Test
+    void testIndexNestedLoopJoinProbesInnerRows() {
+        List<Object[]> outer = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            outer.add(new Object[] {String.valueOf(i % 4)});
+        }
+        Map<String, List<Object[]>> inner = new HashMap<>();
+        inner.put("1", Arrays.asList(new Object[] {"1", "one"}, new Object[] {"1", "uno"}));
+        inner.put("3", Collections.singletonList(new Object[] {"3", "three"}));
+
+        IndexNestedLoopJoinOperator join = new IndexNestedLoopJoinOperator(scan(outer, "o", "k"),
+            RowSchema.of(Arrays.asList("k", "name"), "i"), 0,
+            value -> inner.getOrDefault(value, Collections.emptyList()).iterator(),
+            row -> !"uno".equals(row[2]));
+        List<List<Object>> rows = drainValues(join);
+        Assertions.assertEquals(Arrays.asList("o.k", "i.k", "i.name"), join.getSchema().getColumns());
+        Assertions.assertEquals(Arrays.asList(
+            Arrays.asList("1", "1", "one"), Arrays.asList("3", "3", "three"),
+            Arrays.asList("1", "1", "one"), Arrays.asList("3", "3", "three"),
+            Arrays.asList("1", "1", "one")), rows, "候选行还要检查连接条件");
+        Assertions.assertEquals(10, join.getLookups(), "每个外表行查找一次");
+    }
+
+    @Test
+    void testJoinMethodsChosenByCostReturnSameRows() {
+        DatabaseEngine engine = new DatabaseEngine("join_cost_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE item (id INT, cat INT, name VARCHAR(20))").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE cat (cid INT, label VARCHAR(20))").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE pick (item_id INT, tag VARCHAR(5))").isSuccess());
+        for (int i = 0; i < 300; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO item (id, cat, name) VALUES ("
+                + i + ", " + (i % 40) + ", 'n" + i + "')").isSuccess());
+        }
+        for (int i = 39; i >= 0; i--) {
+            Assertions.assertTrue(engine.executeSQL(
+                "INSERT INTO cat (cid, label) VALUES (" + i + ", 'c" + i + "')").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL("INSERT INTO item (name) VALUES ('none')").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("INSERT INTO pick (item_id) VALUES (7), (250), (999)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("INSERT INTO pick (tag) VALUES ('null')").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE code (ref VARCHAR(5), note VARCHAR(10))").isSuccess());
+        Assertions.assertTrue(engine.executeSQL(
+            "INSERT INTO code (ref, note) VALUES ('07', 'a'), ('250', 'b'), ('x', 'c')").isSuccess());
+        for (int i = 0; i < 300; i++) {
+            Assertions.assertTrue(engine.executeSQL(
+                "INSERT INTO code (ref, note) VALUES ('r" + i + "', 'd')").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL("CREATE INDEX idx_item_id ON item (id)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE INDEX idx_item_cat ON item (cat)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE INDEX idx_cat_cid ON cat (cid)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE INDEX idx_code_ref ON code (ref)").isSuccess());
+
+        String indexJoin = "SELECT i.name FROM pick p JOIN item i ON p.item_id = i.id ORDER BY i.name";
+        String mergeJoin = "SELECT i.id, c.label FROM item i JOIN cat c ON i.cat = c.cid WHERE c.cid < 3 ORDER BY i.id";
+        // 文本列上"07"与7按数值比较相等而索引键不同，即使代价更低也不在文本列的索引上查找
+        String textJoin = "SELECT c.note FROM pick p JOIN code c ON p.item_id = c.ref ORDER BY c.note";
+        // 小表连接大表的索引列时在索引上查找；哈希连接要溢出到磁盘时沿两个索引的顺序合并
+        engine.setJoinMemoryBudget(1024);
+        List<Map<String, Object>> probed = engine.executeSQL(indexJoin).getData();
+        List<Map<String, Object>> merged = engine.executeSQL(mergeJoin).getData();
+        List<Map<String, Object>> textMatched = engine.executeSQL(textJoin).getData();
+        Assertions.assertEquals(3, probed.size(), "NULL与NULL相等，在索引上查找NULL键");
+        Assertions.assertEquals("n250", probed.get(0).get("name"));
+        Assertions.assertEquals("none", probed.get(2).get("name"));
+        Assertions.assertEquals(2, textMatched.size());
+        Assertions.assertEquals("a", textMatched.get(0).get("note"));
+        Assertions.assertEquals(24, merged.size());
+        Assertions.assertEquals("c2", merged.get(2).get("label"));
+
+        // 线性查找模式下不使用索引，改用哈希连接，结果相同
+        engine.setIndexType("线性查找");
+        Assertions.assertEquals(probed, engine.executeSQL(indexJoin).getData());
+        Assertions.assertEquals(merged, engine.executeSQL(mergeJoin).getData());
+        Assertions.assertEquals(textMatched, engine.executeSQL(textJoin).getData());
+        engine.shutdown();
+    }
+
+    @Test
+    void testSelectUsesHashJoin() {
+        DatabaseEngine engine = new DatabaseEngine("join_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE emp (id INT, name VARCHAR(20), dept INT)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE dept (id INT, title VARCHAR(20))").isSuccess());
+        for (int i = 0; i < 50; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO emp (id, name, dept) VALUES ("
+                + i + ", 'e" + i + "', " + (i % 4) + ")").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL(
+            "INSERT INTO dept (id, title) VALUES (0, 'zero'), (1, 'one'), (2, 'two')").isSuccess());
+
+        String query = "SELECT e.name, d.title FROM emp e JOIN dept d ON e.dept = d.id AND d.id > 0 ORDER BY e.id";
+        List<Map<String, Object>> inMemory = engine.executeSQL(query).getData();
+        Assertions.assertEquals(25, inMemory.size());
+        Assertions.assertEquals("e1", inMemory.get(0).get("name"));
+        Assertions.assertEquals("one", inMemory.get(0).get("title"));
+
+        engine.setJoinMemoryBudget(256);
+        Assertions.assertEquals(inMemory, engine.executeSQL(query).getData(), "溢出到磁盘后结果相同");
+        engine.shutdown();
+    }
+
+    private static ScanOperator scan(List<Object[]> rows, String prefix, String... columns) {
+        return new ScanOperator(rows::iterator, RowSchema.of(Arrays.asList(columns), prefix));
+    }
+
+    private static List<List<Object>> sorted(List<List<Object>> rows) {
+        List<List<Object>> copy = new ArrayList<>(rows);
+        copy.sort(Comparator.comparing(Object::toString));
+        return copy;
+    }
+}
@@ -0,0 +1,119 @@
+package com.database.engine;
+
+import org.junit.jupiter.api.*;
+import java.util.*;
+
+/**
+ * 查询运算符测试 - 验证LIMIT提前停止拉取、带LIMIT的稳定排序、分组聚合、行结构的列序号查找，
+ * 以及SELECT经由运算符管道执行的JOIN、聚合和按未选择列排序
+ */
+public class OperatorTest extends EngineTestSupport {
+    public OperatorTest() {
+        super("./test_data_operator");
+    }
+
+    @Test
+    void testLimitStopsPullingFromScan() {
+        ScanOperator scan = new ScanOperator(() -> rows(100_000).iterator(), schema("t"));
+        int id = scan.getSchema().indexOf("t.id");
+        Operator root = new LimitOperator(new ProjectOperator(
+            new FilterOperator(scan, row -> Integer.parseInt((String) row[id]) % 2 == 0),
+            new RowSchema(Collections.singletonList("id")), new int[] {id}), 5);
+        List<Map<String, Object>> result = drain(root);
+        Assertions.assertEquals(5, result.size());
+        Assertions.assertEquals("8", result.get(4).get("id"));
+        Assertions.assertEquals(9, scan.getRowsRead(), "只读取得到5行所需的输入");
+    }
+
+    @Test
+    void testSortWithLimitKeepsTopRowsStably() {
+        Comparator<Object[]> byGroup = Comparator.comparing(row -> (String) row[1]);
+        List<Map<String, Object>> sorted = drain(new SortOperator(
+            new ScanOperator(() -> rows(1000).iterator(), schema(null)), byGroup.reversed(), 4));
+        Assertions.assertEquals(4, sorted.size());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("g6", sorted.get(i).get("group"));
+            Assertions.assertEquals(String.valueOf(6 + i * 7), sorted.get(i).get("id"), "相等的行保持输入顺序");
+        }
+        Assertions.assertEquals(1000, drain(new SortOperator(
+            new ScanOperator(() -> rows(1000).iterator(), schema(null)), byGroup, 0)).size());
+    }
+
+    @Test
+    void testAggregateGroupsRows() {
+        List<Map<String, Object>> groups = drain(new AggregateOperator(
+            new ScanOperator(() -> rows(70).iterator(), schema("t")), Collections.singletonList("group"),
+            Arrays.asList("COUNT(*)", "SUM(id)", "AVG(id)", "MIN(id)", "max(id)")));
+        Assertions.assertEquals(7, groups.size());
+        Map<String, Object> first = groups.get(0);
+        Assertions.assertEquals("g0", first.get("group"));
+        Assertions.assertEquals("10", first.get("COUNT(*)"));
+        Assertions.assertEquals("315", first.get("SUM(id)"));
+        Assertions.assertEquals("31.5", first.get("AVG(id)"));
+        Assertions.assertEquals("0", first.get("MIN(id)"));
+        Assertions.assertEquals("63", first.get("max(id)"), "MIN、MAX按数值比较");
+
+        List<Map<String, Object>> empty = drain(new AggregateOperator(
+            new ScanOperator(Collections::emptyIterator, schema(null)), Collections.emptyList(),
+            Arrays.asList("COUNT(*)", "SUM(id)")));
+        Assertions.assertEquals(1, empty.size(), "没有GROUP BY时空输入也输出一行");
+        Assertions.assertEquals("0", empty.get(0).get("COUNT(*)"));
+        Assertions.assertNull(empty.get(0).get("SUM(id)"));
+    }
+
+    @Test
+    void testRowSchemaResolvesOrdinals() {
+        RowSchema joined = schema("u").concat(RowSchema.of(Arrays.asList("id", "title"), "d"));
+        Assertions.assertEquals(4, joined.size());
+        Assertions.assertEquals(2, joined.indexOf("d.id"));
+        Assertions.assertEquals(0, joined.indexOf("id"), "不带前缀的列名匹配第一个同名列");
+        Assertions.assertEquals(3, joined.indexOf("title"));
+        Assertions.assertEquals(-1, joined.indexOf("missing"));
+        Object[] row = {"1", "g1", "7", "seven"};
+        Assertions.assertArrayEquals(row, joined.fromMap(joined.toMap(row)));
+    }
+
+    @Test
+    void testSelectRunsThroughOperatorPipeline() {
+        DatabaseEngine engine = new DatabaseEngine("operator_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE users (id INT PRIMARY KEY, name VARCHAR(20), dept INT)").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE TABLE depts (id INT PRIMARY KEY, title VARCHAR(20))").isSuccess());
+        for (int i = 0; i < 30; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO users (id, name, dept) VALUES ("
+                + i + ", 'u" + i + "', " + (i % 3) + ")").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL(
+            "INSERT INTO depts (id, title) VALUES (0, 'zero'), (1, 'one'), (2, 'two')").isSuccess());
+
+        List<Map<String, Object>> joined = engine.executeSQL(
+            "SELECT u.name, d.title FROM users u JOIN depts d ON u.dept = d.id WHERE u.id < 6").getData();
+        Assertions.assertEquals(6, joined.size());
+        Assertions.assertEquals("u4", joined.get(4).get("name"));
+        Assertions.assertEquals("one", joined.get(4).get("title"));
+
+        List<Map<String, Object>> counts = engine.executeSQL(
+            "SELECT dept, COUNT(*) FROM users WHERE id >= 3 GROUP BY dept HAVING COUNT(*) > 8").getData();
+        Assertions.assertEquals(3, counts.size());
+        Assertions.assertEquals("9", counts.get(0).get("COUNT(*)"));
+
+        List<Map<String, Object>> names = engine.executeSQL(
+            "SELECT name FROM users ORDER BY id DESC LIMIT 2").getData();
+        Assertions.assertEquals(Arrays.asList("u29", "u28"),
+            Arrays.asList(names.get(0).get("name"), names.get(1).get("name")), "可以按未选择的列排序");
+        engine.shutdown();
+    }
+
+    private static RowSchema schema(String prefix) {
+        return RowSchema.of(Arrays.asList("id", "group"), prefix);
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {String.valueOf(i), "g" + (i % 7)});
+        }
+        return rows;
+    }
+}
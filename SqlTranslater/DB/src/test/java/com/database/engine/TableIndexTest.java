@@ -0,0 +1,187 @@
+package com.database.engine;
+
+import com.sqlcompiler.catalog.*;
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.*;
+
+/**
+ * 表索引测试 - 验证主键索引随插入删除维护、等值与范围查找，重新打开表后索引仍然可用，
+ * CREATE INDEX / DROP INDEX建立的二级索引和多列组合索引，以及按索引顺序执行的ORDER BY + LIMIT
+ */
+public class TableIndexTest extends EngineTestSupport {
+    private TableInfo tableInfo;
+
+    public TableIndexTest() {
+        super("./test_data_index");
+    }
+
+    @BeforeEach
+    void setUp() {
+        tableInfo = new TableInfo("orders");
+        tableInfo.addColumn(new ColumnInfo("id", "INT", 4, false, true, false, false, null, true));
+        tableInfo.addColumn(new ColumnInfo("customer", "VARCHAR", 50, true, false, true, false, null, false));
+        tableInfo.addColumn(new ColumnInfo("amount", "DOUBLE", 8));
+    }
+
+    @Test
+    void testPrimaryKeyIndexLookups() {
+        StorageAdapter adapter = new StorageAdapter(testDataDir);
+        Assertions.assertTrue(adapter.createTable("orders", tableInfo));
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(adapter.insertRecord("orders", row(i, "c" + (i % 10), i * 1.5)));
+        }
+
+        TableIndex idIndex = adapter.getIndex("orders", "id");
+        Assertions.assertNotNull(idIndex, "主键列应自动建立索引");
+        Assertions.assertNotNull(adapter.getIndex("orders", "customer"), "唯一约束列应自动建立索引");
+        Assertions.assertNull(adapter.getIndex("orders", "amount"));
+
+        List<RecordId> hit = idIndex.lookup("=", "500", TableIndex.AccessMethod.BTREE);
+        Assertions.assertEquals(1, hit.size());
+        Assertions.assertEquals("500", adapter.readRecord("orders", hit.get(0)).get("id"));
+        Assertions.assertEquals(hit, idIndex.lookup("=", "500.0", TableIndex.AccessMethod.HASH), "数值键按数值相等");
+        Assertions.assertEquals(11, idIndex.lookup(">", "989", TableIndex.AccessMethod.BTREE).size(), "范围查找包含边界，由调用方过滤");
+        Assertions.assertNull(idIndex.lookup("=", "abc", TableIndex.AccessMethod.BTREE), "非数字常量不走数值列索引");
+
+        Assertions.assertTrue(adapter.deleteRecord("orders", hit.get(0)));
+        Assertions.assertTrue(idIndex.lookup("=", "500", TableIndex.AccessMethod.HASH).isEmpty(), "哈希索引随删除维护");
+        Assertions.assertEquals(99, adapter.getIndex("orders", "customer")
+            .lookup("=", "c0", TableIndex.AccessMethod.AUTO).size());
+        adapter.close();
+
+        // 重新打开后从索引文件恢复
+        adapter = new StorageAdapter(testDataDir);
+        idIndex = adapter.getIndex("orders", "id");
+        Assertions.assertNotNull(idIndex);
+        Assertions.assertTrue(idIndex.lookup("=", "500", TableIndex.AccessMethod.BTREE).isEmpty());
+        List<RecordId> low = idIndex.lookup("<=", "2", TableIndex.AccessMethod.BTREE);
+        Assertions.assertEquals(3, low.size());
+        Assertions.assertEquals("3.0", adapter.readRecord("orders", low.get(2)).get("amount"));
+
+        Assertions.assertTrue(adapter.dropTable("orders"));
+        Assertions.assertFalse(new File(testDataDir, "orders.id.idx").exists(), "删除表时一并删除索引文件");
+        adapter.close();
+    }
+
+    @Test
+    void testCreateAndDropIndexStatements() {
+        DatabaseEngine engine = new DatabaseEngine("index_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE orders (id INT PRIMARY KEY, customer_id INT, email VARCHAR(50))").isSuccess());
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO orders (id, customer_id, email) VALUES ("
+                + i + ", " + (i % 10) + ", 'u" + i + "@example.com')").isSuccess());
+        }
+
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE INDEX idx_customer ON orders (customer_id) USING HASH").isSuccess());
+        Assertions.assertTrue(engine.executeSQL("CREATE UNIQUE INDEX idx_email ON orders (email)").isSuccess());
+        Assertions.assertFalse(engine.executeSQL("CREATE UNIQUE INDEX idx_bad ON orders (customer_id)").isSuccess(),
+            "已有重复值的列不能建立唯一索引");
+        Assertions.assertFalse(new File(testDataDir, "orders.idx_bad.idx").exists());
+
+        StorageAdapter adapter = engine.getExecutor().getStorageAdapter();
+        Assertions.assertTrue(adapter.getIndex("orders", "customer_id").isHashIndexLoaded(), "USING HASH的索引打开时构建哈希索引");
+        Assertions.assertTrue(new File(testDataDir, "orders.idx_customer.hash").exists(), "USING HASH的索引有持久化的哈希文件");
+        Assertions.assertFalse(new File(testDataDir, "orders.idx_email.hash").exists());
+        Assertions.assertEquals(20, engine.executeSQL("SELECT * FROM orders WHERE customer_id = 3").getData().size());
+        Assertions.assertFalse(engine.executeSQL(
+            "INSERT INTO orders (id, customer_id, email) VALUES (500, 1, 'u7@example.com')").isSuccess(), "唯一索引拒绝重复值");
+        engine.shutdown();
+
+        // 重新打开后索引定义从系统表恢复
+        engine = new DatabaseEngine("index_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        TableInfo orders = engine.getCatalogManager().getTable("orders");
+        Assertions.assertNotNull(orders.getIndex("idx_customer"));
+        Assertions.assertTrue(orders.getIndex("idx_email").isUnique());
+        Assertions.assertEquals(20, engine.executeSQL("SELECT * FROM orders WHERE customer_id = 7").getData().size());
+        Assertions.assertEquals(20, engine.getExecutor().getStorageAdapter().getIndex("orders", "customer_id")
+            .lookup("=", "7", TableIndex.AccessMethod.HASH).size(), "哈希索引从哈希文件恢复");
+        Assertions.assertFalse(engine.executeSQL(
+            "INSERT INTO orders (id, customer_id, email) VALUES (501, 1, 'u8@example.com')").isSuccess());
+
+        Assertions.assertTrue(engine.executeSQL("DROP INDEX idx_customer").isSuccess());
+        Assertions.assertNull(orders.getIndex("idx_customer"));
+        Assertions.assertNull(engine.getExecutor().getStorageAdapter().getIndex("orders", "customer_id"));
+        Assertions.assertFalse(new File(testDataDir, "orders.idx_customer.idx").exists());
+        Assertions.assertFalse(new File(testDataDir, "orders.idx_customer.hash").exists());
+        Assertions.assertTrue(engine.executeSQL("DROP INDEX IF EXISTS idx_customer").isSuccess());
+        engine.shutdown();
+    }
+
+    @Test
+    void testCompositeIndexPrefixLookups() {
+        DatabaseEngine engine = new DatabaseEngine("index_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE events (id INT PRIMARY KEY, tenant_id INT, created_at VARCHAR(30))").isSuccess());
+        for (int i = 0; i < 300; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO events (id, tenant_id, created_at) VALUES ("
+                + i + ", " + (i % 5) + ", '2024-01-" + String.format("%02d", i / 10 + 1) + "')").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE INDEX idx_tenant_time ON events (tenant_id, created_at)").isSuccess());
+
+        TableIndex index = engine.getExecutor().getStorageAdapter().getIndex("events", "tenant_id");
+        Assertions.assertEquals(Arrays.asList("tenant_id", "created_at"), index.getColumnNames());
+        Assertions.assertEquals(60, index.lookup("=", "3", TableIndex.AccessMethod.AUTO).size(), "只用首列的前缀查找");
+        Assertions.assertEquals(2, index.lookup(Collections.singletonList("3"), "=", "2024-01-05",
+            TableIndex.AccessMethod.BTREE).size());
+        Assertions.assertEquals(TableIndex.AccessMethod.BTREE, index.resolve("=", TableIndex.AccessMethod.HASH),
+            "多列索引不使用哈希索引");
+
+        Assertions.assertEquals(2, engine.executeSQL(
+            "SELECT * FROM events WHERE tenant_id = 3 AND created_at = '2024-01-05'").getData().size());
+        Assertions.assertEquals(10, engine.executeSQL(
+            "SELECT * FROM events WHERE tenant_id = 3 AND created_at >= '2024-01-26'").getData().size());
+        Assertions.assertEquals(2, engine.executeSQL(
+            "SELECT * FROM events WHERE created_at < '2024-01-02' AND tenant_id = 4").getData().size());
+        Assertions.assertEquals(120, engine.executeSQL(
+            "SELECT * FROM events WHERE tenant_id = 1 OR tenant_id = 2").getData().size());
+        engine.shutdown();
+    }
+
+    @Test
+    void testOrderByLimitReadsIndexInOrder() {
+        DatabaseEngine engine = new DatabaseEngine("index_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE scores (id INT PRIMARY KEY, points INT, name VARCHAR(20))").isSuccess());
+        for (int i = 0; i < 500; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO scores (id, points, name) VALUES ("
+                + i + ", " + ((i * 37) % 100) + ", 'p" + i + "')").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL("CREATE INDEX idx_points ON scores (points)").isSuccess());
+
+        List<Map<String, Object>> top = engine.executeSQL(
+            "SELECT * FROM scores ORDER BY points DESC LIMIT 7").getData();
+        Assertions.assertEquals(7, top.size());
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals("99", top.get(i).get("points"), "每个分数有5行");
+        }
+        Assertions.assertEquals("98", top.get(5).get("points"));
+
+        List<Map<String, Object>> low = engine.executeSQL(
+            "SELECT id, points FROM scores WHERE name != 'p0' ORDER BY points LIMIT 3").getData();
+        Assertions.assertEquals(3, low.size());
+        Assertions.assertEquals("0", low.get(0).get("points"), "按数值而不是字符串排序");
+        Assertions.assertNotEquals("0", low.get(0).get("id"), "WHERE条件仍然生效");
+
+        List<Map<String, Object>> byId = engine.executeSQL(
+            "SELECT * FROM scores ORDER BY id DESC LIMIT 2").getData();
+        Assertions.assertEquals("499", byId.get(0).get("id"));
+        Assertions.assertEquals("498", byId.get(1).get("id"));
+        engine.shutdown();
+    }
+
+    private Map<String, Object> row(int id, String customer, double amount) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("id", String.valueOf(id));
+        record.put("customer", customer);
+        record.put("amount", String.valueOf(amount));
+        return record;
+    }
+}
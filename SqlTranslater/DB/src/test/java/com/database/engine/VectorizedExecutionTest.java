@@ -0,0 +1,114 @@
+package com.database.engine;
+
+import com.sqlcompiler.catalog.ColumnInfo;
+import com.sqlcompiler.catalog.TableInfo;
+import org.junit.jupiter.api.*;
+import java.util.*;
+
+/**
+ * 向量化执行测试 - 验证列向量解码、跨批的过滤和分组聚合与逐行执行结果一致，
+ * 以及列式表的SELECT在开启和关闭向量化执行时返回相同的结果
+ */
+public class VectorizedExecutionTest extends EngineTestSupport {
+    public VectorizedExecutionTest() {
+        super("./test_data_vectorized");
+    }
+
+    @Test
+    void testColumnVectorDecoding() {
+        ColumnVector decimals = ColumnVector.decode(Arrays.asList("1.5", null, "-2", "0.25"), false);
+        Assertions.assertEquals(ColumnVector.Kind.LONG, decimals.getKind());
+        Assertions.assertEquals(2, decimals.getScale());
+        Assertions.assertEquals(150, decimals.longs[0]);
+        Assertions.assertTrue(decimals.isNull(1));
+        Assertions.assertEquals(-200, decimals.longs[2]);
+        Assertions.assertEquals("0.25", decimals.getText(3));
+
+        ColumnVector text = ColumnVector.decode(Arrays.asList("b", "10", "b", null), false);
+        Assertions.assertEquals(ColumnVector.Kind.STRING, text.getKind(), "有非数字值时做字典编码");
+        Assertions.assertArrayEquals(new String[] {"b", "10"}, text.getDictionary());
+        Assertions.assertEquals(0, text.codes[2]);
+        Assertions.assertTrue(text.isNull(3));
+
+        ColumnVector huge = ColumnVector.decode(Arrays.asList("1e300", "2"), false);
+        Assertions.assertEquals(ColumnVector.Kind.DOUBLE, huge.getKind(), "超出long范围时用double");
+    }
+
+    @Test
+    void testVectorizedAggregateMatchesRowAggregate() {
+        ColumnarStorageEngine columnarStorageEngine = new ColumnarStorageEngine(testDataDir);
+        TableInfo tableInfo = new TableInfo("sales", "COLUMN");
+        tableInfo.addColumn(new ColumnInfo("id", "INT", 0, true, false));
+        tableInfo.addColumn(new ColumnInfo("region", "VARCHAR", 10, false, false));
+        tableInfo.addColumn(new ColumnInfo("amount", "DECIMAL", 10, false, false));
+        Assertions.assertTrue(columnarStorageEngine.createTable("sales", tableInfo));
+        int rows = ColumnBatch.CAPACITY * 2 + 500;
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("id", String.valueOf(i));
+            record.put("region", i % 11 == 0 ? null : "r" + (i % 5));
+            record.put("amount", i % 13 == 0 ? null : (i % 100) + "." + (i % 4) + "5");
+            Assertions.assertTrue(columnarStorageEngine.insertRecord("sales", record));
+        }
+
+        List<String> aggregates = Arrays.asList("COUNT(*)", "COUNT(amount)", "SUM(amount)", "AVG(amount)",
+            "MIN(amount)", "MAX(amount)", "MAX(region)", "SUM(id)");
+        List<Map<String, Object>> expected = drain(new AggregateOperator(new FilterOperator(
+            new ScanOperator(() -> columnarStorageEngine.scanRows("sales", Arrays.asList("id", "region", "amount"))
+                .iterator(), new RowSchema(Arrays.asList("id", "region", "amount"))),
+            row -> Executor.compareValues((String) row[0], "100") >= 0
+                && Executor.compareValues(row[2] != null ? (String) row[2] : "NULL", "10.5") > 0
+                && Executor.compareValues(row[1] != null ? (String) row[1] : "NULL", "r1") != 0),
+            Collections.singletonList("region"), aggregates));
+
+        // 列向量：0 id，1 amount（按值解码），2 region（字典编码，分组和MAX共用）
+        BatchOperator scan = new ColumnarBatchScan(columnarStorageEngine, "sales",
+            Arrays.asList("id", "amount", "region"), new boolean[] {false, false, true});
+        BatchOperator filter = new VectorFilterOperator(scan, Arrays.asList(
+            new VectorFilterOperator.Comparison(0, ">=", "100"), new VectorFilterOperator.Comparison(1, ">", "10.5"),
+            new VectorFilterOperator.Comparison(2, "!=", "r1")));
+        List<Map<String, Object>> actual = drain(new VectorAggregateOperator(filter, new int[] {2},
+            Collections.singletonList("region"), aggregates, new int[] {-1, 1, 1, 1, 1, 1, 2, 0}));
+
+        Assertions.assertEquals(5, actual.size(), "4个地区加NULL分组，NULL按\"NULL\"比较");
+        Assertions.assertEquals(expected, actual, "分组顺序和各聚合结果与逐行执行一致");
+    }
+
+    @Test
+    void testColumnarSelectSameWithAndWithoutVectorization() {
+        DatabaseEngine engine = new DatabaseEngine("vectorized_test_db", testDataDir);
+        Assertions.assertTrue(engine.initialize());
+        engine.setStorageFormat("列式存储");
+        Assertions.assertTrue(engine.executeSQL(
+            "CREATE TABLE orders (id INT, status VARCHAR(10), price DECIMAL(10,2))").isSuccess());
+        for (int i = 0; i < 60; i++) {
+            Assertions.assertTrue(engine.executeSQL("INSERT INTO orders (id, status, price) VALUES ("
+                + i + ", '" + (i % 3 == 0 ? "open" : "done") + "', " + (i * 7 % 50) + ".50)").isSuccess());
+        }
+        Assertions.assertTrue(engine.executeSQL("INSERT INTO orders (id, status) VALUES (60, 'open')").isSuccess());
+
+        String[] queries = {
+            "SELECT status, COUNT(*), SUM(price), MIN(price) FROM orders WHERE id >= 10 GROUP BY status",
+            "SELECT COUNT(*), AVG(price) FROM orders WHERE status = 'open' AND price > 20",
+            "SELECT id, price FROM orders WHERE price <= 10.5 ORDER BY id DESC LIMIT 3",
+            "SELECT status FROM orders GROUP BY status HAVING COUNT(*) > 30",
+            "SELECT id FROM orders WHERE price != 5.5 ORDER BY id",
+            "SELECT id FROM orders WHERE price > 4 AND id > 50 ORDER BY id"
+        };
+        List<List<Map<String, Object>>> vectorized = new ArrayList<>();
+        for (String query : queries) {
+            vectorized.add(engine.executeSQL(query).getData());
+        }
+        engine.setVectorizedExecution(false);
+        for (int i = 0; i < queries.length; i++) {
+            Assertions.assertEquals(engine.executeSQL(queries[i]).getData(), vectorized.get(i), queries[i]);
+        }
+        Assertions.assertEquals("34", vectorized.get(0).get(0).get("COUNT(*)"));
+        Assertions.assertEquals(3, vectorized.get(2).size());
+        Assertions.assertEquals(1, vectorized.get(3).size());
+        Assertions.assertEquals("60", vectorized.get(4).get(vectorized.get(4).size() - 1).get("id"),
+            "NULL按\"NULL\"比较，与逐行执行一样满足!=和>");
+        Assertions.assertEquals("60", vectorized.get(5).get(vectorized.get(5).size() - 1).get("id"));
+        engine.shutdown();
+    }
+}